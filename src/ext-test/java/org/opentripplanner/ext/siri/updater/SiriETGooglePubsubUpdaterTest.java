@@ -0,0 +1,61 @@
+package org.opentripplanner.ext.siri.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import uk.org.siri.siri20.DataFrameRefStructure;
+import uk.org.siri.siri20.DatedVehicleJourneyRef;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.FramedVehicleJourneyRefStructure;
+
+class SiriETGooglePubsubUpdaterTest {
+
+  @Test
+  void tripKeyOfCompleteStopSequence() {
+    var key = SiriETGooglePubsubUpdater.tripKey(journey("T1", true));
+
+    assertEquals(key, SiriETGooglePubsubUpdater.tripKey(journey("T1", true)));
+    assertNotEquals(key, SiriETGooglePubsubUpdater.tripKey(journey("T2", true)));
+  }
+
+  @Test
+  void tripKeyOfFramedJourney() {
+    var key = SiriETGooglePubsubUpdater.tripKey(framedJourney("T1", "2024-01-01"));
+
+    assertEquals(key, SiriETGooglePubsubUpdater.tripKey(framedJourney("T1", "2024-01-01")));
+    assertNotEquals(key, SiriETGooglePubsubUpdater.tripKey(framedJourney("T1", "2024-01-02")));
+  }
+
+  /**
+   * An update of some of the stops keeps the delays of the earlier updates for the stops before
+   * its first call, so it is never coalesced.
+   */
+  @Test
+  void noTripKeyWithoutCompleteStopSequence() {
+    assertNull(SiriETGooglePubsubUpdater.tripKey(journey("T1", false)));
+    assertNull(SiriETGooglePubsubUpdater.tripKey(journey("T1", null)));
+  }
+
+  private static EstimatedVehicleJourney journey(String tripId, Boolean completeStopSequence) {
+    var ref = new DatedVehicleJourneyRef();
+    ref.setValue(tripId);
+    var journey = new EstimatedVehicleJourney();
+    journey.setDatedVehicleJourneyRef(ref);
+    journey.setIsCompleteStopSequence(completeStopSequence);
+    return journey;
+  }
+
+  private static EstimatedVehicleJourney framedJourney(String tripId, String date) {
+    var dataFrameRef = new DataFrameRefStructure();
+    dataFrameRef.setValue(date);
+    var framed = new FramedVehicleJourneyRefStructure();
+    framed.setDatedVehicleJourneyRef(tripId);
+    framed.setDataFrameRef(dataFrameRef);
+    var journey = new EstimatedVehicleJourney();
+    journey.setFramedVehicleJourneyRef(framed);
+    journey.setIsCompleteStopSequence(true);
+    return journey;
+  }
+}
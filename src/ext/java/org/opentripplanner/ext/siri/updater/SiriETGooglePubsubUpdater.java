@@ -13,6 +13,7 @@ import com.google.pubsub.v1.ProjectTopicName;
 import com.google.pubsub.v1.PubsubMessage;
 import com.google.pubsub.v1.PushConfig;
 import com.google.pubsub.v1.Subscription;
+import io.micrometer.core.instrument.Metrics;
 import java.io.IOException;
 import java.net.URI;
 import java.time.Duration;
@@ -22,7 +23,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.entur.protobuf.mapper.SiriMapper;
 import org.opentripplanner.ext.siri.EntityResolver;
 import org.opentripplanner.ext.siri.SiriFuzzyTripMatcher;
@@ -37,12 +38,15 @@ import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.transit.service.TransitService;
 import org.opentripplanner.updater.spi.GraphUpdater;
-import org.opentripplanner.updater.spi.UpdateResult;
+import org.opentripplanner.updater.spi.GraphWriterPriority;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.opentripplanner.updater.trip.CoalescingTripUpdateBuffer;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.org.siri.siri20.EstimatedTimetableDeliveryStructure;
+import uk.org.siri.siri20.EstimatedVehicleJourney;
+import uk.org.siri.siri20.EstimatedVersionFrameStructure;
 import uk.org.siri.siri20.Siri;
 import uk.org.siri.www.siri.SiriType;
 
@@ -59,6 +63,10 @@ import uk.org.siri.www.siri.SiriType;
  * Startup-flow: 1. Create subscription to topic. Subscription will receive all updates after
  * creation. 2. Fetch current data to initialize state. 3. Flag updater as initialized 3. Start
  * receiving updates from Pubsub-subscription
+ * <p>
+ * The EstimatedVehicleJourneys are coalesced per trip and service date in a
+ * {@link CoalescingTripUpdateBuffer}, so only the latest update of a trip is applied if the graph
+ * writer is busy.
  *
  *
  * <pre>
@@ -108,7 +116,7 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
   private final SiriTimetableSnapshotSource snapshotSource;
   private final SiriFuzzyTripMatcher fuzzyTripMatcher;
   private final Instant startTime = Instant.now();
-  private final Consumer<UpdateResult> recordMetrics;
+  private final CoalescingTripUpdateBuffer<EstimatedVehicleJourney> updateBuffer;
   private final EntityResolver entityResolver;
 
   private final OtpRetry retry;
@@ -153,7 +161,23 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
     this.entityResolver = new EntityResolver(transitService, feedId);
     this.fuzzyTripMatcher =
       config.fuzzyTripMatching() ? SiriFuzzyTripMatcher.of(transitService) : null;
-    recordMetrics = TripUpdateMetrics.streaming(config);
+    var recordMetrics = TripUpdateMetrics.streaming(config);
+    this.updateBuffer =
+      new CoalescingTripUpdateBuffer<>(
+        config,
+        Metrics.globalRegistry,
+        SiriETGooglePubsubUpdater::tripKey,
+        (fullDataset, journeys) ->
+          recordMetrics.accept(
+            snapshotSource.applyEstimatedTimetable(
+              fuzzyTripMatcher,
+              entityResolver,
+              feedId,
+              fullDataset,
+              List.of(toDelivery(journeys))
+            )
+          )
+      );
 
     addShutdownHook();
     retry =
@@ -170,6 +194,11 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.HIGH;
+  }
+
   @Override
   public void run() {
     try {
@@ -366,17 +395,15 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
         );
       }
 
-      var f = saveResultOnGraph.execute((graph, transitModel) -> {
-        var results = snapshotSource.applyEstimatedTimetable(
-          fuzzyTripMatcher,
-          entityResolver,
-          feedId,
-          false,
-          estimatedTimetableDeliveries
-        );
-
-        recordMetrics.accept(results);
-      });
+      var f = updateBuffer.add(
+        saveResultOnGraph,
+        false,
+        estimatedTimetableDeliveries
+          .stream()
+          .flatMap(it -> it.getEstimatedJourneyVersionFrames().stream())
+          .flatMap(it -> it.getEstimatedVehicleJourneies().stream())
+          .toList()
+      );
 
       if (!isPrimed()) {
         try {
@@ -391,6 +418,61 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
     }
   }
 
+  /**
+   * Return the dated vehicle journey of the update, or the vehicle journey and the date if it is
+   * framed. An added trip without these is identified by its EstimatedVehicleJourneyCode. Return
+   * {@code null} if the update has none of these, it is then never coalesced.
+   * <p>
+   * Only an update with the complete stop sequence replaces all the realtime data of the trip. An
+   * update of some of the stops keeps the realtime delays of the stops before its first call, set
+   * by the earlier updates. So an update without the complete stop sequence must not be dropped,
+   * and {@code null} is returned.
+   */
+  @Nullable
+  static TripKey tripKey(EstimatedVehicleJourney journey) {
+    if (!Boolean.TRUE.equals(journey.isIsCompleteStopSequence())) {
+      return null;
+    }
+    var framed = journey.getFramedVehicleJourneyRef();
+    if (
+      framed != null &&
+      framed.getDatedVehicleJourneyRef() != null &&
+      framed.getDataFrameRef() != null
+    ) {
+      return new TripKey(
+        framed.getDatedVehicleJourneyRef(),
+        framed.getDataFrameRef().getValue(),
+        null
+      );
+    }
+    if (journey.getDatedVehicleJourneyRef() != null) {
+      return new TripKey(journey.getDatedVehicleJourneyRef().getValue(), null, null);
+    }
+    if (journey.getEstimatedVehicleJourneyCode() != null) {
+      return new TripKey(null, null, journey.getEstimatedVehicleJourneyCode());
+    }
+    return null;
+  }
+
+  /**
+   * Identifies the trip of an update, the fields not used to identify it are {@code null}.
+   */
+  record TripKey(
+    @Nullable String vehicleJourneyRef,
+    @Nullable String dataFrameRef,
+    @Nullable String estimatedVehicleJourneyCode
+  ) {}
+
+  private static EstimatedTimetableDeliveryStructure toDelivery(
+    List<EstimatedVehicleJourney> journeys
+  ) {
+    var frame = new EstimatedVersionFrameStructure();
+    frame.getEstimatedVehicleJourneies().addAll(journeys);
+    var delivery = new EstimatedTimetableDeliveryStructure();
+    delivery.getEstimatedJourneyVersionFrames().add(frame);
+    return delivery;
+  }
+
   class EstimatedTimetableMessageReceiver implements MessageReceiver {
 
     @Override
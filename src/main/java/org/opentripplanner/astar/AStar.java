@@ -8,8 +8,10 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import org.opentripplanner.astar.model.BinHeap;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.SearchQueue;
+import org.opentripplanner.astar.model.SearchQueueType;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -48,7 +50,7 @@ public class AStar<
   private final Duration timeout;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
-  private final BinHeap<State> pq;
+  private final SearchQueue<State> pq;
   private final List<State> targetAcceptedStates;
 
   private State u;
@@ -64,7 +66,8 @@ public class AStar<
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
     @Nonnull Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    SearchQueueType queueType
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -78,7 +81,7 @@ public class AStar<
     this.spt = new ShortestPathTree<>(dominanceFunction);
 
     // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.pq = queueType.create(1000);
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
@@ -104,6 +107,36 @@ public class AStar<
       .collect(Collectors.toList());
   }
 
+  /**
+   * Settle the next state in the queue and return it, or return {@code null} if the state has
+   * been dominated since it was added to the queue. This is used by {@link BidirectionalAStar} to
+   * run the search one step at a time.
+   */
+  @Nullable
+  State step() {
+    return iterate() ? u : null;
+  }
+
+  boolean isQueueEmpty() {
+    return pq.empty();
+  }
+
+  int queueSize() {
+    return pq.size();
+  }
+
+  double minQueueKey() {
+    return pq.peek_min_key();
+  }
+
+  ShortestPathTree<State, Edge, Vertex> spt() {
+    return spt;
+  }
+
+  int nVisited() {
+    return nVisited;
+  }
+
   private boolean iterate() {
     // print debug info
     if (verbose) {
@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.SearchQueueType;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -36,6 +37,8 @@ public abstract class AStarBuilder<
   private DominanceFunction<State> dominanceFunction;
   private Edge originBackEdge;
   private Collection<State> initialStates;
+  private SearchQueueType queueType = SearchQueueType.BINARY_HEAP;
+  private RemainingWeightHeuristic<State> reverseHeuristic;
 
   protected AStarBuilder() {}
 
@@ -63,10 +66,6 @@ public abstract class AStarBuilder<
     return builder;
   }
 
-  protected boolean arriveBy() {
-    return arriveBy;
-  }
-
   public Builder setFrom(Set<Vertex> fromVertices) {
     this.fromVertices = fromVertices;
     return builder;
@@ -111,11 +110,32 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /** The priority queue implementation used by the search, the default is the binary heap. */
+  public Builder setQueueType(SearchQueueType queueType) {
+    this.queueType = queueType;
+    return builder;
+  }
+
+  /**
+   * Search from the destination at the same time as from the origin, see
+   * {@link BidirectionalAStar}. The given heuristic is used by the search from the destination, and
+   * must be a different instance than the one set with {@link #setHeuristic}. This is only used by
+   * {@link #getPathsToTarget()}, and not together with the initial states, the origin back edge
+   * or the termination strategy.
+   */
+  public Builder setBidirectional(RemainingWeightHeuristic<State> reverseHeuristic) {
+    this.reverseHeuristic = reverseHeuristic;
+    return builder;
+  }
+
   public ShortestPathTree<State, Edge, Vertex> getShortestPathTree() {
     return build().getShortestPathTree();
   }
 
   public List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
+    if (reverseHeuristic != null) {
+      return buildBidirectional().getPathsToTarget();
+    }
     return build().getPathsToTarget();
   }
 
@@ -128,7 +148,7 @@ public abstract class AStarBuilder<
     if (this.initialStates != null) {
       initialStates = this.initialStates;
     } else {
-      initialStates = createInitialStates(origin);
+      initialStates = createInitialStates(origin, arriveBy);
 
       if (originBackEdge != null) {
         for (var state : initialStates) {
@@ -150,11 +170,44 @@ public abstract class AStarBuilder<
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      queueType
+    );
+  }
+
+  private BidirectionalAStar<State, Edge, Vertex> buildBidirectional() {
+    final Set<Vertex> origin = arriveBy ? toVertices : fromVertices;
+    final Set<Vertex> destination = arriveBy ? fromVertices : toVertices;
+
+    Collection<State> reverseInitialStates = createInitialStates(destination, !arriveBy);
+    prepareInitialStates(reverseInitialStates);
+    initializeHeuristic(reverseHeuristic, destination, origin, !arriveBy);
+
+    var reverse = new AStar<>(
+      reverseHeuristic,
+      skipEdgeStrategy,
+      traverseVisitor,
+      !arriveBy,
+      destination,
+      origin,
+      null,
+      Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
+      streetRoutingTimeout(),
+      reverseInitialStates,
+      queueType
     );
+    return new BidirectionalAStar<>(build(), reverse, skipEdgeStrategy, streetRoutingTimeout());
   }
 
-  protected abstract Collection<State> createInitialStates(Set<Vertex> originVertices);
+  /**
+   * Create the initial states at the origin vertices. The {@code arriveBy} flag is given, since
+   * the reverse part of a bidirectional search starts from the destination in the opposite
+   * direction.
+   */
+  protected abstract Collection<State> createInitialStates(
+    Set<Vertex> originVertices,
+    boolean arriveBy
+  );
 
   protected abstract void prepareInitialStates(Collection<State> initialStates);
 
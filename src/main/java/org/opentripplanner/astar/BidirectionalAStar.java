@@ -0,0 +1,150 @@
+package org.opentripplanner.astar;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Find the shortest path between two sets of vertices by running two A* searches, one from the
+ * origin in the requested direction and one from the destination in the opposite direction, until
+ * they meet in the middle. For long trips this visits far fewer states than a single search.
+ * <p>
+ * Each time a state is settled in one search, it is joined with the states at the same vertex in
+ * the other search. The edges of the other search are traversed again from the settled state, in
+ * the requested direction, so the resulting path has the same states as a path found by a single
+ * search. This makes sure the turn costs and turn restrictions at the meeting vertex, and the
+ * times, are correct. Joins which are not traversable or do not end in a final state are ignored.
+ * <p>
+ * The search stops when the lowest key in one of the queues is not lower than the weight of the
+ * best path found. With a consistent heuristic, no better path can be found after this. Since
+ * both searches start with their own initial states, the mode of the states must not change in a
+ * way that depends on the direction, like renting a vehicle. The caller is responsible for only
+ * using this search for such modes.
+ */
+class BidirectionalAStar<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BidirectionalAStar.class);
+
+  /** The search from the origin in the requested direction. */
+  private final AStar<State, Edge, Vertex> forward;
+
+  /** The search from the destination in the opposite direction. */
+  private final AStar<State, Edge, Vertex> reverse;
+
+  private final SkipEdgeStrategy<State, Edge> skipEdgeStrategy;
+  private final Duration timeout;
+
+  private State bestState = null;
+  private double bestWeight = Double.POSITIVE_INFINITY;
+
+  BidirectionalAStar(
+    AStar<State, Edge, Vertex> forward,
+    AStar<State, Edge, Vertex> reverse,
+    @Nullable SkipEdgeStrategy<State, Edge> skipEdgeStrategy,
+    @Nonnull Duration timeout
+  ) {
+    this.forward = forward;
+    this.reverse = reverse;
+    this.skipEdgeStrategy = skipEdgeStrategy;
+    this.timeout = Objects.requireNonNull(timeout);
+  }
+
+  List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
+    runSearch();
+
+    return bestState == null ? List.of() : List.of(new GraphPath<>(bestState));
+  }
+
+  private void runSearch() {
+    OTPRequestTimeoutException.checkForTimeout();
+    long abortTime = DateUtils.absoluteTimeout(timeout);
+    int nIterations = 0;
+
+    while (!forward.isQueueEmpty() && !reverse.isQueueEmpty()) {
+      if (nIterations++ % 100 == 0 && System.currentTimeMillis() > abortTime) {
+        LOG.warn("Bidirectional search timeout.");
+        forward.spt().setAborted();
+        break;
+      }
+
+      if (forward.minQueueKey() >= bestWeight || reverse.minQueueKey() >= bestWeight) {
+        break;
+      }
+
+      // Expand the search with the smallest queue, this keeps the two searches balanced
+      if (forward.queueSize() <= reverse.queueSize()) {
+        State u = forward.step();
+        if (u != null) {
+          for (State v : statesAt(reverse, u.getVertex())) {
+            join(u, v);
+          }
+        }
+      } else {
+        State v = reverse.step();
+        if (v != null) {
+          for (State u : statesAt(forward, v.getVertex())) {
+            join(u, v);
+          }
+        }
+      }
+    }
+    LOG.debug(
+      "Bidirectional search visited {} + {} states",
+      forward.nVisited(),
+      reverse.nVisited()
+    );
+  }
+
+  /**
+   * Continue the forward state {@code u} along the path of the reverse state {@code v}, which is
+   * at the same vertex, and keep the result if it is the best path found so far.
+   */
+  private void join(State u, State v) {
+    State s = u;
+    for (State it = v; it.getBackState() != null; it = it.getBackState()) {
+      Edge edge = it.getBackEdge();
+      if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(s, edge)) {
+        return;
+      }
+      s = bestOf(edge.traverse(s));
+      if (s == null || s.getWeight() >= bestWeight) {
+        return;
+      }
+    }
+    if (s.isFinal() && s.getWeight() < bestWeight) {
+      bestState = s;
+      bestWeight = s.getWeight();
+    }
+  }
+
+  private List<State> statesAt(AStar<State, Edge, Vertex> search, Vertex vertex) {
+    List<State> states = search.spt().getStates(vertex);
+    return states == null ? List.of() : states;
+  }
+
+  @Nullable
+  private State bestOf(State[] states) {
+    State best = null;
+    for (State s : states) {
+      if (best == null || s.getWeight() < best.getWeight()) {
+        best = s;
+      }
+    }
+    return best;
+  }
+}
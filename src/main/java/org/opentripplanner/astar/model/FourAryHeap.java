@@ -0,0 +1,139 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Arrays;
+
+/**
+ * A 4-ary min-heap with {@code double} keys. Compared with a binary heap, the tree is half as
+ * deep, so an insert does half the number of moves. An extract does more comparisons on each
+ * level, but the four children are next to each other in the key array, and usually in the same
+ * cache line. Since the A* search does about as many inserts as extracts, this is a good
+ * trade-off for large searches.
+ * <p>
+ * Elements and keys are stored in two parallel 0-based arrays, the children of the node at
+ * index {@code i} are at {@code 4i+1 .. 4i+4}. The arrays grow by doubling, elements are not
+ * boxed or wrapped, so no objects are allocated as long as the capacity is not exceeded.
+ */
+public class FourAryHeap<T> implements SearchQueue<T> {
+
+  private static final int ARITY = 4;
+  private static final int MIN_CAPACITY = 16;
+
+  private double[] prio;
+  private T[] elem;
+  private int size = 0;
+
+  public FourAryHeap() {
+    this(1000);
+  }
+
+  @SuppressWarnings("unchecked")
+  public FourAryHeap(int capacity) {
+    capacity = Math.max(capacity, MIN_CAPACITY);
+    this.prio = new double[capacity];
+    this.elem = (T[]) new Object[capacity];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean empty() {
+    return size <= 0;
+  }
+
+  @Override
+  public double peek_min_key() {
+    if (size <= 0) {
+      throw new IllegalStateException("An empty queue does not have a minimum key.");
+    }
+    return prio[0];
+  }
+
+  @Override
+  public T peek_min() {
+    return size > 0 ? elem[0] : null;
+  }
+
+  @Override
+  public void insert(T e, double p) {
+    if (size == elem.length) {
+      grow();
+    }
+    int i = size++;
+
+    // Sift up, moving parents with a greater key down
+    while (i > 0) {
+      int parent = (i - 1) / ARITY;
+      if (prio[parent] <= p) {
+        break;
+      }
+      elem[i] = elem[parent];
+      prio[i] = prio[parent];
+      i = parent;
+    }
+    elem[i] = e;
+    prio[i] = p;
+  }
+
+  @Override
+  public T extract_min() {
+    if (size <= 0) {
+      return null;
+    }
+    T minElem = elem[0];
+    --size;
+    T lastElem = elem[size];
+    double lastPrio = prio[size];
+    // Release the reference, so the element can be garbage collected
+    elem[size] = null;
+
+    if (size > 0) {
+      siftDown(lastElem, lastPrio);
+    }
+    return minElem;
+  }
+
+  @Override
+  public void reset() {
+    Arrays.fill(elem, 0, size, null);
+    size = 0;
+  }
+
+  /**
+   * Place the given element, taken from the end of the heap, starting at the root and moving the
+   * smallest child up until the right position is found.
+   */
+  private void siftDown(T e, double p) {
+    int i = 0;
+    int firstChild;
+
+    while ((firstChild = ARITY * i + 1) < size) {
+      int lastChild = Math.min(firstChild + ARITY, size);
+      int minChild = firstChild;
+      double minPrio = prio[firstChild];
+
+      for (int c = firstChild + 1; c < lastChild; ++c) {
+        if (prio[c] < minPrio) {
+          minPrio = prio[c];
+          minChild = c;
+        }
+      }
+      if (p <= minPrio) {
+        break;
+      }
+      elem[i] = elem[minChild];
+      prio[i] = minPrio;
+      i = minChild;
+    }
+    elem[i] = e;
+    prio[i] = p;
+  }
+
+  private void grow() {
+    int capacity = elem.length * 2;
+    prio = Arrays.copyOf(prio, capacity);
+    elem = Arrays.copyOf(elem, capacity);
+  }
+}
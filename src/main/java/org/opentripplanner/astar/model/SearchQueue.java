@@ -0,0 +1,30 @@
+package org.opentripplanner.astar.model;
+
+/**
+ * The priority queue used by the A* search. The element with the lowest key is extracted first.
+ * The order of elements with the same key is not defined. Implementations keep elements and keys
+ * in arrays, so no objects are allocated for each insert.
+ *
+ * @see SearchQueueType
+ */
+public interface SearchQueue<T> {
+  int size();
+
+  boolean empty();
+
+  /**
+   * @throws IllegalStateException if the queue is empty.
+   */
+  double peek_min_key();
+
+  /** Return the element with the lowest key, or {@code null} if the queue is empty. */
+  T peek_min();
+
+  void insert(T e, double p);
+
+  /** Remove and return the element with the lowest key, or {@code null} if the queue is empty. */
+  T extract_min();
+
+  /** Empty the queue, the allocated capacity is kept. */
+  void reset();
+}
@@ -0,0 +1,22 @@
+package org.opentripplanner.astar.model;
+
+/**
+ * The available {@link SearchQueue} implementations.
+ */
+public enum SearchQueueType {
+  /** The classic binary heap, see {@link BinHeap}. */
+  BINARY_HEAP,
+  /**
+   * A 4-ary heap, see {@link FourAryHeap}. The heap is shallower and the children of a node are
+   * next to each other in memory, so it has fewer cache misses than the binary heap in large
+   * searches. The street searches use it if the {@code AStarFourAryHeap} feature is enabled.
+   */
+  FOUR_ARY_HEAP;
+
+  public <T> SearchQueue<T> create(int initialCapacity) {
+    return switch (this) {
+      case BINARY_HEAP -> new BinHeap<>(initialCapacity);
+      case FOUR_ARY_HEAP -> new FourAryHeap<>(initialCapacity);
+    };
+  }
+}
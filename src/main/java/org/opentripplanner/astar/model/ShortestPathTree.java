@@ -9,7 +9,6 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -33,6 +32,10 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * The states are kept in a map keyed by the dense vertex index, see {@link VertexMap}. Most
+ * vertices only have one state, so a single state is stored directly in the map; a list is only
+ * created when a vertex has more than one co-dominant state.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -44,7 +47,14 @@ public class ShortestPathTree<
 
   public final DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  /**
+   * The initial size of the state map, the map grows if needed. Large enough for a typical
+   * access/egress search, and small enough to be cheap for the many short searches.
+   */
+  private static final int INITIAL_NUMBER_OF_VERTICES = 4_000;
+
+  /** The value is either a single state or a {@link StateList}. */
+  private final VertexMap<Vertex, Object> stateSets;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
@@ -52,7 +62,7 @@ public class ShortestPathTree<
   public ShortestPathTree(DominanceFunction<State> dominanceFunction) {
     this.dominanceFunction = dominanceFunction;
     // Initialized with a reasonable size, see #4445
-    stateSets = new IdentityHashMap<>(10_000);
+    stateSets = new VertexMap<>(INITIAL_NUMBER_OF_VERTICES);
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -83,26 +93,23 @@ public class ShortestPathTree<
   /** Print out a summary of the number of states and vertices. */
   public void dump() {
     Multiset<Integer> histogram = HashMultiset.create();
-    int statesCount = 0;
-    int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
-      int size = states.size();
+    int[] statesCount = { 0 };
+    int[] maxSize = { 0 };
+    stateSets.forEach((vertex, value) -> {
+      int size = value instanceof StateList<?> list ? list.size() : 1;
       histogram.add(size);
-      statesCount += size;
-      if (size > maxSize) {
-        maxSize = size;
-      }
-    }
+      statesCount[0] += size;
+      maxSize[0] = Math.max(maxSize[0], size);
+    });
     LOG.info(
       "SPT: vertices: " +
       stateSets.size() +
       " states: total: " +
-      statesCount +
+      statesCount[0] +
       " per vertex max: " +
-      maxSize +
+      maxSize[0] +
       " avg: " +
-      (statesCount * 1.0 / stateSets.size())
+      (statesCount[0] * 1.0 / stateSets.size())
     );
     List<Integer> nStates = new ArrayList<>(histogram.elementSet());
     Collections.sort(nStates);
@@ -112,7 +119,9 @@ public class ShortestPathTree<
   }
 
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    Set<Vertex> vertices = Collections.newSetFromMap(new IdentityHashMap<>(stateSets.size()));
+    stateSets.forEach((vertex, value) -> vertices.add(vertex));
+    return vertices;
   }
 
   /**
@@ -127,33 +136,35 @@ public class ShortestPathTree<
    */
   public boolean add(State newState) {
     Vertex vertex = newState.getVertex();
-    List<State> states = stateSets.get(vertex);
+    Object value = stateSets.get(vertex);
 
     // if the vertex has no states, add one and return
-    if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
-      states.add(newState);
+    if (value == null) {
+      stateSets.put(vertex, newState);
       return true;
     }
 
-    // if the vertex has any states that dominate the new state, don't add the state
-    // if the new state dominates any old states, remove them
-    Iterator<State> it = states.iterator();
-    while (it.hasNext()) {
-      State oldState = it.next();
-      // order is important, because in the case of a tie
-      // we want to reject the new state
-      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
-        return false;
-      }
-      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
-        it.remove();
-      }
+    if (value instanceof StateList<?>) {
+      @SuppressWarnings("unchecked")
+      var states = (StateList<State>) value;
+      return addToList(vertex, states, newState);
     }
 
-    // any states remaining are co-dominant with the new state
-    states.add(newState);
+    @SuppressWarnings("unchecked")
+    State oldState = (State) value;
+
+    // order is important, because in the case of a tie we want to reject the new state
+    if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+      return false;
+    }
+    if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+      stateSets.put(vertex, newState);
+    } else {
+      var states = new StateList<State>();
+      states.add(oldState);
+      states.add(newState);
+      stateSets.put(vertex, states);
+    }
     return true;
   }
 
@@ -164,7 +175,7 @@ public class ShortestPathTree<
    * @return a 'best' state at that vertex
    */
   public State getState(Vertex dest) {
-    Collection<State> states = stateSets.get(dest);
+    Collection<State> states = getStates(dest);
     if (states == null) {
       return null;
     }
@@ -187,13 +198,18 @@ public class ShortestPathTree<
    * @param dest the vertex of interest
    * @return a collection of 'interesting' states at that vertex
    */
+  @SuppressWarnings("unchecked")
   public List<State> getStates(Vertex dest) {
-    return stateSets.get(dest);
+    Object value = stateSets.get(dest);
+    if (value == null || value instanceof StateList<?>) {
+      return (List<State>) value;
+    }
+    return List.of((State) value);
   }
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    return stateSets.size();
   }
 
   /**
@@ -221,22 +237,29 @@ public class ShortestPathTree<
    * @return - whether this state is still considered worth visiting.
    */
   public boolean visit(State state) {
-    boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
-      if (s == state) {
-        ret = true;
-        break;
+    Object value = stateSets.get(state.getVertex());
+    if (value instanceof StateList<?> states) {
+      for (Object s : states) {
+        if (s == state) {
+          return true;
+        }
       }
+      return false;
     }
-    return ret;
+    return value == state;
   }
 
   /** @return every state in this tree */
+  @SuppressWarnings("unchecked")
   public Collection<State> getAllStates() {
-    ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
-      allStates.addAll(stateSet);
-    }
+    ArrayList<State> allStates = new ArrayList<>(stateSets.size());
+    stateSets.forEach((vertex, value) -> {
+      if (value instanceof StateList<?> states) {
+        allStates.addAll((StateList<State>) states);
+      } else {
+        allStates.add((State) value);
+      }
+    });
     return allStates;
   }
 
@@ -247,4 +270,42 @@ public class ShortestPathTree<
   public String toString() {
     return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
   }
+
+  /**
+   * If the vertex has any states that dominate the new state, don't add the state. If the new
+   * state dominates any old states, remove them. If only one state is left, it is stored directly
+   * in the map.
+   */
+  private boolean addToList(Vertex vertex, StateList<State> states, State newState) {
+    Iterator<State> it = states.iterator();
+    while (it.hasNext()) {
+      State oldState = it.next();
+      // order is important, because in the case of a tie we want to reject the new state
+      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+        return false;
+      }
+      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+        it.remove();
+      }
+    }
+
+    // any states remaining are co-dominant with the new state
+    if (states.isEmpty()) {
+      stateSets.put(vertex, newState);
+    } else {
+      states.add(newState);
+    }
+    return true;
+  }
+
+  /**
+   * The co-dominant states at a vertex, a separate type is used to distinguish the list from a
+   * single state in the state map.
+   */
+  private static final class StateList<S> extends ArrayList<S> {
+
+    private StateList() {
+      super(4);
+    }
+  }
 }
@@ -0,0 +1,112 @@
+package org.opentripplanner.astar.model;
+
+import java.util.function.BiConsumer;
+import org.opentripplanner.astar.spi.AStarVertex;
+
+/**
+ * A map from vertex to value, using open addressing with linear probing. The dense vertex index
+ * is used as hash code, so there is no boxing and no entry object allocated for each vertex.
+ * Vertices are compared by identity; temporary vertices without an index fall back to the
+ * identity hash code.
+ * <p>
+ * The map only grows, removing entries is not supported. The map is not thread-safe.
+ */
+final class VertexMap<V extends AStarVertex<?, ?, ?>, T> {
+
+  private static final int MIN_CAPACITY = 16;
+
+  private V[] keys;
+  private T[] values;
+  private int mask;
+  private int size = 0;
+
+  VertexMap(int expectedSize) {
+    init(capacityFor(expectedSize));
+  }
+
+  T get(V vertex) {
+    int i = slot(vertex);
+    V key;
+    while ((key = keys[i]) != null) {
+      if (key == vertex) {
+        return values[i];
+      }
+      i = (i + 1) & mask;
+    }
+    return null;
+  }
+
+  void put(V vertex, T value) {
+    int i = slot(vertex);
+    V key;
+    while ((key = keys[i]) != null) {
+      if (key == vertex) {
+        values[i] = value;
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = vertex;
+    values[i] = value;
+    ++size;
+
+    // Keep the load factor at or below 0.5, so the probe sequences stay short
+    if (2 * size > keys.length) {
+      grow();
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  void forEach(BiConsumer<V, T> body) {
+    for (int i = 0; i < keys.length; ++i) {
+      if (keys[i] != null) {
+        body.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  /** The number of slots, used in tests. */
+  int capacity() {
+    return keys.length;
+  }
+
+  @Override
+  public String toString() {
+    return "VertexMap{size: " + size + ", capacity: " + keys.length + "}";
+  }
+
+  /* private methods */
+
+  private int slot(V vertex) {
+    int index = vertex.getIndex();
+    int h = (index < 0 ? System.identityHashCode(vertex) : index) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private void grow() {
+    V[] oldKeys = keys;
+    T[] oldValues = values;
+    init(oldKeys.length * 2);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; ++i) {
+      if (oldKeys[i] != null) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void init(int capacity) {
+    this.keys = (V[]) new AStarVertex<?, ?, ?>[capacity];
+    this.values = (T[]) new Object[capacity];
+    this.mask = capacity - 1;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    int minCapacity = Math.max(MIN_CAPACITY, 2 * expectedSize);
+    return Integer.highestOneBit(minCapacity - 1) << 1;
+  }
+}
@@ -16,4 +16,11 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A dense index, unique within the graph the vertex is part of. Used by the search to keep the
+   * states by vertex without hashing. Negative if the vertex is not part of a graph, e.g. a
+   * temporary vertex.
+   */
+  int getIndex();
 }
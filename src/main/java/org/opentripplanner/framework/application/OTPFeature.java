@@ -17,6 +17,24 @@ public enum OTPFeature {
   APIBikeRental(true, false, "Enable the bike rental endpoint."),
   APIServerInfo(true, false, "Enable the server info endpoint."),
   APIUpdaterStatus(true, false, "Enable endpoint for graph updaters status."),
+  AStarFourAryHeap(
+    false,
+    false,
+    "Use a 4-ary heap instead of a binary heap as the priority queue of the street searches. " +
+    "Paths with the same weight may be returned in another order."
+  ),
+  AccessEgressCache(
+    false,
+    false,
+    "Cache the access and egress street search results for walking and cycling, and reuse them " +
+    "for requests from or to the same place."
+  ),
+  CarTurnGraph(
+    false,
+    false,
+    "Create an edge-based copy of the car network with the turn restrictions when the server " +
+    "starts, and use it for direct car searches. Requires `StreetGraphSnapshot`."
+  ),
   ConsiderPatternsForDirectTransfers(
     true,
     false,
@@ -61,6 +79,19 @@ public enum OTPFeature {
   ),
 
   ParallelRouting(false, false, "Enable performing parts of the trip planning in parallel."),
+  StreetEdgeCostCache(
+    false,
+    false,
+    "Cache the traversal cost of the street edges for the most used street preferences. Requires " +
+    "`StreetGraphSnapshot`. This uses up to 16 bytes per street edge and mode for each cached set " +
+    "of preferences."
+  ),
+  StreetGraphSnapshot(
+    false,
+    false,
+    "Create a compact read-only copy of the street network when the server starts. This uses " +
+    "more memory, but makes walk-only street searches faster."
+  ),
   TransferConstraints(
     true,
     false,
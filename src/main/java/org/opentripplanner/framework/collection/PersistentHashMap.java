@@ -0,0 +1,384 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash map, where a changed copy shares most of its structure with the original. The
+ * map is a hash array mapped trie: each level of the trie uses 5 bits of the key hash, and only the
+ * nodes on the path to the changed key are copied. So {@link #with(Object, Object)} and
+ * {@link #without(Object)} cost {@code O(log32 n)} in time and memory, not {@code O(n)} like
+ * copying a {@link java.util.HashMap}.
+ * <p>
+ * Use this when a map is copied often and only a few keys change between the copies, like the
+ * realtime timetables in the {@link org.opentripplanner.model.TimetableSnapshot}. An old version
+ * of the map is never changed, so it can be shared with other threads without locking.
+ * <p>
+ * The map implements the read-only part of {@link java.util.Map}. Null keys are not allowed.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final Object NOT_FOUND = new Object();
+
+  private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(
+    new BitmapNode(0, new Object[0]),
+    0
+  );
+
+  private final Node root;
+  private final int size;
+
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> of() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && root.find(hash(key), key, 0) != NOT_FOUND;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (key == null) {
+      return null;
+    }
+    Object value = root.find(hash(key), key, 0);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  /**
+   * Return a map with the key set to the value. This map is not changed.
+   */
+  public PersistentHashMap<K, V> with(K key, V value) {
+    Objects.requireNonNull(key);
+    boolean[] added = new boolean[1];
+    Node newRoot = root.put(hash(key), key, value, 0, added);
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Return a map without the key. This map is not changed.
+   */
+  public PersistentHashMap<K, V> without(Object key) {
+    if (key == null) {
+      return this;
+    }
+    Node newRoot = root.remove(hash(key), key, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return size == 1 ? of() : new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /* private methods */
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * A node keeps its entries in one array, as key-value pairs. If the key is {@code null}, the
+   * value is a child node.
+   */
+  private abstract static class Node {
+
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    /** Return the value of the key, or {@link #NOT_FOUND}. */
+    abstract Object find(int hash, Object key, int shift);
+
+    /** Return this node if nothing is changed. */
+    abstract Node put(int hash, Object key, Object value, int shift, boolean[] added);
+
+    /** Return this node if the key is not found, and {@code null} if the node becomes empty. */
+    abstract Node remove(int hash, Object key, int shift);
+
+    /** A node with a single entry is merged into its parent. */
+    boolean isSingleEntry() {
+      return array.length == 2 && array[0] != null;
+    }
+  }
+
+  private static final class BitmapNode extends Node {
+
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    @Override
+    Object find(int hash, Object key, int shift) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int i = index(bit);
+      Object k = array[i];
+      if (k == null) {
+        return ((Node) array[i + 1]).find(hash, key, shift + BITS);
+      }
+      return key.equals(k) ? array[i + 1] : NOT_FOUND;
+    }
+
+    @Override
+    Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+      int bit = bit(hash, shift);
+      int i = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        Object[] a = new Object[array.length + 2];
+        System.arraycopy(array, 0, a, 0, i);
+        a[i] = key;
+        a[i + 1] = value;
+        System.arraycopy(array, i, a, i + 2, array.length - i);
+        return new BitmapNode(bitmap | bit, a);
+      }
+
+      Object k = array[i];
+      Object v = array[i + 1];
+      if (k == null) {
+        Node child = ((Node) v).put(hash, key, value, shift + BITS, added);
+        return child == v ? this : withSlot(i, null, child);
+      }
+      if (key.equals(k)) {
+        return v == value ? this : withSlot(i, k, value);
+      }
+      added[0] = true;
+      return withSlot(i, null, createNode(shift + BITS, k, v, hash, key, value));
+    }
+
+    @Override
+    Node remove(int hash, Object key, int shift) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int i = index(bit);
+      Object k = array[i];
+      if (k == null) {
+        Node child = (Node) array[i + 1];
+        Node newChild = child.remove(hash, key, shift + BITS);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild == null) {
+          return withoutSlot(bit, i);
+        }
+        if (newChild.isSingleEntry()) {
+          return withSlot(i, newChild.array[0], newChild.array[1]);
+        }
+        return withSlot(i, null, newChild);
+      }
+      return key.equals(k) ? withoutSlot(bit, i) : this;
+    }
+
+    private int index(int bit) {
+      return 2 * Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private Node withSlot(int i, Object key, Object value) {
+      Object[] a = array.clone();
+      a[i] = key;
+      a[i + 1] = value;
+      return new BitmapNode(bitmap, a);
+    }
+
+    private Node withoutSlot(int bit, int i) {
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] a = new Object[array.length - 2];
+      System.arraycopy(array, 0, a, 0, i);
+      System.arraycopy(array, i + 2, a, i, a.length - i);
+      return new BitmapNode(bitmap ^ bit, a);
+    }
+
+    private static Node createNode(
+      int shift,
+      Object key1,
+      Object value1,
+      int hash2,
+      Object key2,
+      Object value2
+    ) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+      }
+      boolean[] added = new boolean[1];
+      return new BitmapNode(0, new Object[0])
+        .put(hash1, key1, value1, shift, added)
+        .put(hash2, key2, value2, shift, added);
+    }
+  }
+
+  /**
+   * The keys with the same hash.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    @Override
+    Object find(int hash, Object key, int shift) {
+      if (hash == this.hash) {
+        for (int i = 0; i < array.length; i += 2) {
+          if (key.equals(array[i])) {
+            return array[i + 1];
+          }
+        }
+      }
+      return NOT_FOUND;
+    }
+
+    @Override
+    Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+      if (hash != this.hash) {
+        // Add a level above this node, where the hashes are different
+        return new BitmapNode(bit(this.hash, shift), new Object[] { null, this })
+          .put(hash, key, value, shift, added);
+      }
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          if (array[i + 1] == value) {
+            return this;
+          }
+          Object[] a = array.clone();
+          a[i + 1] = value;
+          return new CollisionNode(hash, a);
+        }
+      }
+      added[0] = true;
+      Object[] a = new Object[array.length + 2];
+      System.arraycopy(array, 0, a, 0, array.length);
+      a[array.length] = key;
+      a[array.length + 1] = value;
+      return new CollisionNode(hash, a);
+    }
+
+    @Override
+    Node remove(int hash, Object key, int shift) {
+      if (hash != this.hash) {
+        return this;
+      }
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          if (array.length == 2) {
+            return null;
+          }
+          Object[] a = new Object[array.length - 2];
+          System.arraycopy(array, 0, a, 0, i);
+          System.arraycopy(array, i + 2, a, i, a.length - i);
+          return new CollisionNode(hash, a);
+        }
+      }
+      return this;
+    }
+  }
+
+  /**
+   * Iterate over the trie depth first. The depth is at most 7 levels for a 32-bit hash, and one
+   * more level for the keys with the same hash.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+    private static final int MAX_DEPTH = 8;
+
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = 0;
+    private Entry<K, V> next;
+
+    private EntryIterator(Node root) {
+      arrays[0] = root.array;
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      var result = next;
+      advance();
+      return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Object[] a = arrays[depth];
+        int i = positions[depth];
+        if (i == a.length) {
+          --depth;
+          continue;
+        }
+        positions[depth] = i + 2;
+        if (a[i] == null) {
+          ++depth;
+          arrays[depth] = ((Node) a[i + 1]).array;
+          positions[depth] = 0;
+        } else {
+          next = new SimpleImmutableEntry<>((K) a[i], (V) a[i + 1]);
+          return;
+        }
+      }
+    }
+  }
+}
@@ -163,6 +163,12 @@ public class GraphBuilder implements Runnable {
       graphBuilder.addModule(factory.graphCoherencyCheckerModule());
     }
 
+    // The landmarks must be computed after the streets are split and linked, and are recomputed
+    // when a saved street graph is loaded.
+    if (config.carLandmarks > 0 && ((hasOsm && !saveStreetGraph) || loadStreetGraph)) {
+      graphBuilder.addModule(factory.carLandmarksModule());
+    }
+
     if (OTPFeature.Co2Emissions.isOn()) {
       graphBuilder.addModule(factory.emissionsModule());
     }
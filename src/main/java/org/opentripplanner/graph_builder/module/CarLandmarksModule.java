@@ -0,0 +1,235 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.CarLandmarks;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Select a set of landmarks in the car street network and compute the car travel time to and
+ * from each landmark for all vertices. The result is stored in the graph, and used by the ALT
+ * remaining-weight heuristic in car searches.
+ * <p>
+ * The landmarks are selected using the "farthest" strategy: the first landmark is the vertex
+ * farthest away from an arbitrary start vertex, and each next landmark is the vertex farthest
+ * away from all landmarks selected so far. This places the landmarks along the border of the
+ * network, which gives the best lower bounds.
+ */
+public class CarLandmarksModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CarLandmarksModule.class);
+
+  private final Graph graph;
+  private final int nLandmarks;
+
+  public CarLandmarksModule(Graph graph, int nLandmarks) {
+    this.graph = graph;
+    this.nLandmarks = nLandmarks;
+  }
+
+  @Override
+  public void buildGraph() {
+    if (nLandmarks <= 0) {
+      return;
+    }
+    var landmarks = computeLandmarks(graph.getVertices(), nLandmarks);
+    LOG.info("Car landmarks computed: {}", landmarks);
+    graph.setCarLandmarks(landmarks);
+  }
+
+  static CarLandmarks computeLandmarks(Collection<Vertex> vertices, int maxLandmarks) {
+    var network = new Network(vertices);
+
+    if (network.carVertices.isEmpty()) {
+      return new CarLandmarks(0, 0, new float[0]);
+    }
+
+    List<Integer> landmarks = new ArrayList<>();
+    List<float[]> forward = new ArrayList<>();
+    float[] minDuration = new float[network.size()];
+    Arrays.fill(minDuration, Float.POSITIVE_INFINITY);
+
+    // The start vertex is not a landmark, it is only used to find the first landmark
+    int start = network.carVertices.get(0);
+    int next = network.farthest(network.search(start, true));
+    if (next < 0) {
+      next = start;
+    }
+
+    while (next >= 0 && landmarks.size() < maxLandmarks) {
+      float[] durations = network.search(next, true);
+      landmarks.add(next);
+      forward.add(durations);
+      for (int i = 0; i < minDuration.length; ++i) {
+        minDuration[i] = Math.min(minDuration[i], durations[i]);
+      }
+      next = network.farthest(minDuration);
+    }
+
+    // The reverse searches are independent of each other, so they are run in parallel
+    List<float[]> reverse = landmarks
+      .parallelStream()
+      .map(it -> network.search(it, false))
+      .toList();
+
+    return network.pack(forward, reverse);
+  }
+
+  /**
+   * A lower bound on the car travel time for the given edge. Street edges not traversable by car
+   * are skipped. Other edges, like links and parking edges, cost nothing - this keeps the bound
+   * admissible without knowing how the edge is traversed.
+   */
+  static double minDurationSeconds(Edge edge) {
+    if (edge instanceof StreetEdge street) {
+      return street.canTraverse(TraverseMode.CAR) && street.getCarSpeed() > 0f
+        ? street.getDistanceMeters() / street.getCarSpeed()
+        : Double.POSITIVE_INFINITY;
+    }
+    return 0.0;
+  }
+
+  /**
+   * The street network with the vertices indexed, so the search state can be kept in arrays.
+   */
+  private static final class Network {
+
+    private final Map<Vertex, Integer> index = new IdentityHashMap<>();
+    private final Vertex[] vertices;
+    private final List<Integer> carVertices = new ArrayList<>();
+
+    private Network(Collection<Vertex> vertices) {
+      this.vertices =
+        vertices
+          .stream()
+          // Sort the vertices to make the landmark selection deterministic
+          .sorted(Comparator.comparing(Vertex::getLabelString))
+          .toArray(Vertex[]::new);
+
+      for (int i = 0; i < this.vertices.length; ++i) {
+        index.put(this.vertices[i], i);
+        if (isCarVertex(this.vertices[i])) {
+          carVertices.add(i);
+        }
+      }
+    }
+
+    private int size() {
+      return vertices.length;
+    }
+
+    /**
+     * Find the car vertex with the longest finite duration, or {@code -1} if no car vertex has a
+     * duration greater than zero.
+     */
+    private int farthest(float[] durations) {
+      int farthest = -1;
+      float max = 0f;
+      for (int v : carVertices) {
+        float d = durations[v];
+        if (Float.isFinite(d) && d > max) {
+          max = d;
+          farthest = v;
+        }
+      }
+      return farthest;
+    }
+
+    /**
+     * Plain Dijkstra search from the given vertex, along the outgoing edges in a forward search
+     * and along the incoming edges in a reverse search.
+     */
+    private float[] search(int origin, boolean forward) {
+      float[] durations = new float[vertices.length];
+      Arrays.fill(durations, Float.POSITIVE_INFINITY);
+      durations[origin] = 0f;
+
+      var queue = new BinHeap<Integer>();
+      queue.insert(origin, 0.0);
+
+      while (!queue.empty()) {
+        double duration = queue.peek_min_key();
+        int v = queue.extract_min();
+
+        // Skip states made obsolete by a shorter path found later
+        if (duration > durations[v]) {
+          continue;
+        }
+        Collection<Edge> edges = forward ? vertices[v].getOutgoing() : vertices[v].getIncoming();
+
+        for (Edge edge : edges) {
+          double edgeDuration = minDurationSeconds(edge);
+          if (edgeDuration == Double.POSITIVE_INFINITY) {
+            continue;
+          }
+          Integer u = index.get(forward ? edge.getToVertex() : edge.getFromVertex());
+          if (u == null) {
+            continue;
+          }
+          float d = (float) (duration + edgeDuration);
+          if (d < durations[u]) {
+            durations[u] = d;
+            queue.insert(u, d);
+          }
+        }
+      }
+      return durations;
+    }
+
+    /**
+     * Pack the durations by vertex index, only the car vertices reached from at least one landmark
+     * are included.
+     */
+    private CarLandmarks pack(List<float[]> forward, List<float[]> reverse) {
+      int n = forward.size();
+      int maxIndex = Arrays.stream(vertices).mapToInt(Vertex::getIndex).max().orElse(-1);
+      float[] result = new float[2 * n * (maxIndex + 1)];
+      Arrays.fill(result, Float.NaN);
+      int nIncluded = 0;
+
+      for (int v : carVertices) {
+        // Vertices not added to the graph have no index
+        if (vertices[v].getIndex() < 0) {
+          continue;
+        }
+        int offset = 2 * n * vertices[v].getIndex();
+        boolean reached = false;
+        for (int i = 0; i < n; ++i) {
+          reached |= Float.isFinite(forward.get(i)[v]) || Float.isFinite(reverse.get(i)[v]);
+        }
+        if (reached) {
+          for (int i = 0; i < n; ++i) {
+            result[offset + i] = forward.get(i)[v];
+            result[offset + n + i] = reverse.get(i)[v];
+          }
+          ++nIncluded;
+        }
+      }
+      return new CarLandmarks(n, nIncluded, result);
+    }
+
+    private static boolean isCarVertex(Vertex v) {
+      return (
+        v.getOutgoing().stream().anyMatch(Network::isCarEdge) ||
+        v.getIncoming().stream().anyMatch(Network::isCarEdge)
+      );
+    }
+
+    private static boolean isCarEdge(Edge e) {
+      return e instanceof StreetEdge street && street.canTraverse(TraverseMode.CAR);
+    }
+  }
+}
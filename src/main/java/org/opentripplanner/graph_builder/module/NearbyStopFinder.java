@@ -10,6 +10,7 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -26,6 +27,8 @@ import org.opentripplanner.routing.api.request.preference.WalkPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graphfinder.DirectGraphFinder;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
+import org.opentripplanner.street.model.StreetGraphSnapshot;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
@@ -34,6 +37,7 @@ import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.WalkStreetSearch;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
@@ -57,6 +61,8 @@ public class NearbyStopFinder {
   private final Duration durationLimit;
   private final int maxStopCount;
   private final DataOverlayContext dataOverlayContext;
+  private final StreetGraphSnapshot streetGraphSnapshot;
+  private final StreetEdgeCostTableCache edgeCostTableCache;
 
   private DirectGraphFinder directGraphFinder;
 
@@ -72,9 +78,33 @@ public class NearbyStopFinder {
     int maxStopCount,
     DataOverlayContext dataOverlayContext,
     boolean useStreets
+  ) {
+    this(transitService, durationLimit, maxStopCount, dataOverlayContext, null, null, useStreets);
+  }
+
+  /**
+   * Construct a NearbyStopFinder for the given graph and search radius.
+   *
+   * @param streetGraphSnapshot if not null, walk-only searches use the faster
+   *                            {@link WalkStreetSearch} on this snapshot.
+   * @param edgeCostTableCache  if not null, the other street searches use the cached street edge
+   *                            costs.
+   * @param useStreets          if true, search via the street network instead of using
+   *                            straight-line distance.
+   */
+  public NearbyStopFinder(
+    TransitService transitService,
+    Duration durationLimit,
+    int maxStopCount,
+    DataOverlayContext dataOverlayContext,
+    @Nullable StreetGraphSnapshot streetGraphSnapshot,
+    @Nullable StreetEdgeCostTableCache edgeCostTableCache,
+    boolean useStreets
   ) {
     this.transitService = transitService;
     this.dataOverlayContext = dataOverlayContext;
+    this.streetGraphSnapshot = streetGraphSnapshot;
+    this.edgeCostTableCache = edgeCostTableCache;
     this.useStreets = useStreets;
     this.durationLimit = durationLimit;
     this.maxStopCount = maxStopCount;
@@ -201,40 +231,33 @@ public class NearbyStopFinder {
       return stopsFound;
     }
 
-    ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
-      .of()
-      .setSkipEdgeStrategy(getSkipEdgeStrategy())
-      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
-      .setRequest(request)
-      .setArriveBy(reverseDirection)
-      .setStreetRequest(streetRequest)
-      .setFrom(reverseDirection ? null : originVertices)
-      .setTo(reverseDirection ? originVertices : null)
-      .setDataOverlayContext(dataOverlayContext)
-      .getShortestPathTree();
+    Collection<State> reachedStates = findStatesViaStreets(
+      originVertices,
+      reverseDirection,
+      request,
+      streetRequest
+    );
 
     // Only used if OTPFeature.FlexRouting.isOn()
     Multimap<AreaStop, State> locationsMap = ArrayListMultimap.create();
 
-    if (spt != null) {
-      // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
-      for (State state : spt.getAllStates()) {
-        Vertex targetVertex = state.getVertex();
-        if (originVertices.contains(targetVertex)) continue;
-        if (targetVertex instanceof TransitStopVertex tsv && state.isFinal()) {
-          stopsFound.add(NearbyStop.nearbyStopForState(state, tsv.getStop()));
-        }
-        if (
-          OTPFeature.FlexRouting.isOn() &&
-          targetVertex instanceof StreetVertex streetVertex && !streetVertex.areaStops().isEmpty()
-        ) {
-          for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops()) {
-            // This is for a simplification, so that we only return one vertex from each
-            // stop location. All vertices are added to the multimap, which is filtered
-            // below, so that only the closest vertex is added to stopsFound
-            if (canBoardFlex(state, reverseDirection)) {
-              locationsMap.put(areaStop, state);
-            }
+    // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
+    for (State state : reachedStates) {
+      Vertex targetVertex = state.getVertex();
+      if (originVertices.contains(targetVertex)) continue;
+      if (targetVertex instanceof TransitStopVertex tsv && state.isFinal()) {
+        stopsFound.add(NearbyStop.nearbyStopForState(state, tsv.getStop()));
+      }
+      if (
+        OTPFeature.FlexRouting.isOn() &&
+        targetVertex instanceof StreetVertex streetVertex && !streetVertex.areaStops().isEmpty()
+      ) {
+        for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops()) {
+          // This is for a simplification, so that we only return one vertex from each
+          // stop location. All vertices are added to the multimap, which is filtered
+          // below, so that only the closest vertex is added to stopsFound
+          if (canBoardFlex(state, reverseDirection)) {
+            locationsMap.put(areaStop, state);
           }
         }
       }
@@ -262,6 +285,61 @@ public class NearbyStopFinder {
     return stopsFound;
   }
 
+  /**
+   * Run the street search and return the states which may be at a nearby stop. Walk-only searches
+   * use the {@link WalkStreetSearch} if the street graph snapshot exists.
+   */
+  private Collection<State> findStatesViaStreets(
+    Set<Vertex> originVertices,
+    boolean reverseDirection,
+    RouteRequest request,
+    StreetRequest streetRequest
+  ) {
+    if (
+      WalkStreetSearch.isApplicable(
+        streetGraphSnapshot,
+        request,
+        streetRequest.mode(),
+        dataOverlayContext
+      )
+    ) {
+      return new WalkStreetSearch(
+        streetGraphSnapshot,
+        request,
+        reverseDirection,
+        durationLimit,
+        maxStopCount
+      )
+        .findStates(originVertices, NearbyStopFinder::isPossibleNearbyStop);
+    }
+
+    ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(getSkipEdgeStrategy())
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setArriveBy(reverseDirection)
+      .setStreetRequest(streetRequest)
+      .setFrom(reverseDirection ? null : originVertices)
+      .setTo(reverseDirection ? originVertices : null)
+      .setDataOverlayContext(dataOverlayContext)
+      .setEdgeCostTableCache(edgeCostTableCache)
+      .getShortestPathTree();
+
+    return spt == null ? List.of() : spt.getAllStates();
+  }
+
+  private static boolean isPossibleNearbyStop(Vertex vertex) {
+    return (
+      vertex instanceof TransitStopVertex ||
+      (
+        OTPFeature.FlexRouting.isOn() &&
+        vertex instanceof StreetVertex streetVertex &&
+        !streetVertex.areaStops().isEmpty()
+      )
+    );
+  }
+
   private List<NearbyStop> findNearbyStopsViaDirectTransfers(Vertex vertex) {
     // It make sense for the directGraphFinder to use meters as a limit, so we convert first
     double limitMeters = durationLimit.toSeconds() * WalkPreferences.DEFAULT.speed();
@@ -23,6 +23,7 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.graph_builder.issue.report.DataImportIssueReporter;
 import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
+import org.opentripplanner.graph_builder.module.CarLandmarksModule;
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
 import org.opentripplanner.graph_builder.module.islandpruning.PruneIslands;
@@ -149,6 +150,12 @@ public class GraphBuilderModules {
       );
   }
 
+  @Provides
+  @Singleton
+  static CarLandmarksModule provideCarLandmarksModule(BuildConfig config, Graph graph) {
+    return new CarLandmarksModule(graph, config.carLandmarks);
+  }
+
   @Provides
   @Singleton
   static StreetLinkerModule provideStreetLinkerModule(
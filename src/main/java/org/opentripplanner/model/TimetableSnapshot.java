@@ -1,19 +1,17 @@
 package org.opentripplanner.model;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
+import com.google.common.collect.ImmutableSet;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import org.opentripplanner.framework.collection.PersistentHashMap;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
@@ -53,12 +51,11 @@ public class TimetableSnapshot {
    * Route) for which we have an updated Timetable. The keys include both TripPatterns from the
    * scheduled GTFS, and TripPatterns added by realtime messages and tracked by the
    * TripPatternCache. Note that the keys will not include all scheduled TripPatterns, only those
-   * for which we've got an update. We use a HashMap rather than a Map so we can clone it. If this
-   * turns out to be slow/spacious we can use an array with integer pattern indexes. The SortedSet
-   * members are copy-on-write.
+   * for which we've got an update. The map is persistent, so a commit shares it with the committed
+   * snapshot instead of copying it. The SortedSet members are copy-on-write.
    * FIXME: this could be made into a flat hashtable with compound keys.
    */
-  private HashMap<TripPattern, SortedSet<Timetable>> timetables = new HashMap();
+  private PersistentHashMap<TripPattern, SortedSet<Timetable>> timetables = PersistentHashMap.of();
 
   /**
    * <p>
@@ -66,20 +63,23 @@ public class TimetableSnapshot {
    * changed from the scheduled pattern with an update, for which the stopPattern is different.
    * </p>
    * <p>
-   * This is a HashMap and not a Map so the clone function is available.
+   * This is a persistent map, so it is shared with the committed snapshot.
    */
-  private HashMap<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern = new HashMap<>();
+  private PersistentHashMap<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern =
+    PersistentHashMap.of();
 
   /**
    * This maps contains all of the new or updated TripPatterns added by realtime data indexed on
    * stop. This has to be kept in order for them to be included in the stop times api call on a
    * specific stop.
    * <p>
-   * This is a SetMultimap, so that each pattern can only be added once.
+   * The pattern sets are immutable, so that each pattern can only be added once, and the map can
+   * be shared with the committed snapshot.
    * <p>
    * TODO Find a generic way to keep all realtime indexes.
    */
-  private SetMultimap<StopLocation, TripPattern> patternsForStop = HashMultimap.create();
+  private PersistentHashMap<StopLocation, Set<TripPattern>> patternsForStop =
+    PersistentHashMap.of();
 
   /**
    * Boolean value indicating that timetable snapshot is read only if true. Once it is true, it
@@ -203,7 +203,7 @@ public class TimetableSnapshot {
         sortedTimetables.remove(old);
       }
       sortedTimetables.add(tt);
-      timetables.put(pattern, sortedTimetables);
+      timetables = timetables.with(pattern, sortedTimetables);
       dirtyTimetables.add(tt);
       dirty = true;
     }
@@ -223,7 +223,7 @@ public class TimetableSnapshot {
       // Remember this pattern for the added trip id and service date
       FeedScopedId tripId = updatedTripTimes.getTrip().getId();
       TripIdAndServiceDate tripIdAndServiceDate = new TripIdAndServiceDate(tripId, serviceDate);
-      realtimeAddedTripPattern.put(tripIdAndServiceDate, pattern);
+      realtimeAddedTripPattern = realtimeAddedTripPattern.with(tripIdAndServiceDate, pattern);
     }
 
     // To make these trip patterns visible for departureRow searches.
@@ -235,12 +235,12 @@ public class TimetableSnapshot {
   }
 
   /**
-   * This produces a small delay of typically around 50ms, which is almost entirely due to the
-   * indexing step. Cloning the map is much faster (2ms). It is perhaps better to index timetables
-   * as they are changed to avoid experiencing all this lag at once, but we want to avoid
-   * re-indexing when receiving multiple updates for the same timetable in rapid succession. This
-   * compromise is expressed by the maxSnapshotFrequency property of StoptimeUpdater. The indexing
-   * could be made much more efficient as well.
+   * The maps are persistent, so the committed snapshot shares them with this buffer, and the cost
+   * of a commit does not depend on the number of timetables. The later updates of the buffer copy
+   * only the changed parts of the maps. The indexing of the dirty timetables in the transit layer
+   * is done here as well. We want to avoid re-indexing when receiving multiple updates for the
+   * same timetable in rapid succession. This compromise is expressed by the maxSnapshotFrequency
+   * property of StoptimeUpdater.
    *
    * @return an immutable copy of this TimetableSnapshot with all updates applied
    */
@@ -248,7 +248,6 @@ public class TimetableSnapshot {
     return commit(null, false);
   }
 
-  @SuppressWarnings("unchecked")
   public TimetableSnapshot commit(TransitLayerUpdater transitLayerUpdater, boolean force) {
     if (readOnly) {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
@@ -258,9 +257,9 @@ public class TimetableSnapshot {
     if (!force && !this.isDirty()) {
       return null;
     }
-    ret.timetables = (HashMap<TripPattern, SortedSet<Timetable>>) this.timetables.clone();
-    ret.realtimeAddedTripPattern =
-      (HashMap<TripIdAndServiceDate, TripPattern>) this.realtimeAddedTripPattern.clone();
+    ret.timetables = this.timetables;
+    ret.realtimeAddedTripPattern = this.realtimeAddedTripPattern;
+    ret.patternsForStop = this.patternsForStop;
 
     if (transitLayerUpdater != null) {
       transitLayerUpdater.update(dirtyTimetables, timetables);
@@ -269,8 +268,6 @@ public class TimetableSnapshot {
     this.dirtyTimetables.clear();
     this.dirty = false;
 
-    ret.setPatternsForStop(HashMultimap.create(this.patternsForStop));
-
     ret.readOnly = true; // mark the snapshot as henceforth immutable
     return ret;
   }
@@ -299,7 +296,8 @@ public class TimetableSnapshot {
    * trip times from the timetable the trip has been added to.
    */
   public void removeLastAddedTripPattern(FeedScopedId feedScopedTripId, LocalDate serviceDate) {
-    realtimeAddedTripPattern.remove(new TripIdAndServiceDate(feedScopedTripId, serviceDate));
+    realtimeAddedTripPattern =
+      realtimeAddedTripPattern.without(new TripIdAndServiceDate(feedScopedTripId, serviceDate));
   }
 
   /**
@@ -311,35 +309,31 @@ public class TimetableSnapshot {
     }
 
     boolean modified = false;
-    for (Iterator<TripPattern> it = timetables.keySet().iterator(); it.hasNext();) {
-      TripPattern pattern = it.next();
-      SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
+    // The maps are persistent, the loops iterate over the maps as they were before the purge
+    for (Entry<TripPattern, SortedSet<Timetable>> entry : timetables.entrySet()) {
+      TripPattern pattern = entry.getKey();
       SortedSet<Timetable> toKeepTimetables = new TreeSet<>(new SortedTimetableComparator());
-      for (Timetable timetable : sortedTimetables) {
+      for (Timetable timetable : entry.getValue()) {
         if (serviceDate.compareTo(timetable.getServiceDate()) < 0) {
           toKeepTimetables.add(timetable);
-        } else {
-          modified = true;
         }
       }
 
+      if (toKeepTimetables.size() == entry.getValue().size()) {
+        continue;
+      }
+      modified = true;
       if (toKeepTimetables.isEmpty()) {
-        it.remove();
+        timetables = timetables.without(pattern);
       } else {
-        timetables.put(pattern, toKeepTimetables);
+        timetables = timetables.with(pattern, toKeepTimetables);
       }
     }
 
     // Also remove last added trip pattern for days that are purged
-    for (
-      Iterator<Entry<TripIdAndServiceDate, TripPattern>> iterator = realtimeAddedTripPattern
-        .entrySet()
-        .iterator();
-      iterator.hasNext();
-    ) {
-      TripIdAndServiceDate tripIdAndServiceDate = iterator.next().getKey();
+    for (TripIdAndServiceDate tripIdAndServiceDate : realtimeAddedTripPattern.keySet()) {
       if (serviceDate.compareTo(tripIdAndServiceDate.serviceDate()) >= 0) {
-        iterator.remove();
+        realtimeAddedTripPattern = realtimeAddedTripPattern.without(tripIdAndServiceDate);
         modified = true;
       }
     }
@@ -360,11 +354,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<TripPattern> getPatternsForStop(StopLocation stop) {
-    return patternsForStop.get(stop);
-  }
-
-  public void setPatternsForStop(SetMultimap<StopLocation, TripPattern> patternsForStop) {
-    this.patternsForStop = patternsForStop;
+    return patternsForStop.getOrDefault(stop, Set.of());
   }
 
   /**
@@ -374,7 +364,13 @@ public class TimetableSnapshot {
    * @return true if the timetable changed as a result of the call
    */
   protected boolean clearTimetable(String feedId) {
-    return timetables.keySet().removeIf(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+    int size = timetables.size();
+    for (TripPattern tripPattern : timetables.keySet()) {
+      if (feedId.equals(tripPattern.getFeedId())) {
+        timetables = timetables.without(tripPattern);
+      }
+    }
+    return timetables.size() != size;
   }
 
   /**
@@ -384,11 +380,13 @@ public class TimetableSnapshot {
    * @return true if the realtimeAddedTripPattern changed as a result of the call
    */
   protected boolean clearRealtimeAddedTripPattern(String feedId) {
-    return realtimeAddedTripPattern
-      .keySet()
-      .removeIf(realtimeAddedTripPattern ->
-        feedId.equals(realtimeAddedTripPattern.tripId().getFeedId())
-      );
+    int size = realtimeAddedTripPattern.size();
+    for (TripIdAndServiceDate tripIdAndServiceDate : realtimeAddedTripPattern.keySet()) {
+      if (feedId.equals(tripIdAndServiceDate.tripId().getFeedId())) {
+        realtimeAddedTripPattern = realtimeAddedTripPattern.without(tripIdAndServiceDate);
+      }
+    }
+    return realtimeAddedTripPattern.size() != size;
   }
 
   /**
@@ -399,7 +397,14 @@ public class TimetableSnapshot {
       //TODO - SIRI: Add pattern to index?
 
       for (var stop : tripPattern.getStops()) {
-        patternsForStop.put(stop, tripPattern);
+        Set<TripPattern> patterns = patternsForStop.getOrDefault(stop, Set.of());
+        if (!patterns.contains(tripPattern)) {
+          patternsForStop =
+            patternsForStop.with(
+              stop,
+              ImmutableSet.<TripPattern>builder().addAll(patterns).add(tripPattern).build()
+            );
+        }
       }
     }
   }
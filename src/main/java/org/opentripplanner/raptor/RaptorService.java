@@ -1,12 +1,17 @@
 package org.opentripplanner.raptor;
 
+import java.util.List;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.RaptorBatchStatistics;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.api.response.StopArrivals;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.service.DefaultStopArrivals;
 import org.opentripplanner.raptor.service.HeuristicSearchTask;
+import org.opentripplanner.raptor.service.RaptorBatchSearch;
 import org.opentripplanner.raptor.service.RangeRaptorDynamicSearch;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.slf4j.Logger;
@@ -35,7 +40,13 @@ public class RaptorService<T extends RaptorTripSchedule> {
     RaptorResponse<T> response;
 
     if (request.isDynamicSearch()) {
-      response = new RangeRaptorDynamicSearch<>(config, transitData, request).route();
+      var search = new RangeRaptorDynamicSearch<>(config, transitData, request);
+      try {
+        response = search.route();
+      } finally {
+        // The response does not reference the heuristics, so the state can be reused
+        search.releaseWorkerState();
+      }
     } else {
       response = routeUsingStdWorker(transitData, request);
     }
@@ -43,6 +54,21 @@ public class RaptorService<T extends RaptorTripSchedule> {
     return response;
   }
 
+  /**
+   * Perform a one-to-many search for each of the given requests, sharing the same transit data.
+   * The best arrival times at each stop are passed to the consumer together with the index of the
+   * request. See {@link RaptorBatchSearch} for the requirements on the requests and the consumer.
+   */
+  public RaptorBatchStatistics routeBatch(
+    List<RaptorRequest<T>> requests,
+    RaptorTransitDataProvider<T> transitData,
+    ObjIntConsumer<StopArrivals> consumer
+  ) {
+    var statistics = new RaptorBatchSearch<>(config, transitData, requests).route(consumer);
+    LOG.info("Batch search done: {}", statistics);
+    return statistics;
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
@@ -0,0 +1,32 @@
+package org.opentripplanner.raptor.api.response;
+
+import java.time.Duration;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+
+/**
+ * Throughput statistics for a batch of one-to-many searches.
+ *
+ * @param numberOfSearches The number of searches performed, one for each origin.
+ * @param elapsedTime The wall-clock time used to perform all searches.
+ * @param parallelism The number of threads used to perform the searches.
+ */
+public record RaptorBatchStatistics(int numberOfSearches, Duration elapsedTime, int parallelism) {
+  /**
+   * The number of searches completed per second.
+   */
+  public double searchesPerSecond() {
+    long nanos = elapsedTime.toNanos();
+    return nanos == 0 ? 0.0 : numberOfSearches * 1_000_000_000.0 / nanos;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(RaptorBatchStatistics.class)
+      .addNum("numberOfSearches", numberOfSearches)
+      .addDuration("elapsedTime", elapsedTime)
+      .addNum("parallelism", parallelism)
+      .addNum("searchesPerSecond", Math.round(searchesPerSecond()))
+      .toString();
+  }
+}
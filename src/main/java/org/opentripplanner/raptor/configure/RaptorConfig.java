@@ -1,5 +1,6 @@
 package org.opentripplanner.raptor.configure;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.IntPredicate;
@@ -10,12 +11,14 @@ import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
+import org.opentripplanner.raptor.rangeraptor.context.WorkerStatePool;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.PassThroughPointsService;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStateLease;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
@@ -31,15 +34,20 @@ import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
  */
 public class RaptorConfig<T extends RaptorTripSchedule> {
 
+  /**
+   * A heuristic search borrow 3 arrays, so this is enough to serve both heuristics for about 10
+   * concurrent requests, without allocating new arrays.
+   */
+  private static final int MAX_POOLED_WORKER_STATE_ARRAYS = 64;
+
   private final ExecutorService threadPool;
   private final RaptorTuningParameters tuningParameters;
-
-  /** The service is not final, because it depends on the request. */
-  private PassThroughPointsService passThroughPointsService = null;
+  private final WorkerStatePool workerStatePool;
 
   public RaptorConfig(RaptorTuningParameters tuningParameters) {
     this.tuningParameters = tuningParameters;
     this.threadPool = createNewThreadPool(tuningParameters.searchThreadPoolSize());
+    this.workerStatePool = new WorkerStatePool(MAX_POOLED_WORKER_STATE_ARRAYS);
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -47,9 +55,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   public SearchContext<T> context(RaptorTransitDataProvider<T> transit, RaptorRequest<T> request) {
-    // The passThroughPointsService is needed to create the context, so we initialize it here.
-    this.passThroughPointsService = createPassThroughPointsService(request);
-    return new SearchContext<>(request, tuningParameters, transit, acceptC2AtDestination());
+    return context(transit, request, createPassThroughPointsService(request), null);
   }
 
   public RaptorWorker<T> createStdWorker(
@@ -61,12 +67,28 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return createWorker(context, stdConfig.state(), stdConfig.strategy());
   }
 
+  /**
+   * Create a standard worker, with the stop-sized arrays borrowed using the given lease. The
+   * result of the worker is valid until the lease is released.
+   */
+  public RaptorWorker<T> createStdWorker(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    WorkerStateLease workerStateLease
+  ) {
+    var context = context(transitData, request, workerStatePool.lease(workerStateLease));
+    var stdConfig = new StdRangeRaptorConfig<>(context);
+    return createWorker(context, stdConfig.state(), stdConfig.strategy());
+  }
+
   public RaptorWorker<T> createMcWorker(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request,
     Heuristics heuristics
   ) {
-    final SearchContext<T> context = context(transitData, request);
+    // The service is created for each search, the parallel sub-searches must not share it
+    var passThroughPointsService = createPassThroughPointsService(request);
+    final SearchContext<T> context = context(transitData, request, passThroughPointsService, null);
     return new McRangeRaptorConfig<>(context, passThroughPointsService)
       .createWorker(
         heuristics,
@@ -74,11 +96,45 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       );
   }
 
+  /**
+   * Create a worker which runs one multi-criteria worker for each of the given requests in
+   * parallel, and merge the paths found. The requests must be the same request split into
+   * sub-search-windows, with the sub-search-window including the earliest-departure-time
+   * (forward search) or latest-arrival-time (reverse search) last.
+   */
+  public RaptorWorker<T> createParallelMcWorker(
+    RaptorTransitDataProvider<T> transitData,
+    List<RaptorRequest<T>> requests,
+    Heuristics heuristics
+  ) {
+    if (requests.size() == 1 || !isMultiThreaded()) {
+      return createMcWorker(transitData, requests.get(0), heuristics);
+    }
+    // The workers are created in this thread, only the routing is done in parallel
+    var workers = requests.stream().map(r -> createMcWorker(transitData, r, heuristics)).toList();
+    return McRangeRaptorConfig.createParallelWorker(workers, threadPool);
+  }
+
+  /**
+   * Create a worker state lease, used to borrow the worker state arrays of a search from the
+   * application scoped pool. The caller is responsible for releasing the lease when the search
+   * and its results are no longer used.
+   */
+  public WorkerStateLease leaseWorkerState() {
+    return workerStatePool.lease();
+  }
+
+  /**
+   * Create a heuristic search. The stop-sized arrays of the search are borrowed using the given
+   * lease, the heuristics created from the result of the search is valid until the lease is
+   * released.
+   */
   public RaptorWorker<T> createHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
-    RaptorRequest<T> request
+    RaptorRequest<T> request,
+    WorkerStateLease workerStateLease
   ) {
-    var context = context(transitData, request);
+    var context = context(transitData, request, workerStatePool.lease(workerStateLease));
     var stdConfig = new StdRangeRaptorConfig<>(context);
     return createWorker(context, stdConfig.state(), stdConfig.strategy());
   }
@@ -100,6 +156,25 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return threadPool;
   }
 
+  /**
+   * The number of threads in the thread pool, {@code 0} if not multithreaded.
+   */
+  public int threadPoolSize() {
+    return isMultiThreaded() ? tuningParameters.searchThreadPoolSize() : 0;
+  }
+
+  /**
+   * The number of parts to split the search-window of the main range-raptor search into. The
+   * parts are searched in parallel. Returns {@code 1} if the search should not be split.
+   */
+  public int searchWindowParallelism() {
+    return isMultiThreaded() ? Math.max(1, tuningParameters.searchWindowParallelism()) : 1;
+  }
+
+  public int iterationDepartureStepInSeconds() {
+    return tuningParameters.iterationDepartureStepInSeconds();
+  }
+
   public void shutdown() {
     if (threadPool != null) {
       threadPool.shutdown();
@@ -116,6 +191,29 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
 
+  private SearchContext<T> context(
+    RaptorTransitDataProvider<T> transit,
+    RaptorRequest<T> request,
+    @Nullable WorkerStatePool.Lease workerStateLease
+  ) {
+    return context(transit, request, createPassThroughPointsService(request), workerStateLease);
+  }
+
+  private SearchContext<T> context(
+    RaptorTransitDataProvider<T> transit,
+    RaptorRequest<T> request,
+    PassThroughPointsService passThroughPointsService,
+    @Nullable WorkerStatePool.Lease workerStateLease
+  ) {
+    return new SearchContext<>(
+      request,
+      tuningParameters,
+      transit,
+      acceptC2AtDestination(passThroughPointsService),
+      workerStateLease
+    );
+  }
+
   private RaptorWorker<T> createWorker(
     SearchContext<T> ctx,
     RaptorWorkerState<T> workerState,
@@ -135,7 +233,9 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     );
   }
 
-  private IntPredicate acceptC2AtDestination() {
+  private static IntPredicate acceptC2AtDestination(
+    PassThroughPointsService passThroughPointsService
+  ) {
     return passThroughPointsService.isNoop()
       ? null
       : passThroughPointsService.acceptC2AtDestination();
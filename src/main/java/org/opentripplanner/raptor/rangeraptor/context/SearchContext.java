@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.function.IntPredicate;
 import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.lang.IntUtils;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
@@ -71,18 +72,25 @@ public class SearchContext<T extends RaptorTripSchedule> {
   @Nullable
   private final IntPredicate acceptC2AtDestination;
 
+  @Nullable
+  private final WorkerStatePool.Lease workerStateLease;
+
   /** Lazy initialized */
   private RaptorCostCalculator<T> costCalculator = null;
 
   /**
    * @param acceptC2AtDestination Currently only the pass-through has a constraint on the c2 value
    *                             for accepting it at the destination, if not this is {@code null}.
+   * @param workerStateLease If set, the stop-sized worker state arrays are borrowed from a pool
+   *                         using this lease, if not they are allocated. Only use this if the
+   *                         owner of the lease know when the state is no longer used.
    */
   public SearchContext(
     RaptorRequest<T> request,
     RaptorTuningParameters tuningParameters,
     RaptorTransitDataProvider<T> transit,
-    @Nullable IntPredicate acceptC2AtDestination
+    @Nullable IntPredicate acceptC2AtDestination,
+    @Nullable WorkerStatePool.Lease workerStateLease
   ) {
     this.request = request;
     this.tuningParameters = tuningParameters;
@@ -98,6 +106,7 @@ public class SearchContext<T extends RaptorTripSchedule> {
       );
     this.debugFactory = new DebugHandlerFactory<>(debugRequest(request), lifeCycle());
     this.acceptC2AtDestination = acceptC2AtDestination;
+    this.workerStateLease = workerStateLease;
   }
 
   public AccessPaths accessPaths() {
@@ -185,6 +194,17 @@ public class SearchContext<T extends RaptorTripSchedule> {
     return transit.numberOfStops();
   }
 
+  /**
+   * Create an int array with one element for each stop, all set to the given
+   * {@code initialValue}. The array is borrowed from the worker state pool if this context has a
+   * lease.
+   */
+  public int[] createStopIntArray(int initialValue) {
+    return workerStateLease == null
+      ? IntUtils.intArray(nStops(), initialValue)
+      : workerStateLease.intArray(nStops(), initialValue);
+  }
+
   /** Calculate the maximum number of rounds to perform. */
   public int nRounds() {
     if (request.searchParams().isMaxNumberOfTransfersSet()) {
@@ -0,0 +1,107 @@
+package org.opentripplanner.raptor.rangeraptor.context;
+
+import static org.opentripplanner.framework.lang.IntUtils.intArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStateLease;
+
+/**
+ * A bounded pool of stop-sized worker state arrays, shared by all threads. The arrays are
+ * borrowed through a {@link Lease}. The lease is search scoped and returns all borrowed arrays
+ * to the pool when it is released. A borrowed array is filled with the initial value, the
+ * searches using it read and update a plain {@code int[]}.
+ * <p>
+ * This class should have APPLICATION scope, it is thread-safe. A {@link Lease} is thread-safe
+ * too, arrays may be borrowed in one thread and released in another. The release must happen
+ * after all searches using the arrays are completed.
+ */
+public final class WorkerStatePool {
+
+  private final BlockingQueue<int[]> intArrays;
+
+  public WorkerStatePool(int maxPooledArrays) {
+    this.intArrays = new ArrayBlockingQueue<>(Math.max(1, maxPooledArrays));
+  }
+
+  public Lease lease() {
+    return new Lease();
+  }
+
+  /**
+   * Resolve the lease implementation, the lease must be created by this pool.
+   */
+  public Lease lease(WorkerStateLease lease) {
+    if (lease instanceof Lease it && it.pool() == this) {
+      return it;
+    }
+    throw new IllegalArgumentException("The lease is not created by this pool: " + lease);
+  }
+
+  private int[] borrowIntArray(int size, int initialValue) {
+    int[] array = intArrays.poll();
+
+    // The number of stops change when a new transit model is loaded, drop arrays with the wrong
+    // size
+    while (array != null && array.length != size) {
+      array = intArrays.poll();
+    }
+    if (array == null) {
+      return intArray(size, initialValue);
+    }
+    Arrays.fill(array, initialValue);
+    return array;
+  }
+
+  private void giveBack(List<int[]> arrays) {
+    for (int[] it : arrays) {
+      // If the pool is full, the array is left to the garbage collector
+      if (!intArrays.offer(it)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Keep track of the arrays borrowed by one search, and give them back to the pool when the
+   * search and everything referencing its state is done.
+   */
+  public final class Lease implements WorkerStateLease {
+
+    /** Guarded by the lease monitor, the lease may be shared by searches in several threads. */
+    private final List<int[]> borrowed = new ArrayList<>();
+    private boolean released = false;
+
+    private Lease() {}
+
+    private WorkerStatePool pool() {
+      return WorkerStatePool.this;
+    }
+
+    public synchronized int[] intArray(int size, int initialValue) {
+      if (released) {
+        throw new IllegalStateException("The worker state lease is released.");
+      }
+      var array = borrowIntArray(size, initialValue);
+      borrowed.add(array);
+      return array;
+    }
+
+    /**
+     * Give all borrowed arrays back to the pool. The caller must make sure the state is not used
+     * after this, the arrays are reset and reused by other searches.
+     */
+    @Override
+    public synchronized void release() {
+      if (released) {
+        return;
+      }
+      released = true;
+      giveBack(borrowed);
+      borrowed.clear();
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package org.opentripplanner.raptor.rangeraptor.internalapi;
+
+/**
+ * A lease on worker state borrowed from the application scoped worker state pool. The owner of
+ * the lease must release it when the search and all results referencing its state are no longer
+ * used.
+ */
+public interface WorkerStateLease {
+  /**
+   * Give the borrowed worker state back to the pool, the state can not be used after this.
+   */
+  void release();
+}
@@ -1,6 +1,8 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
@@ -9,11 +11,14 @@ import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
 
 public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements RaptorWorkerResult<T> {
 
-  private final McStopArrivals<T> stopArrivals;
+  /**
+   * The stop arrivals of this result, followed by the stop arrivals of the merged results.
+   */
+  private final List<McStopArrivals<T>> stopArrivals = new ArrayList<>(1);
   private final DestinationArrivalPaths<T> paths;
 
   public McRaptorWorkerResult(McStopArrivals<T> arrivals, DestinationArrivalPaths<T> paths) {
-    stopArrivals = arrivals;
+    stopArrivals.add(arrivals);
     this.paths = paths;
   }
 
@@ -22,17 +27,27 @@ public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements Rapto
     return paths.listPaths();
   }
 
+  /**
+   * Merge another result for the same request, but for another part of the search-window, into
+   * this result. Dominated paths are dropped. The best stop arrivals are the best of both results,
+   * the same as if all iterations were performed by one worker.
+   */
+  public void merge(McRaptorWorkerResult<T> other) {
+    paths.addAll(other.extractPaths());
+    stopArrivals.addAll(other.stopArrivals);
+  }
+
   @Override
   public SingleCriteriaStopArrivals extractBestOverallArrivals() {
     return new SingleCriteriaStopArrivals() {
       @Override
       public boolean isReached(int stop) {
-        return stopArrivals.reached(stop);
+        return isReachedInAny(stop, McStopArrivals::reached);
       }
 
       @Override
       public int value(int stop) {
-        return stopArrivals.bestArrivalTime(stop);
+        return minOfReached(stop, McStopArrivals::reached, McStopArrivals::bestArrivalTime);
       }
     };
   }
@@ -42,12 +57,16 @@ public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements Rapto
     return new SingleCriteriaStopArrivals() {
       @Override
       public boolean isReached(int stop) {
-        return stopArrivals.reachedByTransit(stop);
+        return isReachedInAny(stop, McStopArrivals::reachedByTransit);
       }
 
       @Override
       public int value(int stop) {
-        return stopArrivals.bestTransitArrivalTime(stop);
+        return minOfReached(
+          stop,
+          McStopArrivals::reachedByTransit,
+          McStopArrivals::bestTransitArrivalTime
+        );
       }
     };
   }
@@ -57,12 +76,16 @@ public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements Rapto
     return new SingleCriteriaStopArrivals() {
       @Override
       public boolean isReached(int stop) {
-        return stopArrivals.reached(stop);
+        return isReachedInAny(stop, McStopArrivals::reached);
       }
 
       @Override
       public int value(int stop) {
-        return stopArrivals.smallestNumberOfTransfers(stop);
+        return minOfReached(
+          stop,
+          McStopArrivals::reached,
+          McStopArrivals::smallestNumberOfTransfers
+        );
       }
     };
   }
@@ -71,4 +94,42 @@ public class McRaptorWorkerResult<T extends RaptorTripSchedule> implements Rapto
   public boolean isDestinationReached() {
     return !paths.isEmpty();
   }
+
+  private boolean isReachedInAny(int stop, StopPredicate<T> reached) {
+    for (McStopArrivals<T> it : stopArrivals) {
+      if (reached.test(it, stop)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The smallest value of the stop arrivals reaching the stop. Each part only has the arrivals of
+   * its own iterations, so the values are combined the same way a single worker combines the
+   * arrivals of all iterations.
+   */
+  private int minOfReached(
+    int stop,
+    StopPredicate<T> reached,
+    StopValue<T> value
+  ) {
+    int min = Integer.MAX_VALUE;
+    for (McStopArrivals<T> it : stopArrivals) {
+      if (reached.test(it, stop)) {
+        min = Math.min(min, value.apply(it, stop));
+      }
+    }
+    return min;
+  }
+
+  @FunctionalInterface
+  private interface StopPredicate<T extends RaptorTripSchedule> {
+    boolean test(McStopArrivals<T> arrivals, int stop);
+  }
+
+  @FunctionalInterface
+  private interface StopValue<T extends RaptorTripSchedule> {
+    int apply(McStopArrivals<T> arrivals, int stop);
+  }
 }
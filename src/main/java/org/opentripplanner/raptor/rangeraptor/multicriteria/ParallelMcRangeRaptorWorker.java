@@ -0,0 +1,83 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.util.AsyncTask;
+
+/**
+ * Run a multi-criteria range-raptor search split into sub-search-windows in parallel. Each
+ * sub-search-window is searched by its own worker with its own state. The destination paths and
+ * stop arrivals of all workers are merged into the result of the last worker, using the same
+ * pareto comparator as during the search.
+ * <p>
+ * The last worker should search the sub-search-window including the earliest-departure-time
+ * (forward search) or latest-arrival-time (reverse search). This worker is run in the calling
+ * thread.
+ * <p>
+ * A worker does not see the stop arrivals and destination arrivals of the iterations searched by
+ * the other workers, so it prunes less than a single worker searching the whole search-window.
+ * The extra paths it finds are dominated by a path found in a later part, and are dropped when
+ * the paths are merged. So, the result is the same as for a single worker, but the total amount
+ * of work is larger.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public final class ParallelMcRangeRaptorWorker<T extends RaptorTripSchedule>
+  implements RaptorWorker<T> {
+
+  private final List<RaptorWorker<T>> workers;
+  private final ExecutorService threadPool;
+
+  /**
+   * @param workers The workers created by the {@code McRangeRaptorConfig}, one for each
+   *                sub-search-window.
+   */
+  public ParallelMcRangeRaptorWorker(List<RaptorWorker<T>> workers, ExecutorService threadPool) {
+    if (workers.isEmpty()) {
+      throw new IllegalArgumentException("At least one worker is required.");
+    }
+    this.workers = List.copyOf(workers);
+    this.threadPool = threadPool;
+  }
+
+  @Override
+  public RaptorWorkerResult<T> route() {
+    final int last = workers.size() - 1;
+    List<AsyncTask<RaptorWorkerResult<T>>> asyncResults = new ArrayList<>(last);
+
+    try {
+      for (int i = 0; i < last; ++i) {
+        asyncResults.add(AsyncTask.submit(threadPool, workers.get(i)::route));
+      }
+      // All workers are created by the McRangeRaptorConfig, so the casts are safe
+      var result = (McRaptorWorkerResult<T>) workers.get(last).route();
+
+      for (AsyncTask<RaptorWorkerResult<T>> it : asyncResults) {
+        result.merge((McRaptorWorkerResult<T>) it.get());
+      }
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to run range-raptor search in parallel. Details: " + e.getMessage(),
+        e
+      );
+    } finally {
+      // The workers read state owned by the caller, like the pooled heuristics of the
+      // destination. Interrupt the running workers and wait for them to stop, before the caller
+      // can release it - also if the search failed or the request timed out.
+      asyncResults.forEach(AsyncTask::cancelAndJoin);
+    }
+  }
+}
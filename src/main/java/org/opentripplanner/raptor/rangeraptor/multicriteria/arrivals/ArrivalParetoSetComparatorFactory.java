@@ -3,6 +3,7 @@ package org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
 import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.util.paretoset.IntVectorParetoComparator;
 import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
 
 public interface ArrivalParetoSetComparatorFactory<T extends McStopArrival<?>> {
@@ -43,13 +44,23 @@ public interface ArrivalParetoSetComparatorFactory<T extends McStopArrival<?>> {
     return new ArrivalParetoSetComparatorFactory<T>() {
       @Override
       public ParetoComparator<T> compareArrivalTimeRoundAndCost() {
-        return McStopArrival::compareBase;
+        // Same as McStopArrival::compareBase
+        return IntVectorParetoComparator.of(
+          McStopArrival::arrivalTime,
+          McStopArrival::paretoRound,
+          McStopArrival::c1
+        );
       }
 
       @Override
       public ParetoComparator<T> compareArrivalTimeRoundCostAndOnBoardArrival() {
-        return (l, r) ->
-          McStopArrival.compareBase(l, r) || McStopArrival.compareArrivedOnBoard(l, r);
+        // Same as McStopArrival::compareBase and McStopArrival::compareArrivedOnBoard
+        return IntVectorParetoComparator.of(
+          McStopArrival::arrivalTime,
+          McStopArrival::paretoRound,
+          McStopArrival::c1,
+          a -> a.arrivedOnBoard() ? 0 : 1
+        );
       }
     };
   }
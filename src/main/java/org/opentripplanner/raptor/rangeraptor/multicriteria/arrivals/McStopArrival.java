@@ -6,6 +6,10 @@ import org.opentripplanner.raptor.api.view.ArrivalView;
 
 /**
  * Abstract super class for multi-criteria stop arrival.
+ * <p>
+ * The arrivals are immutable objects linked to the previous arrival. The pattern rides, the
+ * destination arrivals and the paths keep references to them after the round they are created in,
+ * so they can not be kept in primitive arrays reused between searches.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
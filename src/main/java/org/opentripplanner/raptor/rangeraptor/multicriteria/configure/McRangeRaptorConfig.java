@@ -1,6 +1,8 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria.configure;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
@@ -17,6 +19,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.McRangeRaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.MultiCriteriaRoutingStrategy;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ParallelMcRangeRaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrivalFactory;
@@ -67,6 +70,18 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return BitSetPassThroughPointsService.of(multiCriteriaRequest.passThroughPoints());
   }
 
+  /**
+   * Create a worker running the given multi-criteria workers in parallel and merging the paths.
+   * The workers must be created by this config, one for each sub-search-window, see
+   * {@link ParallelMcRangeRaptorWorker}.
+   */
+  public static <T extends RaptorTripSchedule> RaptorWorker<T> createParallelWorker(
+    List<RaptorWorker<T>> workers,
+    ExecutorService threadPool
+  ) {
+    return new ParallelMcRangeRaptorWorker<>(workers, threadPool);
+  }
+
   /**
    * Create new multi-criteria worker with optional heuristics.
    */
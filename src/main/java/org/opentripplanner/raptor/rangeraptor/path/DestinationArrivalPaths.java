@@ -114,6 +114,17 @@ public class DestinationArrivalPaths<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Merge in the paths found by another search for the same request, but for another part of the
+   * search-window. The time-limit and c2 checks are done by the search finding the paths, so the
+   * paths are added directly to the pareto set.
+   */
+  public void addAll(Collection<RaptorPath<T>> paths) {
+    for (RaptorPath<T> path : paths) {
+      this.paths.add(path);
+    }
+  }
+
   /**
    * Check if destination was reached in the current round.
    */
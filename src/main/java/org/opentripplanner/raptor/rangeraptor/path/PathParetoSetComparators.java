@@ -15,6 +15,7 @@ import org.opentripplanner.raptor.api.model.RelaxFunction;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.rangeraptor.internalapi.ParetoSetCost;
 import org.opentripplanner.raptor.rangeraptor.internalapi.ParetoSetTime;
+import org.opentripplanner.raptor.util.paretoset.IntVectorParetoComparator;
 import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
 
 /**
@@ -38,6 +39,10 @@ import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
  * The {@code travelDuration} is added as a criteria to the pareto comparator in addition to the
  * parameters used for each stop-arrival. The {@code travelDuration} is only needed at the
  * destination, because Range Raptor works in iterations backwards in time.
+ * <p/>
+ * Comparators with at most 4 criteria, and without relaxed or custom dominance functions, are
+ * created as {@link IntVectorParetoComparator}s. This allows the {@code ParetoSet} to do the
+ * dominance checks on packed int vectors.
  */
 public class PathParetoSetComparators {
 
@@ -97,22 +102,29 @@ public class PathParetoSetComparators {
   private static <
     T extends RaptorTripSchedule
   > ParetoComparator<RaptorPath<T>> comparatorStandardArrivalTime() {
-    return (l, r) -> compareArrivalTime(l, r) || compareNumberOfTransfers(l, r);
+    return IntVectorParetoComparator.of(
+      RaptorPath::endTimeInclusivePenalty,
+      RaptorPath::numberOfTransfers
+    );
   }
 
   private static <
     T extends RaptorTripSchedule
   > ParetoComparator<RaptorPath<T>> comparatorStandardDepartureTime() {
-    return (l, r) -> compareDepartureTime(l, r) || compareNumberOfTransfers(l, r);
+    return IntVectorParetoComparator.of(
+      p -> -p.startTimeInclusivePenalty(),
+      RaptorPath::numberOfTransfers
+    );
   }
 
   private static <
     T extends RaptorTripSchedule
   > ParetoComparator<RaptorPath<T>> comparatorTimetable() {
-    return (l, r) ->
-      compareIterationDepartureTime(l, r) ||
-      compareArrivalTime(l, r) ||
-      compareNumberOfTransfers(l, r);
+    return IntVectorParetoComparator.of(
+      p -> -p.rangeRaptorIterationDepartureTime(),
+      RaptorPath::endTimeInclusivePenalty,
+      RaptorPath::numberOfTransfers
+    );
   }
 
   private static <
@@ -142,21 +154,23 @@ public class PathParetoSetComparators {
   private static <
     T extends RaptorTripSchedule
   > ParetoComparator<RaptorPath<T>> comparatorArrivalTimeAndC1() {
-    return (l, r) ->
-      compareArrivalTime(l, r) ||
-      compareNumberOfTransfers(l, r) ||
-      compareDurationInclusivePenalty(l, r) ||
-      compareC1(l, r);
+    return IntVectorParetoComparator.of(
+      RaptorPath::endTimeInclusivePenalty,
+      RaptorPath::numberOfTransfers,
+      RaptorPath::durationInclusivePenaltyInSeconds,
+      RaptorPath::c1
+    );
   }
 
   private static <
     T extends RaptorTripSchedule
   > ParetoComparator<RaptorPath<T>> comparatorDepartureTimeAndC1() {
-    return (l, r) ->
-      compareDepartureTime(l, r) ||
-      compareNumberOfTransfers(l, r) ||
-      compareDurationInclusivePenalty(l, r) ||
-      compareC1(l, r);
+    return IntVectorParetoComparator.of(
+      p -> -p.startTimeInclusivePenalty(),
+      RaptorPath::numberOfTransfers,
+      RaptorPath::durationInclusivePenaltyInSeconds,
+      RaptorPath::c1
+    );
   }
 
   private static <
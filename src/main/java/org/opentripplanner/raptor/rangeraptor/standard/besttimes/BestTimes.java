@@ -43,12 +43,31 @@ public final class BestTimes {
   private BitSet reachedLastRound;
 
   public BestTimes(int nStops, TransitCalculator<?> calculator, WorkerLifeCycle lifeCycle) {
+    this(
+      intArray(nStops, calculator.unreachedTime()),
+      intArray(nStops, calculator.unreachedTime()),
+      calculator,
+      lifeCycle
+    );
+  }
+
+  /**
+   * Create best times using the given arrays, the arrays must be initialized with the
+   * {@link TransitCalculator#unreachedTime()}.
+   */
+  public BestTimes(
+    int[] times,
+    int[] transitArrivalTimes,
+    TransitCalculator<?> calculator,
+    WorkerLifeCycle lifeCycle
+  ) {
+    final int nStops = times.length;
     this.calculator = calculator;
-    this.times = intArray(nStops, calculator.unreachedTime());
+    this.times = times;
     this.reachedCurrentRound = new BitSet(nStops);
     this.reachedLastRound = new BitSet(nStops);
 
-    this.transitArrivalTimes = intArray(nStops, calculator.unreachedTime());
+    this.transitArrivalTimes = transitArrivalTimes;
     this.reachedByTransitCurrentRound = new BitSet(nStops);
 
     // Attach to Worker life cycle
@@ -1,6 +1,6 @@
 package org.opentripplanner.raptor.rangeraptor.standard.besttimes;
 
-import org.opentripplanner.framework.lang.IntUtils;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoundProvider;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfTransfers;
@@ -15,8 +15,12 @@ public class SimpleBestNumberOfTransfers implements BestNumberOfTransfers {
   private final int[] bestNumOfTransfers;
   private final RoundProvider roundProvider;
 
-  public SimpleBestNumberOfTransfers(int nStops, RoundProvider roundProvider) {
-    this.bestNumOfTransfers = IntUtils.intArray(nStops, unreachedMinNumberOfTransfers());
+  /**
+   * @param bestNumOfTransfers The array must be initialized with
+   *                           {@link RaptorConstants#N_TRANSFERS_UNREACHED}.
+   */
+  public SimpleBestNumberOfTransfers(int[] bestNumOfTransfers, RoundProvider roundProvider) {
+    this.bestNumOfTransfers = bestNumOfTransfers;
     this.roundProvider = roundProvider;
   }
 
@@ -5,6 +5,7 @@ import static org.opentripplanner.raptor.rangeraptor.path.PathParetoSetComparato
 
 import java.util.HashSet;
 import java.util.Set;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
@@ -124,7 +125,14 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private BestTimes resolveBestTimes() {
     if (bestTimes == null) {
-      bestTimes = new BestTimes(ctx.nStops(), ctx.calculator(), ctx.lifeCycle());
+      final int unreachedTime = ctx.calculator().unreachedTime();
+      bestTimes =
+        new BestTimes(
+          ctx.createStopIntArray(unreachedTime),
+          ctx.createStopIntArray(unreachedTime),
+          ctx.calculator(),
+          ctx.lifeCycle()
+        );
     }
     return bestTimes;
   }
@@ -232,7 +240,10 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
    */
   private SimpleBestNumberOfTransfers createSimpleBestNumberOfTransfers() {
     return withBestNumberOfTransfers(
-      new SimpleBestNumberOfTransfers(ctx.nStops(), ctx.roundProvider())
+      new SimpleBestNumberOfTransfers(
+        ctx.createStopIntArray(RaptorConstants.N_TRANSFERS_UNREACHED),
+        ctx.roundProvider()
+      )
     );
   }
 
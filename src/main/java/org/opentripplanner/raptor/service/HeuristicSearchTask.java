@@ -11,6 +11,7 @@ import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStateLease;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +38,7 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
   private RaptorRequest<T> originalRequest;
   private RaptorRequest<T> heuristicRequest;
   private RaptorWorkerResult<T> result = null;
+  private WorkerStateLease workerStateLease = null;
 
   public HeuristicSearchTask(
     RaptorRequest<T> request,
@@ -93,6 +95,17 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     run();
   }
 
+  /**
+   * Give the worker state of the search back to the pool. The {@link #result()} can not be used
+   * after this, so make sure the heuristics are no longer needed.
+   */
+  public void releaseWorkerState() {
+    if (workerStateLease != null) {
+      workerStateLease.release();
+      workerStateLease = null;
+    }
+  }
+
   public void debugCompareResult(HeuristicSearchTask<T> other) {
     if (!isEnabled() || !other.isEnabled()) {
       return;
@@ -144,7 +157,8 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       );
 
       heuristicRequest = builder.build();
-      search = config.createHeuristicSearch(transitData, heuristicRequest);
+      workerStateLease = config.leaseWorkerState();
+      search = config.createHeuristicSearch(transitData, heuristicRequest, workerStateLease);
     }
   }
 }
@@ -8,7 +8,6 @@ import static org.opentripplanner.raptor.service.HeuristicToRunResolver.resolveH
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
@@ -23,6 +22,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.AsyncTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +30,9 @@ import org.slf4j.LoggerFactory;
  * This search helps the {@link RaptorService} to configure
  * heuristics and set dynamic search parameters like EDT, LAT and raptor-search-window.
  * <p>
- * If possible the forward and reverse heuristics will be run in parallel.
+ * If possible the forward and reverse heuristics will be run in parallel. The search-window of the
+ * main multi-criteria search can also be split into sub-search-windows, which are searched in
+ * parallel, see {@link SearchWindowSplitter}.
  * <p>
  * Depending on which optimization is enabled and which search parameters are set a forward and/or a
  * reverse "single-iteration" raptor search is performed and heuristics are collected. This is used
@@ -52,6 +54,25 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     RaptorConfig<T> config,
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> originalRequest
+  ) {
+    this(
+      config,
+      transitData,
+      originalRequest,
+      new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData),
+      new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData)
+    );
+  }
+
+  /**
+   * Only exposed for testing purposes
+   */
+  RangeRaptorDynamicSearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> originalRequest,
+    HeuristicSearchTask<T> fwdHeuristics,
+    HeuristicSearchTask<T> revHeuristics
   ) {
     this.config = config;
     this.transitData = transitData;
@@ -59,8 +80,8 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     this.dynamicSearchParamsCalculator =
       config.searchWindowCalculator().withSearchParams(originalRequest.searchParams());
 
-    this.fwdHeuristics = new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData);
-    this.revHeuristics = new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData);
+    this.fwdHeuristics = fwdHeuristics;
+    this.revHeuristics = revHeuristics;
   }
 
   public RaptorResponse<T> route() {
@@ -88,6 +109,18 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * Give the worker state of the heuristic searches back to the pool, to be reused by the next
+   * search. Call this when the search is completed, the heuristics can not be used after this.
+   * <p>
+   * It is safe to call this after {@link #route()} has returned or thrown an exception, the
+   * heuristic searches running in another thread are completed before the route method exits.
+   */
+  public void releaseWorkerState() {
+    fwdHeuristics.releaseWorkerState();
+    revHeuristics.releaseWorkerState();
+  }
+
   /**
    * Only exposed for testing purposes
    */
@@ -134,7 +167,20 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
     // Create worker
     if (request.profile().is(MULTI_CRITERIA)) {
-      raptorWorker = config.createMcWorker(transitData, request, getDestinationHeuristics());
+      if (isItPossibleToRunMainSearchInParallel(request)) {
+        raptorWorker =
+          config.createParallelMcWorker(
+            transitData,
+            SearchWindowSplitter.split(
+              request,
+              config.searchWindowParallelism(),
+              config.iterationDepartureStepInSeconds()
+            ),
+            getDestinationHeuristics()
+          );
+      } else {
+        raptorWorker = config.createMcWorker(transitData, request, getDestinationHeuristics());
+      }
     } else {
       raptorWorker = config.createStdWorker(transitData, request);
     }
@@ -152,6 +198,14 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     );
   }
 
+  private boolean isItPossibleToRunMainSearchInParallel(RaptorRequest<T> request) {
+    return (
+      config.searchWindowParallelism() > 1 &&
+      request.runInParallel() &&
+      !request.searchParams().searchOneIterationOnly()
+    );
+  }
+
   private boolean isItPossibleToRunHeuristicsInParallel() {
     SearchParams s = originalRequest.searchParams();
     return (
@@ -170,18 +224,21 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
   private void runHeuristicsInParallel() {
     fwdHeuristics.withRequest(originalRequest);
     revHeuristics.withRequest(originalRequest);
-    Future<?> asyncResult = null;
+    var asyncSearch = AsyncTask.submit(
+      config.threadPool(),
+      () -> {
+        fwdHeuristics.run();
+        return null;
+      }
+    );
     try {
-      asyncResult = config.threadPool().submit(fwdHeuristics::run);
       revHeuristics.run();
-      asyncResult.get();
+      asyncSearch.get();
       LOG.debug(
         "Route using RangeRaptor - " + "REVERSE and FORWARD heuristic search performed in parallel."
       );
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
-      // propagate interruption to the running task.
-      asyncResult.cancel(true);
       throw new OTPRequestTimeoutException();
     } catch (ExecutionException e) {
       if (e.getCause() instanceof DestinationNotReachedException) {
@@ -191,6 +248,10 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       throw new IllegalStateException(
         "Failed to run FORWARD/REVERSE heuristic search in parallel. Details: " + e.getMessage()
       );
+    } finally {
+      // The worker state of the forward search is released when the search is done, so we must
+      // wait for it to complete - also if the reverse search failed or the request timed out.
+      asyncSearch.cancelAndJoin();
     }
   }
 
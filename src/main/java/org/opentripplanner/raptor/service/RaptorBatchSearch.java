@@ -0,0 +1,150 @@
+package org.opentripplanner.raptor.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.RaptorBatchStatistics;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Run a batch of one-to-many searches, one search for each origin, using the same transit data.
+ * This is used to compute travel-time matrices, where only the best arrival time at each stop is
+ * needed - no paths are returned.
+ * <p>
+ * Each search is performed by a standard range-raptor worker. The worker state arrays are borrowed
+ * from the application scoped pool in {@link RaptorConfig}, so consecutive searches in the same
+ * batch reuse the same arrays. If the config is multithreaded, the searches are run in parallel
+ * on the raptor thread pool, and in the calling thread.
+ *
+ * @param <T> The TripSchedule type defined by the user of the raptor API.
+ */
+public class RaptorBatchSearch<T extends RaptorTripSchedule> {
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final List<RaptorRequest<T>> requests;
+
+  /**
+   * @param requests One request for each origin. The requests must use a single-criteria
+   *                 profile, {@link RaptorProfile#BEST_TIME} is recommended, and the
+   *                 search-window must be set.
+   */
+  public RaptorBatchSearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    List<RaptorRequest<T>> requests
+  ) {
+    requests.forEach(RaptorBatchSearch::assertRequestIsSupported);
+    this.config = config;
+    this.transitData = transitData;
+    this.requests = List.copyOf(requests);
+  }
+
+  /**
+   * Perform all searches. The stop arrivals of each search is passed to the given consumer,
+   * together with the index of the request. The stop arrivals are only valid during the call; the
+   * worker state is reused by the next search when the consumer returns. The consumer is called
+   * from more than one thread if the search is run in parallel, so it must be thread-safe.
+   */
+  public RaptorBatchStatistics route(ObjIntConsumer<StopArrivals> consumer) {
+    final long startTime = System.nanoTime();
+    final AtomicInteger nextIndex = new AtomicInteger();
+    final int parallelism = parallelism();
+    List<Future<?>> asyncResults = new ArrayList<>(parallelism - 1);
+
+    try {
+      for (int i = 1; i < parallelism; ++i) {
+        asyncResults.add(config.threadPool().submit(() -> routeAll(nextIndex, consumer)));
+      }
+      routeAll(nextIndex, consumer);
+
+      for (Future<?> it : asyncResults) {
+        it.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      cancel(nextIndex, asyncResults);
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      cancel(nextIndex, asyncResults);
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new IllegalStateException(
+        "Failed to run batch search in parallel. Details: " + e.getMessage(),
+        e
+      );
+    } catch (RuntimeException e) {
+      cancel(nextIndex, asyncResults);
+      throw e;
+    }
+    return new RaptorBatchStatistics(
+      requests.size(),
+      Duration.ofNanos(System.nanoTime() - startTime),
+      parallelism
+    );
+  }
+
+  /* private methods */
+
+  private static void assertRequestIsSupported(RaptorRequest<?> request) {
+    if (request.profile().is(RaptorProfile.MULTI_CRITERIA)) {
+      throw new IllegalArgumentException(
+        "The batch search does not support multi-criteria requests: " + request
+      );
+    }
+    if (!request.searchParams().isSearchWindowSet()) {
+      throw new IllegalArgumentException(
+        "The search-window is required in a batch search: " + request
+      );
+    }
+  }
+
+  /**
+   * The calling thread performs searches as well, so one less task is submitted to the pool.
+   */
+  private int parallelism() {
+    if (!config.isMultiThreaded()) {
+      return 1;
+    }
+    return Math.max(1, Math.min(config.threadPoolSize() + 1, requests.size()));
+  }
+
+  /**
+   * Take the next request from the shared index until all requests are searched. This balance the
+   * work between the threads, even if some searches take much longer than others.
+   */
+  private void routeAll(AtomicInteger nextIndex, ObjIntConsumer<StopArrivals> consumer) {
+    for (int i = nextIndex.getAndIncrement(); i < requests.size(); i = nextIndex.getAndIncrement()) {
+      route(i, consumer);
+    }
+  }
+
+  private void route(int index, ObjIntConsumer<StopArrivals> consumer) {
+    var lease = config.leaseWorkerState();
+    try {
+      var worker = config.createStdWorker(transitData, requests.get(index), lease);
+      consumer.accept(new DefaultStopArrivals(worker.route()), index);
+    } finally {
+      // The stop arrivals are not used after the consumer returns
+      lease.release();
+    }
+  }
+
+  private void cancel(AtomicInteger nextIndex, List<Future<?>> asyncResults) {
+    // Skip the remaining requests in all threads
+    nextIndex.set(requests.size());
+    asyncResults.forEach(it -> it.cancel(true));
+  }
+}
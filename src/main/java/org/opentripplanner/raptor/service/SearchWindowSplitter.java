@@ -0,0 +1,74 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParams;
+
+/**
+ * Split a range-raptor request into requests for consecutive sub-search-windows, so the
+ * sub-search-windows can be searched in parallel. Together the sub-requests perform exactly the
+ * same range-raptor iterations as the original request.
+ * <p>
+ * The requests are returned in the order the iterations are performed by range-raptor. For a
+ * forward search the first request covers the end of the search-window, and the last request
+ * includes the earliest-departure-time. For a reverse search the last request includes the
+ * latest-arrival-time.
+ */
+class SearchWindowSplitter {
+
+  /** Utility class with static methods only */
+  private SearchWindowSplitter() {}
+
+  /**
+   * Split the given request into at most {@code nParts} requests. The original request is
+   * returned if the search-window or the time it starts from is not set, if the search-window is
+   * not a multiple of the iteration step, or if it contains only one iteration.
+   */
+  static <T extends RaptorTripSchedule> List<RaptorRequest<T>> split(
+    RaptorRequest<T> request,
+    int nParts,
+    int iterationStep
+  ) {
+    SearchParams s = request.searchParams();
+    final boolean forward = request.searchDirection().isForward();
+
+    if (nParts < 2 || !s.isSearchWindowSet() || s.searchWindowInSeconds() % iterationStep != 0) {
+      return List.of(request);
+    }
+    if (forward ? !s.isEarliestDepartureTimeSet() : !s.isLatestArrivalTimeSet()) {
+      return List.of(request);
+    }
+
+    final int nIterations = s.searchWindowInSeconds() / iterationStep;
+    nParts = Math.min(nParts, nIterations);
+
+    if (nParts < 2) {
+      return List.of(request);
+    }
+
+    var result = new ArrayList<RaptorRequest<T>>(nParts);
+
+    // The number of iterations left to assign, after the current part
+    int iterationsLeft = nIterations;
+
+    for (int i = 0; i < nParts; ++i) {
+      // Distribute the iterations evenly, the first parts get one extra iteration if needed
+      int partIterations = nIterations / nParts + (i < nIterations % nParts ? 1 : 0);
+      iterationsLeft -= partIterations;
+
+      int offset = iterationsLeft * iterationStep;
+      var builder = request.mutate().searchParams();
+      builder.searchWindowInSeconds(partIterations * iterationStep);
+
+      if (forward) {
+        builder.earliestDepartureTime(s.earliestDepartureTime() + offset);
+      } else {
+        builder.latestArrivalTime(s.latestArrivalTime() - offset);
+      }
+      result.add(builder.build());
+    }
+    return result;
+  }
+}
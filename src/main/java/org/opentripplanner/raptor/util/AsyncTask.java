@@ -0,0 +1,83 @@
+package org.opentripplanner.raptor.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A task run in a thread pool, which can be cancelled and joined. Cancelling a {@link Future}
+ * only interrupts a running task, the task may keep running after {@link Future#cancel(boolean)}
+ * returns, and {@link Future#get()} fails at once. Use {@link #cancelAndJoin()} before releasing
+ * state the task uses, like pooled worker state.
+ *
+ * @param <V> the result type of the task
+ */
+public final class AsyncTask<V> {
+
+  private static final int NOT_STARTED = 0;
+  private static final int STARTED = 1;
+  private static final int CANCELLED = 2;
+
+  private final Callable<V> task;
+  private final AtomicInteger state = new AtomicInteger(NOT_STARTED);
+  private final CountDownLatch completed = new CountDownLatch(1);
+  private final Future<V> future;
+
+  private AsyncTask(ExecutorService threadPool, Callable<V> task) {
+    this.task = task;
+    this.future = threadPool.submit(this::call);
+  }
+
+  public static <V> AsyncTask<V> submit(ExecutorService threadPool, Callable<V> task) {
+    return new AsyncTask<>(threadPool, task);
+  }
+
+  /**
+   * Wait for the task to complete, see {@link Future#get()}.
+   */
+  public V get() throws InterruptedException, ExecutionException {
+    return future.get();
+  }
+
+  /**
+   * Cancel the task if it is not completed, and wait for it to stop. The task is interrupted if
+   * it is running. When this method returns the task is not running, and it will not be started
+   * later. The interrupted status of the calling thread is kept, but the method does not return
+   * before the task is stopped.
+   */
+  public void cancelAndJoin() {
+    if (state.compareAndSet(NOT_STARTED, CANCELLED)) {
+      future.cancel(false);
+      return;
+    }
+    future.cancel(true);
+
+    boolean interrupted = false;
+    while (true) {
+      try {
+        completed.await();
+        break;
+      } catch (InterruptedException e) {
+        // Keep waiting, the caller must not release the state used by a running task
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private V call() throws Exception {
+    if (!state.compareAndSet(NOT_STARTED, STARTED)) {
+      return null;
+    }
+    try {
+      return task.call();
+    } finally {
+      completed.countDown();
+    }
+  }
+}
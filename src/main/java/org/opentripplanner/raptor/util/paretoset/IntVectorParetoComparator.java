@@ -0,0 +1,98 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link ParetoComparator} for elements described by a vector of up to
+ * {@link #MAX_NUMBER_OF_CRITERIA} int criteria, where <em>less is better</em> for all criteria.
+ * Map criteria where more is better by negating the value, and boolean criteria to 0(better)
+ * and 1(worse).
+ * <p>
+ * The {@link ParetoSet} detects this comparator, and stores the criteria of each element in a
+ * packed int array. Then the criteria are read once for each element added, and the dominance
+ * checks are done on the int arrays, without calling back into the element for each comparison.
+ * <p>
+ * The comparator can also be used as a plain {@link ParetoComparator}.
+ *
+ * @param <T> the element type
+ */
+public final class IntVectorParetoComparator<T> implements ParetoComparator<T> {
+
+  public static final int MAX_NUMBER_OF_CRITERIA = 4;
+
+  private static final ToIntFunction<Object> NOT_USED = e -> 0;
+
+  private final ToIntFunction<? super T> c0;
+  private final ToIntFunction<? super T> c1;
+  private final ToIntFunction<? super T> c2;
+  private final ToIntFunction<? super T> c3;
+
+  private IntVectorParetoComparator(
+    ToIntFunction<? super T> c0,
+    ToIntFunction<? super T> c1,
+    ToIntFunction<? super T> c2,
+    ToIntFunction<? super T> c3
+  ) {
+    this.c0 = c0;
+    this.c1 = c1;
+    this.c2 = c2;
+    this.c3 = c3;
+  }
+
+  public static <T> IntVectorParetoComparator<T> of(
+    ToIntFunction<? super T> c0,
+    ToIntFunction<? super T> c1
+  ) {
+    return new IntVectorParetoComparator<>(c0, c1, NOT_USED, NOT_USED);
+  }
+
+  public static <T> IntVectorParetoComparator<T> of(
+    ToIntFunction<? super T> c0,
+    ToIntFunction<? super T> c1,
+    ToIntFunction<? super T> c2
+  ) {
+    return new IntVectorParetoComparator<>(c0, c1, c2, NOT_USED);
+  }
+
+  public static <T> IntVectorParetoComparator<T> of(
+    ToIntFunction<? super T> c0,
+    ToIntFunction<? super T> c1,
+    ToIntFunction<? super T> c2,
+    ToIntFunction<? super T> c3
+  ) {
+    return new IntVectorParetoComparator<>(c0, c1, c2, c3);
+  }
+
+  @Override
+  public boolean leftDominanceExist(T left, T right) {
+    return (
+      c0.applyAsInt(left) < c0.applyAsInt(right) ||
+      c1.applyAsInt(left) < c1.applyAsInt(right) ||
+      c2.applyAsInt(left) < c2.applyAsInt(right) ||
+      c3.applyAsInt(left) < c3.applyAsInt(right)
+    );
+  }
+
+  /**
+   * Copy the criteria of the given element into {@code vectors}, starting at {@code offset}.
+   * Exactly {@link #MAX_NUMBER_OF_CRITERIA} values are written, unused criteria are set to zero.
+   */
+  void copyCriteria(T element, int[] vectors, int offset) {
+    vectors[offset] = c0.applyAsInt(element);
+    vectors[offset + 1] = c1.applyAsInt(element);
+    vectors[offset + 2] = c2.applyAsInt(element);
+    vectors[offset + 3] = c3.applyAsInt(element);
+  }
+
+  /**
+   * At least one of the left criteria is less than the corresponding right criteria.
+   */
+  static boolean leftDominanceExist(int[] left, int leftOffset, int[] right, int rightOffset) {
+    return (
+      left[leftOffset] < right[rightOffset] ||
+      left[leftOffset + 1] < right[rightOffset + 1] ||
+      left[leftOffset + 2] < right[rightOffset + 2] ||
+      left[leftOffset + 3] < right[rightOffset + 3]
+    );
+  }
+}
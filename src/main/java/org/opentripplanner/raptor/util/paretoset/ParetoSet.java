@@ -20,11 +20,17 @@ import java.util.stream.Collectors;
  * {@code  [[1,7], [3,5], [5,3]] + [2,4] => [[1,7], [5,3], [2,4]]   -- less than dominates}
  * <p/>
  * No methods for removing elements like {@link #remove(Object)} are supported.
+ * <p/>
+ * If the comparator is an {@link IntVectorParetoComparator}, the criteria of each element are
+ * kept in a packed int array next to the elements, and the dominance checks are done on the
+ * int array. The result is the same as using the comparator directly, but faster.
  *
  * @param <T> the element type
  */
 public class ParetoSet<T> extends AbstractCollection<T> {
 
+  private static final int VECTOR_SIZE = IntVectorParetoComparator.MAX_NUMBER_OF_CRITERIA;
+
   private final ParetoComparator<T> comparator;
   private final ParetoSetEventListener<? super T> eventListener;
 
@@ -35,6 +41,15 @@ public class ParetoSet<T> extends AbstractCollection<T> {
 
   private T goodElement = null;
 
+  /**
+   * The comparator if it is an {@link IntVectorParetoComparator}, if not {@code null}. If set,
+   * the criteria of element {@code i} are stored in {@code vectors[i * VECTOR_SIZE ..]}.
+   */
+  private final IntVectorParetoComparator<T> vectorComparator;
+  private int[] vectors;
+  private final int[] newVector;
+  private final int[] goodVector;
+
   /**
    * Create a new ParetoSet with a comparator and a drop event listener.
    *
@@ -47,6 +62,18 @@ public class ParetoSet<T> extends AbstractCollection<T> {
   ) {
     this.comparator = comparator;
     this.eventListener = eventListener;
+
+    if (comparator instanceof IntVectorParetoComparator<T> c) {
+      this.vectorComparator = c;
+      this.vectors = new int[elements.length * VECTOR_SIZE];
+      this.newVector = new int[VECTOR_SIZE];
+      this.goodVector = new int[VECTOR_SIZE];
+    } else {
+      this.vectorComparator = null;
+      this.vectors = null;
+      this.newVector = null;
+      this.goodVector = null;
+    }
   }
 
   /**
@@ -78,6 +105,9 @@ public class ParetoSet<T> extends AbstractCollection<T> {
 
   @Override
   public boolean add(T newValue) {
+    if (vectorComparator != null) {
+      return addUsingVectors(newValue);
+    }
     if (size == 0) {
       acceptAndAppendValue(newValue);
       return true;
@@ -146,6 +176,9 @@ public class ParetoSet<T> extends AbstractCollection<T> {
    * Both methods are optimized for performance; hence the add method does not use this method.
    */
   public boolean qualify(T newValue) {
+    if (vectorComparator != null) {
+      return qualifyUsingVectors(newValue);
+    }
     if (size == 0) {
       return true;
     }
@@ -250,6 +283,121 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     };
   }
 
+  /**
+   * Same as {@link #add(Object)}, but using the int vectors to check for dominance.
+   */
+  private boolean addUsingVectors(T newValue) {
+    vectorComparator.copyCriteria(newValue, newVector, 0);
+
+    if (size == 0) {
+      acceptAndAppendValue(newValue);
+      return true;
+    }
+
+    // Quick shortcut, one element probably dominate most of the new elements
+    if (goodElement != null && leftVectorDominatesRightVector(goodVector, 0, newVector, 0)) {
+      notifyElementRejected(newValue, goodElement);
+      return false;
+    }
+
+    boolean mutualDominanceExist = false;
+    boolean equivalentVectorExist = false;
+
+    for (int i = 0; i < size; ++i) {
+      final int offset = i * VECTOR_SIZE;
+
+      boolean leftDominance = IntVectorParetoComparator.leftDominanceExist(
+        newVector,
+        0,
+        vectors,
+        offset
+      );
+      boolean rightDominance = IntVectorParetoComparator.leftDominanceExist(
+        vectors,
+        offset,
+        newVector,
+        0
+      );
+
+      if (leftDominance && rightDominance) {
+        mutualDominanceExist = true;
+      } else if (leftDominance) {
+        removeDominatedElementsFromRestOfSetAndAddNewElement(newValue, i);
+        return true;
+      } else if (rightDominance) {
+        setGoodElement(i);
+        notifyElementRejected(newValue, elements[i]);
+        return false;
+      } else {
+        equivalentVectorExist = true;
+      }
+    }
+
+    if (mutualDominanceExist && !equivalentVectorExist) {
+      assertEnoughSpaceInSet();
+      acceptAndAppendValue(newValue);
+      return true;
+    }
+
+    // No dominance found, newValue is equivalent with all values in the set
+    notifyElementRejected(newValue, elements[0]);
+    return false;
+  }
+
+  /**
+   * Same as {@link #qualify(Object)}, but using the int vectors to check for dominance.
+   */
+  private boolean qualifyUsingVectors(T newValue) {
+    if (size == 0) {
+      return true;
+    }
+    vectorComparator.copyCriteria(newValue, newVector, 0);
+
+    // Quick shortcut, one element probably dominate most of the new elements
+    if (goodElement != null && leftVectorDominatesRightVector(goodVector, 0, newVector, 0)) {
+      notifyElementRejected(newValue, goodElement);
+      return false;
+    }
+
+    boolean mutualDominanceExist = false;
+    boolean equivalentVectorExist = false;
+
+    for (int i = size - 1; i >= 0; --i) {
+      final int offset = i * VECTOR_SIZE;
+
+      boolean leftDominance = IntVectorParetoComparator.leftDominanceExist(
+        newVector,
+        0,
+        vectors,
+        offset
+      );
+      boolean rightDominance = IntVectorParetoComparator.leftDominanceExist(
+        vectors,
+        offset,
+        newVector,
+        0
+      );
+
+      if (leftDominance && rightDominance) {
+        if (equivalentVectorExist) {
+          return false;
+        }
+        mutualDominanceExist = true;
+      } else if (leftDominance) {
+        return true;
+      } else if (rightDominance) {
+        setGoodElement(i);
+        return false;
+      } else {
+        if (mutualDominanceExist) {
+          return false;
+        }
+        equivalentVectorExist = true;
+      }
+    }
+    return mutualDominanceExist;
+  }
+
   /**
    * Remove all elements dominated by the {@code newValue} starting from {@code index + 1}. The
    * element at {@code index} is dropped.
@@ -268,8 +416,9 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     while (j < size) {
       notifyElementMoved(j, i);
       // Move next element(j) forward if it is not dominated by the new value
-      if (!leftVectorDominatesRightVector(newValue, elements[j])) {
+      if (!newValueDominatesElementAt(newValue, j)) {
         elements[i] = elements[j];
+        moveVector(j, i);
         ++i;
       } else {
         notifyElementDropped(elements[j], newValue);
@@ -280,6 +429,7 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     notifyElementMoved(j, i);
     notifyElementAccepted(newValue);
     elements[i] = newValue;
+    copyNewVectorTo(i);
     size = i + 1;
   }
 
@@ -287,14 +437,59 @@ public class ParetoSet<T> extends AbstractCollection<T> {
     return leftDominanceExist(left, right) && !rightDominanceExist(left, right);
   }
 
+  private static boolean leftVectorDominatesRightVector(
+    int[] left,
+    int leftOffset,
+    int[] right,
+    int rightOffset
+  ) {
+    return (
+      IntVectorParetoComparator.leftDominanceExist(left, leftOffset, right, rightOffset) &&
+      !IntVectorParetoComparator.leftDominanceExist(right, rightOffset, left, leftOffset)
+    );
+  }
+
+  private boolean newValueDominatesElementAt(T newValue, int index) {
+    return vectors == null
+      ? leftVectorDominatesRightVector(newValue, elements[index])
+      : leftVectorDominatesRightVector(newVector, 0, vectors, index * VECTOR_SIZE);
+  }
+
+  private void setGoodElement(int index) {
+    goodElement = elements[index];
+    System.arraycopy(vectors, index * VECTOR_SIZE, goodVector, 0, VECTOR_SIZE);
+  }
+
   private void acceptAndAppendValue(T newValue) {
     notifyElementAccepted(newValue);
+    copyNewVectorTo(size);
     elements[size++] = newValue;
   }
 
+  private void copyNewVectorTo(int index) {
+    if (vectors != null) {
+      System.arraycopy(newVector, 0, vectors, index * VECTOR_SIZE, VECTOR_SIZE);
+    }
+  }
+
+  private void moveVector(int fromIndex, int toIndex) {
+    if (vectors != null) {
+      System.arraycopy(
+        vectors,
+        fromIndex * VECTOR_SIZE,
+        vectors,
+        toIndex * VECTOR_SIZE,
+        VECTOR_SIZE
+      );
+    }
+  }
+
   private void assertEnoughSpaceInSet() {
     if (size == elements.length) {
       elements = Arrays.copyOf(elements, elements.length * 2);
+      if (vectors != null) {
+        vectors = Arrays.copyOf(vectors, elements.length * VECTOR_SIZE);
+      }
     }
   }
 
@@ -11,13 +11,16 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.routing.algorithm.mapping.RaptorPathToItineraryMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressPenaltyDecorator;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType;
@@ -39,6 +42,7 @@ import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 
@@ -86,6 +90,33 @@ public class TransitRouter {
     return transitRouter.routeAndCleanupAfter();
   }
 
+  /**
+   * Run the egress street search for the destination of the request, and store the result in the
+   * {@link AccessEgressCache}. The following requests to the same destination, with the same
+   * egress mode and preferences, use the result without searching. This can be used to prepare
+   * the egress of popular destinations, like a stop cluster or a large workplace. The origin of
+   * the request is not used.
+   *
+   * @return the number of stops found
+   * @throws IllegalStateException if the cache is not enabled or the egress mode is not cached
+   */
+  public static int precomputeEgress(RouteRequest request, OtpServerRequestContext serverContext) {
+    var egressRequest = request.clone();
+    egressRequest.setFrom(new GenericLocation(null, null));
+
+    TransitRouter transitRouter = new TransitRouter(
+      egressRequest,
+      serverContext,
+      null,
+      null,
+      new DebugTimingAggregator()
+    );
+
+    try (transitRouter.temporaryVerticesContainer) {
+      return transitRouter.precomputeEgress().size();
+    }
+  }
+
   private TransitRouterResult routeAndCleanupAfter() {
     // try(auto-close):
     //   Make sure we clean up graph by removing temp-edges from the graph before we exit.
@@ -244,15 +275,13 @@ public class TransitRouter {
       .valueOf(streetRequest.mode());
     int stopCountLimit = accessRequest.preferences().street().accessEgress().maxStopCount();
 
-    var nearbyStops = AccessEgressRouter.streetSearch(
+    var nearbyStops = streetSearch(
       accessRequest,
-      temporaryVerticesContainer,
-      serverContext.transitService(),
       streetRequest,
-      serverContext.dataOverlayContext(accessRequest),
-      type.isEgress(),
+      type,
       durationLimit,
-      stopCountLimit
+      stopCountLimit,
+      false
     );
 
     List<DefaultAccessEgress> results = new ArrayList<>(
@@ -278,6 +307,75 @@ public class TransitRouter {
     return results;
   }
 
+  private Collection<NearbyStop> precomputeEgress() {
+    var streetRequest = request.journey().egress();
+    if (
+      serverContext.accessEgressCache() == null ||
+      serverContext.dataOverlayContext(request) != null ||
+      !AccessEgressCache.isCacheable(streetRequest.mode())
+    ) {
+      throw new IllegalStateException("The egress search is not cached: " + streetRequest.mode());
+    }
+
+    var preferences = request.preferences().street().accessEgress();
+    return streetSearch(
+      request,
+      streetRequest,
+      EGRESS,
+      preferences.maxDuration().valueOf(streetRequest.mode()),
+      preferences.maxStopCount(),
+      true
+    );
+  }
+
+  /**
+   * Find the nearby stops using the street network. The result is taken from the shared
+   * {@link AccessEgressCache}, if the cache is enabled and the search is cacheable.
+   *
+   * @param precompute Search even if the result is cached, and replace the cached result.
+   */
+  private Collection<NearbyStop> streetSearch(
+    RouteRequest accessRequest,
+    StreetRequest streetRequest,
+    AccessEgressType type,
+    Duration durationLimit,
+    int stopCountLimit,
+    boolean precompute
+  ) {
+    var dataOverlayContext = serverContext.dataOverlayContext(accessRequest);
+    Supplier<Collection<NearbyStop>> search = () ->
+      AccessEgressRouter.streetSearch(
+        accessRequest,
+        temporaryVerticesContainer,
+        serverContext.transitService(),
+        streetRequest,
+        dataOverlayContext,
+        type.isEgress(),
+        durationLimit,
+        stopCountLimit
+      );
+
+    var cache = serverContext.accessEgressCache();
+    if (
+      cache == null ||
+      dataOverlayContext != null ||
+      !AccessEgressCache.isCacheable(streetRequest.mode())
+    ) {
+      return search.get();
+    }
+    var key = AccessEgressCache.Key.of(
+      accessRequest,
+      streetRequest,
+      type.isEgress(),
+      durationLimit,
+      stopCountLimit,
+      type.isEgress()
+        ? temporaryVerticesContainer.getToVertices()
+        : temporaryVerticesContainer.getFromVertices()
+    );
+    return precompute ? cache.precompute(key, search) : cache.get(key, search);
+  }
+
   /**
    * Given a list of {@code results} shift the access ones which contain driving
    * so that they only start at the time when the ride hailing vehicle can actually be there
@@ -0,0 +1,284 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * A cache of access and egress street search results, shared between requests. Many requests start
+ * or end at the same place, like a station or a geocoded address. The nearby stops found by the
+ * street search only depend on the location, the street mode, the search limits and the street
+ * preferences, so the result can be reused.
+ * <p>
+ * Only walking and cycling are cached, since the result of rental, parking and car pickup searches
+ * depends on realtime availability. An entry is not used after a realtime updater has changed the
+ * street network, see {@link Graph#realtimeStreetVersion()}, and expires after a fixed time unless
+ * it is precomputed.
+ * <p>
+ * The entries are keyed by the requested location, not by the street vertex it is linked to. Two
+ * coordinates linked to the same street edge are split at different points, and give different
+ * results. A location given as a stop or station is linked to the stop vertices, so the requests to
+ * the same stop share an entry whatever the label and coordinates are, see {@link Key#of}.
+ * <p>
+ * The egress result for a popular destination can be calculated ahead of the requests, see
+ * {@link #precompute(Key, Supplier)}. These results do not expire and are not evicted, and must be
+ * calculated again after a realtime change, see {@link #isPrecomputedOutOfDate()}. The hit rate
+ * and the search time saved are recorded as metrics.
+ * <p>
+ * A nearby stop references the chain of street search states leading to it, so the size of an
+ * entry varies a lot with the search limits. The cache is bounded by the total number of states
+ * in the paths of the cached stops, not by the number of entries. States shared by the paths of
+ * several stops are counted once for each path, so the limit is an upper bound. The precomputed
+ * results are not counted.
+ */
+public class AccessEgressCache {
+
+  public static final int DEFAULT_MAXIMUM_STATES = 2_000_000;
+  public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(15);
+
+  private static final String METRICS_PREFIX = "routing.accessEgressCache";
+
+  private final Graph graph;
+  private final Cache<Key, Entry> cache;
+  private final Map<Key, Entry> precomputed = new ConcurrentHashMap<>();
+  private final Clock clock;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter savedTime;
+  private final Timer searchTimer;
+
+  public AccessEgressCache(Graph graph, MeterRegistry registry) {
+    this(graph, registry, DEFAULT_MAXIMUM_STATES, DEFAULT_TIME_TO_LIVE);
+  }
+
+  /**
+   * @param maximumStates The maximum number of street search states referenced by the cached
+   *                      stops, see the class documentation.
+   */
+  public AccessEgressCache(
+    Graph graph,
+    MeterRegistry registry,
+    int maximumStates,
+    Duration timeToLive
+  ) {
+    this.graph = graph;
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumWeight(maximumStates)
+        .weigher((Key key, Entry entry) -> entry.numberOfStates())
+        .expireAfterWrite(timeToLive)
+        .build();
+    this.clock = registry.config().clock();
+    this.hits =
+      Counter
+        .builder(METRICS_PREFIX + ".requests")
+        .description("Access and egress searches looked up in the cache")
+        .tag("result", "hit")
+        .register(registry);
+    this.misses =
+      Counter
+        .builder(METRICS_PREFIX + ".requests")
+        .description("Access and egress searches looked up in the cache")
+        .tag("result", "miss")
+        .register(registry);
+    this.savedTime =
+      Counter
+        .builder(METRICS_PREFIX + ".savedTime")
+        .description("The street search time saved by the cache hits")
+        .baseUnit("seconds")
+        .register(registry);
+    this.searchTimer = Timer.builder(METRICS_PREFIX + ".search").register(registry);
+  }
+
+  /**
+   * Return {@code true} if the access and egress results for the given mode can be cached.
+   */
+  public static boolean isCacheable(StreetMode mode) {
+    return mode == StreetMode.WALK || mode == StreetMode.BIKE;
+  }
+
+  /**
+   * Return the cached result for the key, or run the search and cache the result.
+   */
+  public Collection<NearbyStop> get(Key key, Supplier<Collection<NearbyStop>> search) {
+    // Read the version before searching, a change during the search makes the result stale
+    int version = graph.realtimeStreetVersion();
+
+    Entry entry = precomputed.get(key);
+    boolean isPrecomputed = entry != null;
+    if (!isPrecomputed) {
+      entry = cache.getIfPresent(key);
+    }
+    if (entry != null && entry.version() == version) {
+      hits.increment();
+      savedTime.increment(entry.searchTimeNanos() / 1e9);
+      return entry.stops();
+    }
+
+    misses.increment();
+    return search(key, version, search, isPrecomputed);
+  }
+
+  /**
+   * Run the search and cache the result, replacing the cached result if there is one. This is used
+   * to calculate the egress for a destination before the requests to it arrive, and to calculate
+   * it again after a realtime update. The result does not expire, and is not evicted.
+   */
+  public Collection<NearbyStop> precompute(Key key, Supplier<Collection<NearbyStop>> search) {
+    cache.invalidate(key);
+    return search(key, graph.realtimeStreetVersion(), search, true);
+  }
+
+  /**
+   * Return {@code true} if a realtime updater has changed the street network after one of the
+   * results was precomputed. The results must then be precomputed again, a request using an out of
+   * date result searches the street network.
+   */
+  public boolean isPrecomputedOutOfDate() {
+    int version = graph.realtimeStreetVersion();
+    return precomputed.values().stream().anyMatch(it -> it.version() != version);
+  }
+
+  public long size() {
+    return cache.size() + precomputed.size();
+  }
+
+  public void clear() {
+    cache.invalidateAll();
+    precomputed.clear();
+  }
+
+  private List<NearbyStop> search(
+    Key key,
+    int version,
+    Supplier<Collection<NearbyStop>> search,
+    boolean precompute
+  ) {
+    long start = clock.monotonicTime();
+    var stops = List.copyOf(search.get());
+    long searchTime = clock.monotonicTime() - start;
+    searchTimer.record(searchTime, TimeUnit.NANOSECONDS);
+
+    var entry = new Entry(version, stops, searchTime);
+    if (precompute) {
+      precomputed.put(key, entry);
+    } else {
+      cache.put(key, entry);
+    }
+    return stops;
+  }
+
+  /**
+   * The search input which may influence the access or egress result.
+   * <p>
+   * If the location is a stop or station, and it is linked to the stop vertices, the label and
+   * coordinates do not change the result. They are left out, so all requests to the stop share the
+   * entry.
+   */
+  public record Key(
+    String label,
+    FeedScopedId stopId,
+    Double lat,
+    Double lng,
+    StreetMode mode,
+    boolean egress,
+    Duration durationLimit,
+    int maxStopCount,
+    boolean wheelchair,
+    WalkPreferences walk,
+    BikePreferences bike,
+    StreetPreferences street,
+    WheelchairPreferences wheelchairPreferences
+  ) {
+    public static Key of(
+      RouteRequest request,
+      StreetRequest streetRequest,
+      boolean egress,
+      Duration durationLimit,
+      int maxStopCount
+    ) {
+      return of(request, streetRequest, egress, durationLimit, maxStopCount, Set.of());
+    }
+
+    /**
+     * @param vertices The vertices the location is linked to, used to find out if a stop location
+     *                 is linked to the stop vertices.
+     */
+    public static Key of(
+      RouteRequest request,
+      StreetRequest streetRequest,
+      boolean egress,
+      Duration durationLimit,
+      int maxStopCount,
+      @Nullable Set<Vertex> vertices
+    ) {
+      GenericLocation location = egress ? request.to() : request.from();
+      StreetMode mode = streetRequest.mode();
+      var preferences = request.preferences();
+      boolean stopZone = location.stopId != null && isLinkedToStop(vertices);
+
+      return new Key(
+        stopZone ? null : location.label,
+        location.stopId,
+        stopZone ? null : location.lat,
+        stopZone ? null : location.lng,
+        mode,
+        egress,
+        durationLimit,
+        maxStopCount,
+        request.wheelchair(),
+        preferences.walk(),
+        mode.includesBiking() ? preferences.bike() : BikePreferences.DEFAULT,
+        preferences.street(),
+        request.wheelchair() ? preferences.wheelchair() : WheelchairPreferences.DEFAULT
+      );
+    }
+
+    private static boolean isLinkedToStop(@Nullable Set<Vertex> vertices) {
+      return (
+        vertices != null &&
+        !vertices.isEmpty() && vertices.stream().noneMatch(TemporaryVertex.class::isInstance)
+      );
+    }
+  }
+
+  private record Entry(int version, List<NearbyStop> stops, long searchTimeNanos) {
+    /**
+     * The number of states in the paths to the stops. The path to a stop has one more state
+     * than it has edges.
+     */
+    private int numberOfStates() {
+      int n = 0;
+      for (NearbyStop stop : stops) {
+        n += stop.edges.size() + 1;
+      }
+      return n;
+    }
+  }
+}
@@ -44,6 +44,8 @@ public class AccessEgressRouter {
       durationLimit,
       maxStopCount,
       dataOverlayContext,
+      verticesContainer.getStreetGraphSnapshot(),
+      verticesContainer.getStreetEdgeCostTableCache(),
       true
     );
     List<NearbyStop> nearbyStopList = nearbyStopFinder.findNearbyStopsViaStreets(
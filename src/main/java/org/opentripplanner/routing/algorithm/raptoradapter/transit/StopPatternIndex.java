@@ -0,0 +1,117 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.BitSet;
+import java.util.Collection;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorTripPattern;
+
+/**
+ * Index of all patterns visiting each stop. The index is stored in compressed sparse row (CSR)
+ * format: the patterns visiting stop {@code s} are stored in
+ * {@code patterns[offsets[s] .. offsets[s+1]-1]}. This is built once for each {@link TransitLayer},
+ * and each request only applies the set of patterns active for the request dates and filters. This
+ * avoids allocating a list of patterns for every stop in every request.
+ * <p>
+ * THIS CLASS IS IMMUTABLE AND THREAD-SAFE.
+ */
+public final class StopPatternIndex {
+
+  private final int[] offsets;
+  private final int[] patterns;
+
+  /** All patterns included in the index */
+  private final BitSet includedPatterns;
+
+  private StopPatternIndex(int[] offsets, int[] patterns, BitSet includedPatterns) {
+    this.offsets = offsets;
+    this.patterns = patterns;
+    this.includedPatterns = includedPatterns;
+  }
+
+  /**
+   * Create an index for the given patterns. The given patterns must be distinct. A pattern visiting
+   * the same stop more than once is added once for each visit, this is harmless since the result
+   * is a set.
+   */
+  public static StopPatternIndex create(
+    int numberOfStops,
+    Collection<? extends RaptorTripPattern> tripPatterns
+  ) {
+    // First pass - count the number of patterns for each stop, stored in offsets[stop+1]
+    int[] offsets = new int[numberOfStops + 1];
+    forEachStopInPattern(tripPatterns, (stop, pattern) -> ++offsets[stop + 1]);
+
+    for (int i = 1; i < offsets.length; ++i) {
+      offsets[i] += offsets[i - 1];
+    }
+
+    // Second pass - insert the patterns, next[stop] is the next free position for each stop
+    int[] patterns = new int[offsets[numberOfStops]];
+    int[] next = new int[numberOfStops];
+    System.arraycopy(offsets, 0, next, 0, numberOfStops);
+    forEachStopInPattern(tripPatterns, (stop, pattern) -> patterns[next[stop]++] = pattern);
+
+    var includedPatterns = new BitSet();
+    for (RaptorTripPattern pattern : tripPatterns) {
+      includedPatterns.set(pattern.patternIndex());
+    }
+    return new StopPatternIndex(offsets, patterns, includedPatterns);
+  }
+
+  public int numberOfStops() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Return {@code true} if the given pattern is part of this index. Patterns not in use anymore are
+   * harmless, so the index can be reused as long as no new patterns are added.
+   */
+  public boolean contains(RaptorTripPattern pattern) {
+    return includedPatterns.get(pattern.patternIndex());
+  }
+
+  /**
+   * Add all patterns visiting the given stop, which are also in the {@code activePatterns}, to
+   * the {@code result}. This does not allocate any memory, so it can be used in the inner loop of
+   * Raptor.
+   */
+  public void addActivePatternsForStop(int stop, BitSet activePatterns, BitSet result) {
+    final int end = offsets[stop + 1];
+    for (int i = offsets[stop]; i < end; ++i) {
+      int pattern = patterns[i];
+      if (activePatterns.get(pattern)) {
+        result.set(pattern);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(StopPatternIndex.class)
+      .addNum("numberOfStops", numberOfStops())
+      .addNum("size", patterns.length)
+      .toString();
+  }
+
+  /**
+   * Call the consumer once for each stop visited by each pattern.
+   */
+  private static void forEachStopInPattern(
+    Collection<? extends RaptorTripPattern> tripPatterns,
+    StopPatternConsumer consumer
+  ) {
+    for (RaptorTripPattern pattern : tripPatterns) {
+      final int patternIndex = pattern.patternIndex();
+      final int nStops = pattern.numberOfStopsInPattern();
+      for (int pos = 0; pos < nStops; ++pos) {
+        consumer.accept(pattern.stopIndex(pos), patternIndex);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface StopPatternConsumer {
+    void accept(int stop, int pattern);
+  }
+}
@@ -4,16 +4,18 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.collection.PersistentHashMap;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
 
@@ -24,8 +26,11 @@ public class TransitLayer {
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
+   * <p>
+   * The map and the collections are immutable, and shared with copies of this instance. An update
+   * replaces only the changed patterns of the changed dates.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private PersistentHashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -44,6 +49,14 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  private final int tripPatternCacheMaxSize;
+
+  /**
+   * The request trip patterns depend on the trip patterns in this transit layer, so the cache
+   * is NOT shared with copies of this instance.
+   */
+  private final RaptorRequestTripPatternCache tripPatternCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -51,9 +64,15 @@ public class TransitLayer {
   private final int[] stopBoardAlightCosts;
 
   /**
-   * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
-   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * Index of the patterns visiting each stop, created the first time it is used. It is shared
+   * with copies of this instance until a new pattern is added.
+   */
+  private volatile StopPatternIndex stopPatternIndex;
+
+  /**
+   * Makes a shallow copy of the TransitLayer. The tripPatternsForDate are not copied, they are
+   * immutable, and the TransitLayerUpdater replaces the changed dates in the copy. The copy gets a
+   * new empty trip pattern cache.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -63,10 +82,12 @@ public class TransitLayer {
       transitLayer.stopModel,
       transitLayer.transitDataZoneId,
       transitLayer.transferCache,
+      transitLayer.tripPatternCacheMaxSize,
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightCosts
     );
+    this.stopPatternIndex = transitLayer.stopPatternIndex;
   }
 
   public TransitLayer(
@@ -76,16 +97,45 @@ public class TransitLayer {
     StopModel stopModel,
     ZoneId transitDataZoneId,
     RaptorRequestTransferCache transferCache,
+    int tripPatternCacheMaxSize,
     ConstrainedTransfersForPatterns constrainedTransfers,
     TransferIndexGenerator transferIndexGenerator,
     int[] stopBoardAlightCosts
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this(
+      toPersistentMap(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      stopModel,
+      transitDataZoneId,
+      transferCache,
+      tripPatternCacheMaxSize,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightCosts
+    );
+  }
+
+  private TransitLayer(
+    PersistentHashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    StopModel stopModel,
+    ZoneId transitDataZoneId,
+    RaptorRequestTransferCache transferCache,
+    int tripPatternCacheMaxSize,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    int[] stopBoardAlightCosts
+  ) {
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.stopModel = stopModel;
     this.transitDataZoneId = transitDataZoneId;
     this.transferCache = transferCache;
+    this.tripPatternCacheMaxSize = tripPatternCacheMaxSize;
+    this.tripPatternCache = new RaptorRequestTripPatternCache(tripPatternCacheMaxSize);
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightCosts = stopBoardAlightCosts;
@@ -102,7 +152,7 @@ public class TransitLayer {
    * happening on that date. Trip pattern can have multiple running dates.
    */
   public Collection<TripPatternForDate> getTripPatternsForRunningDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    return tripPatternsRunningOnDate.getOrDefault(date, TripPatternsRunningOnDate.empty());
   }
 
   /**
@@ -125,8 +175,7 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
+    return new ArrayList<>(getTripPatternsForRunningDate(runningPeriodDate));
   }
 
   /**
@@ -145,6 +194,25 @@ public class TransitLayer {
       .collect(Collectors.toList());
   }
 
+  /**
+   * Return the TripPatternForDate of the pattern for the given service date, or {@code null} if
+   * the pattern is not running on the service date. This looks up the pattern, without copying
+   * the trip patterns of the date like {@link #getTripPatternsOnServiceDateCopy(LocalDate)}.
+   */
+  @Nullable
+  public TripPatternForDate getTripPatternForServiceDate(TripPattern pattern, LocalDate date) {
+    int patternIndex = pattern.getRoutingTripPattern().patternIndex();
+    // Trip pattern can run only after midnight, then it is found on the next running date.
+    for (LocalDate runningDate : List.of(date, date.plusDays(1))) {
+      var tripPatterns = tripPatternsRunningOnDate.get(runningDate);
+      var result = tripPatterns == null ? null : tripPatterns.get(patternIndex, date);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
   public TransferService getTransferService() {
     return transferService;
   }
@@ -157,6 +225,10 @@ public class TransitLayer {
     return transferCache;
   }
 
+  public RaptorRequestTripPatternCache getTripPatternCache() {
+    return tripPatternCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -171,17 +243,68 @@ public class TransitLayer {
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * Return the index of all patterns visiting each stop. Each request is responsible for
+   * filtering out the patterns not running on the search dates.
    */
-  public void replaceTripPatternsForDate(
+  public StopPatternIndex getStopPatternIndex() {
+    var index = stopPatternIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = stopPatternIndex;
+        if (index == null) {
+          index =
+            StopPatternIndex.create(
+              getStopCount(),
+              tripPatternsRunningOnDate
+                .values()
+                .stream()
+                .flatMap(Collection::stream)
+                .map(TripPatternForDate::getTripPattern)
+                .distinct()
+                .toList()
+            );
+          stopPatternIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Remove and add TripPatternForDates for a single running date, see
+   * {@link TripPatternsRunningOnDate#update(Collection, Collection)}. Only the dates already in
+   * this transit layer are updated. The stop pattern index is dropped if a pattern not in the
+   * index is added.
+   */
+  public void updateTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    Collection<TripPatternForDate> removed,
+    Collection<TripPatternForDate> added
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    var tripPatterns = tripPatternsRunningOnDate.get(date);
+    if (tripPatterns == null) {
+      return;
+    }
+    tripPatternsRunningOnDate =
+      tripPatternsRunningOnDate.with(date, tripPatterns.update(removed, added));
+
+    var index = stopPatternIndex;
+    if (index != null && !added.stream().allMatch(it -> index.contains(it.getTripPattern()))) {
+      stopPatternIndex = null;
+    }
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
     this.constrainedTransfers = constrainedTransfers;
   }
+
+  private static PersistentHashMap<LocalDate, TripPatternsRunningOnDate> toPersistentMap(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    PersistentHashMap<LocalDate, TripPatternsRunningOnDate> map = PersistentHashMap.of();
+    for (var e : tripPatternsRunningOnDate.entrySet()) {
+      map = map.with(e.getKey(), TripPatternsRunningOnDate.of(e.getValue()));
+    }
+    return map;
+  }
 }
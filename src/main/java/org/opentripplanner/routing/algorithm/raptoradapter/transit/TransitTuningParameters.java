@@ -4,6 +4,8 @@ import java.time.Duration;
 import java.util.List;
 import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 
 public interface TransitTuningParameters {
@@ -61,6 +63,36 @@ public interface TransitTuningParameters {
     public List<RouteRequest> transferCacheRequests() {
       return List.of();
     }
+
+    @Override
+    public int tripPatternCacheMaxSize() {
+      return 5;
+    }
+
+    /**
+     * Smaller than the production default, like the other cache sizes in this test configuration.
+     * The limit is not preallocated, and the access and egress results of the test graphs are far
+     * below both values, so the tests behave the same with either.
+     */
+    @Override
+    public int accessEgressCacheMaxStates() {
+      return 10_000;
+    }
+
+    @Override
+    public Duration accessEgressCacheTimeToLive() {
+      return Duration.ofMinutes(15);
+    }
+
+    @Override
+    public List<FeedScopedId> egressCacheStops() {
+      return List.of();
+    }
+
+    @Override
+    public int streetEdgeCostCacheMaxSize() {
+      return StreetEdgeCostTableCache.DEFAULT_MAXIMUM_SIZE;
+    }
   };
 
   /**
@@ -123,4 +155,41 @@ public interface TransitTuningParameters {
    * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache}
    */
   List<RouteRequest> transferCacheRequests();
+
+  /**
+   * The maximum number of distinct (search dates, transit filter) combinations for which the
+   * filtered and indexed trip patterns should be cached. The cache is kept per
+   * {@link TransitLayer} instance, so it is cleared each time a new real-time transit layer is
+   * published. Zero turns the cache off.
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache}
+   */
+  int tripPatternCacheMaxSize();
+
+  /**
+   * The maximum number of street search states referenced by the access and egress results in
+   * the {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache}.
+   * The cache is only used if the {@code AccessEgressCache} feature is enabled.
+   */
+  int accessEgressCacheMaxStates();
+
+  /**
+   * How long an access or egress result is kept in the
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache}.
+   */
+  Duration accessEgressCacheTimeToLive();
+
+  /**
+   * The stops and stations to calculate the egress street search for at server startup. The
+   * result is kept in the
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache},
+   * so it is only used if the {@code AccessEgressCache} feature is enabled.
+   */
+  List<FeedScopedId> egressCacheStops();
+
+  /**
+   * The maximum number of street edge cost tables shared between requests, see
+   * {@link StreetEdgeCostTableCache}. The cache is only used if the {@code StreetEdgeCostCache}
+   * feature is enabled.
+   */
+  int streetEdgeCostCacheMaxSize();
 }
@@ -0,0 +1,260 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/**
+ * The {@link TripPatternForDate}s running on one date, indexed by the pattern index. There is one
+ * TripPatternForDate for each pattern and service date. A pattern usually has one on each running
+ * date, but the trips after midnight of the previous service date run on the date as well.
+ * <p>
+ * The collection is immutable. The slots are kept in chunks of 64 patterns, and a change copies
+ * only the chunks of the changed patterns. So the realtime updater can patch a date without copying
+ * all the patterns running on it, and the old version stays unchanged for the routing requests
+ * using it.
+ */
+public final class TripPatternsRunningOnDate extends AbstractCollection<TripPatternForDate> {
+
+  private static final int CHUNK_BITS = 6;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  private static final TripPatternsRunningOnDate EMPTY = new TripPatternsRunningOnDate(
+    new Object[0][],
+    0
+  );
+
+  /**
+   * A slot is {@code null}, a {@link TripPatternForDate}, or an array of them for different
+   * service dates. A chunk without patterns is {@code null}.
+   */
+  private final Object[][] chunks;
+  private final int size;
+
+  private TripPatternsRunningOnDate(Object[][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  public static TripPatternsRunningOnDate empty() {
+    return EMPTY;
+  }
+
+  public static TripPatternsRunningOnDate of(Collection<TripPatternForDate> tripPatterns) {
+    return EMPTY.update(List.of(), tripPatterns);
+  }
+
+  /**
+   * Return the TripPatternForDate of the given pattern and service date, or {@code null} if it is
+   * not running on this date.
+   */
+  @Nullable
+  public TripPatternForDate get(int patternIndex, LocalDate serviceDate) {
+    int c = patternIndex >> CHUNK_BITS;
+    if (c >= chunks.length || chunks[c] == null) {
+      return null;
+    }
+    Object slot = chunks[c][patternIndex & CHUNK_MASK];
+    if (slot instanceof TripPatternForDate it) {
+      return it.getServiceDate().equals(serviceDate) ? it : null;
+    }
+    if (slot instanceof TripPatternForDate[] array) {
+      for (TripPatternForDate it : array) {
+        if (it.getServiceDate().equals(serviceDate)) {
+          return it;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return a copy where the {@code removed} trip patterns are removed, and then the {@code added}
+   * trip patterns are added. An added trip pattern replaces the one with the same pattern and
+   * service date. A removed trip pattern is only removed if it is equal to the one in this
+   * collection. Only the chunks of the changed patterns are copied.
+   */
+  public TripPatternsRunningOnDate update(
+    Collection<TripPatternForDate> removed,
+    Collection<TripPatternForDate> added
+  ) {
+    if (removed.isEmpty() && added.isEmpty()) {
+      return this;
+    }
+    int maxIndex = added.stream().mapToInt(TripPatternsRunningOnDate::patternIndex).max().orElse(0);
+    Object[][] newChunks = Arrays.copyOf(
+      chunks,
+      Math.max(chunks.length, (maxIndex >> CHUNK_BITS) + 1)
+    );
+    boolean[] copied = new boolean[newChunks.length];
+    int newSize = size;
+
+    for (TripPatternForDate it : removed) {
+      int index = patternIndex(it);
+      int c = index >> CHUNK_BITS;
+      if (c >= newChunks.length || newChunks[c] == null) {
+        continue;
+      }
+      Object slot = newChunks[c][index & CHUNK_MASK];
+      Object newSlot = slotWithout(slot, it);
+      if (newSlot != slot) {
+        chunk(newChunks, copied, c)[index & CHUNK_MASK] = newSlot;
+        --newSize;
+      }
+    }
+
+    for (TripPatternForDate it : added) {
+      int index = patternIndex(it);
+      Object[] chunk = chunk(newChunks, copied, index >> CHUNK_BITS);
+      Object slot = chunk[index & CHUNK_MASK];
+      Object newSlot = slotWith(slot, it);
+      chunk[index & CHUNK_MASK] = newSlot;
+      newSize += count(newSlot) - count(slot);
+    }
+
+    return new TripPatternsRunningOnDate(newChunks, newSize);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return (
+      o instanceof TripPatternForDate it &&
+      it.equals(get(patternIndex(it), it.getServiceDate()))
+    );
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new SlotIterator();
+  }
+
+  /* private methods */
+
+  private static int patternIndex(TripPatternForDate tripPatternForDate) {
+    return tripPatternForDate.getTripPattern().patternIndex();
+  }
+
+  /** Return the chunk, copy it first if it is not copied by this update. */
+  private static Object[] chunk(Object[][] chunks, boolean[] copied, int c) {
+    if (!copied[c]) {
+      chunks[c] = chunks[c] == null ? new Object[CHUNK_SIZE] : chunks[c].clone();
+      copied[c] = true;
+    }
+    return chunks[c];
+  }
+
+  private static int count(Object slot) {
+    if (slot == null) {
+      return 0;
+    }
+    return slot instanceof TripPatternForDate[] array ? array.length : 1;
+  }
+
+  private static Object slotWith(Object slot, TripPatternForDate added) {
+    if (slot == null) {
+      return added;
+    }
+    if (slot instanceof TripPatternForDate it) {
+      return it.getServiceDate().equals(added.getServiceDate())
+        ? added
+        : new TripPatternForDate[] { it, added };
+    }
+    var array = (TripPatternForDate[]) slot;
+    for (int i = 0; i < array.length; ++i) {
+      if (array[i].getServiceDate().equals(added.getServiceDate())) {
+        var copy = array.clone();
+        copy[i] = added;
+        return copy;
+      }
+    }
+    var copy = Arrays.copyOf(array, array.length + 1);
+    copy[array.length] = added;
+    return copy;
+  }
+
+  /** Return the same slot if the trip pattern is not found. */
+  private static Object slotWithout(Object slot, TripPatternForDate removed) {
+    if (slot instanceof TripPatternForDate it) {
+      return it.equals(removed) ? null : slot;
+    }
+    if (slot instanceof TripPatternForDate[] array) {
+      for (int i = 0; i < array.length; ++i) {
+        if (array[i].equals(removed)) {
+          if (array.length == 2) {
+            return array[1 - i];
+          }
+          var copy = new TripPatternForDate[array.length - 1];
+          System.arraycopy(array, 0, copy, 0, i);
+          System.arraycopy(array, i + 1, copy, i, copy.length - i);
+          return copy;
+        }
+      }
+    }
+    return slot;
+  }
+
+  private final class SlotIterator implements Iterator<TripPatternForDate> {
+
+    private int chunk = 0;
+    private int slot = 0;
+    private TripPatternForDate[] array = null;
+    private int arrayPos = 0;
+    private TripPatternForDate next;
+
+    private SlotIterator() {
+      next = findNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public TripPatternForDate next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      var result = next;
+      next = findNext();
+      return result;
+    }
+
+    private TripPatternForDate findNext() {
+      if (array != null) {
+        if (arrayPos < array.length) {
+          return array[arrayPos++];
+        }
+        array = null;
+      }
+      while (chunk < chunks.length) {
+        Object[] c = chunks[chunk];
+        while (c != null && slot < CHUNK_SIZE) {
+          Object s = c[slot++];
+          if (s instanceof TripPatternForDate it) {
+            return it;
+          }
+          if (s instanceof TripPatternForDate[] a) {
+            array = a;
+            arrayPos = 1;
+            return a[0];
+          }
+        }
+        ++chunk;
+        slot = 0;
+      }
+      return null;
+    }
+  }
+}
@@ -1,13 +1,11 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
 import gnu.trove.set.TIntSet;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -25,11 +23,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer
- * (this also includes a shallow copy of the TripPatternsForDate map). TripPatterns are matched on
- * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
- * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
- * from the Graph is never changed.
+ * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer. The
+ * TripPatternsForDate of the copy are immutable and shared with the original, an update replaces
+ * only the changed patterns of each changed date. The realtime TransitLayer is then switched out
+ * with the updated copy in an atomic operation. This ensures that any TransitLayer that is
+ * referenced from the Graph is never changed.
  */
 public class TransitLayerUpdater {
 
@@ -39,20 +37,12 @@ public class TransitLayerUpdater {
 
   private final Map<LocalDate, TIntSet> serviceCodesRunningForDate;
 
-  /**
-   * Cache the TripPatternForDates indexed on the original TripPatterns in order to avoid this
-   * expensive operation being done each time the update method is called.
-   */
-  private final Map<LocalDate, Map<TripPattern, TripPatternForDate>> tripPatternsStartingOnDateMapCache = new HashMap<>();
-
   /**
    * Cache the TripPatternForDate currently in use for a trip and service date. Only one TripPatternForDate is allowed
    * for a trip id and service date. This cache is used to clean up extra tripPatternsForDate.
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
-
   public TransitLayerUpdater(
     TransitModel transitModel,
     Map<LocalDate, TIntSet> serviceCodesRunningForDate
@@ -81,8 +71,8 @@ public class TransitLayerUpdater {
     );
 
     Set<LocalDate> datesToBeUpdated = new HashSet<>();
-    SetMultimap<TripPattern, TripPatternForDate> newTripPatternsForDate = HashMultimap.create();
-    SetMultimap<TripPattern, TripPatternForDate> oldTripPatternsForDate = HashMultimap.create();
+    List<TripPatternForDate> newTripPatternsForDate = new ArrayList<>();
+    List<TripPatternForDate> oldTripPatternsForDate = new ArrayList<>();
 
     TransferIndexGenerator transferIndexGenerator = null;
     if (OTPFeature.TransferConstraints.isOn()) {
@@ -94,21 +84,13 @@ public class TransitLayerUpdater {
       LocalDate date = timetable.getServiceDate();
       TripPattern tripPattern = timetable.getPattern();
 
-      if (!tripPatternsStartingOnDateMapCache.containsKey(date)) {
-        Map<TripPattern, TripPatternForDate> map = realtimeTransitLayer
-          .getTripPatternsOnServiceDateCopy(date)
-          .stream()
-          .collect(Collectors.toMap(t -> t.getTripPattern().getPattern(), t -> t));
-        tripPatternsStartingOnDateMapCache.put(date, map);
-      }
-
-      TripPatternForDate oldTripPatternForDate = tripPatternsStartingOnDateMapCache
-        .get(date)
-        .get(tripPattern);
+      TripPatternForDate oldTripPatternForDate = realtimeTransitLayer.getTripPatternForServiceDate(
+        tripPattern,
+        date
+      );
 
       if (oldTripPatternForDate != null) {
-        tripPatternsStartingOnDateMapCache.get(date).remove(tripPattern, oldTripPatternForDate);
-        oldTripPatternsForDate.put(tripPattern, oldTripPatternForDate);
+        oldTripPatternsForDate.add(oldTripPatternForDate);
         datesToBeUpdated.addAll(oldTripPatternForDate.getRunningPeriodDates());
       }
 
@@ -122,8 +104,7 @@ public class TransitLayerUpdater {
       }
 
       if (newTripPatternForDate != null) {
-        tripPatternsStartingOnDateMapCache.get(date).put(tripPattern, newTripPatternForDate);
-        newTripPatternsForDate.put(tripPattern, newTripPatternForDate);
+        newTripPatternsForDate.add(newTripPatternForDate);
         datesToBeUpdated.addAll(newTripPatternForDate.getRunningPeriodDates());
         if (transferIndexGenerator != null && tripPattern.isCreatedByRealtimeUpdater()) {
           transferIndexGenerator.addRealtimeTrip(
@@ -155,26 +136,15 @@ public class TransitLayerUpdater {
     }
 
     // Now loop through all running period dates of old and new TripPatternsForDate and update
-    // the tripPatternsByRunningPeriodDate accordingly
+    // the tripPatternsByRunningPeriodDate accordingly. Only the changed patterns are replaced.
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
+      List<TripPatternForDate> removed = new ArrayList<>();
+      List<TripPatternForDate> added = new ArrayList<>();
 
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate oldTripPatternForDate : entry.getValue()) {
-          // Remove old TripPatternForDate for this date if it was valid on this date
-          if (oldTripPatternForDate != null) {
-            if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
-            }
-          }
+      // Remove old TripPatternForDate for this date if it was valid on this date
+      for (TripPatternForDate oldTripPatternForDate : oldTripPatternsForDate) {
+        if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
+          removed.add(oldTripPatternForDate);
         }
       }
 
@@ -194,7 +164,7 @@ public class TransitLayerUpdater {
               .orElse(false);
 
             if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
+              removed.add(tripPatternForDate);
             }
           } else {
             LOG.warn("Could not fetch timetable for {}", pattern);
@@ -202,20 +172,14 @@ public class TransitLayerUpdater {
         }
       }
 
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : newTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate newTripPatternForDate : entry.getValue()) {
-          // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
-          if (newTripPatternForDate != null) {
-            if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
-            }
-          }
+      // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
+      for (TripPatternForDate newTripPatternForDate : newTripPatternsForDate) {
+        if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
+          added.add(newTripPatternForDate);
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.updateTripPatternsForDate(date, removed, added);
     }
 
     if (transferIndexGenerator != null) {
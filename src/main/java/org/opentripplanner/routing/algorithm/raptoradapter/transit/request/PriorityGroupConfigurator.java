@@ -89,6 +89,13 @@ public class PriorityGroupConfigurator {
     return new PriorityGroupConfigurator(byAgency, global);
   }
 
+  /**
+   * Return {@code false} if all patterns are assigned the {@link #baseGroupId()}.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
   /**
    * Fetch/lookup the transit-group-id for the given pattern.
    * <p>
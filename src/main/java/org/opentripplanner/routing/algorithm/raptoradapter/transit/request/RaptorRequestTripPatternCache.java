@@ -0,0 +1,72 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache the trip patterns filtered and indexed for a Raptor request. Creating these is one of the
+ * most expensive parts of setting up a transit search, and most requests are for the same few
+ * service days with the default transit filters.
+ * <p>
+ * There is one cache for each
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer} instance. A new
+ * instance is created for each real-time update, so the cache does not need to be invalidated -
+ * the old cache is dropped together with the old transit layer.
+ */
+public class RaptorRequestTripPatternCache {
+
+  private final Cache<CacheKey, RequestTripPatterns> cache;
+
+  public RaptorRequestTripPatternCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Return the cached trip patterns for the given search dates and filter, if not found the
+   * {@code loader} is used to create them.
+   */
+  public RequestTripPatterns get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    Supplier<RequestTripPatterns> loader
+  ) {
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      return cache.get(key, loader::get);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from trip pattern cache", e);
+    }
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * The trip patterns indexed by route index and the set of active route indices. Both are
+   * read-only after they are created and can be shared between requests.
+   */
+  public record RequestTripPatterns(
+    List<TripPatternForDates> patternIndex,
+    BitSet activeTripPatterns
+  ) {}
+
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {}
+}
@@ -22,12 +22,14 @@ import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
 import org.opentripplanner.raptor.util.BitSetIterator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.SlackProvider;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.StopPatternIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedBoardingSearch;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.GeneralizedCostParametersMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache.RequestTripPatterns;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 
@@ -43,9 +45,14 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
   private final TransferService transferService;
 
   /**
-   * Active route indices by stop index
+   * All route indices by stop index, including patterns not active in this request
    */
-  private final List<int[]> activeTripPatternsPerStop;
+  private final StopPatternIndex stopPatternIndex;
+
+  /**
+   * Active route indices
+   */
+  private final BitSet activeTripPatterns;
 
   /**
    * Trip patterns by route index
@@ -81,21 +88,40 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     this.transitLayer = transitLayer;
     this.transitSearchTimeZero = transitSearchTimeZero;
 
-    // Delegate to the creator to construct the needed data structures. The code is messy so
-    // it is nice to NOT have it in the class. It isolate this code to only be available at
-    // the time of construction
-    var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
-      transitLayer,
-      transitSearchTimeZero
-    );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter,
-      createTransitGroupPriorityConfigurator(request)
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+    var priorityGroupConfigurator = createTransitGroupPriorityConfigurator(request);
+
+    // The trip patterns only depend on the search dates and the filter, so they are shared
+    // between requests. This is not the case if transit-group-priority is used, since the
+    // priority groups are set on each pattern.
+    var tripPatterns = priorityGroupConfigurator.isEnabled()
+      ? createRequestTripPatterns(
+        transitLayer,
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        priorityGroupConfigurator
+      )
+      : transitLayer
+        .getTripPatternCache()
+        .get(
+          transitSearchTimeZero,
+          additionalPastSearchDays,
+          additionalFutureSearchDays,
+          filter,
+          () ->
+            createRequestTripPatterns(
+              transitLayer,
+              transitSearchTimeZero,
+              additionalPastSearchDays,
+              additionalFutureSearchDays,
+              filter,
+              priorityGroupConfigurator
+            )
+        );
+    this.patternIndex = tripPatterns.patternIndex();
+    this.activeTripPatterns = tripPatterns.activeTripPatterns();
+    this.stopPatternIndex = transitLayer.getStopPatternIndex();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
@@ -129,12 +155,12 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   @Override
   public Iterator<RaptorTransfer> getTransfersFromStop(int stopIndex) {
-    return transferIndex.getForwardTransfers(stopIndex).iterator();
+    return transferIndex.getForwardTransfers(stopIndex);
   }
 
   @Override
   public Iterator<? extends RaptorTransfer> getTransfersToStop(int stopIndex) {
-    return transferIndex.getReversedTransfers(stopIndex).iterator();
+    return transferIndex.getReversedTransfers(stopIndex);
   }
 
   @Override
@@ -142,10 +168,11 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     BitSet activeTripPatternsForGivenStops = new BitSet(RoutingTripPattern.indexCounter());
 
     while (stops.hasNext()) {
-      int[] patterns = activeTripPatternsPerStop.get(stops.next());
-      for (int i : patterns) {
-        activeTripPatternsForGivenStops.set(i);
-      }
+      stopPatternIndex.addActivePatternsForStop(
+        stops.next(),
+        activeTripPatterns,
+        activeTripPatternsForGivenStops
+      );
     }
 
     return new BitSetIterator(activeTripPatternsForGivenStops);
@@ -243,6 +270,33 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
 
+  private static RequestTripPatterns createRequestTripPatterns(
+    TransitLayer transitLayer,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    PriorityGroupConfigurator priorityGroupConfigurator
+  ) {
+    // Delegate to the creator to construct the needed data structures. The code is messy so
+    // it is nice to NOT have it in the class. It isolate this code to only be available at
+    // the time of construction
+    var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
+      transitLayer,
+      transitSearchTimeZero
+    );
+    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter,
+      priorityGroupConfigurator
+    );
+    return new RequestTripPatterns(
+      transitDataCreator.createPatternIndex(tripPatterns),
+      transitDataCreator.createActiveTripPatterns(tripPatterns)
+    );
+  }
+
   private PriorityGroupConfigurator createTransitGroupPriorityConfigurator(RouteRequest request) {
     if (request.preferences().transit().relaxTransitGroupPriority().isNormal()) {
       return PriorityGroupConfigurator.empty();
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -14,16 +13,19 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
  */
 public interface TripSearchTimetable<T extends RaptorTripSchedule> extends RaptorTimeTable<T> {
   /**
-   * Get the arrival times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the arrival time as
-   * seconds from midnight on the search date.
+   * Get the arrival times of all trips at all stops as a matrix stored by stop position first
+   * and then by trip index. The arrival time for trip {@code i} at stop position {@code s} is at
+   * index {@code s * numberOfTripSchedules() + i}. The times are seconds from midnight on the
+   * search date, and the trips are sorted by time at each stop position.
+   * <p>
+   * The trip search scans this array in its inner loop, so the array is returned as is and must
+   * not be modified.
    */
-  IntUnaryOperator getArrivalTimes(int stopPositionInPattern);
+  int[] arrivalTimes();
 
   /**
-   * Get the departure times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the departure time as
-   * seconds from midnight on the search date.
+   * Get the departure times of all trips at all stops as a matrix. The layout is the same as for
+   * the {@link #arrivalTimes()}.
    */
-  IntUnaryOperator getDepartureTimes(int stopPositionInPattern);
+  int[] departureTimes();
 }
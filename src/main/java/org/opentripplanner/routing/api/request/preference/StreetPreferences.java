@@ -6,8 +6,12 @@ import static java.util.Objects.requireNonNull;
 
 import java.io.Serializable;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import org.opentripplanner.framework.lang.DoubleUtils;
@@ -36,6 +40,7 @@ public final class StreetPreferences implements Serializable {
   private final AccessEgressPreferences accessEgress;
   private final IntersectionTraversalModel intersectionTraversalModel;
   private final DurationForEnum<StreetMode> maxDirectDuration;
+  private final Set<StreetMode> bidirectionalDirectModes;
   private final Duration routingTimeout;
 
   private StreetPreferences() {
@@ -45,6 +50,7 @@ public final class StreetPreferences implements Serializable {
     this.accessEgress = AccessEgressPreferences.DEFAULT;
     this.intersectionTraversalModel = IntersectionTraversalModel.SIMPLE;
     this.maxDirectDuration = durationForStreetModeOf(ofHours(4));
+    this.bidirectionalDirectModes = Collections.unmodifiableSet(EnumSet.noneOf(StreetMode.class));
     this.routingTimeout = Duration.ofSeconds(5);
   }
 
@@ -55,6 +61,7 @@ public final class StreetPreferences implements Serializable {
     this.accessEgress = requireNonNull(builder.accessEgress);
     this.intersectionTraversalModel = requireNonNull(builder.intersectionTraversalModel);
     this.maxDirectDuration = requireNonNull(builder.maxDirectDuration);
+    this.bidirectionalDirectModes = Collections.unmodifiableSet(builder.bidirectionalDirectModes);
     this.routingTimeout = requireNonNull(builder.routingTimeout);
   }
 
@@ -95,6 +102,14 @@ public final class StreetPreferences implements Serializable {
     return maxDirectDuration;
   }
 
+  /**
+   * The direct street searches for these modes search from both the origin and the destination
+   * until the two searches meet. This is only supported for walking, cycling and driving.
+   */
+  public Set<StreetMode> bidirectionalDirectModes() {
+    return bidirectionalDirectModes;
+  }
+
   /**
    * The preferred way to limit the search is to limit the distance for each street mode(WALK, BIKE,
    * CAR). So the default timeout for a street search is set quite high. This is used to abort the
@@ -117,6 +132,7 @@ public final class StreetPreferences implements Serializable {
       routingTimeout.equals(that.routingTimeout) &&
       intersectionTraversalModel == that.intersectionTraversalModel &&
       maxDirectDuration.equals(that.maxDirectDuration) &&
+      bidirectionalDirectModes.equals(that.bidirectionalDirectModes) &&
       accessEgress.equals(that.accessEgress)
     );
   }
@@ -130,7 +146,8 @@ public final class StreetPreferences implements Serializable {
       accessEgress,
       routingTimeout,
       intersectionTraversalModel,
-      maxDirectDuration
+      maxDirectDuration,
+      bidirectionalDirectModes
     );
   }
 
@@ -149,6 +166,11 @@ public final class StreetPreferences implements Serializable {
       )
       .addObj("accessEgress", accessEgress, DEFAULT.accessEgress)
       .addObj("maxDirectDuration", maxDirectDuration, DEFAULT.maxDirectDuration)
+      .addCol(
+        "bidirectionalDirectModes",
+        bidirectionalDirectModes,
+        DEFAULT.bidirectionalDirectModes
+      )
       .toString();
   }
 
@@ -160,6 +182,7 @@ public final class StreetPreferences implements Serializable {
     private ElevatorPreferences elevator;
     private IntersectionTraversalModel intersectionTraversalModel;
     private DurationForEnum<StreetMode> maxDirectDuration;
+    private Set<StreetMode> bidirectionalDirectModes;
     private Duration routingTimeout;
     private AccessEgressPreferences accessEgress;
 
@@ -171,6 +194,7 @@ public final class StreetPreferences implements Serializable {
       this.intersectionTraversalModel = original.intersectionTraversalModel;
       this.accessEgress = original.accessEgress;
       this.maxDirectDuration = original.maxDirectDuration;
+      this.bidirectionalDirectModes = original.bidirectionalDirectModes;
       this.routingTimeout = original.routingTimeout;
     }
 
@@ -213,6 +237,14 @@ public final class StreetPreferences implements Serializable {
       return withMaxDirectDuration(b -> b.withDefault(defaultValue).withValues(values));
     }
 
+    public Builder withBidirectionalDirectModes(Collection<StreetMode> bidirectionalDirectModes) {
+      this.bidirectionalDirectModes =
+        bidirectionalDirectModes.isEmpty()
+          ? EnumSet.noneOf(StreetMode.class)
+          : EnumSet.copyOf(bidirectionalDirectModes);
+      return this;
+    }
+
     public Builder withRoutingTimeout(Duration routingTimeout) {
       this.routingTimeout = routingTimeout;
       return this;
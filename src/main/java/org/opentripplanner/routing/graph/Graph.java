@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -25,6 +26,10 @@ import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.routing.linking.VertexLinker;
 import org.opentripplanner.routing.services.notes.StreetNotesService;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingService;
+import org.opentripplanner.street.model.CarLandmarks;
+import org.opentripplanner.street.model.CarTurnGraph;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
+import org.opentripplanner.street.model.StreetGraphSnapshot;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
@@ -49,6 +54,16 @@ public class Graph implements Serializable {
   /* Ideally we could just get rid of vertex labels, but they're used in tests and graph building. */
   private final Map<VertexLabel, Vertex> vertices = new ConcurrentHashMap<>();
 
+  /** Used to give each vertex a dense index, see {@link Vertex#getIndex()}. */
+  private final AtomicInteger vertexIndexCounter = new AtomicInteger();
+
+  /**
+   * See {@link #realtimeStreetVersion()}. This is runtime state and is not serialized, a new
+   * counter is created when the graph is loaded - the graph is created with the no-arg constructor
+   * when it is deserialized.
+   */
+  private final transient AtomicInteger realtimeStreetVersion = new AtomicInteger();
+
   public final transient Deduplicator deduplicator;
 
   public final Instant buildTime = Instant.now();
@@ -58,6 +73,18 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  /** See {@link #createStreetGraphSnapshot()}, {@code null} if not created. */
+  @Nullable
+  private transient StreetGraphSnapshot streetGraphSnapshot;
+
+  /** See {@link #createStreetEdgeCostTableCache(int)}, {@code null} if not created. */
+  @Nullable
+  private transient StreetEdgeCostTableCache streetEdgeCostTableCache;
+
+  /** See {@link #createCarTurnGraph()}, {@code null} if not created. */
+  @Nullable
+  private transient CarTurnGraph carTurnGraph;
+
   //ConvexHull of all the graph vertices. Generated at Graph build time.
   private Geometry convexHull = null;
 
@@ -98,6 +125,10 @@ public class Graph implements Serializable {
   private final VehicleParkingService vehicleParkingService = new VehicleParkingService();
   private FareService fareService;
 
+  /** Car travel times to and from landmarks, {@code null} if not computed when building. */
+  @Nullable
+  private CarLandmarks carLandmarks;
+
   /**
    * Hack. I've tried three different ways of generating unique labels. Previously we were just
    * tolerating edge label collisions. For some reason we're repeatedly generating splits on the
@@ -133,10 +164,13 @@ public class Graph implements Serializable {
   }
 
   /**
-   * Add the given vertex to the graph.
+   * Add the given vertex to the graph, and give it the next free dense index.
    */
   public void addVertex(Vertex v) {
     Vertex old = vertices.put(v.getLabel(), v);
+    if (old != v) {
+      v.setIndex(vertexIndexCounter.getAndIncrement());
+    }
     if (old != null) {
       if (old == v) {
         LOG.error("repeatedly added the same vertex: {}", v);
@@ -277,6 +311,71 @@ public class Graph implements Serializable {
     LOG.info("Index street model complete.");
   }
 
+  /**
+   * Create a read-only snapshot of the permanent street network, used by street searches to
+   * improve the memory locality. This should be done after the graph is built or loaded, and
+   * before the realtime updaters are started.
+   */
+  public void createStreetGraphSnapshot() {
+    LOG.info("Create street graph snapshot...");
+    streetGraphSnapshot = StreetGraphSnapshot.of(getVertices());
+    LOG.info("Create street graph snapshot complete: {}", streetGraphSnapshot);
+  }
+
+  @Nullable
+  public StreetGraphSnapshot getStreetGraphSnapshot() {
+    return streetGraphSnapshot;
+  }
+
+  /**
+   * Cache the street edge traversal costs of the snapshot, see {@link StreetEdgeCostTableCache}.
+   * The snapshot must be created first.
+   *
+   * @param maximumSize the maximum number of cost tables shared between requests
+   */
+  public void createStreetEdgeCostTableCache(int maximumSize) {
+    if (streetGraphSnapshot == null) {
+      throw new IllegalStateException("The street graph snapshot is not created.");
+    }
+    streetEdgeCostTableCache = new StreetEdgeCostTableCache(streetGraphSnapshot, maximumSize);
+  }
+
+  @Nullable
+  public StreetEdgeCostTableCache getStreetEdgeCostTableCache() {
+    return streetEdgeCostTableCache;
+  }
+
+  /**
+   * Create the edge-based car network of the snapshot, see {@link CarTurnGraph}. The snapshot must
+   * be created first.
+   */
+  public void createCarTurnGraph() {
+    if (streetGraphSnapshot == null) {
+      throw new IllegalStateException("The street graph snapshot is not created.");
+    }
+    LOG.info("Create car turn graph...");
+    carTurnGraph = CarTurnGraph.of(streetGraphSnapshot);
+    LOG.info("Create car turn graph complete: {}", carTurnGraph);
+  }
+
+  @Nullable
+  public CarTurnGraph getCarTurnGraph() {
+    return carTurnGraph;
+  }
+
+  /**
+   * A version number, incremented each time a realtime updater adds or removes edges in the street
+   * network. Caches of street search results use it to find out if they are out of date.
+   */
+  public int realtimeStreetVersion() {
+    return realtimeStreetVersion.get();
+  }
+
+  /** Called when a realtime updater adds or removes edges, see {@link #realtimeStreetVersion()}. */
+  public void realtimeStreetChanged() {
+    realtimeStreetVersion.incrementAndGet();
+  }
+
   @Nullable
   public OpeningHoursCalendarService getOpeningHoursCalendarService() {
     return this.openingHoursCalendarService;
@@ -362,6 +461,15 @@ public class Graph implements Serializable {
     this.fareService = fareService;
   }
 
+  @Nullable
+  public CarLandmarks getCarLandmarks() {
+    return carLandmarks;
+  }
+
+  public void setCarLandmarks(@Nullable CarLandmarks carLandmarks) {
+    this.carLandmarks = carLandmarks;
+  }
+
   public LuceneIndex getLuceneIndex() {
     return luceneIndex;
   }
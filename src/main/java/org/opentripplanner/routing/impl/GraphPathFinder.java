@@ -7,22 +7,29 @@ import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
 import org.opentripplanner.astar.strategy.PathComparator;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.error.PathNotFoundException;
+import org.opentripplanner.street.model.CarLandmarks;
+import org.opentripplanner.street.model.CarTurnGraph;
 import org.opentripplanner.street.model.StreetConstants;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.CarTurnGraphSearch;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,18 +66,33 @@ public class GraphPathFinder {
 
   private final float maxCarSpeed;
 
+  @Nullable
+  private final CarLandmarks carLandmarks;
+
+  @Nullable
+  private final StreetEdgeCostTableCache edgeCostTableCache;
+
+  @Nullable
+  private final CarTurnGraph carTurnGraph;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
-    this(traverseVisitor, null, StreetConstants.DEFAULT_MAX_CAR_SPEED);
+    this(traverseVisitor, null, StreetConstants.DEFAULT_MAX_CAR_SPEED, null, null, null);
   }
 
   public GraphPathFinder(
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext,
-    float maxCarSpeed
+    float maxCarSpeed,
+    @Nullable CarLandmarks carLandmarks,
+    @Nullable StreetEdgeCostTableCache edgeCostTableCache,
+    @Nullable CarTurnGraph carTurnGraph
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
     this.maxCarSpeed = maxCarSpeed;
+    this.carLandmarks = carLandmarks;
+    this.edgeCostTableCache = edgeCostTableCache;
+    this.carTurnGraph = carTurnGraph;
   }
 
   /**
@@ -83,14 +105,28 @@ public class GraphPathFinder {
     Set<Vertex> to
   ) {
     StreetPreferences preferences = request.preferences().street();
+    StreetMode mode = request.journey().direct().mode();
+    boolean bidirectional =
+      preferences.bidirectionalDirectModes().contains(mode) && isBidirectionalSupported(mode);
+
+    if (!bidirectional && CarTurnGraphSearch.isApplicable(carTurnGraph, mode)) {
+      return new CarTurnGraphSearch(
+        carTurnGraph,
+        request,
+        createHeuristic(mode),
+        new DurationSkipEdgeStrategy<>(preferences.maxDirectDuration().valueOf(mode)),
+        traverseVisitor,
+        dataOverlayContext,
+        edgeCostTableCache
+      )
+        .getPathsToTarget(from, to);
+    }
 
     StreetSearchBuilder aStar = StreetSearchBuilder
       .of()
-      .setHeuristic(new EuclideanRemainingWeightHeuristic(maxCarSpeed))
+      .setHeuristic(createHeuristic(mode))
       .setSkipEdgeStrategy(
-        new DurationSkipEdgeStrategy(
-          preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
-        )
+        new DurationSkipEdgeStrategy(preferences.maxDirectDuration().valueOf(mode))
       )
       // FORCING the dominance function to weight only
       .setDominanceFunction(new DominanceFunctions.MinimumWeight())
@@ -98,7 +134,12 @@ public class GraphPathFinder {
       .setStreetRequest(request.journey().direct())
       .setFrom(from)
       .setTo(to)
-      .setDataOverlayContext(dataOverlayContext);
+      .setDataOverlayContext(dataOverlayContext)
+      .setEdgeCostTableCache(edgeCostTableCache);
+
+    if (bidirectional) {
+      aStar.setBidirectional(createHeuristic(mode));
+    }
 
     // If the search has a traverseVisitor(GraphVisualizer) attached to it, set it as a callback
     // for the AStar search
@@ -119,6 +160,25 @@ public class GraphPathFinder {
     return paths;
   }
 
+  /**
+   * Use the landmark heuristic if the landmarks are computed for the graph and the mode is
+   * supported, if not fall back to the euclidean heuristic.
+   */
+  private RemainingWeightHeuristic<State> createHeuristic(StreetMode mode) {
+    if (carLandmarks != null && LandmarkRemainingWeightHeuristic.isSupported(mode)) {
+      return new LandmarkRemainingWeightHeuristic(carLandmarks, maxCarSpeed);
+    }
+    return new EuclideanRemainingWeightHeuristic(maxCarSpeed);
+  }
+
+  /**
+   * The bidirectional search can only be used if the state does not change in a way that depends
+   * on the search direction, like renting or parking a vehicle.
+   */
+  private static boolean isBidirectionalSupported(StreetMode mode) {
+    return mode == StreetMode.WALK || mode == StreetMode.BIKE || mode == StreetMode.CAR;
+  }
+
   /**
    * Try to find N paths through the Graph
    */
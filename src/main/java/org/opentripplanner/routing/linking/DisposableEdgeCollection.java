@@ -31,6 +31,9 @@ public class DisposableEdgeCollection {
 
   public void addEdge(Edge edge) {
     this.edges.add(edge);
+    if (scope == Scope.REALTIME) {
+      graph.realtimeStreetChanged();
+    }
   }
 
   /**
@@ -41,6 +44,9 @@ public class DisposableEdgeCollection {
       for (Edge e : edges) {
         graph.getLinker().removeEdgeFromIndex(e, scope);
       }
+      if (!edges.isEmpty()) {
+        graph.realtimeStreetChanged();
+      }
     }
     Collection<Vertex> vertices = new ArrayList<>();
     for (Edge e : edges) {
@@ -13,6 +13,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -101,6 +102,13 @@ public interface OtpServerRequestContext {
 
   StreetLimitationParametersService streetLimitationParametersService();
 
+  /**
+   * The cache of access and egress results shared between requests, or {@code null} if the
+   * {@link OTPFeature#AccessEgressCache} feature is off.
+   */
+  @Nullable
+  AccessEgressCache accessEgressCache();
+
   MeterRegistry meterRegistry();
 
   @Nullable
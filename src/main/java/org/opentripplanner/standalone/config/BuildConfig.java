@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
@@ -101,6 +102,8 @@ public class BuildConfig implements OtpDataStoreConfig {
    */
   private final NodeAdapter root;
 
+  public final int carLandmarks;
+
   public final String configVersion;
 
   public final boolean dataImportReport;
@@ -213,6 +216,21 @@ public class BuildConfig implements OtpDataStoreConfig {
             """
         )
         .asBoolean(false);
+    carLandmarks =
+      root
+        .of("carLandmarks")
+        .since(V2_6)
+        .summary("The number of landmarks used to speed up long car searches.")
+        .description(
+          """
+            The car travel time to and from each landmark is computed for all street vertices and
+            stored in the graph. This is used as a lower bound for the remaining travel time in
+            direct car searches (the ALT heuristic), which is much better than the straight-line
+            distance. Each landmark adds 8 bytes per vertex to the graph. Set to `0` to
+            disable, 8 to 16 landmarks is usually a good trade-off.
+            """
+        )
+        .asInt(0);
     configVersion =
       root
         .of("configVersion")
@@ -6,16 +6,20 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import org.opentripplanner.raptor.api.request.DynamicSearchWindowCoefficients;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.config.routerequest.RouteRequestConfig;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 
 /**
@@ -27,8 +31,14 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowParallelism;
   private final int transferCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
+  private final int tripPatternCacheMaxSize;
+  private final int accessEgressCacheMaxStates;
+  private final Duration accessEgressCacheTimeToLive;
+  private final List<FeedScopedId> egressCacheStops;
+  private final int streetEdgeCostCacheMaxSize;
   private final List<Duration> pagingSearchWindowAdjustments;
 
   private final Map<StopTransferPriority, Integer> stopTransferCost;
@@ -113,6 +123,24 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(dft.searchThreadPoolSize());
+    this.searchWindowParallelism =
+      c
+        .of("searchWindowParallelism")
+        .since(V2_6)
+        .summary(
+          "Split the search-window into this number of parts, and search them in parallel."
+        )
+        .description(
+          """
+The multi-criteria range-raptor search iterates over the search-window one minute at the time.
+With this parameter set, the search-window is split into parts and each part is searched in a
+separate thread, before the results are merged. This reduces the response time for searches with
+a long search-window, but the total amount of work increases. The threads are taken from the
+`searchThreadPoolSize` pool, so this has no effect unless the pool is enabled and the `PARALLEL`
+optimization is enabled in the request. The default is `1`, the search-window is not split.
+"""
+        )
+        .asInt(dft.searchWindowParallelism());
     // Dynamic Search Window
     this.stopTransferCost =
       c
@@ -163,6 +191,9 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
 If not set, the default behavior is to cache stop-to-stop transfers using the default route request 
 (`routingDefaults`). Use this to change the default or specify more than one `RouteRequest`.
 
+The cache is filled when the server starts, and the requests are computed in parallel. Requests
+with street preferences not in this list are computed and cached the first time they are used.
+
 **Example**
 
 ```JSON
@@ -183,6 +214,83 @@ If not set, the default behavior is to cache stop-to-stop transfers using the de
           List.of(routingRequestDefaults),
           n -> RouteRequestConfig.mapRouteRequest(n, routingRequestDefaults)
         );
+    this.tripPatternCacheMaxSize =
+      c
+        .of("tripPatternCacheMaxSize")
+        .since(V2_6)
+        .summary(
+          "The maximum number of distinct search dates and filters to cache trip patterns for."
+        )
+        .description(
+          """
+Before each transit search the trip patterns running on the requested dates are filtered and
+merged. Requests for the same dates with the same transit filters share this data. The
+cache is cleared each time the real-time updates are applied to the transit layer. If too low,
+requests may be slower. If too high, more memory may be used than required. Set to `0` to turn
+the cache off.
+"""
+        )
+        .asInt(10);
+    this.accessEgressCacheMaxStates =
+      c
+        .of("accessEgressCacheMaxStates")
+        .since(V2_6)
+        .summary(
+          "The maximum number of street search states kept by the access and egress cache."
+        )
+        .description(
+          """
+The access and egress street search results are cached if the `AccessEgressCache` feature is
+enabled. Each cached stop keeps the street path leading to it, so the cache is limited by the total
+number of states in these paths, not by the number of results. A state shared by the paths to
+several stops is counted once for each path. If too low, requests may be slower. If too high, more
+memory may be used than required.
+"""
+        )
+        .asInt(AccessEgressCache.DEFAULT_MAXIMUM_STATES);
+    this.accessEgressCacheTimeToLive =
+      c
+        .of("accessEgressCacheTimeToLive")
+        .since(V2_6)
+        .summary("How long a result is kept in the access and egress cache.")
+        .description(
+          """
+The cached results are dropped when a real-time updater changes the street network, so this
+only limits how long a result for a rarely used location is kept. The results precomputed for the
+`egressCacheStops` do not expire.
+"""
+        )
+        .asDuration(AccessEgressCache.DEFAULT_TIME_TO_LIVE);
+    this.egressCacheStops =
+      c
+        .of("egressCacheStops")
+        .since(V2_6)
+        .summary("Stops and stations to calculate the egress for when the server starts.")
+        .description(
+          """
+The egress street search from each stop or station is done with the default route request
+(`routingDefaults`), and the result is stored in the access and egress cache. The requests to these
+destinations use the result without searching. The results do not expire, and they are calculated
+again in the background within a minute after a real-time updater has changed the street network.
+The list is only used if the `AccessEgressCache` feature is enabled. Format: `FeedId:StopId`
+"""
+        )
+        .asFeedScopedIds(List.of());
+    this.streetEdgeCostCacheMaxSize =
+      c
+        .of("streetEdgeCostCacheMaxSize")
+        .since(V2_6)
+        .summary("The maximum number of street edge cost tables shared between requests.")
+        .description(
+          """
+The street edge traversal costs are cached if the `StreetEdgeCostCache` feature is enabled. A
+shared table is created for preferences used by a few searches, and holds up to 16 bytes per
+street edge for each street mode used. The searches with other preferences cache the costs of the
+edges they visit in a table of their own. If too low, requests may be slower. If too high, more
+memory may be used than required. Set to `0` to not share any tables.
+"""
+        )
+        .asInt(StreetEdgeCostTableCache.DEFAULT_MAXIMUM_SIZE);
     this.pagingSearchWindowAdjustments =
       c
         .of("pagingSearchWindowAdjustments")
@@ -243,6 +351,11 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowParallelism() {
+    return searchWindowParallelism;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -268,6 +381,31 @@ for more info."
     return transferCacheRequests;
   }
 
+  @Override
+  public int tripPatternCacheMaxSize() {
+    return tripPatternCacheMaxSize;
+  }
+
+  @Override
+  public int accessEgressCacheMaxStates() {
+    return accessEgressCacheMaxStates;
+  }
+
+  @Override
+  public Duration accessEgressCacheTimeToLive() {
+    return accessEgressCacheTimeToLive;
+  }
+
+  @Override
+  public List<FeedScopedId> egressCacheStops() {
+    return egressCacheStops;
+  }
+
+  @Override
+  public int streetEdgeCostCacheMaxSize() {
+    return streetEdgeCostCacheMaxSize;
+  }
+
   @Override
   public Duration maxSearchWindow() {
     return maxSearchWindow;
@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
 import static org.opentripplanner.standalone.config.routerequest.ItineraryFiltersConfig.mapItineraryFilterParams;
 import static org.opentripplanner.standalone.config.routerequest.TransferConfig.mapTransferPreferences;
 import static org.opentripplanner.standalone.config.routerequest.TriangleOptimizationConfig.mapOptimizationTriangle;
@@ -555,6 +556,20 @@ do not exist."
           )
           .asEnumMap(StreetMode.class, Duration.class)
       )
+      .withBidirectionalDirectModes(
+        c
+          .of("bidirectionalDirectStreetModes")
+          .since(V2_6)
+          .summary("Use a bidirectional search for the direct street search of these modes.")
+          .description(
+            """
+The bidirectional search starts from both the origin and the destination, and stops when the
+two searches meet. For long trips this is much faster than a search from the origin only. Only
+`walk`, `bike` and `car` are supported, other modes always use a search from the origin.
+"""
+          )
+          .asEnumSet(StreetMode.class)
+      )
       .withIntersectionTraversalModel(
         c
           .of("intersectionTraversalModel")
@@ -1,19 +1,28 @@
 package org.opentripplanner.standalone.configure;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.ws.rs.core.Application;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.opentripplanner.apis.transmodel.TransmodelAPI;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.geocoder.LuceneIndex;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationRepository;
+import org.opentripplanner.framework.application.ApplicationShutdownSupport;
 import org.opentripplanner.framework.application.LogMDCSupport;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.TransitRouter;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -33,6 +42,7 @@ import org.opentripplanner.standalone.server.GrizzlyServer;
 import org.opentripplanner.standalone.server.OTPWebApplication;
 import org.opentripplanner.street.model.StreetLimitationParameters;
 import org.opentripplanner.street.model.elevation.ElevationUtils;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.configure.UpdaterConfigurator;
 import org.opentripplanner.visualizer.GraphVisualizer;
@@ -59,6 +69,9 @@ public class ConstructApplication {
 
   private static final Logger LOG = LoggerFactory.getLogger(ConstructApplication.class);
 
+  /** How often the precomputed egress results are checked, see {@link #initializeEgressCache}. */
+  private static final Duration EGRESS_CACHE_REFRESH_INTERVAL = Duration.ofMinutes(1);
+
   private final CommandLineParameters cli;
   private final GraphBuilderDataSources graphBuilderDataSources;
   private final ConstructApplicationFactory factory;
@@ -158,6 +171,20 @@ public class ConstructApplication {
 
     creatTransitLayerForRaptor(transitModel(), routerConfig().transitTuningConfig());
 
+    // The snapshot must be created before the updaters modify the street graph
+    if (OTPFeature.StreetGraphSnapshot.isOn()) {
+      graph().createStreetGraphSnapshot();
+      if (OTPFeature.StreetEdgeCostCache.isOn()) {
+        graph()
+          .createStreetEdgeCostTableCache(
+            routerConfig().transitTuningConfig().streetEdgeCostCacheMaxSize()
+          );
+      }
+      if (OTPFeature.CarTurnGraph.isOn()) {
+        graph().createCarTurnGraph();
+      }
+    }
+
     /* Create updater modules from JSON config. */
     UpdaterConfigurator.configure(
       graph(),
@@ -171,6 +198,10 @@ public class ConstructApplication {
 
     initializeTransferCache(routerConfig().transitTuningConfig(), transitModel());
 
+    if (OTPFeature.AccessEgressCache.isOn()) {
+      initializeEgressCache(routerConfig().transitTuningConfig(), this::createServerContext);
+    }
+
     if (OTPFeature.TransmodelGraphQlApi.isOn()) {
       TransmodelAPI.setUp(
         routerConfig().transmodelApi(),
@@ -232,17 +263,95 @@ public class ConstructApplication {
 
       LOG.info(progress.startMessage());
 
-      transferCacheRequests.forEach(request -> {
-        transitModel.getTransitLayer().getRaptorTransfersForRequest(request);
+      // The transfer cache is thread-safe, so the requests are computed in parallel
+      transferCacheRequests
+        .parallelStream()
+        .forEach(request -> {
+          transitModel.getTransitLayer().getRaptorTransfersForRequest(request);
 
-        //noinspection Convert2MethodRef
-        progress.step(s -> LOG.info(s));
-      });
+          //noinspection Convert2MethodRef
+          progress.step(s -> LOG.info(s));
+        });
 
       LOG.info(progress.completeMessage());
     }
   }
 
+  /**
+   * Calculate the egress of the configured stops, and store it in the access and egress cache.
+   * The results do not expire. They are calculated again in the background when a realtime updater
+   * has changed the street network, this is checked every {@link #EGRESS_CACHE_REFRESH_INTERVAL}.
+   */
+  public static void initializeEgressCache(
+    TransitTuningParameters transitTuningConfig,
+    Supplier<OtpServerRequestContext> serverContextFactory
+  ) {
+    var stopIds = transitTuningConfig.egressCacheStops();
+    if (!stopIds.isEmpty()) {
+      var progress = ProgressTracker.track("Creating initial egress cache", 1, stopIds.size());
+
+      LOG.info(progress.startMessage());
+
+      var serverContext = serverContextFactory.get();
+      // The access and egress cache is thread-safe, so the stops are computed in parallel
+      stopIds
+        .parallelStream()
+        .forEach(stopId -> {
+          precomputeEgress(stopId, serverContext);
+
+          //noinspection Convert2MethodRef
+          progress.step(s -> LOG.info(s));
+        });
+
+      LOG.info(progress.completeMessage());
+
+      var refreshExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("egress-cache-refresh").setDaemon(true).build()
+      );
+      long interval = EGRESS_CACHE_REFRESH_INTERVAL.toSeconds();
+      refreshExecutor.scheduleWithFixedDelay(
+        () -> refreshEgressCache(stopIds, serverContextFactory),
+        interval,
+        interval,
+        TimeUnit.SECONDS
+      );
+      ApplicationShutdownSupport.addShutdownHook(
+        "egress-cache-refresh-shutdown",
+        refreshExecutor::shutdownNow
+      );
+    }
+  }
+
+  /**
+   * Calculate the egress of the stops again if the precomputed results are out of date. The stops
+   * are done one at a time, not to compete with the requests for the CPU.
+   */
+  private static void refreshEgressCache(
+    List<FeedScopedId> stopIds,
+    Supplier<OtpServerRequestContext> serverContextFactory
+  ) {
+    try {
+      var serverContext = serverContextFactory.get();
+      if (serverContext.accessEgressCache().isPrecomputedOutOfDate()) {
+        LOG.info("Refresh the egress cache of {} stops after a real-time update.", stopIds.size());
+        stopIds.forEach(stopId -> precomputeEgress(stopId, serverContext));
+      }
+    } catch (RuntimeException e) {
+      // Keep the task scheduled, the next refresh may succeed
+      LOG.error("Refreshing the egress cache failed: {}", e.getMessage(), e);
+    }
+  }
+
+  private static void precomputeEgress(FeedScopedId stopId, OtpServerRequestContext serverContext) {
+    var request = serverContext.defaultRouteRequest().clone();
+    request.setTo(new GenericLocation(null, stopId, null, null));
+    try {
+      TransitRouter.precomputeEgress(request, serverContext);
+    } catch (RuntimeException e) {
+      LOG.warn("Unable to calculate the egress of stop {}: {}", stopId, e.getMessage());
+    }
+  }
+
   public TransitModel transitModel() {
     return factory.transitModel();
   }
@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -10,7 +11,9 @@ import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.ext.interactivelauncher.api.LauncherRequestDecorator;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
@@ -40,6 +43,7 @@ public class ConstructApplicationModule {
     StreetLimitationParametersService streetLimitationParametersService,
     @Nullable TraverseVisitor<?, ?> traverseVisitor,
     EmissionsService emissionsService,
+    @Nullable AccessEgressCache accessEgressCache,
     LauncherRequestDecorator launcherRequestDecorator
   ) {
     var defaultRequest = launcherRequestDecorator.intercept(routerConfig.routingRequestDefaults());
@@ -60,10 +64,29 @@ public class ConstructApplicationModule {
       rideHailingServices,
       stopConsolidationService,
       streetLimitationParametersService,
+      accessEgressCache,
       traverseVisitor
     );
   }
 
+  /**
+   * The access/egress cache is shared by all requests, so it must be a singleton.
+   */
+  @Provides
+  @Singleton
+  @Nullable
+  AccessEgressCache providesAccessEgressCache(Graph graph, RouterConfig routerConfig) {
+    var config = routerConfig.transitTuningConfig();
+    return OTPFeature.AccessEgressCache.isOn()
+      ? new AccessEgressCache(
+        graph,
+        Metrics.globalRegistry,
+        config.accessEgressCacheMaxStates(),
+        config.accessEgressCacheTimeToLive()
+      )
+      : null;
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
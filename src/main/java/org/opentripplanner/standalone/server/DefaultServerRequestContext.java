@@ -11,6 +11,7 @@ import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -49,6 +50,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final EmissionsService emissionsService;
   private final StopConsolidationService stopConsolidationService;
   private final StreetLimitationParametersService streetLimitationParametersService;
+  private final AccessEgressCache accessEgressCache;
 
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
@@ -69,6 +71,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     List<RideHailingService> rideHailingServices,
     StopConsolidationService stopConsolidationService,
     StreetLimitationParametersService streetLimitationParametersService,
+    AccessEgressCache accessEgressCache,
     FlexConfig flexConfig,
     TraverseVisitor traverseVisitor
   ) {
@@ -89,6 +92,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.emissionsService = emissionsService;
     this.stopConsolidationService = stopConsolidationService;
     this.streetLimitationParametersService = streetLimitationParametersService;
+    this.accessEgressCache = accessEgressCache;
   }
 
   /**
@@ -110,6 +114,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     List<RideHailingService> rideHailingServices,
     @Nullable StopConsolidationService stopConsolidationService,
     StreetLimitationParametersService streetLimitationParametersService,
+    @Nullable AccessEgressCache accessEgressCache,
     @Nullable TraverseVisitor traverseVisitor
   ) {
     return new DefaultServerRequestContext(
@@ -128,6 +133,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       rideHailingServices,
       stopConsolidationService,
       streetLimitationParametersService,
+      accessEgressCache,
       flexConfig,
       traverseVisitor
     );
@@ -210,6 +216,12 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return streetLimitationParametersService;
   }
 
+  @Nullable
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return accessEgressCache;
+  }
+
   @Override
   public MeterRegistry meterRegistry() {
     return meterRegistry;
@@ -77,13 +77,6 @@ public class MetricsLogging {
         List.of(Tag.of("pool", "nonPollingGraphUpdaters"))
       )
         .bindTo(Metrics.globalRegistry);
-
-      new ExecutorServiceMetrics(
-        transitModel.getUpdaterManager().getScheduler(),
-        "graphUpdateScheduler",
-        List.of(Tag.of("pool", "graphUpdateScheduler"))
-      )
-        .bindTo(Metrics.globalRegistry);
     }
 
     if (raptorConfig.isMultiThreaded()) {
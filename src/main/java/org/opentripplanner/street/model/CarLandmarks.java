@@ -0,0 +1,91 @@
+package org.opentripplanner.street.model;
+
+import java.io.Serializable;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Precomputed car travel times to and from a small set of landmark vertices, used by the ALT
+ * (A*, Landmarks and Triangle inequality) remaining-weight heuristic. The travel times are lower
+ * bounds, computed using the max car speed of each street edge, and without turn costs. By the
+ * triangle inequality, the travel time between two vertices is at least the difference in
+ * travel time to, or from, any of the landmarks.
+ * <p>
+ * Only vertices connected to a street edge traversable by car are included. The landmarks are
+ * computed when the graph is built, see {@code CarLandmarksModule}.
+ * <p>
+ * The travel times are stored in one array indexed by the dense vertex index, see
+ * {@link Vertex#getIndex()}. This uses {@code 8 * numberOfLandmarks} bytes for each vertex in the
+ * graph, also for the vertices not included.
+ */
+public class CarLandmarks implements Serializable {
+
+  private final int nLandmarks;
+
+  private final int nVertices;
+
+  /**
+   * For each vertex the travel time in seconds from each landmark to the vertex, followed by the
+   * travel time from the vertex to each landmark. The times of a vertex start at
+   * {@code 2 * nLandmarks * vertex.getIndex()}. Unreachable is {@code +Infinity}, and the times of
+   * a vertex not included are {@code NaN}.
+   */
+  private final float[] durations;
+
+  public CarLandmarks(int nLandmarks, int nVertices, float[] durations) {
+    this.nLandmarks = nLandmarks;
+    this.nVertices = nVertices;
+    this.durations = durations;
+  }
+
+  public int numberOfLandmarks() {
+    return nLandmarks;
+  }
+
+  public boolean contains(Vertex vertex) {
+    return offset(vertex) >= 0;
+  }
+
+  /**
+   * Return a lower bound on the car travel time in seconds from the given vertex to the other
+   * given vertex, or {@code 0} if not known.
+   */
+  public double minDurationSeconds(Vertex from, Vertex to) {
+    int f = offset(from);
+    int t = offset(to);
+
+    if (f < 0 || t < 0) {
+      return 0.0;
+    }
+    double best = 0.0;
+    for (int i = 0; i < nLandmarks; ++i) {
+      // d(L,to) - d(L,from) and d(from,L) - d(to,L); skip landmarks not reaching both vertices
+      best = max(best, durations[t + i] - durations[f + i]);
+      best = max(best, durations[f + nLandmarks + i] - durations[t + nLandmarks + i]);
+    }
+    return best;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(CarLandmarks.class)
+      .addNum("nLandmarks", nLandmarks)
+      .addNum("nVertices", nVertices)
+      .toString();
+  }
+
+  /**
+   * Return the start of the travel times of the given vertex, or {@code -1} if not included.
+   */
+  private int offset(Vertex vertex) {
+    int offset = 2 * nLandmarks * vertex.getIndex();
+    return vertex.getIndex() >= 0 && offset < durations.length && !Float.isNaN(durations[offset])
+      ? offset
+      : -1;
+  }
+
+  private static double max(double best, float candidate) {
+    return Float.isFinite(candidate) && candidate > best ? candidate : best;
+  }
+}
@@ -0,0 +1,173 @@
+package org.opentripplanner.street.model;
+
+import java.util.Arrays;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * The edge-based representation of the car network in a {@link StreetGraphSnapshot}, also called a
+ * turn graph. The nodes are the snapshot edges, and there is a turn from edge {@code a} to edge
+ * {@code b} if a car may continue from {@code a} onto {@code b}. U-turns and the turns prohibited
+ * by a {@link TurnRestriction} are not included.
+ * <p>
+ * In the street graph, the turn restrictions make the search keep several states at each vertex,
+ * one for each incoming edge. In the turn graph the allowed turns only depend on the node, so a
+ * search needs just one state for each node. This is only used for driving, the walk and bicycle
+ * searches use the street graph.
+ * <p>
+ * Turn restrictions which are only active at some times can not be encoded in the turn graph.
+ * These turns are included, and the restriction is checked when the edge is traversed.
+ */
+public final class CarTurnGraph {
+
+  private final StreetGraphSnapshot snapshot;
+
+  /** The turns out of edge {@code e} are {@code [turnOffsets[e], turnOffsets[e + 1])}. */
+  private final int[] turnOffsets;
+  private final int[] turns;
+
+  /** The turns into edge {@code e}, used by arrive-by searches. */
+  private final int[] reverseTurnOffsets;
+  private final int[] reverseTurns;
+
+  private CarTurnGraph(StreetGraphSnapshot snapshot, int[] turnOffsets, int[] turns) {
+    this.snapshot = snapshot;
+    this.turnOffsets = turnOffsets;
+    this.turns = turns;
+    this.reverseTurnOffsets = new int[snapshot.numberOfEdges() + 1];
+    this.reverseTurns = new int[turns.length];
+    addReverseTurns();
+  }
+
+  /**
+   * Create the turn graph of the snapshot. This should be done when the server starts, since it
+   * goes through all edges and turn restrictions of the street network.
+   */
+  public static CarTurnGraph of(StreetGraphSnapshot snapshot) {
+    int nEdges = snapshot.numberOfEdges();
+    int[] offsets = new int[nEdges + 1];
+    int[] turns = new int[nEdges];
+    int n = 0;
+
+    for (int from = 0; from < nEdges; ++from) {
+      offsets[from] = n;
+      if (!snapshot.canTraverse(from, TraverseMode.CAR)) {
+        continue;
+      }
+      int v = snapshot.toVertex(from);
+      for (int to = snapshot.outgoingStart(v); to < snapshot.outgoingEnd(v); ++to) {
+        if (isAllowedTurn(snapshot, from, to)) {
+          if (n == turns.length) {
+            turns = Arrays.copyOf(turns, 2 * n);
+          }
+          turns[n++] = to;
+        }
+      }
+    }
+    offsets[nEdges] = n;
+
+    return new CarTurnGraph(snapshot, offsets, Arrays.copyOf(turns, n));
+  }
+
+  public StreetGraphSnapshot snapshot() {
+    return snapshot;
+  }
+
+  /** The node of the given edge, or {@code -1} if the edge is not in the snapshot. */
+  public int node(Edge edge) {
+    return snapshot.edgeIndex(edge);
+  }
+
+  public int numberOfNodes() {
+    return snapshot.numberOfEdges();
+  }
+
+  public int numberOfTurns() {
+    return turns.length;
+  }
+
+  /** The position of the first turn out of the given node, see {@link #turn(int)}. */
+  public int turnsStart(int node) {
+    return turnOffsets[node];
+  }
+
+  /** The turns out of the given node end before this position. */
+  public int turnsEnd(int node) {
+    return turnOffsets[node + 1];
+  }
+
+  /** The node the turn at the given position leads to. */
+  public int turn(int position) {
+    return turns[position];
+  }
+
+  /** The position of the first turn into the given node, see {@link #reverseTurn(int)}. */
+  public int reverseTurnsStart(int node) {
+    return reverseTurnOffsets[node];
+  }
+
+  /** The turns into the given node end before this position. */
+  public int reverseTurnsEnd(int node) {
+    return reverseTurnOffsets[node + 1];
+  }
+
+  /** The node the turn at the given position comes from. */
+  public int reverseTurn(int position) {
+    return reverseTurns[position];
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(CarTurnGraph.class)
+      .addNum("nodes", numberOfNodes())
+      .addNum("turns", numberOfTurns())
+      .toString();
+  }
+
+  /* private methods */
+
+  /**
+   * Create the reverse turn index with a counting sort on the node the turn leads to.
+   */
+  private void addReverseTurns() {
+    int nNodes = numberOfNodes();
+    for (int t : turns) {
+      ++reverseTurnOffsets[t + 1];
+    }
+    for (int node = 0; node < nNodes; ++node) {
+      reverseTurnOffsets[node + 1] += reverseTurnOffsets[node];
+    }
+    int[] next = new int[nNodes];
+    for (int from = 0; from < nNodes; ++from) {
+      for (int p = turnOffsets[from]; p < turnOffsets[from + 1]; ++p) {
+        int to = turns[p];
+        reverseTurns[reverseTurnOffsets[to] + next[to]++] = from;
+      }
+    }
+  }
+
+  private static boolean isAllowedTurn(StreetGraphSnapshot snapshot, int from, int to) {
+    if (!snapshot.canTraverse(to, TraverseMode.CAR)) {
+      return false;
+    }
+    StreetEdge fromEdge = snapshot.edge(from);
+    StreetEdge toEdge = snapshot.edge(to);
+    if (fromEdge.isReverseOf(toEdge)) {
+      return false;
+    }
+    for (TurnRestriction restriction : fromEdge.getTurnRestrictions()) {
+      // Restrictions with a time period are checked during the search
+      if (restriction.time != null || !restriction.modes.contains(TraverseMode.CAR)) {
+        continue;
+      }
+      boolean isRestrictionTo = toEdge.isEquivalentTo(restriction.to);
+      if (restriction.type == TurnRestrictionType.ONLY_TURN ? !isRestrictionTo : isRestrictionTo) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
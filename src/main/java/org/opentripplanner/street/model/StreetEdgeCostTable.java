@@ -0,0 +1,265 @@
+package org.opentripplanner.street.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.preference.TimeSlopeSafetyTriangle;
+import org.opentripplanner.routing.api.request.preference.VehicleWalkingPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.core.VehicleRoutingOptimizeType;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * The traversal time and weight of the street edges in a {@link StreetGraphSnapshot}, for one set
+ * of street preferences. The costs are calculated the first time an edge is traversed with a given
+ * mode, and reused by later traversals. The table is filled lazily, so only the part of the
+ * network visited by the searches using it is calculated.
+ * <p>
+ * The costs only depend on the preferences in the {@link Key}, so the same dense table can be used
+ * by all searches with equal keys: the access, egress and direct searches of a request, and the
+ * requests using the same preferences, see {@link StreetEdgeCostTableCache}. The turn costs and
+ * the cost extensions depend on the state, and are not part of the table.
+ * <p>
+ * A table is either dense or sparse. A dense table keeps the costs in arrays with an element for
+ * each snapshot edge, and is shared between threads. A value of zero means the cost is not
+ * calculated yet, an edge with zero weight is calculated again each time it is traversed. A sparse
+ * table keeps the costs of the visited edges in a map, and must only be used by one search. Sparse
+ * tables are used for preferences seen too rarely to be worth a dense table.
+ */
+public final class StreetEdgeCostTable {
+
+  private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+
+  private static final int WALK = 0;
+  private static final int WALK_BIKE = 1;
+  private static final int BICYCLE = 2;
+  private static final int SCOOTER = 3;
+  private static final int CAR = 4;
+  private static final int N_VARIANTS = 5;
+
+  /** The variant to use for a mode which is not cached. */
+  public static final int NOT_CACHED = -1;
+
+  private final StreetGraphSnapshot snapshot;
+  private final Key key;
+  private final boolean dense;
+  private final AtomicReferenceArray<Costs> costs = new AtomicReferenceArray<>(N_VARIANTS);
+
+  private StreetEdgeCostTable(StreetGraphSnapshot snapshot, Key key, boolean dense) {
+    this.snapshot = snapshot;
+    this.key = key;
+    this.dense = dense;
+  }
+
+  /**
+   * Create a table using up to 16 bytes per snapshot edge for each mode, which can be shared
+   * between threads.
+   */
+  public static StreetEdgeCostTable dense(StreetGraphSnapshot snapshot, Key key) {
+    return new StreetEdgeCostTable(snapshot, key, true);
+  }
+
+  /**
+   * Create a table only holding the costs of the edges visited, for use by one search.
+   */
+  public static StreetEdgeCostTable sparse(StreetGraphSnapshot snapshot, Key key) {
+    return new StreetEdgeCostTable(snapshot, key, false);
+  }
+
+  public Key key() {
+    return key;
+  }
+
+  /**
+   * The index of the table for the given mode, or {@link #NOT_CACHED}.
+   */
+  public static int variant(TraverseMode mode, boolean walkingBike) {
+    return switch (mode) {
+      case WALK -> walkingBike ? WALK_BIKE : WALK;
+      case BICYCLE -> BICYCLE;
+      case SCOOTER -> SCOOTER;
+      case CAR -> CAR;
+      default -> NOT_CACHED;
+    };
+  }
+
+  /** See {@link StreetGraphSnapshot#edgeIndex(Edge)} */
+  public int edgeIndex(StreetEdge edge) {
+    return snapshot.edgeIndex(edge);
+  }
+
+  /**
+   * Return {@code true} if the costs of the edge are calculated, then {@link #time(int, int)} and
+   * {@link #weight(int, int)} can be used.
+   */
+  public boolean contains(int variant, int edge) {
+    var c = costs.get(variant);
+    return c != null && c.contains(edge);
+  }
+
+  /** The traversal time in seconds. Only valid after {@link #contains(int, int)}. */
+  public double time(int variant, int edge) {
+    return costs.get(variant).time(edge);
+  }
+
+  /** Only valid after {@link #contains(int, int)}. */
+  public double weight(int variant, int edge) {
+    return costs.get(variant).weight(edge);
+  }
+
+  public void set(int variant, int edge, double time, double weight) {
+    costs(variant).set(edge, time, weight);
+  }
+
+  boolean isDense() {
+    return dense;
+  }
+
+  @Override
+  public String toString() {
+    int n = 0;
+    for (int i = 0; i < N_VARIANTS; ++i) {
+      n += costs.get(i) == null ? 0 : 1;
+    }
+    return ToStringBuilder
+      .of(StreetEdgeCostTable.class)
+      .addNum("edges", snapshot.numberOfEdges())
+      .addNum("modes", n)
+      .addBoolIfTrue("sparse", !dense)
+      .addObj("key", key)
+      .toString();
+  }
+
+  private Costs costs(int variant) {
+    var c = costs.get(variant);
+    if (c == null) {
+      costs.compareAndSet(
+        variant,
+        null,
+        dense ? new DenseCosts(snapshot.numberOfEdges()) : new SparseCosts()
+      );
+      c = costs.get(variant);
+    }
+    return c;
+  }
+
+  private sealed interface Costs permits DenseCosts, SparseCosts {
+    boolean contains(int edge);
+
+    double time(int edge);
+
+    double weight(int edge);
+
+    void set(int edge, double time, double weight);
+  }
+
+  private record DenseCosts(double[] time, double[] weight) implements Costs {
+    private DenseCosts(int nEdges) {
+      this(new double[nEdges], new double[nEdges]);
+    }
+
+    @Override
+    public boolean contains(int edge) {
+      return (double) DOUBLES.getAcquire(weight, edge) != 0.0;
+    }
+
+    @Override
+    public double time(int edge) {
+      return time[edge];
+    }
+
+    @Override
+    public double weight(int edge) {
+      return (double) DOUBLES.getAcquire(weight, edge);
+    }
+
+    @Override
+    public void set(int edge, double time, double weight) {
+      this.time[edge] = time;
+      // The weight is written last, a reader seeing the weight also sees the time
+      DOUBLES.setRelease(this.weight, edge, weight);
+    }
+  }
+
+  /** The time and weight by edge index, not thread-safe. */
+  private static final class SparseCosts implements Costs {
+
+    private final Map<Integer, double[]> costs = new HashMap<>();
+
+    @Override
+    public boolean contains(int edge) {
+      return costs.containsKey(edge);
+    }
+
+    @Override
+    public double time(int edge) {
+      return costs.get(edge)[0];
+    }
+
+    @Override
+    public double weight(int edge) {
+      return costs.get(edge)[1];
+    }
+
+    @Override
+    public void set(int edge, double time, double weight) {
+      costs.put(edge, new double[] { time, weight });
+    }
+  }
+
+  /**
+   * The preferences used to calculate the traversal time and weight of a street edge. Other
+   * preferences, like the rental and parking preferences, are not included. This allows the access
+   * search, where the rental preferences are changed, to use the same table as the direct search.
+   */
+  public record Key(
+    double walkSpeed,
+    double walkReluctance,
+    double walkStairsReluctance,
+    double walkStairsTimeFactor,
+    double walkSafetyFactor,
+    double bikeSpeed,
+    double bikeReluctance,
+    VehicleRoutingOptimizeType bikeOptimizeType,
+    TimeSlopeSafetyTriangle bikeOptimizeTriangle,
+    VehicleWalkingPreferences bikeWalking,
+    double scooterSpeed,
+    double scooterReluctance,
+    VehicleRoutingOptimizeType scooterOptimizeType,
+    TimeSlopeSafetyTriangle scooterOptimizeTriangle,
+    double carReluctance,
+    boolean wheelchair,
+    WheelchairPreferences wheelchairPreferences
+  ) {
+    public static Key of(RoutingPreferences preferences, boolean wheelchair) {
+      var walk = preferences.walk();
+      var bike = preferences.bike();
+      var scooter = preferences.scooter();
+      return new Key(
+        walk.speed(),
+        walk.reluctance(),
+        walk.stairsReluctance(),
+        walk.stairsTimeFactor(),
+        walk.safetyFactor(),
+        bike.speed(),
+        bike.reluctance(),
+        bike.optimizeType(),
+        bike.optimizeTriangle(),
+        bike.walking(),
+        scooter.speed(),
+        scooter.reluctance(),
+        scooter.optimizeType(),
+        scooter.optimizeTriangle(),
+        preferences.car().reluctance(),
+        wheelchair,
+        wheelchair ? preferences.wheelchair() : WheelchairPreferences.DEFAULT
+      );
+    }
+  }
+}
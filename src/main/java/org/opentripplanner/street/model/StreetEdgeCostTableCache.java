@@ -0,0 +1,88 @@
+package org.opentripplanner.street.model;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+
+/**
+ * The {@link StreetEdgeCostTable}s used recently, shared between requests. Most requests use the
+ * default preferences, or one of a few client profiles, so a small number of tables covers most
+ * of the traffic. The least recently used table is dropped when the cache is full.
+ * <p>
+ * Each shared table may use up to 16 bytes per snapshot edge for each mode, so the cache should be
+ * kept small on large graphs. A dense, shared table is only created for preferences used by at
+ * least {@link #SHARED_TABLE_MIN_SEARCHES} searches, the searches with other preferences get a new
+ * sparse table each. This prevents a single request with unusual preferences from allocating
+ * tables for the whole network and evicting a table in use.
+ */
+public class StreetEdgeCostTableCache {
+
+  public static final int DEFAULT_MAXIMUM_SIZE = 4;
+
+  /** The number of searches using a key before a shared table is created for it. */
+  static final int SHARED_TABLE_MIN_SEARCHES = 3;
+
+  /** The maximum number of keys without a shared table to count the searches for. */
+  private static final int MAXIMUM_CANDIDATES = 1000;
+
+  private final StreetGraphSnapshot snapshot;
+  private final Cache<StreetEdgeCostTable.Key, StreetEdgeCostTable> cache;
+  private final LoadingCache<StreetEdgeCostTable.Key, AtomicInteger> searchesByCandidate;
+  private final boolean enabled;
+
+  public StreetEdgeCostTableCache(StreetGraphSnapshot snapshot) {
+    this(snapshot, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  /**
+   * @param maximumSize the maximum number of shared tables, {@code 0} to only use sparse tables.
+   */
+  public StreetEdgeCostTableCache(StreetGraphSnapshot snapshot, int maximumSize) {
+    this.snapshot = snapshot;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.searchesByCandidate =
+      CacheBuilder
+        .newBuilder()
+        .maximumSize(MAXIMUM_CANDIDATES)
+        .build(CacheLoader.from(() -> new AtomicInteger()));
+    this.enabled = maximumSize > 0;
+  }
+
+  /**
+   * Return the table for the given preferences. The shared table is returned if it exists, or if
+   * the preferences are used often enough to create it. Otherwise, a new sparse table is returned,
+   * which must only be used by one search.
+   */
+  public StreetEdgeCostTable get(RoutingPreferences preferences, boolean wheelchair) {
+    var key = StreetEdgeCostTable.Key.of(preferences, wheelchair);
+    var table = cache.getIfPresent(key);
+    if (table != null) {
+      return table;
+    }
+    if (
+      !enabled ||
+      searchesByCandidate.getUnchecked(key).incrementAndGet() < SHARED_TABLE_MIN_SEARCHES
+    ) {
+      return StreetEdgeCostTable.sparse(snapshot, key);
+    }
+    try {
+      return cache.get(
+        key,
+        () -> {
+          searchesByCandidate.invalidate(key);
+          return StreetEdgeCostTable.dense(snapshot, key);
+        }
+      );
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from street edge cost table cache", e);
+    }
+  }
+
+  long size() {
+    return cache.size();
+  }
+}
@@ -0,0 +1,361 @@
+package org.opentripplanner.street.model;
+
+import java.util.Collection;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.TemporaryEdge;
+import org.opentripplanner.street.model.vertex.BarrierVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * An immutable compressed-sparse-row (CSR) view of the permanent street network. Vertices are
+ * identified by their dense index, see {@link Vertex#getIndex()}, and edges by their position in
+ * the snapshot. The outgoing edges of a vertex are stored next to each other, so the outgoing
+ * edges of vertex {@code v} are the edges {@code [outgoingStart(v), outgoingEnd(v))}. The
+ * incoming edges are listed in a separate index array. The attributes used to calculate the
+ * traversal cost are copied from the {@link StreetEdge} into parallel primitive arrays, so a
+ * search can run on the snapshot without dereferencing the edge objects.
+ * <p>
+ * Only permanent {@link StreetEdge}s are part of the snapshot. Links, transit edges, rental and
+ * parking edges, and the temporary edges added during routing and by the realtime updaters are
+ * not. A search must fall back to the object graph for a vertex if
+ * {@link #hasAllOutgoing(Vertex)} or {@link #hasAllIncoming(Vertex)} returns {@code false}. This
+ * is safe because permanent street edges are only removed during graph build, and the snapshot
+ * is created after the graph is loaded.
+ */
+public final class StreetGraphSnapshot {
+
+  private static final int PERMISSION_MASK = 0x7;
+  private static final int STAIRS = 1 << 3;
+  private static final int WHEELCHAIR_ACCESSIBLE = 1 << 4;
+  private static final int WALK_NO_THRU_TRAFFIC = 1 << 5;
+  private static final int BICYCLE_NO_THRU_TRAFFIC = 1 << 6;
+  private static final int MOTOR_VEHICLE_NO_THRU_TRAFFIC = 1 << 7;
+  /**
+   * The edge has an elevation profile, a cost extension or turn restrictions. The traversal cost
+   * can not be calculated from the snapshot attributes alone.
+   */
+  private static final int COMPLEX = 1 << 8;
+
+  private final Vertex[] vertices;
+  private final int[] outOffsets;
+  private final int[] inOffsets;
+  private final int[] inEdges;
+
+  private final StreetEdge[] edges;
+  private final int[] fromVertex;
+  private final int[] toVertex;
+  private final int[] lengthMm;
+  private final short[] flags;
+  private final float[] carSpeed;
+  private final float[] walkSafetyFactor;
+  private final float[] bicycleSafetyFactor;
+  private final short[] inAngle;
+  private final short[] outAngle;
+
+  private StreetGraphSnapshot(Vertex[] vertices, int nEdges) {
+    int n = vertices.length;
+    this.vertices = vertices;
+    this.outOffsets = new int[n + 1];
+    this.inOffsets = new int[n + 1];
+    this.inEdges = new int[nEdges];
+    this.edges = new StreetEdge[nEdges];
+    this.fromVertex = new int[nEdges];
+    this.toVertex = new int[nEdges];
+    this.lengthMm = new int[nEdges];
+    this.flags = new short[nEdges];
+    this.carSpeed = new float[nEdges];
+    this.walkSafetyFactor = new float[nEdges];
+    this.bicycleSafetyFactor = new float[nEdges];
+    this.inAngle = new short[nEdges];
+    this.outAngle = new short[nEdges];
+  }
+
+  /**
+   * Create a snapshot of the given vertices and the permanent street edges between them. All
+   * vertices must have an index.
+   */
+  public static StreetGraphSnapshot of(Collection<Vertex> graphVertices) {
+    int n = 0;
+    for (Vertex v : graphVertices) {
+      n = Math.max(n, v.getIndex() + 1);
+    }
+    var vertices = new Vertex[n];
+    for (Vertex v : graphVertices) {
+      if (v.getIndex() >= 0) {
+        vertices[v.getIndex()] = v;
+      }
+    }
+
+    int nEdges = 0;
+    for (Vertex v : vertices) {
+      if (v != null) {
+        for (Edge e : v.getOutgoing()) {
+          if (isIncluded(e, vertices)) {
+            ++nEdges;
+          }
+        }
+      }
+    }
+
+    var snapshot = new StreetGraphSnapshot(vertices, nEdges);
+    snapshot.addEdges();
+    return snapshot;
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  public int numberOfEdges() {
+    return edges.length;
+  }
+
+  /** Return {@code true} if the given vertex is part of the snapshot. */
+  public boolean contains(Vertex v) {
+    int i = v.getIndex();
+    return i >= 0 && i < vertices.length && vertices[i] == v;
+  }
+
+  public Vertex vertex(int index) {
+    return vertices[index];
+  }
+
+  /**
+   * Return {@code true} if all outgoing edges of the vertex are in the snapshot, and a search can
+   * use the snapshot instead of {@link Vertex#getOutgoing()}.
+   */
+  public boolean hasAllOutgoing(Vertex v) {
+    int i = v.getIndex();
+    return contains(v) && v.getDegreeOut() == outOffsets[i + 1] - outOffsets[i];
+  }
+
+  /** Same as {@link #hasAllOutgoing(Vertex)}, but for the incoming edges. */
+  public boolean hasAllIncoming(Vertex v) {
+    int i = v.getIndex();
+    return contains(v) && v.getDegreeIn() == inOffsets[i + 1] - inOffsets[i];
+  }
+
+  /** The first outgoing edge of the given vertex. */
+  public int outgoingStart(int vertex) {
+    return outOffsets[vertex];
+  }
+
+  /** The outgoing edges of the given vertex end before this edge. */
+  public int outgoingEnd(int vertex) {
+    return outOffsets[vertex + 1];
+  }
+
+  /** The position of the first incoming edge of the vertex, see {@link #incomingEdge(int)}. */
+  public int incomingStart(int vertex) {
+    return inOffsets[vertex];
+  }
+
+  /** The incoming edges of the given vertex end before this position. */
+  public int incomingEnd(int vertex) {
+    return inOffsets[vertex + 1];
+  }
+
+  /** The incoming edge at the given position. */
+  public int incomingEdge(int position) {
+    return inEdges[position];
+  }
+
+  public StreetEdge edge(int edge) {
+    return edges[edge];
+  }
+
+  /**
+   * The snapshot edge id of the given edge, or {@code -1} if the edge is not in the snapshot. The
+   * outgoing edges of the from vertex are searched, so this is fast for street intersections.
+   */
+  public int edgeIndex(Edge edge) {
+    var from = edge.getFromVertex();
+    if (!contains(from)) {
+      return -1;
+    }
+    int v = from.getIndex();
+    for (int e = outOffsets[v]; e < outOffsets[v + 1]; ++e) {
+      if (edges[e] == edge) {
+        return e;
+      }
+    }
+    return -1;
+  }
+
+  public int fromVertex(int edge) {
+    return fromVertex[edge];
+  }
+
+  public int toVertex(int edge) {
+    return toVertex[edge];
+  }
+
+  public int lengthMm(int edge) {
+    return lengthMm[edge];
+  }
+
+  /** Same as {@link StreetEdge#getDistanceMeters()} */
+  public double distanceMeters(int edge) {
+    return lengthMm[edge] / 1000.0;
+  }
+
+  /** Same as {@link StreetEdge#canTraverse(TraverseMode)} */
+  public boolean canTraverse(int edge, TraverseMode mode) {
+    return StreetTraversalPermission.get(flags[edge] & PERMISSION_MASK).allows(mode);
+  }
+
+  public float carSpeed(int edge) {
+    return carSpeed[edge];
+  }
+
+  public float walkSafetyFactor(int edge) {
+    return walkSafetyFactor[edge];
+  }
+
+  public float bicycleSafetyFactor(int edge) {
+    return bicycleSafetyFactor[edge];
+  }
+
+  /** Same as {@link StreetEdge#getInAngle()} */
+  public int inAngle(int edge) {
+    return inAngle[edge];
+  }
+
+  /** Same as {@link StreetEdge#getOutAngle()} */
+  public int outAngle(int edge) {
+    return outAngle[edge];
+  }
+
+  public boolean isStairs(int edge) {
+    return (flags[edge] & STAIRS) != 0;
+  }
+
+  public boolean isWheelchairAccessible(int edge) {
+    return (flags[edge] & WHEELCHAIR_ACCESSIBLE) != 0;
+  }
+
+  /** Same as {@link StreetEdge#isNoThruTraffic(TraverseMode)} */
+  public boolean isNoThruTraffic(int edge, TraverseMode mode) {
+    int flag =
+      switch (mode) {
+        case WALK -> WALK_NO_THRU_TRAFFIC;
+        case BICYCLE, SCOOTER -> BICYCLE_NO_THRU_TRAFFIC;
+        case CAR, FLEX -> MOTOR_VEHICLE_NO_THRU_TRAFFIC;
+      };
+    return (flags[edge] & flag) != 0;
+  }
+
+  /**
+   * Return {@code true} if the edge has an elevation profile, a cost extension or turn
+   * restrictions. The traversal of these edges depends on more than the attributes in the
+   * snapshot, so the search should use the {@link #edge(int)} object.
+   */
+  public boolean isComplex(int edge) {
+    return (flags[edge] & COMPLEX) != 0;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(StreetGraphSnapshot.class)
+      .addNum("vertices", vertices.length)
+      .addNum("edges", edges.length)
+      .toString();
+  }
+
+  /* private methods */
+
+  /**
+   * Add the edges sorted by the from vertex, then create the incoming edge index with a counting
+   * sort on the to vertex.
+   */
+  private void addEdges() {
+    int e = 0;
+    for (int v = 0; v < vertices.length; ++v) {
+      outOffsets[v] = e;
+      if (vertices[v] == null) {
+        continue;
+      }
+      for (Edge it : vertices[v].getOutgoing()) {
+        if (isIncluded(it, vertices)) {
+          setEdge(e++, (StreetEdge) it);
+        }
+      }
+    }
+    outOffsets[vertices.length] = e;
+
+    for (int i = 0; i < edges.length; ++i) {
+      ++inOffsets[toVertex[i] + 1];
+    }
+    for (int v = 0; v < vertices.length; ++v) {
+      inOffsets[v + 1] += inOffsets[v];
+    }
+    int[] next = new int[vertices.length];
+    for (int i = 0; i < edges.length; ++i) {
+      int to = toVertex[i];
+      inEdges[inOffsets[to] + next[to]++] = i;
+    }
+  }
+
+  private void setEdge(int e, StreetEdge edge) {
+    edges[e] = edge;
+    fromVertex[e] = edge.getFromVertex().getIndex();
+    toVertex[e] = edge.getToVertex().getIndex();
+    lengthMm[e] = (int) Math.round(edge.getDistanceMeters() * 1000.0);
+    carSpeed[e] = edge.getCarSpeed();
+    walkSafetyFactor[e] = edge.getWalkSafetyFactor();
+    bicycleSafetyFactor[e] = edge.getBicycleSafetyFactor();
+    inAngle[e] = (short) edge.getInAngle();
+    outAngle[e] = (short) edge.getOutAngle();
+
+    int f = permission(edge).code;
+    f |= edge.isStairs() ? STAIRS : 0;
+    f |= edge.isWheelchairAccessible() ? WHEELCHAIR_ACCESSIBLE : 0;
+    f |= edge.isWalkNoThruTraffic() ? WALK_NO_THRU_TRAFFIC : 0;
+    f |= edge.isBicycleNoThruTraffic() ? BICYCLE_NO_THRU_TRAFFIC : 0;
+    f |= edge.isMotorVehicleNoThruTraffic() ? MOTOR_VEHICLE_NO_THRU_TRAFFIC : 0;
+    boolean complex =
+      edge.hasElevationExtension() ||
+      edge.hasCostExtension() ||
+      !edge.getTurnRestrictions().isEmpty();
+    f |= complex ? COMPLEX : 0;
+    flags[e] = (short) f;
+  }
+
+  /**
+   * The edge permission intersected with the barrier permissions of the from and to vertex, the
+   * same as in {@link StreetEdge#canTraverse(TraverseMode)}.
+   */
+  private static StreetTraversalPermission permission(StreetEdge edge) {
+    StreetTraversalPermission permission = edge.getPermission();
+    if (edge.getFromVertex() instanceof BarrierVertex barrier) {
+      permission = permission.intersection(barrier.getBarrierPermissions());
+    }
+    if (edge.getToVertex() instanceof BarrierVertex barrier) {
+      permission = permission.intersection(barrier.getBarrierPermissions());
+    }
+    return permission;
+  }
+
+  /**
+   * Only permanent street edges between vertices in the snapshot are included.
+   */
+  private static boolean isIncluded(Edge e, Vertex[] vertices) {
+    if (!(e instanceof StreetEdge) || e instanceof TemporaryEdge) {
+      return false;
+    }
+    int from = e.getFromVertex().getIndex();
+    int to = e.getToVertex().getIndex();
+    return (
+      from >= 0 &&
+      to >= 0 &&
+      from < vertices.length &&
+      to < vertices.length &&
+      vertices[from] == e.getFromVertex() &&
+      vertices[to] == e.getToVertex()
+    );
+  }
+}
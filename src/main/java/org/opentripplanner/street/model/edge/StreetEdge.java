@@ -25,6 +25,7 @@ import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.routing.util.ElevationUtils;
 import org.opentripplanner.street.model.RentalRestrictionExtension;
+import org.opentripplanner.street.model.StreetEdgeCostTable;
 import org.opentripplanner.street.model.StreetTraversalPermission;
 import org.opentripplanner.street.model.TurnRestriction;
 import org.opentripplanner.street.model.TurnRestrictionType;
@@ -616,6 +617,10 @@ public class StreetEdge
     this.costExtension = costExtension;
   }
 
+  public boolean hasCostExtension() {
+    return costExtension != null;
+  }
+
   /**
    * This method is not thread-safe!
    */
@@ -1097,18 +1102,7 @@ public class StreetEdge
     // Automobiles have variable speeds depending on the edge type
     double speed = calculateSpeed(preferences, traverseMode, walkingBike);
 
-    var traversalCosts =
-      switch (traverseMode) {
-        case BICYCLE, SCOOTER -> bicycleOrScooterTraversalCost(preferences, traverseMode, speed);
-        case WALK -> walkingTraversalCosts(
-          preferences,
-          traverseMode,
-          speed,
-          walkingBike,
-          s0.getRequest().wheelchair()
-        );
-        default -> otherTraversalCosts(preferences, traverseMode, walkingBike, speed);
-      };
+    var traversalCosts = traversalCosts(s0, traverseMode, walkingBike, speed);
 
     int time = (int) Math.ceil(traversalCosts.time());
     var weight = traversalCosts.weight();
@@ -1194,6 +1188,55 @@ public class StreetEdge
     return s1;
   }
 
+  /**
+   * Use the cached costs of the request if this edge is part of its cost table, otherwise
+   * calculate them.
+   */
+  @Nonnull
+  private TraversalCosts traversalCosts(
+    State s0,
+    TraverseMode traverseMode,
+    boolean walkingBike,
+    double speed
+  ) {
+    StreetEdgeCostTable table = s0.getRequest().edgeCostTable();
+    int variant = StreetEdgeCostTable.variant(traverseMode, walkingBike);
+    if (table == null || variant == StreetEdgeCostTable.NOT_CACHED) {
+      return calculateTraversalCosts(s0, traverseMode, walkingBike, speed);
+    }
+    int edge = table.edgeIndex(this);
+    if (edge < 0) {
+      return calculateTraversalCosts(s0, traverseMode, walkingBike, speed);
+    }
+    if (table.contains(variant, edge)) {
+      return new TraversalCosts(table.time(variant, edge), table.weight(variant, edge));
+    }
+    var costs = calculateTraversalCosts(s0, traverseMode, walkingBike, speed);
+    table.set(variant, edge, costs.time(), costs.weight());
+    return costs;
+  }
+
+  @Nonnull
+  private TraversalCosts calculateTraversalCosts(
+    State s0,
+    TraverseMode traverseMode,
+    boolean walkingBike,
+    double speed
+  ) {
+    final RoutingPreferences preferences = s0.getPreferences();
+    return switch (traverseMode) {
+      case BICYCLE, SCOOTER -> bicycleOrScooterTraversalCost(preferences, traverseMode, speed);
+      case WALK -> walkingTraversalCosts(
+        preferences,
+        traverseMode,
+        speed,
+        walkingBike,
+        s0.getRequest().wheelchair()
+      );
+      default -> otherTraversalCosts(preferences, traverseMode, walkingBike, speed);
+    };
+  }
+
   @Nonnull
   private TraversalCosts otherTraversalCosts(
     RoutingPreferences preferences,
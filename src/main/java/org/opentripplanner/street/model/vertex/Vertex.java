@@ -37,6 +37,9 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   private transient Edge[] outgoing = new Edge[0];
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
+  /** See {@link #getIndex()}, set when the vertex is added to the graph. */
+  private int index = -1;
+
   /* CONSTRUCTORS */
 
   protected Vertex(double x, double y) {
@@ -106,6 +109,19 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     return Arrays.asList(incoming);
   }
 
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Set the dense index of this vertex, this should only be done by the graph when the vertex is
+   * added.
+   */
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
   public int getDegreeOut() {
     return outgoing.length;
   }
@@ -0,0 +1,272 @@
+package org.opentripplanner.street.search;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.astar.spi.SkipEdgeStrategy;
+import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.DateUtils;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.street.model.CarTurnGraph;
+import org.opentripplanner.street.model.StreetEdgeCostTable;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
+import org.opentripplanner.street.model.StreetGraphSnapshot;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An A* search for driving on the {@link CarTurnGraph}. The search keeps the best state for each
+ * edge instead of each vertex, so a state is never dominated by a state which can not make the same
+ * turns. This finds the shortest path through turn restrictions, without keeping several states at
+ * each vertex like the {@link DominanceFunctions}.
+ * <p>
+ * The edges are traversed with {@link Edge#traverse(State)}, so the states, costs and the time
+ * dependent turn restrictions are the same as in the street graph search. The turn graph only
+ * decides which edges to traverse next. The edges outside the turn graph, like the temporary edges
+ * at the origin and destination, are traversed from the street graph.
+ * <p>
+ * A new instance must be created for each search.
+ */
+public class CarTurnGraphSearch {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CarTurnGraphSearch.class);
+
+  private static final int INITIAL_CAPACITY = 1000;
+
+  private final CarTurnGraph turnGraph;
+  private final StreetGraphSnapshot snapshot;
+  private final RouteRequest request;
+  private final boolean arriveBy;
+  private final RemainingWeightHeuristic<State> heuristic;
+  private final SkipEdgeStrategy<State, Edge> skipEdgeStrategy;
+  private final TraverseVisitor<State, Edge> traverseVisitor;
+  private final DataOverlayContext dataOverlayContext;
+  private final StreetEdgeCostTableCache edgeCostTableCache;
+
+  /**
+   * The best state for each turn graph node and no-thru-traffic plane, keyed by
+   * {@code 2 * node + plane}. States inside and outside no-thru-traffic areas do not dominate each
+   * other, see {@link DominanceFunctions}.
+   */
+  private final TIntObjectHashMap<State> bestStates = new TIntObjectHashMap<>(INITIAL_CAPACITY);
+  /** The best states for the edges which are not in the turn graph, for each plane. */
+  private final Map<Edge, State[]> bestStatesOutsideTurnGraph = new IdentityHashMap<>();
+
+  private final BinHeap<State> queue = new BinHeap<>(INITIAL_CAPACITY);
+  private int nVisited = 0;
+
+  public CarTurnGraphSearch(
+    CarTurnGraph turnGraph,
+    RouteRequest request,
+    RemainingWeightHeuristic<State> heuristic,
+    @Nullable SkipEdgeStrategy<State, Edge> skipEdgeStrategy,
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    @Nullable StreetEdgeCostTableCache edgeCostTableCache
+  ) {
+    this.turnGraph = turnGraph;
+    this.snapshot = turnGraph.snapshot();
+    this.request = request;
+    this.arriveBy = request.arriveBy();
+    this.heuristic = heuristic;
+    this.skipEdgeStrategy = skipEdgeStrategy;
+    this.traverseVisitor = traverseVisitor;
+    this.dataOverlayContext = dataOverlayContext;
+    this.edgeCostTableCache = edgeCostTableCache;
+  }
+
+  /**
+   * Return {@code true} if the search can be used instead of the generic A* street search. This is
+   * the case for driving, if the turn graph exists.
+   */
+  public static boolean isApplicable(@Nullable CarTurnGraph turnGraph, StreetMode mode) {
+    return turnGraph != null && mode == StreetMode.CAR;
+  }
+
+  /**
+   * Find the best path between the given vertices, the result is empty if no path is found.
+   */
+  public List<GraphPath<State, Edge, Vertex>> getPathsToTarget(Set<Vertex> from, Set<Vertex> to) {
+    Set<Vertex> origin = arriveBy ? to : from;
+    Set<Vertex> destination = arriveBy ? from : to;
+
+    addInitialStates(origin, destination);
+    State result = runSearch(destination);
+
+    LOG.debug("Car turn graph search visited {} states", nVisited);
+    return result == null ? List.of() : List.of(new GraphPath<>(result));
+  }
+
+  /* private methods */
+
+  private void addInitialStates(Set<Vertex> origin, Set<Vertex> destination) {
+    StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
+      .map(request)
+      .withMode(StreetMode.CAR)
+      .withArriveBy(arriveBy)
+      .build();
+
+    StreetPreferences streetPreferences = request.preferences().street();
+    var intersectionTraversalCalculator = IntersectionTraversalCalculator.create(
+      streetPreferences.intersectionTraversalModel(),
+      streetPreferences.drivingDirection()
+    );
+    StreetEdgeCostTable edgeCostTable = edgeCostTableCache == null
+      ? null
+      : edgeCostTableCache.get(request.preferences(), request.wheelchair());
+
+    Collection<State> initialStates = State.getInitialStates(origin, streetSearchRequest);
+    for (State s : initialStates) {
+      s.getRequest().setIntersectionTraversalCalculator(intersectionTraversalCalculator);
+      s.getRequest().setDataOverlayContext(dataOverlayContext);
+      s.getRequest().setEdgeCostTable(edgeCostTable);
+    }
+
+    StreetSearchBuilder.initializeStreetHeuristic(
+      heuristic,
+      StreetMode.CAR,
+      destination,
+      arriveBy,
+      request.preferences()
+    );
+
+    for (State s : initialStates) {
+      queue.insert(s, s.getWeight());
+    }
+  }
+
+  @Nullable
+  private State runSearch(Set<Vertex> destination) {
+    OTPRequestTimeoutException.checkForTimeout();
+    long abortTime = DateUtils.absoluteTimeout(request.preferences().street().routingTimeout());
+
+    while (!queue.empty()) {
+      if (nVisited % 100 == 0 && System.currentTimeMillis() > abortTime) {
+        LOG.warn("Car turn graph search timeout. destination={}", destination);
+        return null;
+      }
+      State u = queue.extract_min();
+
+      // The state is dominated by a state added after it was put in the queue
+      int node = u.getBackEdge() == null ? -1 : turnGraph.node(u.getBackEdge());
+      if (!isBest(u, node)) {
+        continue;
+      }
+      ++nVisited;
+      if (traverseVisitor != null) {
+        traverseVisitor.visitVertex(u);
+      }
+
+      if (destination.contains(u.getVertex()) && u.isFinal()) {
+        return u;
+      }
+      expand(u, node);
+    }
+    return null;
+  }
+
+  private void expand(State u, int node) {
+    Vertex v = u.getVertex();
+
+    if (node < 0) {
+      // The back edge is not in the turn graph, all edges of the vertex may be traversed
+      for (Edge edge : arriveBy ? v.getIncoming() : v.getOutgoing()) {
+        traverse(u, edge, turnGraph.node(edge));
+      }
+      return;
+    }
+
+    if (arriveBy) {
+      for (int p = turnGraph.reverseTurnsStart(node); p < turnGraph.reverseTurnsEnd(node); ++p) {
+        int next = turnGraph.reverseTurn(p);
+        traverse(u, snapshot.edge(next), next);
+      }
+    } else {
+      for (int p = turnGraph.turnsStart(node); p < turnGraph.turnsEnd(node); ++p) {
+        int next = turnGraph.turn(p);
+        traverse(u, snapshot.edge(next), next);
+      }
+    }
+
+    // The edges outside the turn graph, like links and temporary edges
+    if (!(arriveBy ? snapshot.hasAllIncoming(v) : snapshot.hasAllOutgoing(v))) {
+      for (Edge edge : arriveBy ? v.getIncoming() : v.getOutgoing()) {
+        if (turnGraph.node(edge) < 0) {
+          traverse(u, edge, -1);
+        }
+      }
+    }
+  }
+
+  private void traverse(State u, Edge edge, int node) {
+    if (skipEdgeStrategy != null && skipEdgeStrategy.shouldSkipEdge(u, edge)) {
+      return;
+    }
+    for (State s : edge.traverse(u)) {
+      if (traverseVisitor != null) {
+        traverseVisitor.visitEdge(edge);
+      }
+      double remainingWeight = heuristic.estimateRemainingWeight(s);
+      if (remainingWeight < 0 || Double.isInfinite(remainingWeight)) {
+        continue;
+      }
+      if (relax(s, edge, node)) {
+        if (traverseVisitor != null) {
+          traverseVisitor.visitEnqueue();
+        }
+        queue.insert(s, s.getWeight() + remainingWeight);
+      }
+    }
+  }
+
+  /**
+   * Keep the state if it is better than the best state at the same edge and plane.
+   */
+  private boolean relax(State s, Edge edge, int node) {
+    int plane = s.hasEnteredNoThruTrafficArea() ? 1 : 0;
+    if (node >= 0) {
+      State best = bestStates.get(2 * node + plane);
+      if (best != null && best.getWeight() <= s.getWeight()) {
+        return false;
+      }
+      bestStates.put(2 * node + plane, s);
+    } else {
+      State[] best = bestStatesOutsideTurnGraph.computeIfAbsent(edge, e -> new State[2]);
+      if (best[plane] != null && best[plane].getWeight() <= s.getWeight()) {
+        return false;
+      }
+      best[plane] = s;
+    }
+    return true;
+  }
+
+  private boolean isBest(State s, int node) {
+    if (s.getBackEdge() == null) {
+      return true;
+    }
+    int plane = s.hasEnteredNoThruTrafficArea() ? 1 : 0;
+    if (node >= 0) {
+      return bestStates.get(2 * node + plane) == s;
+    }
+    State[] best = bestStatesOutsideTurnGraph.get(s.getBackEdge());
+    return best != null && best[plane] == s;
+  }
+}
@@ -4,13 +4,20 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.AStarBuilder;
+import org.opentripplanner.astar.model.SearchQueueType;
 import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.StreetEdgeCostTable;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
@@ -19,6 +26,7 @@ import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 
 public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, StreetSearchBuilder> {
 
@@ -26,6 +34,7 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   private StreetRequest streetRequest = new StreetRequest();
   private IntersectionTraversalCalculator intersectionTraversalCalculator;
   private DataOverlayContext dataOverlayContext;
+  private StreetEdgeCostTableCache edgeCostTableCache;
 
   public static StreetSearchBuilder of() {
     return new StreetSearchBuilder();
@@ -34,6 +43,11 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   private StreetSearchBuilder() {
     super();
     setBuilder(this);
+    setQueueType(
+      OTPFeature.AStarFourAryHeap.isOn()
+        ? SearchQueueType.FOUR_ARY_HEAP
+        : SearchQueueType.BINARY_HEAP
+    );
   }
 
   public StreetSearchBuilder setRequest(RouteRequest request) {
@@ -65,6 +79,17 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     return this;
   }
 
+  /**
+   * Use a cached {@link StreetEdgeCostTable} for the street edge traversal costs. Optional, the
+   * costs are calculated for each traversal if not set.
+   */
+  public StreetSearchBuilder setEdgeCostTableCache(
+    @Nullable StreetEdgeCostTableCache edgeCostTableCache
+  ) {
+    this.edgeCostTableCache = edgeCostTableCache;
+    return this;
+  }
+
   @Nonnull
   @Override
   protected Duration streetRoutingTimeout() {
@@ -72,11 +97,11 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
   }
 
   @Override
-  protected Collection<State> createInitialStates(Set<Vertex> originVertices) {
+  protected Collection<State> createInitialStates(Set<Vertex> originVertices, boolean arriveBy) {
     StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
       .map(routeRequest)
       .withMode(streetRequest.mode())
-      .withArriveBy(arriveBy())
+      .withArriveBy(arriveBy)
       .build();
 
     return State.getInitialStates(originVertices, streetSearchRequest);
@@ -93,9 +118,14 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
         );
     }
 
+    StreetEdgeCostTable edgeCostTable = edgeCostTableCache == null
+      ? null
+      : edgeCostTableCache.get(routeRequest.preferences(), routeRequest.wheelchair());
+
     for (var state : initialStates) {
       state.getRequest().setIntersectionTraversalCalculator(intersectionTraversalCalculator);
       state.getRequest().setDataOverlayContext(dataOverlayContext);
+      state.getRequest().setEdgeCostTable(edgeCostTable);
     }
   }
 
@@ -105,16 +135,32 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     Set<Vertex> ignored,
     Set<Vertex> destination,
     boolean arriveBy
+  ) {
+    initializeStreetHeuristic(
+      heuristic,
+      streetRequest.mode(),
+      destination,
+      arriveBy,
+      routeRequest.preferences()
+    );
+  }
+
+  /**
+   * Initialize one of the street search heuristics for a search to the given destination.
+   */
+  static void initializeStreetHeuristic(
+    RemainingWeightHeuristic<State> heuristic,
+    StreetMode mode,
+    Set<Vertex> destination,
+    boolean arriveBy,
+    RoutingPreferences preferences
   ) {
     if (heuristic.equals(RemainingWeightHeuristic.TRIVIAL)) {
       // No initialization needed
     } else if (heuristic instanceof EuclideanRemainingWeightHeuristic euclideanHeuristic) {
-      euclideanHeuristic.initialize(
-        streetRequest.mode(),
-        destination,
-        arriveBy,
-        routeRequest.preferences()
-      );
+      euclideanHeuristic.initialize(mode, destination, arriveBy, preferences);
+    } else if (heuristic instanceof LandmarkRemainingWeightHeuristic landmarkHeuristic) {
+      landmarkHeuristic.initialize(mode, destination, arriveBy, preferences);
     } else {
       throw new IllegalArgumentException("Unknown heuristic type: " + heuristic);
     }
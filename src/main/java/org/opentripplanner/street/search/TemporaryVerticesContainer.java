@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.opentripplanner.framework.geometry.GeometryUtils;
@@ -20,6 +21,8 @@ import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.SameEdgeAdjuster;
+import org.opentripplanner.street.model.StreetEdgeCostTableCache;
+import org.opentripplanner.street.model.StreetGraphSnapshot;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 
@@ -80,6 +83,23 @@ public class TemporaryVerticesContainer implements AutoCloseable {
     return toVertices;
   }
 
+  /**
+   * The snapshot of the street graph the temporary vertices are linked into, or {@code null} if
+   * it is not created.
+   */
+  @Nullable
+  public StreetGraphSnapshot getStreetGraphSnapshot() {
+    return graph.getStreetGraphSnapshot();
+  }
+
+  /**
+   * The cached street edge costs of the graph, or {@code null} if the costs are not cached.
+   */
+  @Nullable
+  public StreetEdgeCostTableCache getStreetEdgeCostTableCache() {
+    return graph.getStreetEdgeCostTableCache();
+  }
+
   /* PRIVATE METHODS */
 
   private void checkIfVerticesFound() {
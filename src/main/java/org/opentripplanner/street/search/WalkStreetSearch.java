@@ -0,0 +1,565 @@
+package org.opentripplanner.street.search;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.framework.time.DateUtils;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.StreetGraphSnapshot;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A street search for walk-only requests, used to find the nearby stops for access and egress. It
+ * finds the same states as an A* search with the {@link DominanceFunctions.MinimumWeight}
+ * dominance function, a duration limit and a max stop count, but the search state is kept in
+ * primitive arrays instead of creating a {@link State} for each edge traversal.
+ * <p>
+ * The permanent street edges are traversed using the {@link StreetGraphSnapshot}, and the cost is
+ * calculated the same way as in {@link StreetEdge#traverse(State)} for walking. All other edges,
+ * like links, temporary edges and street edges with an elevation profile, are traversed with
+ * {@link Edge#traverse(State)} as usual. The {@link State}s are only created for the vertices in
+ * the result, by replaying the edge traversals along the path.
+ * <p>
+ * A new instance must be created for each search.
+ */
+public class WalkStreetSearch {
+
+  private static final Logger LOG = LoggerFactory.getLogger(WalkStreetSearch.class);
+
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final StreetGraphSnapshot snapshot;
+  private final RouteRequest request;
+  private final boolean arriveBy;
+  private final long durationLimitSeconds;
+  private final int maxStopCount;
+
+  private IntersectionTraversalCalculator intersectionTraversalCalculator;
+  private double walkSpeed;
+  private double stairsSpeed;
+  private double safetyFactor;
+  private double walkReluctance;
+  private double stairsReluctance;
+  private double turnReluctance;
+
+  /**
+   * The labels are never changed when a better path to the same vertex is found, a new label is
+   * added instead. This keeps the back-label chains intact, the same way the {@link State}s are
+   * immutable.
+   */
+  private int nLabels = 0;
+  private Vertex[] vertex = new Vertex[INITIAL_CAPACITY];
+  private boolean[] enteredNoThruTrafficArea = new boolean[INITIAL_CAPACITY];
+  private double[] weight = new double[INITIAL_CAPACITY];
+  private int[] elapsedSeconds = new int[INITIAL_CAPACITY];
+  private int[] backLabel = new int[INITIAL_CAPACITY];
+  /** The back edge as a snapshot edge, or {@link #NONE} if it is not in the snapshot. */
+  private int[] backEdge = new int[INITIAL_CAPACITY];
+  /** The back edge, if it is not in the snapshot. */
+  private Edge[] backObjectEdge = new Edge[INITIAL_CAPACITY];
+  /** The state of a label, created when needed. */
+  private State[] state = new State[INITIAL_CAPACITY];
+
+  /**
+   * The current label for each vertex and no-thru-traffic plane, keyed by
+   * {@code 2 * vertexIndex + plane}. States inside and outside no-thru-traffic areas do not
+   * dominate each other, see {@link DominanceFunctions}.
+   */
+  private final TIntIntHashMap labelByKey = new TIntIntHashMap(INITIAL_CAPACITY, 0.5f, NONE, NONE);
+  /** The current labels for vertices without an index, e.g. temporary vertices. */
+  private final Map<Vertex, int[]> labelByTemporaryVertex = new IdentityHashMap<>();
+
+  private final LabelQueue queue = new LabelQueue(INITIAL_CAPACITY);
+  private int stopCount = 0;
+
+  public WalkStreetSearch(
+    StreetGraphSnapshot snapshot,
+    RouteRequest request,
+    boolean arriveBy,
+    Duration durationLimit,
+    int maxStopCount
+  ) {
+    this.snapshot = snapshot;
+    this.request = request;
+    this.arriveBy = arriveBy;
+    this.durationLimitSeconds = durationLimit.toSeconds();
+    this.maxStopCount = maxStopCount;
+  }
+
+  /**
+   * Return {@code true} if the search can be used instead of the generic A* street search. This is
+   * the case for walk-only searches without wheelchair accessibility and data overlay, if the
+   * snapshot of the street graph exists.
+   */
+  public static boolean isApplicable(
+    @Nullable StreetGraphSnapshot snapshot,
+    RouteRequest request,
+    StreetMode mode,
+    @Nullable DataOverlayContext dataOverlayContext
+  ) {
+    return (
+      snapshot != null &&
+      mode == StreetMode.WALK &&
+      !request.wheelchair() &&
+      dataOverlayContext == null
+    );
+  }
+
+  /**
+   * Run the search from the origin vertices and return the states at the vertices accepted by the
+   * filter. The states at the origin vertices are included, if accepted.
+   */
+  public List<State> findStates(Set<Vertex> originVertices, Predicate<Vertex> filter) {
+    addInitialStates(originVertices);
+    runSearch();
+
+    List<State> result = new ArrayList<>();
+    for (int label = 0; label < nLabels; ++label) {
+      if (filter.test(vertex[label]) && isCurrent(label)) {
+        State s = state(label);
+        if (s != null) {
+          result.add(s);
+        }
+      }
+    }
+    return result;
+  }
+
+  /* private methods */
+
+  private void addInitialStates(Set<Vertex> originVertices) {
+    StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
+      .map(request)
+      .withMode(StreetMode.WALK)
+      .withArriveBy(arriveBy)
+      .build();
+
+    RoutingPreferences preferences = streetSearchRequest.preferences();
+    intersectionTraversalCalculator =
+      IntersectionTraversalCalculator.create(
+        preferences.street().intersectionTraversalModel(),
+        preferences.street().drivingDirection()
+      );
+    walkSpeed = preferences.walk().speed();
+    stairsSpeed = walkSpeed / preferences.walk().stairsTimeFactor();
+    safetyFactor = preferences.walk().safetyFactor();
+    walkReluctance = preferences.walk().reluctance();
+    stairsReluctance = preferences.walk().stairsReluctance();
+    turnReluctance = preferences.street().turnReluctance();
+
+    Collection<State> initialStates = State.getInitialStates(originVertices, streetSearchRequest);
+    for (State s : initialStates) {
+      s.getRequest().setIntersectionTraversalCalculator(intersectionTraversalCalculator);
+      relax(s.getVertex(), s.hasEnteredNoThruTrafficArea(), s.getWeight(), 0, NONE, NONE, null, s);
+    }
+  }
+
+  private void runSearch() {
+    OTPRequestTimeoutException.checkForTimeout();
+    long abortTime = DateUtils.absoluteTimeout(request.preferences().street().routingTimeout());
+    int nVisited = 0;
+
+    while (!queue.isEmpty()) {
+      if (nVisited % 100 == 0 && System.currentTimeMillis() > abortTime) {
+        LOG.warn("Search timeout. origin={} arriveBy={}", vertex[0], arriveBy);
+        break;
+      }
+      int u = queue.extractMin();
+
+      // The label is dominated by a label added after it was put in the queue
+      if (!isCurrent(u)) {
+        continue;
+      }
+      ++nVisited;
+      expand(u);
+
+      // When the max stop count is reached all edges are skipped, nothing more is added
+      if (maxStopCount > 0 && stopCount > maxStopCount) {
+        break;
+      }
+    }
+  }
+
+  private void expand(int u) {
+    Vertex v = vertex[u];
+    boolean atStop = v instanceof TransitStopVertex;
+    boolean durationExceeded = elapsedSeconds[u] > durationLimitSeconds;
+
+    if (durationExceeded && !(atStop && maxStopCount > 0)) {
+      return;
+    }
+
+    if (arriveBy ? snapshot.hasAllIncoming(v) : snapshot.hasAllOutgoing(v)) {
+      int i = v.getIndex();
+      if (arriveBy) {
+        for (int p = snapshot.incomingStart(i); p < snapshot.incomingEnd(i); ++p) {
+          if (!skipEdge(atStop, durationExceeded)) {
+            traverseSnapshotEdge(u, snapshot.incomingEdge(p));
+          }
+        }
+      } else {
+        for (int e = snapshot.outgoingStart(i); e < snapshot.outgoingEnd(i); ++e) {
+          if (!skipEdge(atStop, durationExceeded)) {
+            traverseSnapshotEdge(u, e);
+          }
+        }
+      }
+    } else {
+      for (Edge edge : arriveBy ? v.getIncoming() : v.getOutgoing()) {
+        if (!skipEdge(atStop, durationExceeded)) {
+          traverseObjectEdge(u, edge);
+        }
+      }
+    }
+  }
+
+  /**
+   * Same as the {@code MaxCountSkipEdgeStrategy} composed with the
+   * {@code DurationSkipEdgeStrategy}. All walk states are final, so every label at a stop counts.
+   */
+  private boolean skipEdge(boolean atStop, boolean durationExceeded) {
+    if (maxStopCount > 0) {
+      if (atStop) {
+        ++stopCount;
+      }
+      if (stopCount > maxStopCount) {
+        return true;
+      }
+    }
+    return durationExceeded;
+  }
+
+  /**
+   * Traverse a snapshot edge by walking. This must give the same result as
+   * {@link StreetEdge#traverse(State)}.
+   */
+  private void traverseSnapshotEdge(int u, int e) {
+    StreetEdge backStreetEdge = backStreetEdge(u);
+
+    // Turn restrictions depend on the time of day, leave them to the street edge
+    if (
+      snapshot.isComplex(e) ||
+      (backStreetEdge != null && !backStreetEdge.getTurnRestrictions().isEmpty())
+    ) {
+      traverseObjectEdge(u, snapshot.edge(e));
+      return;
+    }
+    if (!snapshot.canTraverse(e, TraverseMode.WALK)) {
+      return;
+    }
+
+    int from = snapshot.fromVertex(e);
+    int to = snapshot.toVertex(e);
+    if (isReverseOfBackEdge(u, from, to)) {
+      return;
+    }
+
+    boolean enteredNoThruTraffic = enteredNoThruTrafficArea[u];
+    if (snapshot.isNoThruTraffic(e, TraverseMode.WALK)) {
+      if (backStreetEdge != null && !backStreetEdge.isNoThruTraffic(TraverseMode.WALK)) {
+        enteredNoThruTraffic = true;
+      }
+    } else if (enteredNoThruTraffic) {
+      return;
+    }
+
+    boolean stairs = snapshot.isStairs(e);
+    double speed = stairs ? stairsSpeed : walkSpeed;
+    double distance = snapshot.distanceMeters(e);
+    double time = distance / speed;
+    double w =
+      snapshot.walkSafetyFactor(e) * distance * safetyFactor + distance * (1 - safetyFactor);
+    w /= speed;
+    w *= stairs ? stairsReluctance : walkReluctance;
+    int seconds = (int) Math.ceil(time);
+
+    if (backStreetEdge != null) {
+      double backSpeed = backStreetEdge.isStairs() ? stairsSpeed : walkSpeed;
+      double turnDuration = turnDuration(e, backStreetEdge, speed, backSpeed);
+      seconds += (int) Math.ceil(turnDuration);
+      w += turnReluctance * turnDuration;
+    }
+
+    // Let the street edge handle and log invalid costs
+    if (!(w >= 0) || Double.isInfinite(w)) {
+      traverseObjectEdge(u, snapshot.edge(e));
+      return;
+    }
+
+    relax(
+      snapshot.vertex(arriveBy ? from : to),
+      enteredNoThruTraffic,
+      weight[u] + w,
+      elapsedSeconds[u] + seconds,
+      u,
+      e,
+      null,
+      null
+    );
+  }
+
+  private double turnDuration(int e, StreetEdge backStreetEdge, double speed, double backSpeed) {
+    StreetEdge edge = snapshot.edge(e);
+    if (arriveBy) {
+      return snapshot.vertex(snapshot.toVertex(e)) instanceof IntersectionVertex v
+        ? intersectionTraversalCalculator.computeTraversalDuration(
+          v,
+          edge,
+          backStreetEdge,
+          TraverseMode.WALK,
+          (float) speed,
+          (float) backSpeed
+        )
+        : 0;
+    }
+    return snapshot.vertex(snapshot.fromVertex(e)) instanceof IntersectionVertex v
+      ? intersectionTraversalCalculator.computeTraversalDuration(
+        v,
+        backStreetEdge,
+        edge,
+        TraverseMode.WALK,
+        (float) backSpeed,
+        (float) speed
+      )
+      : 0;
+  }
+
+  private void traverseObjectEdge(int u, Edge edge) {
+    State s0 = state(u);
+    if (s0 == null) {
+      return;
+    }
+    for (State s : edge.traverse(s0)) {
+      relax(
+        s.getVertex(),
+        s.hasEnteredNoThruTrafficArea(),
+        s.getWeight(),
+        (int) s.getElapsedTimeSeconds(),
+        u,
+        NONE,
+        edge,
+        s
+      );
+    }
+  }
+
+  @Nullable
+  private StreetEdge backStreetEdge(int label) {
+    if (backEdge[label] != NONE) {
+      return snapshot.edge(backEdge[label]);
+    }
+    return backObjectEdge[label] instanceof StreetEdge streetEdge ? streetEdge : null;
+  }
+
+  /** Same as {@link Edge#isReverseOf(Edge)} for the edge and the back edge of the label. */
+  private boolean isReverseOfBackEdge(int label, int from, int to) {
+    int back = backEdge[label];
+    if (back != NONE) {
+      return from == snapshot.toVertex(back) && to == snapshot.fromVertex(back);
+    }
+    Edge backEdge = backObjectEdge[label];
+    return (
+      backEdge != null &&
+      backEdge.getToVertex() == snapshot.vertex(from) &&
+      backEdge.getFromVertex() == snapshot.vertex(to)
+    );
+  }
+
+  /**
+   * Add a new label if there is no label with a lower or equal weight for the same vertex and
+   * no-thru-traffic plane.
+   */
+  private void relax(
+    Vertex v,
+    boolean enteredNoThruTraffic,
+    double w,
+    int elapsed,
+    int back,
+    int edge,
+    @Nullable Edge objectEdge,
+    @Nullable State s
+  ) {
+    int current = currentLabel(v, enteredNoThruTraffic);
+    if (current != NONE && weight[current] <= w) {
+      return;
+    }
+    if (nLabels == vertex.length) {
+      grow();
+    }
+    int label = nLabels++;
+    vertex[label] = v;
+    enteredNoThruTrafficArea[label] = enteredNoThruTraffic;
+    weight[label] = w;
+    elapsedSeconds[label] = elapsed;
+    backLabel[label] = back;
+    backEdge[label] = edge;
+    backObjectEdge[label] = objectEdge;
+    state[label] = s;
+
+    setCurrentLabel(v, enteredNoThruTraffic, label);
+    queue.insert(label, w);
+  }
+
+  private boolean isCurrent(int label) {
+    return currentLabel(vertex[label], enteredNoThruTrafficArea[label]) == label;
+  }
+
+  private int currentLabel(Vertex v, boolean enteredNoThruTraffic) {
+    int plane = enteredNoThruTraffic ? 1 : 0;
+    if (v.getIndex() >= 0) {
+      return labelByKey.get(2 * v.getIndex() + plane);
+    }
+    int[] labels = labelByTemporaryVertex.get(v);
+    return labels == null ? NONE : labels[plane];
+  }
+
+  private void setCurrentLabel(Vertex v, boolean enteredNoThruTraffic, int label) {
+    int plane = enteredNoThruTraffic ? 1 : 0;
+    if (v.getIndex() >= 0) {
+      labelByKey.put(2 * v.getIndex() + plane, label);
+    } else {
+      labelByTemporaryVertex.computeIfAbsent(v, it -> new int[] { NONE, NONE })[plane] = label;
+    }
+  }
+
+  /**
+   * Return the state of the label. If it does not exist, the edges from the closest label with a
+   * state are traversed again to create it. The states created on the way are kept.
+   */
+  @Nullable
+  private State state(int label) {
+    if (state[label] != null) {
+      return state[label];
+    }
+    int[] path = new int[16];
+    int n = 0;
+    for (int it = label; state[it] == null; it = backLabel[it]) {
+      if (n == path.length) {
+        path = Arrays.copyOf(path, 2 * n);
+      }
+      path[n++] = it;
+    }
+
+    State s = state[backLabel[path[n - 1]]];
+    for (int i = n - 1; i >= 0; --i) {
+      s = replay(s, path[i]);
+      if (s == null) {
+        return null;
+      }
+      state[path[i]] = s;
+    }
+    return s;
+  }
+
+  @Nullable
+  private State replay(State s0, int label) {
+    Edge edge = snapshot.edge(backEdge[label]);
+    for (State s : edge.traverse(s0)) {
+      if (
+        s.getVertex() == vertex[label] &&
+        s.hasEnteredNoThruTrafficArea() == enteredNoThruTrafficArea[label]
+      ) {
+        return s;
+      }
+    }
+    LOG.warn("The traversal of {} did not give the same result as the walk search.", edge);
+    return null;
+  }
+
+  private void grow() {
+    int n = 2 * vertex.length;
+    vertex = Arrays.copyOf(vertex, n);
+    enteredNoThruTrafficArea = Arrays.copyOf(enteredNoThruTrafficArea, n);
+    weight = Arrays.copyOf(weight, n);
+    elapsedSeconds = Arrays.copyOf(elapsedSeconds, n);
+    backLabel = Arrays.copyOf(backLabel, n);
+    backEdge = Arrays.copyOf(backEdge, n);
+    backObjectEdge = Arrays.copyOf(backObjectEdge, n);
+    state = Arrays.copyOf(state, n);
+  }
+
+  /** A binary min-heap of labels, ordered by weight. */
+  private static final class LabelQueue {
+
+    private int[] labels;
+    private double[] keys;
+    private int size = 0;
+
+    private LabelQueue(int capacity) {
+      this.labels = new int[capacity];
+      this.keys = new double[capacity];
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void insert(int label, double key) {
+      if (size == labels.length) {
+        labels = Arrays.copyOf(labels, 2 * size);
+        keys = Arrays.copyOf(keys, 2 * size);
+      }
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (keys[parent] <= key) {
+          break;
+        }
+        labels[i] = labels[parent];
+        keys[i] = keys[parent];
+        i = parent;
+      }
+      labels[i] = label;
+      keys[i] = key;
+    }
+
+    int extractMin() {
+      int min = labels[0];
+      int lastLabel = labels[--size];
+      double lastKey = keys[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && keys[child + 1] < keys[child]) {
+          ++child;
+        }
+        if (lastKey <= keys[child]) {
+          break;
+        }
+        labels[i] = labels[child];
+        keys[i] = keys[child];
+        i = child;
+      }
+      labels[i] = lastLabel;
+      keys[i] = lastKey;
+      return min;
+    }
+  }
+}
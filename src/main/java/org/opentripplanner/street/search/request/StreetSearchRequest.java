@@ -12,6 +12,7 @@ import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.StreetEdgeCostTable;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
 import org.opentripplanner.street.search.state.State;
@@ -49,6 +50,9 @@ public class StreetSearchRequest implements AStarRequest {
 
   private DataOverlayContext dataOverlayContext;
 
+  @Nullable
+  private StreetEdgeCostTable edgeCostTable;
+
   /**
    * Constructor only used for creating a default instance.
    */
@@ -127,6 +131,15 @@ public class StreetSearchRequest implements AStarRequest {
     return dataOverlayContext;
   }
 
+  /**
+   * The cached street edge traversal costs for the preferences of this request, {@code null} if
+   * the costs are not cached.
+   */
+  @Nullable
+  public StreetEdgeCostTable edgeCostTable() {
+    return edgeCostTable;
+  }
+
   public StreetSearchRequestBuilder copyOfReversed(Instant time) {
     return copyOf(this).withStartTime(time).withArriveBy(!arriveBy);
   }
@@ -141,6 +154,10 @@ public class StreetSearchRequest implements AStarRequest {
     this.dataOverlayContext = dataOverlayContext;
   }
 
+  public void setEdgeCostTable(@Nullable StreetEdgeCostTable edgeCostTable) {
+    this.edgeCostTable = edgeCostTable;
+  }
+
   /**
    * Returns if the vertex is considered "close" to the start or end point of the request. This is
    * useful if you want to allow loops in car routes under certain conditions.
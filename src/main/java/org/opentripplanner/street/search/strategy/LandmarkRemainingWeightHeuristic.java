@@ -0,0 +1,115 @@
+package org.opentripplanner.street.search.strategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.CarLandmarks;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A landmark (ALT) remaining weight strategy for car searches. The remaining car travel time is
+ * bounded using the precomputed travel times to and from a set of landmarks, see
+ * {@link CarLandmarks}. This is a much tighter bound than the euclidean distance divided by the
+ * max car speed, so fewer states are explored in long car searches.
+ * <p>
+ * The landmark bound is only valid for states driving a car on the permanent street network, for
+ * all other states the {@link EuclideanRemainingWeightHeuristic} is used. The estimate is never
+ * less than the euclidean estimate.
+ */
+public class LandmarkRemainingWeightHeuristic implements RemainingWeightHeuristic<State> {
+
+  private final CarLandmarks landmarks;
+  private final EuclideanRemainingWeightHeuristic euclidean;
+
+  /**
+   * The permanent vertices the search must pass through to reach the destination. Empty if the
+   * landmark bound can not be used.
+   */
+  private List<Vertex> anchors = List.of();
+  private boolean arriveBy;
+  private double carReluctance;
+
+  public LandmarkRemainingWeightHeuristic(CarLandmarks landmarks, Float maxCarSpeed) {
+    this.landmarks = landmarks;
+    this.euclidean = new EuclideanRemainingWeightHeuristic(maxCarSpeed);
+  }
+
+  /**
+   * The landmarks only contain the car network, so only pure car searches are supported.
+   */
+  public static boolean isSupported(StreetMode streetMode) {
+    return streetMode == StreetMode.CAR;
+  }
+
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    euclidean.initialize(streetMode, toVertices, arriveBy, preferences);
+    this.arriveBy = arriveBy;
+    this.carReluctance = preferences.car().reluctance();
+    this.anchors = isSupported(streetMode) ? findAnchors(toVertices, arriveBy) : List.of();
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = euclidean.estimateRemainingWeight(s);
+    Vertex v = s.getVertex();
+
+    if (anchors.isEmpty() || s.currentMode() != TraverseMode.CAR || !landmarks.contains(v)) {
+      return estimate;
+    }
+
+    // All paths to the destination pass through one of the anchors, so the minimum over the
+    // anchors is a lower bound
+    double minDuration = Double.POSITIVE_INFINITY;
+    for (Vertex anchor : anchors) {
+      double d = arriveBy
+        ? landmarks.minDurationSeconds(anchor, v)
+        : landmarks.minDurationSeconds(v, anchor);
+      minDuration = Math.min(minDuration, d);
+    }
+    return Math.max(estimate, minDuration * carReluctance);
+  }
+
+  /**
+   * The destination vertices are usually temporary vertices, not part of the landmark tables.
+   * Find the permanent vertices where the search enters the temporary vertices leading to the
+   * destination. If a destination can be reached from a permanent vertex not in the landmark
+   * tables, an empty list is returned and the landmark bound is not used.
+   */
+  private List<Vertex> findAnchors(Set<Vertex> toVertices, boolean arriveBy) {
+    List<Vertex> result = new ArrayList<>();
+    Set<Vertex> visited = new HashSet<>(toVertices);
+    var queue = new ArrayDeque<>(toVertices);
+
+    while (!queue.isEmpty()) {
+      Vertex v = queue.poll();
+
+      if (landmarks.contains(v)) {
+        result.add(v);
+      } else if (v instanceof TemporaryVertex) {
+        for (Edge e : arriveBy ? v.getOutgoing() : v.getIncoming()) {
+          Vertex next = arriveBy ? e.getToVertex() : e.getFromVertex();
+          if (visited.add(next)) {
+            queue.add(next);
+          }
+        }
+      } else {
+        return List.of();
+      }
+    }
+    return result;
+  }
+}
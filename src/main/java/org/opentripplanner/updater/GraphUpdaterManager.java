@@ -1,6 +1,8 @@
 package org.opentripplanner.updater;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.GraphWriterPriority;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.slf4j.Logger;
@@ -42,13 +45,15 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
   /**
    * OTP's multi-version concurrency control model for graph updating allows simultaneous reads, but
    * never simultaneous writes. We ensure this policy is respected by having a single writer thread,
-   * which sequentially executes all graph updater tasks. Each task is a runnable that is scheduled
-   * with the ExecutorService to run at regular intervals.
-   * FIXME: In reality we're not using scheduleAtFixedInterval.
-   *        We're scheduling for immediate execution from separate threads that sleep in a loop.
-   *        We should perhaps switch to having polling GraphUpdaters call scheduleAtFixedInterval.
+   * which sequentially executes all graph updater tasks. Each updater has its own queue, and the
+   * tasks of the updaters with the highest priority are run first.
    */
-  private final ScheduledExecutorService scheduler;
+  private final GraphWriterScheduler graphWriter;
+
+  /**
+   * The queue of the tasks submitted directly to the manager, not by an updater.
+   */
+  private final WriteToGraphCallback defaultQueue;
 
   private final ScheduledExecutorService pollingUpdaterPool;
 
@@ -64,10 +69,10 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
   private final List<GraphUpdater> updaterList = new ArrayList<>();
 
   /**
-   * The Graph that will be updated.
+   * Thread pools shared by the updaters, and shut down with them. They are used by the graph
+   * writer tasks, so they are shut down after the graph writer.
    */
-  private final Graph graph;
-  private final TransitModel transitModel;
+  private final List<ExecutorService> updaterExecutors;
 
   /**
    * Constructor.
@@ -75,11 +80,29 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    * @param transitModel is the Graph that will be updated.
    */
   public GraphUpdaterManager(Graph graph, TransitModel transitModel, List<GraphUpdater> updaters) {
-    this.graph = graph;
-    this.transitModel = transitModel;
+    this(graph, transitModel, updaters, List.of());
+  }
+
+  /**
+   * @param updaterExecutors the thread pools used by the updaters, the manager shuts them down when
+   *                         it is stopped.
+   */
+  public GraphUpdaterManager(
+    Graph graph,
+    TransitModel transitModel,
+    List<GraphUpdater> updaters,
+    List<ExecutorService> updaterExecutors
+  ) {
+    this.updaterExecutors = List.copyOf(updaterExecutors);
+    this.graphWriter =
+      new GraphWriterScheduler(
+        graph,
+        transitModel,
+        Metrics.globalRegistry,
+        GraphWriterScheduler.DEFAULT_QUEUE_CAPACITY
+      );
+    this.defaultQueue = graphWriter.createQueue("default", GraphWriterPriority.NORMAL);
     // Thread factories used to create new threads, giving them more human-readable names.
-    var graphWriterThreadFactory = new ThreadFactoryBuilder().setNameFormat("graph-writer").build();
-    this.scheduler = Executors.newSingleThreadScheduledExecutor(graphWriterThreadFactory);
     var updaterThreadFactory = new ThreadFactoryBuilder().setNameFormat("updater-%d").build();
     this.pollingUpdaterPool =
       Executors.newScheduledThreadPool(
@@ -90,7 +113,8 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
     for (GraphUpdater updater : updaters) {
       updaterList.add(updater);
-      updater.setGraphUpdaterManager(this);
+      var queue = graphWriter.createQueue(updater.getConfigRef(), updater.graphWriterPriority());
+      updater.setGraphUpdaterManager(runnable -> execute(queue, runnable));
     }
   }
 
@@ -171,10 +195,9 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     }
     updaterList.clear();
 
-    // Shutdown scheduler
-    scheduler.shutdownNow();
+    // Shutdown graph writer
     try {
-      boolean ok = scheduler.awaitTermination(30, TimeUnit.SECONDS);
+      boolean ok = graphWriter.stop(Duration.ofSeconds(30));
       if (!ok) {
         LOG.warn("Timeout waiting for scheduled task to finish.");
       }
@@ -182,18 +205,23 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
       // This should not happen
       LOG.warn("Interrupted while waiting for scheduled task to finish.");
     }
+
+    // Shutdown the pools used by the graph writer tasks
+    updaterExecutors.forEach(ExecutorService::shutdownNow);
     LOG.info("Stopped updater manager");
   }
 
   @Override
   public Future<?> execute(GraphWriterRunnable runnable) {
-    return scheduler.submit(() -> {
-      try {
-        runnable.run(graph, transitModel);
-      } catch (Exception e) {
-        LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
-      }
-    });
+    return execute(defaultQueue, runnable);
+  }
+
+  /**
+   * Submit a graph writer task to the queue of an updater. The task is rejected, with a failed
+   * future, if the queue is full.
+   */
+  protected Future<?> execute(WriteToGraphCallback queue, GraphWriterRunnable runnable) {
+    return queue.execute(runnable);
   }
 
   @Override
@@ -257,10 +285,6 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
     return nonPollingUpdaterPool;
   }
 
-  public ScheduledExecutorService getScheduler() {
-    return scheduler;
-  }
-
   /**
    * This method start a task during startup and log a message when all updaters are initialized.
    * When all updaters are ready, then OTP is ready for processing routing requests.
@@ -17,4 +17,13 @@ public interface GraphWriterRunnable {
    * This function is executed to modify the graph.
    */
   void run(Graph graph, TransitModel transitModel);
+
+  /**
+   * Return true if this runnable makes all runnables queued before it by the same updater
+   * redundant, like a runnable applying a full snapshot of the data. The queued runnables are then
+   * dropped, and their futures complete when this runnable completes.
+   */
+  default boolean supersedesQueuedTasks() {
+    return false;
+  }
 }
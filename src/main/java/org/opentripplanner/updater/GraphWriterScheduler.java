@@ -0,0 +1,284 @@
+package org.opentripplanner.updater;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.spi.GraphWriterPriority;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the graph writer tasks of all updaters on a single thread, see {@link GraphUpdaterManager}.
+ * <p>
+ * Each updater has its own bounded queue with a priority. When the writer thread is free, it runs
+ * the oldest task of the queue with the highest priority, so a large vehicle rental update does not
+ * delay the trip updates queued after it. A task which has waited longer than
+ * {@link #STARVATION_LIMIT} is run before all tasks with a higher priority, so a busy trip update
+ * feed can not hold back the other updaters forever.
+ * <p>
+ * The tasks of one updater are run in the order they are submitted. A task which supersedes the
+ * queued tasks of its updater replaces them in the queue, see
+ * {@link GraphWriterRunnable#supersedesQueuedTasks()}. A task submitted to a full queue is
+ * rejected, the updater threads are never blocked by a busy graph writer.
+ */
+class GraphWriterScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphWriterScheduler.class);
+
+  static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+  static final Duration STARVATION_LIMIT = Duration.ofSeconds(30);
+
+  private static final String METRICS_PREFIX = "graph_writer";
+
+  private final Graph graph;
+  private final TransitModel transitModel;
+  private final MeterRegistry meterRegistry;
+  private final int queueCapacity;
+
+  /** Guards the queues, and signals the writer thread when a task is queued. */
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition taskQueued = lock.newCondition();
+  private final List<Queue> queues = new ArrayList<>();
+  private final Thread writerThread;
+  private long nextSequenceNumber = 0;
+  private volatile boolean stopped = false;
+
+  GraphWriterScheduler(
+    Graph graph,
+    TransitModel transitModel,
+    MeterRegistry meterRegistry,
+    int queueCapacity
+  ) {
+    this.graph = graph;
+    this.transitModel = transitModel;
+    this.meterRegistry = meterRegistry;
+    this.queueCapacity = queueCapacity;
+    this.writerThread = new Thread(this::runTasks, "graph-writer");
+    this.writerThread.start();
+  }
+
+  /**
+   * Create the queue of an updater. The returned callback submits the tasks of the updater to the
+   * graph writer.
+   *
+   * @param name identifies the updater in the logs and in the metrics
+   */
+  WriteToGraphCallback createQueue(String name, GraphWriterPriority priority) {
+    var queue = new Queue(name, priority);
+    lock.lock();
+    try {
+      queues.add(queue);
+    } finally {
+      lock.unlock();
+    }
+    return queue;
+  }
+
+  /**
+   * Stop the writer thread. The running task is interrupted and the queued tasks are dropped,
+   * their futures are cancelled. The meters of the queues are removed from the registry, so a new
+   * scheduler can register its own.
+   *
+   * @return false if the running task did not finish within the timeout
+   */
+  boolean stop(Duration timeout) throws InterruptedException {
+    lock.lock();
+    try {
+      stopped = true;
+      for (Queue queue : queues) {
+        queue.tasks.forEach(task -> task.future.cancel(false));
+        queue.tasks.clear();
+        queue.meters.forEach(meterRegistry::remove);
+      }
+    } finally {
+      lock.unlock();
+    }
+    writerThread.interrupt();
+    writerThread.join(timeout.toMillis());
+    return !writerThread.isAlive();
+  }
+
+  /* private methods */
+
+  private Future<?> submit(Queue queue, GraphWriterRunnable runnable) {
+    lock.lock();
+    try {
+      if (stopped) {
+        return CompletableFuture.failedFuture(
+          new RejectedExecutionException("The graph writer is stopped.")
+        );
+      }
+      var future = new CompletableFuture<Void>();
+      long enqueuedNanos = System.nanoTime();
+      long sequenceNumber = nextSequenceNumber++;
+
+      if (runnable.supersedesQueuedTasks() && !queue.tasks.isEmpty()) {
+        // Keep the place and the waiting time of the oldest task, so the replacing task is not
+        // postponed every time the updater submits a new one.
+        var oldest = queue.tasks.peek();
+        enqueuedNanos = oldest.enqueuedNanos;
+        sequenceNumber = oldest.sequenceNumber;
+        for (Task superseded : queue.tasks) {
+          future.whenComplete((result, error) -> completeLike(superseded.future, error));
+        }
+        queue.coalescedCounter.increment(queue.tasks.size());
+        queue.tasks.clear();
+      } else if (queue.tasks.size() >= queueCapacity) {
+        queue.rejectedCounter.increment();
+        LOG.warn(
+          "The graph writer queue of {} is full with {} tasks, the new task is rejected.",
+          queue.name,
+          queueCapacity
+        );
+        return CompletableFuture.failedFuture(
+          new RejectedExecutionException("The graph writer queue of " + queue.name + " is full.")
+        );
+      }
+      queue.tasks.add(new Task(runnable, future, enqueuedNanos, sequenceNumber));
+      taskQueued.signal();
+      return future;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void runTasks() {
+    while (!stopped) {
+      Queue queue;
+      Task task;
+      lock.lock();
+      try {
+        while ((queue = nextQueue()) == null) {
+          taskQueued.await();
+        }
+        task = queue.tasks.poll();
+      } catch (InterruptedException e) {
+        // The scheduler is stopped
+        return;
+      } finally {
+        lock.unlock();
+      }
+      queue.waitTimer.record(System.nanoTime() - task.enqueuedNanos, TimeUnit.NANOSECONDS);
+      try {
+        task.runnable.run(graph, transitModel);
+      } catch (Throwable e) {
+        // Keep the writer thread alive, it is the only thread writing to the graph
+        LOG.error("Error while running graph writer {}:", task.runnable.getClass().getName(), e);
+      } finally {
+        task.future.complete(null);
+      }
+    }
+  }
+
+  /**
+   * Return the queue of the task to run next, or null if all queues are empty. Must be called
+   * with the lock held.
+   */
+  private Queue nextQueue() {
+    long now = System.nanoTime();
+    Queue next = null;
+    int nextRank = Integer.MAX_VALUE;
+    long nextSequence = Long.MAX_VALUE;
+    for (Queue queue : queues) {
+      var head = queue.tasks.peek();
+      if (head == null) {
+        continue;
+      }
+      boolean starved = now - head.enqueuedNanos > STARVATION_LIMIT.toNanos();
+      int rank = starved ? -1 : queue.priority.ordinal();
+      if (rank < nextRank || (rank == nextRank && head.sequenceNumber < nextSequence)) {
+        next = queue;
+        nextRank = rank;
+        nextSequence = head.sequenceNumber;
+      }
+    }
+    return next;
+  }
+
+  private static void completeLike(CompletableFuture<Void> future, Throwable error) {
+    if (error == null) {
+      future.complete(null);
+    } else {
+      future.completeExceptionally(error);
+    }
+  }
+
+  private record Task(
+    GraphWriterRunnable runnable,
+    CompletableFuture<Void> future,
+    long enqueuedNanos,
+    long sequenceNumber
+  ) {}
+
+  private class Queue implements WriteToGraphCallback {
+
+    private final String name;
+    private final GraphWriterPriority priority;
+    private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+    private final Timer waitTimer;
+    private final Counter coalescedCounter;
+    private final Counter rejectedCounter;
+    private final List<Meter> meters;
+
+    private Queue(String name, GraphWriterPriority priority) {
+      this.name = name;
+      this.priority = priority;
+      var tags = List.of(Tag.of("updater", name), Tag.of("priority", priority.name()));
+      var depthGauge = Gauge
+        .builder(METRICS_PREFIX + ".queue_depth", this, Queue::depth)
+        .description("Graph writer tasks queued by the updater")
+        .tags(tags)
+        .register(meterRegistry);
+      this.waitTimer =
+        Timer
+          .builder(METRICS_PREFIX + ".wait_time")
+          .description("Time graph writer tasks wait in the queue before they run")
+          .tags(tags)
+          .register(meterRegistry);
+      this.coalescedCounter =
+        Counter
+          .builder(METRICS_PREFIX + ".coalesced")
+          .description("Total graph writer tasks replaced by a later task before they ran")
+          .tags(tags)
+          .register(meterRegistry);
+      this.rejectedCounter =
+        Counter
+          .builder(METRICS_PREFIX + ".rejected")
+          .description("Total graph writer tasks rejected because the queue was full")
+          .tags(tags)
+          .register(meterRegistry);
+      this.meters = List.of(depthGauge, waitTimer, coalescedCounter, rejectedCounter);
+    }
+
+    @Override
+    public Future<?> execute(GraphWriterRunnable runnable) {
+      return submit(this, runnable);
+    }
+
+    private double depth() {
+      lock.lock();
+      try {
+        return tasks.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
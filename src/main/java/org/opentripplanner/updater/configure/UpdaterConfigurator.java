@@ -2,6 +2,7 @@ package org.opentripplanner.updater.configure;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.ext.siri.updater.SiriETGooglePubsubUpdater;
 import org.opentripplanner.ext.siri.updater.SiriETUpdater;
@@ -45,6 +46,7 @@ public class UpdaterConfigurator {
   private final VehicleRentalRepository vehicleRentalRepository;
   private SiriTimetableSnapshotSource siriTimetableSnapshotSource = null;
   private TimetableSnapshotSource gtfsTimetableSnapshotSource = null;
+  private final List<ExecutorService> updaterExecutors = new ArrayList<>();
 
   private UpdaterConfigurator(
     Graph graph,
@@ -89,7 +91,12 @@ public class UpdaterConfigurator {
       )
     );
 
-    GraphUpdaterManager updaterManager = new GraphUpdaterManager(graph, transitModel, updaters);
+    GraphUpdaterManager updaterManager = new GraphUpdaterManager(
+      graph,
+      transitModel,
+      updaters,
+      updaterExecutors
+    );
     updaterManager.startUpdaters();
 
     // Stop the updater manager if it contains nothing
@@ -214,8 +221,14 @@ public class UpdaterConfigurator {
 
   private TimetableSnapshotSource provideGtfsTimetableSnapshot() {
     if (gtfsTimetableSnapshotSource == null) {
+      var prepareExecutor = TimetableSnapshotSource.createPrepareExecutor();
+      updaterExecutors.add(prepareExecutor);
       this.gtfsTimetableSnapshotSource =
-        new TimetableSnapshotSource(updatersParameters.timetableSnapshotParameters(), transitModel);
+        new TimetableSnapshotSource(
+          updatersParameters.timetableSnapshotParameters(),
+          transitModel,
+          prepareExecutor
+        );
     }
     return gtfsTimetableSnapshotSource;
   }
@@ -48,6 +48,14 @@ public interface GraphUpdater {
     return true;
   }
 
+  /**
+   * The priority of the graph writer tasks of this updater, when they are queued with the tasks of
+   * other updaters.
+   */
+  default GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.NORMAL;
+  }
+
   /**
    * This is the updater "type" used in the configuration file. It should ONLY be used to provide
    * human friendly messages while logging and debugging.
@@ -0,0 +1,14 @@
+package org.opentripplanner.updater.spi;
+
+/**
+ * The priority of the graph writer tasks of an updater. When the graph writer is busy, the queued
+ * task with the highest priority runs first, so the delays of a trip update feed are not held back
+ * by a large vehicle rental or parking update.
+ */
+public enum GraphWriterPriority {
+  /** Real-time trip updates, they change the itineraries returned to the users. */
+  HIGH,
+  NORMAL,
+  /** Updates of availability counts, like vehicle rental and parking, where a delay is harmless. */
+  LOW,
+}
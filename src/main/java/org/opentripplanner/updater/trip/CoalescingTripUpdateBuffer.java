@@ -0,0 +1,142 @@
+package org.opentripplanner.updater.trip;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
+
+/**
+ * Buffer the trip updates of a streaming updater, and apply them in batches. Noisy feeds send the
+ * same trip many times, so only the latest update of each trip is kept in the buffer. The batch is
+ * applied by one graph writer task, which takes the timetable snapshot lock once for all the
+ * updates in it.
+ * <p>
+ * A graph writer task is scheduled when the first update is added to an empty buffer, and the task
+ * takes all updates added until it runs. So the buffering window is the time the task waits in the
+ * graph writer queue: short when the updaters are idle, and longer when the graph writer is busy
+ * and coalescing the updates pays off the most.
+ * <p>
+ * The updates are applied in the order they are received, where a replaced update takes the place
+ * of the latest one. A full dataset removes all updates received before it.
+ *
+ * @param <T> the trip update type, like a GTFS-RT TripUpdate or a SIRI EstimatedVehicleJourney
+ */
+public class CoalescingTripUpdateBuffer<T> {
+
+  private static final String METRICS_PREFIX = "streaming_trip_updates";
+
+  private final Function<T, Object> tripKey;
+  private final BatchApplier<T> applier;
+  private final Counter receivedCounter;
+  private final Counter coalescedCounter;
+  private final Counter appliedCounter;
+
+  private LinkedHashMap<Object, T> updates = new LinkedHashMap<>();
+  private boolean fullDataset = false;
+  private Future<?> scheduledApply = null;
+
+  /**
+   * @param tripKey returns the key of the trip and service date of an update, the latest update
+   *                for each key is applied. An update with a {@code null} key is always applied.
+   * @param applier applies a batch of updates to the timetable snapshot
+   */
+  public CoalescingTripUpdateBuffer(
+    UrlUpdaterParameters parameters,
+    MeterRegistry meterRegistry,
+    Function<T, Object> tripKey,
+    BatchApplier<T> applier
+  ) {
+    this.tripKey = tripKey;
+    this.applier = applier;
+    var tags = TripUpdateMetrics.baseTags(parameters);
+    this.receivedCounter =
+      Counter
+        .builder(METRICS_PREFIX + ".received")
+        .description("Total trip updates received by the buffer")
+        .tags(tags)
+        .register(meterRegistry);
+    this.coalescedCounter =
+      Counter
+        .builder(METRICS_PREFIX + ".coalesced")
+        .description("Total trip updates replaced by a later update before they were applied")
+        .tags(tags)
+        .register(meterRegistry);
+    this.appliedCounter =
+      Counter
+        .builder(METRICS_PREFIX + ".applied")
+        .description("Total trip updates applied after coalescing")
+        .tags(tags)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Add the updates to the buffer, and schedule a graph writer task applying them if it is not
+   * already scheduled.
+   *
+   * @param fullDataset true if the updates represent all updates that are active right now, i.e.
+   *                    all previous updates should be disregarded
+   * @return the future of the graph writer task applying the updates
+   */
+  public synchronized Future<?> add(
+    WriteToGraphCallback saveResultOnGraph,
+    boolean fullDataset,
+    List<T> updates
+  ) {
+    receivedCounter.increment(updates.size());
+    if (fullDataset) {
+      coalescedCounter.increment(this.updates.size());
+      this.updates.clear();
+      this.fullDataset = true;
+    }
+    for (T update : updates) {
+      Object key = tripKey.apply(update);
+      if (key == null) {
+        // Updates without a key are never coalesced
+        key = new Object();
+      }
+      // Remove the old update first, so the latest update takes the place of the last one
+      if (this.updates.remove(key) != null) {
+        coalescedCounter.increment();
+      }
+      this.updates.put(key, update);
+    }
+    if (scheduledApply == null) {
+      // The task can not take the updates before this method returns, since it synchronizes on
+      // this buffer.
+      scheduledApply = saveResultOnGraph.execute((graph, transitModel) -> applyBatch());
+    }
+    return scheduledApply;
+  }
+
+  /* private methods */
+
+  private void applyBatch() {
+    List<T> batch;
+    boolean batchIsFullDataset;
+    synchronized (this) {
+      batch = new ArrayList<>(updates.values());
+      batchIsFullDataset = fullDataset;
+      updates = new LinkedHashMap<>();
+      fullDataset = false;
+      scheduledApply = null;
+    }
+    if (batch.isEmpty() && !batchIsFullDataset) {
+      return;
+    }
+    applier.apply(batchIsFullDataset, batch);
+    appliedCounter.increment(batch.size());
+  }
+
+  @FunctionalInterface
+  public interface BatchApplier<T> {
+    /**
+     * Apply a batch of updates to the timetable snapshot, taking the snapshot lock once.
+     */
+    void apply(boolean fullDataset, List<T> updates);
+  }
+}
@@ -2,10 +2,10 @@ package org.opentripplanner.updater.trip;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.transit.realtime.GtfsRealtime;
+import io.micrometer.core.instrument.Metrics;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Consumer;
 import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
 import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
 import org.eclipse.paho.client.mqttv3.MqttClient;
@@ -18,7 +18,7 @@ import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GtfsRealtimeFuzzyTripMatcher;
 import org.opentripplanner.updater.spi.GraphUpdater;
-import org.opentripplanner.updater.spi.UpdateResult;
+import org.opentripplanner.updater.spi.GraphWriterPriority;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
 import org.slf4j.Logger;
@@ -27,7 +27,9 @@ import org.slf4j.LoggerFactory;
 /**
  * This class starts an Paho MQTT client which opens a connection to a GTFS-RT data source. A
  * callback is registered which handles incoming GTFS-RT messages as they stream in by placing a
- * GTFS-RT decoder Runnable task in the single-threaded executor for handling.
+ * GTFS-RT decoder Runnable task in the single-threaded executor for handling. The trip updates are
+ * coalesced per trip and service date in a {@link CoalescingTripUpdateBuffer}, so only the latest
+ * update of a trip is applied if the graph writer is busy.
  * <p>
  * Usage example in the file 'router-config.json', inside the 'updaters' array:
  *
@@ -53,8 +55,7 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
   private final String clientId = "OpenTripPlanner-" + MqttClient.generateClientId();
   private final String configRef;
   private final MemoryPersistence persistence = new MemoryPersistence();
-  private final TimetableSnapshotSource snapshotSource;
-  private final Consumer<UpdateResult> recordMetrics;
+  private final CoalescingTripUpdateBuffer<GtfsRealtime.TripUpdate> updateBuffer;
   private WriteToGraphCallback saveResultOnGraph;
 
   private GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher = null;
@@ -72,13 +73,28 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     this.feedId = parameters.feedId();
     this.qos = parameters.getQos();
     this.backwardsDelayPropagationType = parameters.getBackwardsDelayPropagationType();
-    this.snapshotSource = snapshotSource;
     // Set properties of realtime data snapshot source
     if (parameters.getFuzzyTripMatching()) {
       this.fuzzyTripMatcher =
         new GtfsRealtimeFuzzyTripMatcher(new DefaultTransitService(transitModel));
     }
-    this.recordMetrics = TripUpdateMetrics.streaming(parameters);
+    var recordMetrics = TripUpdateMetrics.streaming(parameters);
+    this.updateBuffer =
+      new CoalescingTripUpdateBuffer<>(
+        parameters,
+        Metrics.globalRegistry,
+        MqttGtfsRealtimeUpdater::tripKey,
+        (fullDataset, updates) ->
+          recordMetrics.accept(
+            snapshotSource.applyTripUpdates(
+              fuzzyTripMatcher,
+              backwardsDelayPropagationType,
+              fullDataset,
+              updates,
+              feedId
+            )
+          )
+      );
     LOG.info("Creating streaming GTFS-RT TripUpdate updater subscribing to MQTT broker at {}", url);
   }
 
@@ -87,6 +103,11 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.HIGH;
+  }
+
   @Override
   public void run() throws Exception {
     client = new MqttClient(url, clientId, persistence);
@@ -171,18 +192,8 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
       }
 
       if (updates != null) {
-        // Handle trip updates via graph writer runnable
-        saveResultOnGraph.execute(
-          new TripUpdateGraphWriterRunnable(
-            snapshotSource,
-            fuzzyTripMatcher,
-            backwardsDelayPropagationType,
-            fullDataset,
-            updates,
-            feedId,
-            recordMetrics
-          )
-        );
+        // Handle trip updates via the buffer, which applies them in a graph writer runnable
+        updateBuffer.add(saveResultOnGraph, fullDataset, updates);
       }
     }
 
@@ -190,6 +201,20 @@ public class MqttGtfsRealtimeUpdater implements GraphUpdater {
     public void deliveryComplete(IMqttDeliveryToken token) {}
   }
 
+  /**
+   * Return the trip id and start date of the update, or {@code null} if the update has no trip id.
+   * Updates without a trip id are matched by the fuzzy trip matcher, and are never coalesced.
+   */
+  private static Object tripKey(GtfsRealtime.TripUpdate update) {
+    var trip = update.getTrip();
+    if (!trip.hasTripId() || trip.getTripId().isBlank()) {
+      return null;
+    }
+    return new TripKey(trip.getTripId(), trip.getStartDate());
+  }
+
+  private record TripKey(String tripId, String startDate) {}
+
   @Override
   public String toString() {
     return ToStringBuilder
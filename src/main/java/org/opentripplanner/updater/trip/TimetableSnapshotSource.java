@@ -15,6 +15,7 @@ import static org.opentripplanner.updater.spi.UpdateError.UpdateErrorType.TRIP_N
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.transit.realtime.GtfsRealtime;
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
@@ -30,9 +31,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.framework.lang.StringUtils;
@@ -42,6 +50,7 @@ import org.opentripplanner.model.StopTime;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TimetableSnapshotProvider;
+import org.opentripplanner.model.TripTimesPatch;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.framework.DataValidationException;
@@ -85,6 +94,14 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    */
   private static final long MAX_ARRIVAL_DEPARTURE_TIME = 48 * 60 * 60;
 
+  /**
+   * Smaller messages are prepared by the graph writer thread, starting the tasks would cost more
+   * than they save.
+   */
+  private static final int MIN_UPDATES_TO_PREPARE_IN_PARALLEL = 64;
+
+  private static final int PREPARE_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
   /**
    * The working copy of the timetable snapshot. Should not be visible to routing threads. Should
    * only be modified by a thread that holds a lock on {@link #bufferLock}. All public methods that
@@ -139,11 +156,33 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
    */
   private final Supplier<LocalDate> localDateNow;
 
+  /**
+   * The pool preparing the trip updates, shared by all feeds. Only the graph writer thread submits
+   * tasks to it, so there is at most one message prepared at a time. The updates are prepared by
+   * the calling thread if this is null. The pool is owned, and shut down, by the creator of this
+   * class, see {@link #createPrepareExecutor()}.
+   */
+  @Nullable
+  private final ExecutorService prepareExecutor;
+
   public TimetableSnapshotSource(
     TimetableSnapshotSourceParameters parameters,
     TransitModel transitModel
   ) {
-    this(parameters, transitModel, () -> LocalDate.now(transitModel.getTimeZone()));
+    this(parameters, transitModel, (ExecutorService) null);
+  }
+
+  public TimetableSnapshotSource(
+    TimetableSnapshotSourceParameters parameters,
+    TransitModel transitModel,
+    @Nullable ExecutorService prepareExecutor
+  ) {
+    this(
+      parameters,
+      transitModel,
+      () -> LocalDate.now(transitModel.getTimeZone()),
+      prepareExecutor
+    );
   }
 
   /**
@@ -154,6 +193,15 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     TimetableSnapshotSourceParameters parameters,
     TransitModel transitModel,
     Supplier<LocalDate> localDateNow
+  ) {
+    this(parameters, transitModel, localDateNow, null);
+  }
+
+  TimetableSnapshotSource(
+    TimetableSnapshotSourceParameters parameters,
+    TransitModel transitModel,
+    Supplier<LocalDate> localDateNow,
+    @Nullable ExecutorService prepareExecutor
   ) {
     this.timeZone = transitModel.getTimeZone();
     this.transitService = new DefaultTransitService(transitModel);
@@ -163,11 +211,23 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     this.maxSnapshotFrequency = parameters.maxSnapshotFrequency();
     this.purgeExpiredData = parameters.purgeExpiredData();
     this.localDateNow = localDateNow;
+    this.prepareExecutor = prepareExecutor;
 
     // Inject this into the transit model
     transitModel.initTimetableSnapshotProvider(this);
   }
 
+  /**
+   * Create a pool for preparing the trip updates in parallel. The caller must shut it down when
+   * the updaters are stopped.
+   */
+  public static ExecutorService createPrepareExecutor() {
+    return Executors.newFixedThreadPool(
+      PREPARE_THREAD_COUNT,
+      new ThreadFactoryBuilder().setNameFormat("trip-update-prepare-%d").setDaemon(true).build()
+    );
+  }
+
   /**
    * @return an up-to-date snapshot mapping TripPatterns to Timetables. This snapshot and the
    * timetable objects it references are guaranteed to never change, so the requesting thread is
@@ -220,6 +280,14 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       return UpdateResult.empty();
     }
 
+    // Prepare the updates in parallel, before the lock is taken
+    List<PreparedTripUpdate> preparedUpdates = prepareTripUpdates(
+      fuzzyTripMatcher,
+      backwardsDelayPropagationType,
+      updates,
+      feedId
+    );
+
     // Acquire lock on buffer
     bufferLock.lock();
 
@@ -234,43 +302,14 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
 
       LOG.debug("message contains {} trip updates", updates.size());
       int uIndex = 0;
-      for (TripUpdate tripUpdate : updates) {
-        if (!tripUpdate.hasTrip()) {
-          debug(feedId, "", "Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
+      for (PreparedTripUpdate prepared : preparedUpdates) {
+        if (prepared == null) {
           continue;
         }
-
-        if (fuzzyTripMatcher != null) {
-          final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
-          tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
-        }
-
+        final TripUpdate tripUpdate = prepared.tripUpdate();
         final TripDescriptor tripDescriptor = tripUpdate.getTrip();
-
-        if (!tripDescriptor.hasTripId() || tripDescriptor.getTripId().isBlank()) {
-          debug(feedId, "", "No trip id found for gtfs-rt trip update: \n{}", tripUpdate);
-          continue;
-        }
-
-        FeedScopedId tripId = new FeedScopedId(feedId, tripUpdate.getTrip().getTripId());
-
-        LocalDate serviceDate;
-        if (tripDescriptor.hasStartDate()) {
-          try {
-            serviceDate = ServiceDateUtils.parseString(tripDescriptor.getStartDate());
-          } catch (final ParseException e) {
-            debug(
-              tripId,
-              "Failed to parse start date in gtfs-rt trip update: {}",
-              tripDescriptor.getStartDate()
-            );
-            continue;
-          }
-        } else {
-          // TODO: figure out the correct service date. For the special case that a trip
-          // starts for example at 40:00, yesterday would probably be a better guess.
-          serviceDate = localDateNow.get();
-        }
+        final FeedScopedId tripId = prepared.tripId();
+        final LocalDate serviceDate = prepared.serviceDate();
 
         uIndex += 1;
         LOG.debug("trip update #{} ({} updates) :", uIndex, tripUpdate.getStopTimeUpdateCount());
@@ -285,12 +324,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         try {
           result =
             switch (tripScheduleRelationship) {
-              case SCHEDULED -> handleScheduledTrip(
-                tripUpdate,
-                tripId,
-                serviceDate,
-                backwardsDelayPropagationType
-              );
+              case SCHEDULED -> handleScheduledTrip(tripId, serviceDate, prepared.scheduledTrip());
               case ADDED -> validateAndHandleAddedTrip(
                 tripUpdate,
                 tripDescriptor,
@@ -347,6 +381,120 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return updateResult;
   }
 
+  /**
+   * Prepare the trip updates, see {@link #prepareTripUpdate}. The updates are prepared in parallel
+   * if there are many of them. The result is in the same order as the updates, and contains
+   * {@code null} for the updates that should be skipped.
+   * <p>
+   * This is called by the graph writer thread, which waits for the result. So no other thread
+   * changes the transit model while the updates are prepared.
+   */
+  private List<PreparedTripUpdate> prepareTripUpdates(
+    GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    List<TripUpdate> updates,
+    String feedId
+  ) {
+    Function<TripUpdate, PreparedTripUpdate> prepare = tripUpdate ->
+      prepareTripUpdate(fuzzyTripMatcher, backwardsDelayPropagationType, tripUpdate, feedId);
+
+    if (
+      prepareExecutor == null ||
+      updates.size() < MIN_UPDATES_TO_PREPARE_IN_PARALLEL ||
+      PREPARE_THREAD_COUNT < 2
+    ) {
+      return updates.stream().map(prepare).toList();
+    }
+
+    int chunkSize = (updates.size() + PREPARE_THREAD_COUNT - 1) / PREPARE_THREAD_COUNT;
+    List<Callable<List<PreparedTripUpdate>>> tasks = new ArrayList<>();
+    for (int start = 0; start < updates.size(); start += chunkSize) {
+      var chunk = updates.subList(start, Math.min(start + chunkSize, updates.size()));
+      tasks.add(() -> chunk.stream().map(prepare).toList());
+    }
+
+    List<PreparedTripUpdate> result = new ArrayList<>(updates.size());
+    try {
+      for (Future<List<PreparedTripUpdate>> future : prepareExecutor.invokeAll(tasks)) {
+        result.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+      throw new RuntimeException(e.getCause());
+    }
+    return result;
+  }
+
+  /**
+   * Do the work of a trip update which only depends on the update and the scheduled data: match
+   * the trip, parse the service date and, for a SCHEDULED trip, validate it and create the
+   * updated trip times. This does not change anything, so it can run in parallel and without the
+   * buffer lock.
+   *
+   * @return {@code null} if the update should be skipped
+   */
+  @Nullable
+  private PreparedTripUpdate prepareTripUpdate(
+    GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    TripUpdate tripUpdate,
+    String feedId
+  ) {
+    if (!tripUpdate.hasTrip()) {
+      debug(feedId, "", "Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
+      return null;
+    }
+
+    if (fuzzyTripMatcher != null) {
+      final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
+      tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
+    }
+
+    final TripDescriptor tripDescriptor = tripUpdate.getTrip();
+
+    if (!tripDescriptor.hasTripId() || tripDescriptor.getTripId().isBlank()) {
+      debug(feedId, "", "No trip id found for gtfs-rt trip update: \n{}", tripUpdate);
+      return null;
+    }
+
+    FeedScopedId tripId = new FeedScopedId(feedId, tripUpdate.getTrip().getTripId());
+
+    LocalDate serviceDate;
+    if (tripDescriptor.hasStartDate()) {
+      try {
+        serviceDate = ServiceDateUtils.parseString(tripDescriptor.getStartDate());
+      } catch (final ParseException e) {
+        debug(
+          tripId,
+          "Failed to parse start date in gtfs-rt trip update: {}",
+          tripDescriptor.getStartDate()
+        );
+        return null;
+      }
+    } else {
+      // TODO: figure out the correct service date. For the special case that a trip
+      // starts for example at 40:00, yesterday would probably be a better guess.
+      serviceDate = localDateNow.get();
+    }
+
+    Result<ScheduledTripPatch, UpdateError> scheduledTrip = null;
+    var scheduleRelationship = determineTripScheduleRelationship(tripDescriptor);
+    if (scheduleRelationship == TripDescriptor.ScheduleRelationship.SCHEDULED) {
+      try {
+        scheduledTrip =
+          prepareScheduledTrip(tripUpdate, tripId, serviceDate, backwardsDelayPropagationType);
+      } catch (DataValidationException e) {
+        scheduledTrip = DataValidationExceptionMapper.toResult(e);
+      }
+    }
+    return new PreparedTripUpdate(tripUpdate, tripId, serviceDate, scheduledTrip);
+  }
+
   private static void logUpdateResult(
     String feedId,
     Map<TripDescriptor.ScheduleRelationship, Integer> failuresByRelationship,
@@ -404,7 +552,14 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return tripScheduleRelationship;
   }
 
-  private Result<UpdateSuccess, UpdateError> handleScheduledTrip(
+  /**
+   * Validate a SCHEDULED trip update and create the updated trip times from the scheduled
+   * timetable. This only reads the scheduled data, see {@link #prepareTripUpdate}. The result is a
+   * failure if the update is not valid, and the update is then skipped without changing the
+   * buffer. An error creating the trip times is returned in the patch, a previously added trip is
+   * then deleted before the error is reported.
+   */
+  private Result<ScheduledTripPatch, UpdateError> prepareScheduledTrip(
     TripUpdate tripUpdate,
     FeedScopedId tripId,
     LocalDate serviceDate,
@@ -435,11 +590,6 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       return UpdateError.result(tripId, NO_SERVICE_ON_DATE);
     }
 
-    // If this trip_id has been used for previously ADDED/MODIFIED trip message (e.g. when the
-    // sequence of stops has changed, and is now changing back to the originally scheduled one),
-    // mark that previously created trip as DELETED.
-    cancelPreviouslyAddedTrip(tripId, serviceDate, CancelationType.DELETE);
-
     // Get new TripTimes based on scheduled timetable
     var result = pattern
       .getScheduledTimetable()
@@ -450,20 +600,43 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
         backwardsDelayPropagationType
       );
 
+    // Make sure that updated trip times have the correct real time state
+    result.ifSuccess(it -> it.getTripTimes().setRealTimeState(RealTimeState.UPDATED));
+
+    return Result.success(new ScheduledTripPatch(pattern, result));
+  }
+
+  /**
+   * Apply a SCHEDULED trip update prepared by {@link #prepareScheduledTrip} to the buffer.
+   */
+  private Result<UpdateSuccess, UpdateError> handleScheduledTrip(
+    FeedScopedId tripId,
+    LocalDate serviceDate,
+    Result<ScheduledTripPatch, UpdateError> prepared
+  ) {
+    if (prepared.isFailure()) {
+      return prepared.toFailureResult();
+    }
+
+    // If this trip_id has been used for previously ADDED/MODIFIED trip message (e.g. when the
+    // sequence of stops has changed, and is now changing back to the originally scheduled one),
+    // mark that previously created trip as DELETED.
+    cancelPreviouslyAddedTrip(tripId, serviceDate, CancelationType.DELETE);
+
+    final TripPattern pattern = prepared.successValue().pattern();
+    var result = prepared.successValue().tripTimesPatch();
+
     if (result.isFailure()) {
       // necessary so the success type is correct
       return result.toFailureResult();
     }
 
-    var tripTimesPatch = result.successValue();
+    final TripTimesPatch tripTimesPatch = result.successValue();
 
     List<Integer> skippedStopIndices = tripTimesPatch.getSkippedStopIndices();
 
     var updatedTripTimes = tripTimesPatch.getTripTimes();
 
-    // Make sure that updated trip times have the correct real time state
-    updatedTripTimes.setRealTimeState(RealTimeState.UPDATED);
-
     // If there are skipped stops, we need to change the pattern from the scheduled one
     if (skippedStopIndices.size() > 0) {
       StopPattern newStopPattern = pattern
@@ -1178,6 +1351,28 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     LOG.debug(m, params);
   }
 
+  /**
+   * A trip update with the result of the prepare phase.
+   *
+   * @param tripUpdate    the update, with the trip matched by the fuzzy trip matcher
+   * @param scheduledTrip the updated trip times of a SCHEDULED trip, {@code null} for the other
+   *                      schedule relationships
+   */
+  private record PreparedTripUpdate(
+    TripUpdate tripUpdate,
+    FeedScopedId tripId,
+    LocalDate serviceDate,
+    @Nullable Result<ScheduledTripPatch, UpdateError> scheduledTrip
+  ) {}
+
+  /**
+   * A validated SCHEDULED trip update, with the updated trip times or the error creating them.
+   */
+  private record ScheduledTripPatch(
+    TripPattern pattern,
+    Result<TripTimesPatch, UpdateError> tripTimesPatch
+  ) {}
+
   private enum CancelationType {
     CANCEL,
     DELETE,
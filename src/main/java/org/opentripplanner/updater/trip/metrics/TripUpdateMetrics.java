@@ -4,6 +4,7 @@ import io.micrometer.core.instrument.Tag;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.trip.UrlUpdaterParameters;
@@ -14,12 +15,19 @@ public class TripUpdateMetrics {
   protected List<Tag> baseTags;
 
   TripUpdateMetrics(UrlUpdaterParameters parameters) {
-    this.baseTags =
-      List.of(
-        Tag.of("configRef", parameters.configRef()),
-        Tag.of("url", parameters.url()),
-        Tag.of("feedId", parameters.feedId())
-      );
+    this.baseTags = baseTags(parameters);
+  }
+
+  /**
+   * The tags identifying the updater. The url and the feed id are optional for some updaters, a
+   * missing value is tagged with an empty string, so all updaters have the same tag keys.
+   */
+  public static List<Tag> baseTags(UrlUpdaterParameters parameters) {
+    return List.of(
+      tag("configRef", parameters.configRef()),
+      tag("url", parameters.url()),
+      tag("feedId", parameters.feedId())
+    );
   }
 
   public static Consumer<UpdateResult> batch(UrlUpdaterParameters parameters) {
@@ -36,6 +44,10 @@ public class TripUpdateMetrics {
     });
   }
 
+  private static Tag tag(String key, @Nullable String value) {
+    return Tag.of(key, value == null ? "" : value);
+  }
+
   private static Consumer<UpdateResult> getConsumer(Supplier<Consumer<UpdateResult>> maker) {
     if (OTPFeature.ActuatorAPI.isOn()) {
       return maker.get();
@@ -34,6 +34,7 @@ import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphWriterRunnable;
+import org.opentripplanner.updater.spi.GraphWriterPriority;
 import org.opentripplanner.updater.spi.PollingGraphUpdater;
 import org.opentripplanner.updater.spi.UpdaterConstructionException;
 import org.opentripplanner.updater.spi.WriteToGraphCallback;
@@ -124,6 +125,11 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
     return toString();
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.LOW;
+  }
+
   @Override
   protected void runPolling() {
     LOG.debug("Updating vehicle rental stations from {}", nameForLogging);
@@ -253,5 +259,14 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         );
       }
     }
+
+    /**
+     * The stations and geofencing zones are a full snapshot of the source, so a newer snapshot
+     * makes the queued ones redundant.
+     */
+    @Override
+    public boolean supersedesQueuedTasks() {
+      return true;
+    }
   }
 }
@@ -4,10 +4,12 @@ import static org.opentripplanner.standalone.configure.ConstructApplication.crea
 
 import io.micrometer.core.instrument.Metrics;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.ext.emissions.DefaultEmissionsService;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
 import org.opentripplanner.ext.emissions.EmissionsService;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
 import org.opentripplanner.service.realtimevehicles.internal.DefaultRealtimeVehicleService;
@@ -35,6 +37,18 @@ public class TestServerContext {
   public static OtpServerRequestContext createServerContext(
     Graph graph,
     TransitModel transitModel
+  ) {
+    return createServerContext(graph, transitModel, null);
+  }
+
+  /**
+   * Create a context for unit testing, using the default RouteRequest and the given access and
+   * egress cache.
+   */
+  public static OtpServerRequestContext createServerContext(
+    Graph graph,
+    TransitModel transitModel,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     transitModel.index();
     final RouterConfig routerConfig = RouterConfig.DEFAULT;
@@ -55,6 +69,7 @@ public class TestServerContext {
       List.of(),
       null,
       createStreetLimitationParametersService(),
+      accessEgressCache,
       null
     );
     creatTransitLayerForRaptor(transitModel, routerConfig.transitTuningConfig());
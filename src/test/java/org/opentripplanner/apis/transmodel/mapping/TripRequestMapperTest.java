@@ -135,6 +135,7 @@ public class TripRequestMapperTest implements PlanTestConstants {
           List.of(),
           null,
           new DefaultStreetLimitationParametersService(new StreetLimitationParameters()),
+          null,
           null
         ),
         null,
@@ -0,0 +1,177 @@
+package org.opentripplanner.astar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.TurnRestrictionType;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+class BidirectionalAStarTest {
+
+  /** About 13 km between the corners of the grid */
+  private static final int N = 30;
+  private static final double SPACING_DEGREES = 0.003;
+
+  static Stream<Arguments> modes() {
+    return Stream
+      .of(StreetMode.WALK, StreetMode.BIKE, StreetMode.CAR)
+      .flatMap(mode -> Stream.of(Arguments.of(mode, false), Arguments.of(mode, true)));
+  }
+
+  @ParameterizedTest
+  @MethodSource("modes")
+  void sameWeightAndFewerVisitedStates(StreetMode mode, boolean arriveBy) {
+    var grid = grid();
+    var from = grid[0][0];
+    var to = grid[N - 1][N - 1];
+
+    var single = new CountingVisitor();
+    var expected = search(mode, arriveBy, from, to, single, false);
+    var bidirectional = new CountingVisitor();
+    var result = search(mode, arriveBy, from, to, bidirectional, true);
+
+    assertEquals(1, result.size());
+    // The turn costs are not part of the dominance, so the paths may differ a little
+    double weight = expected.get(0).getWeight();
+    assertEquals(weight, result.get(0).getWeight(), 0.01 * weight);
+    assertEquals(from, result.get(0).states.getFirst().getVertex());
+    assertEquals(to, result.get(0).states.getLast().getVertex());
+    assertTrue(
+      bidirectional.nVisited < single.nVisited,
+      bidirectional.nVisited + " < " + single.nVisited
+    );
+  }
+
+  @Test
+  void turnRestrictionAtMeetingPoint() {
+    var a = StreetModelForTest.intersectionVertex("A", 0.0, 0.0);
+    var b = StreetModelForTest.intersectionVertex("B", 0.0, 0.01);
+    var c = StreetModelForTest.intersectionVertex("C", 0.0, 0.02);
+    var d = StreetModelForTest.intersectionVertex("D", 0.001, 0.015);
+
+    var ab = StreetModelForTest.streetEdge(a, b);
+    var bc = StreetModelForTest.streetEdge(b, c);
+    StreetModelForTest.streetEdge(b, d);
+    StreetModelForTest.streetEdge(d, c);
+    ab.addTurnRestriction(
+      new TurnRestriction(
+        ab,
+        bc,
+        TurnRestrictionType.NO_TURN,
+        new TraverseModeSet(TraverseMode.CAR),
+        null
+      )
+    );
+
+    var paths = search(StreetMode.CAR, false, a, c, null, true);
+
+    assertEquals(1, paths.size());
+    assertEquals(
+      List.of("A", "B", "D", "C"),
+      paths.get(0).states.stream().map(s -> s.getVertex().getLabelString()).toList()
+    );
+  }
+
+  private static List<GraphPath<State, Edge, Vertex>> search(
+    StreetMode mode,
+    boolean arriveBy,
+    Vertex from,
+    Vertex to,
+    TraverseVisitor<State, Edge> visitor,
+    boolean bidirectional
+  ) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+
+    var builder = StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(mode))
+      .setTraverseVisitor(visitor)
+      .setFrom(from)
+      .setTo(to);
+
+    if (bidirectional) {
+      builder.setBidirectional(new EuclideanRemainingWeightHeuristic());
+    }
+    return builder.getPathsToTarget();
+  }
+
+  /**
+   * A grid of streets in both directions. The streets are a bit longer than the straight line, by
+   * a varying factor, so there is a unique shortest path.
+   */
+  private static StreetVertex[][] grid() {
+    var grid = new StreetVertex[N][N];
+    for (int i = 0; i < N; ++i) {
+      for (int j = 0; j < N; ++j) {
+        grid[i][j] =
+          StreetModelForTest.intersectionVertex(
+            "V" + i + "_" + j,
+            i * SPACING_DEGREES,
+            j * SPACING_DEGREES
+          );
+      }
+    }
+    for (int i = 0; i < N; ++i) {
+      for (int j = 0; j < N; ++j) {
+        double factor = 1.0 + ((7 * i + 3 * j) % 5) * 0.1;
+        if (i + 1 < N) {
+          street(grid[i][j], grid[i + 1][j], factor);
+        }
+        if (j + 1 < N) {
+          street(grid[i][j], grid[i][j + 1], factor);
+        }
+      }
+    }
+    return grid;
+  }
+
+  private static void street(StreetVertex a, StreetVertex b, double factor) {
+    double meters = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    double length = factor * meters;
+    StreetModelForTest.streetEdge(a, b, length, ALL);
+    StreetModelForTest.streetEdge(b, a, length, ALL);
+  }
+
+  private static class CountingVisitor implements TraverseVisitor<State, Edge> {
+
+    private int nVisited = 0;
+
+    @Override
+    public void visitEdge(Edge edge) {}
+
+    @Override
+    public void visitVertex(State state) {
+      ++nVisited;
+    }
+
+    @Override
+    public void visitEnqueue() {}
+  }
+}
@@ -0,0 +1,84 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class SearchQueueTest {
+
+  private static final int N = 50_000;
+
+  private final Random random = new Random(17);
+
+  @ParameterizedTest
+  @EnumSource(SearchQueueType.class)
+  void extractInKeyOrder(SearchQueueType type) {
+    List<Integer> input = new ArrayList<>(N);
+    for (int i = 0; i < N; i++) {
+      input.add(random.nextInt(10_000));
+    }
+
+    var expected = new PriorityQueue<>(input);
+    // Start small, to make sure the queue grows
+    SearchQueue<Integer> subject = type.create(10);
+    input.forEach(it -> subject.insert(it, it * 0.5));
+    assertEquals(N, subject.size());
+
+    while (!expected.isEmpty()) {
+      int value = expected.remove();
+      assertEquals(value * 0.5, subject.peek_min_key());
+      assertEquals(value, (int) subject.extract_min());
+    }
+    assertTrue(subject.empty());
+  }
+
+  @ParameterizedTest
+  @EnumSource(SearchQueueType.class)
+  void interleavedInsertAndExtract(SearchQueueType type) {
+    SearchQueue<Double> subject = type.create(100);
+    var expected = new PriorityQueue<Double>();
+
+    // Keys are increasing on average, like in a search, but not monotone
+    double base = 0.0;
+    for (int i = 0; i < N; i++) {
+      double key = base + random.nextDouble() * 100.0;
+      subject.insert(key, key);
+      expected.add(key);
+
+      if (random.nextInt(3) > 0) {
+        assertEquals(expected.remove(), subject.extract_min());
+        base += 1.0;
+      }
+    }
+    while (!expected.isEmpty()) {
+      assertEquals(expected.remove(), subject.extract_min());
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(SearchQueueType.class)
+  void emptyQueue(SearchQueueType type) {
+    SearchQueue<String> subject = type.create(10);
+
+    assertTrue(subject.empty());
+    assertNull(subject.peek_min());
+    assertNull(subject.extract_min());
+    assertThrows(IllegalStateException.class, subject::peek_min_key);
+
+    subject.insert("B", 2.0);
+    subject.insert("A", 1.0);
+    assertEquals("A", subject.peek_min());
+
+    subject.reset();
+    assertEquals(0, subject.size());
+    assertNull(subject.extract_min());
+  }
+}
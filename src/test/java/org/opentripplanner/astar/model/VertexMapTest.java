@@ -0,0 +1,94 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class VertexMapTest {
+
+  private static final int N = 1000;
+
+  @Test
+  void putAndGet() {
+    var vertices = vertices(N, true);
+    var subject = new VertexMap<Vertex, Integer>(16);
+
+    for (int i = 0; i < N; ++i) {
+      subject.put(vertices.get(i), i);
+    }
+    assertEquals(N, subject.size());
+    assertTrue(subject.capacity() >= 2 * N);
+
+    for (int i = 0; i < N; ++i) {
+      assertEquals(i, (int) subject.get(vertices.get(i)));
+    }
+
+    // Replace a value, the size does not change
+    subject.put(vertices.get(7), -7);
+    assertEquals(-7, (int) subject.get(vertices.get(7)));
+    assertEquals(N, subject.size());
+  }
+
+  @Test
+  void verticesWithoutIndex() {
+    var vertices = vertices(N, false);
+    var subject = new VertexMap<Vertex, Integer>(N);
+
+    for (int i = 0; i < N; ++i) {
+      subject.put(vertices.get(i), i);
+    }
+    for (int i = 0; i < N; ++i) {
+      assertEquals(i, (int) subject.get(vertices.get(i)));
+    }
+  }
+
+  @Test
+  void verticesWithSameIndexAreDifferentKeys() {
+    var a = StreetModelForTest.intersectionVertex("A", 0, 0);
+    var b = StreetModelForTest.intersectionVertex("B", 1, 1);
+    a.setIndex(3);
+    b.setIndex(3);
+
+    var subject = new VertexMap<Vertex, String>(4);
+    subject.put(a, "a");
+    assertNull(subject.get(b));
+
+    subject.put(b, "b");
+    assertEquals("a", subject.get(a));
+    assertEquals("b", subject.get(b));
+    assertEquals(2, subject.size());
+  }
+
+  @Test
+  void forEach() {
+    var vertices = vertices(N, true);
+    var subject = new VertexMap<Vertex, Integer>(16);
+    vertices.forEach(v -> subject.put(v, v.getIndex()));
+
+    Map<Vertex, Integer> result = new HashMap<>();
+    subject.forEach(result::put);
+
+    assertEquals(N, result.size());
+    vertices.forEach(v -> assertEquals(v.getIndex(), (int) result.get(v)));
+  }
+
+  private static List<Vertex> vertices(int n, boolean indexed) {
+    List<Vertex> vertices = new ArrayList<>();
+    for (int i = 0; i < n; ++i) {
+      var v = StreetModelForTest.intersectionVertex("V" + i, i * 0.001, 0);
+      if (indexed) {
+        v.setIndex(i);
+      }
+      vertices.add(v);
+    }
+    return vertices;
+  }
+}
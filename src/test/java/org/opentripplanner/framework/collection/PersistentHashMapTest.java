@@ -0,0 +1,105 @@
+package org.opentripplanner.framework.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentHashMapTest {
+
+  @Test
+  void withAndWithout() {
+    PersistentHashMap<String, Integer> empty = PersistentHashMap.of();
+    var a = empty.with("A", 1);
+    var ab = a.with("B", 2);
+    var b = ab.without("A");
+
+    assertTrue(empty.isEmpty());
+    assertEquals(Map.of("A", 1), a);
+    assertEquals(Map.of("A", 1, "B", 2), ab);
+    assertEquals(Map.of("B", 2), b);
+    assertEquals(1, ab.get("A"));
+    assertNull(b.get("A"));
+    assertFalse(b.containsKey("A"));
+    assertTrue(ab.without("A").without("B").isEmpty());
+  }
+
+  @Test
+  void unchangedMapIsReturnedIfNothingChanges() {
+    var value = Integer.valueOf(1000);
+    var map = PersistentHashMap.<String, Integer>of().with("A", value);
+
+    assertSame(map, map.with("A", value));
+    assertSame(map, map.without("B"));
+    assertSame(map, map.without(null));
+  }
+
+  @Test
+  void sameResultAsHashMap() {
+    var random = new Random(17);
+    Map<Integer, Integer> expected = new HashMap<>();
+    PersistentHashMap<Integer, Integer> subject = PersistentHashMap.of();
+
+    for (int i = 0; i < 20_000; ++i) {
+      int key = random.nextInt(5_000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        subject = subject.without(key);
+      } else {
+        expected.put(key, i);
+        subject = subject.with(key, i);
+      }
+    }
+
+    assertEquals(expected.size(), subject.size());
+    assertEquals(expected, subject);
+    assertEquals(expected.size(), subject.entrySet().stream().count());
+  }
+
+  @Test
+  void keysWithTheSameHash() {
+    var a = new SameHash("A");
+    var b = new SameHash("B");
+    var c = new SameHash("C");
+
+    var map = PersistentHashMap.<Object, String>of().with(a, "a").with(b, "b").with(c, "c");
+    assertEquals(Map.of(a, "a", b, "b", c, "c"), map);
+    assertEquals(Map.of(a, "a", c, "c"), map.without(b));
+    assertEquals(Map.of(c, "c"), map.without(b).without(a));
+    assertEquals("d", map.with(b, "d").get(b));
+    // A key with another hash is added next to the keys with the same hash
+    assertEquals(Map.of(a, "a", b, "b", c, "c", "X", "x"), map.with("X", "x"));
+  }
+
+  @Test
+  void oldVersionIsNotChanged() {
+    PersistentHashMap<Integer, Integer> old = PersistentHashMap.of();
+    for (int i = 0; i < 1000; ++i) {
+      old = old.with(i, i);
+    }
+
+    var changed = old;
+    for (int i = 0; i < 1000; i += 2) {
+      changed = changed.without(i).with(-i - 1, i);
+    }
+
+    assertEquals(1000, old.size());
+    for (int i = 0; i < 1000; ++i) {
+      assertEquals(i, old.get(i));
+    }
+    assertEquals(1000, changed.size());
+  }
+
+  private record SameHash(String name) {
+    @Override
+    public int hashCode() {
+      return 7;
+    }
+  }
+}
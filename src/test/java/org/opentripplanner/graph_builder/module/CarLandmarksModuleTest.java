@@ -0,0 +1,79 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.CAR;
+import static org.opentripplanner.street.model.StreetTraversalPermission.PEDESTRIAN;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class CarLandmarksModuleTest {
+
+  private static final double DELTA = 0.01;
+  private static final double LENGTH = 1000.0;
+  private static final float CAR_SPEED = 10f;
+
+  private final Graph graph = new Graph();
+
+  /**
+   * A - B - C are connected by car, and C - D by foot only. Each car edge takes 100s.
+   */
+  private final StreetVertex A = vertex("A", 0.0);
+  private final StreetVertex B = vertex("B", 0.01);
+  private final StreetVertex C = vertex("C", 0.02);
+  private final StreetVertex D = vertex("D", 0.03);
+
+  {
+    edges(A, B, CAR);
+    edges(B, C, CAR);
+    edges(C, D, PEDESTRIAN);
+  }
+
+  @Test
+  void computeLandmarks() {
+    new CarLandmarksModule(graph, 2).buildGraph();
+
+    var subject = graph.getCarLandmarks();
+    assertNotNull(subject);
+    assertEquals(2, subject.numberOfLandmarks());
+
+    // The landmarks are at the ends of the car network, so the bounds are exact
+    assertEquals(200.0, subject.minDurationSeconds(A, C), DELTA);
+    assertEquals(200.0, subject.minDurationSeconds(C, A), DELTA);
+    assertEquals(100.0, subject.minDurationSeconds(A, B), DELTA);
+
+    assertTrue(subject.contains(B));
+    assertFalse(subject.contains(D));
+    assertEquals(0.0, subject.minDurationSeconds(A, D), DELTA);
+  }
+
+  @Test
+  void noLandmarksIfDisabled() {
+    new CarLandmarksModule(graph, 0).buildGraph();
+    assertNull(graph.getCarLandmarks());
+  }
+
+  private StreetVertex vertex(String label, double lon) {
+    var v = StreetModelForTest.intersectionVertex(label, 0.0, lon);
+    graph.addVertex(v);
+    return v;
+  }
+
+  private static void edges(StreetVertex a, StreetVertex b, StreetTraversalPermission perm) {
+    StreetModelForTest
+      .streetEdgeBuilder(a, b, LENGTH, perm)
+      .withCarSpeed(CAR_SPEED)
+      .buildAndConnect();
+    StreetModelForTest
+      .streetEdgeBuilder(b, a, LENGTH, perm)
+      .withCarSpeed(CAR_SPEED)
+      .buildAndConnect();
+  }
+}
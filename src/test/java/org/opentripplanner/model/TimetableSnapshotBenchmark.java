@@ -0,0 +1,114 @@
+package org.opentripplanner.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+/**
+ * Benchmark {@link TimetableSnapshot#commit()} - update a number of dirty timetables in a buffer
+ * with realtime timetables for all patterns, and commit it. The cost of the commit should depend
+ * on the number of dirty timetables, not on the total number of timetables in the snapshot.
+ * <p>
+ * Run it with the {@code RaptorBenchmark} main class, see the raptor benchmark package:
+ * <pre>
+ * -Dexec.args="TimetableSnapshotBenchmark -p nPatterns=100000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimetableSnapshotBenchmark {
+
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2024, 1, 15);
+
+  /** The number of patterns with a realtime timetable in the snapshot */
+  @Param({ "1000", "10000", "100000" })
+  public int nPatterns;
+
+  /** The number of timetables changed between two commits */
+  @Param({ "1", "10", "100" })
+  public int nDirty;
+
+  private TripPattern[] patterns;
+  private TripTimes[] tripTimes;
+  private TimetableSnapshot buffer;
+  private int next = 0;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var model = TransitModelForTest.of();
+    var deduplicator = new Deduplicator();
+    RegularStop[] stops = {
+      model.stop("A").build(),
+      model.stop("B").build(),
+      model.stop("C").build(),
+    };
+    StopPattern stopPattern = TransitModelForTest.stopPattern(stops);
+    Route route = TransitModelForTest.route("R").build();
+
+    patterns = new TripPattern[nPatterns];
+    tripTimes = new TripTimes[nPatterns];
+    buffer = new TimetableSnapshot();
+
+    for (int i = 0; i < nPatterns; ++i) {
+      var trip = TransitModelForTest.trip("T" + i).withRoute(route).build();
+      List<StopTime> stopTimes = List.of(
+        stopTime(model, trip, stops, 0, 8 * 3600 + i),
+        stopTime(model, trip, stops, 1, 8 * 3600 + i + 300),
+        stopTime(model, trip, stops, 2, 8 * 3600 + i + 600)
+      );
+      patterns[i] =
+        TransitModelForTest.tripPattern("P" + i, route).withStopPattern(stopPattern).build();
+      tripTimes[i] = TripTimesFactory.tripTimes(trip, stopTimes, deduplicator);
+      buffer.update(patterns[i], tripTimes[i], SERVICE_DATE);
+    }
+    buffer.commit();
+  }
+
+  @Benchmark
+  public TimetableSnapshot commit() {
+    for (int i = 0; i < nDirty; ++i) {
+      int p = next;
+      next = (next + 1) % nPatterns;
+      buffer.update(patterns[p], tripTimes[p], SERVICE_DATE);
+    }
+    return buffer.commit();
+  }
+
+  private static StopTime stopTime(
+    TransitModelForTest model,
+    Trip trip,
+    RegularStop[] stops,
+    int index,
+    int time
+  ) {
+    var stopTime = model.stopTime(trip, 10 * (index + 1), stops[index]);
+    stopTime.setArrivalTime(time);
+    stopTime.setDepartureTime(time);
+    return stopTime;
+  }
+}
@@ -0,0 +1,107 @@
+package org.opentripplanner.raptor.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor.util.paretoset.IntVectorParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Benchmark {@link ParetoSet#add(Object)} with stop-arrival-like criteria: arrival-time, c1, c2
+ * and number of transfers. The vectors are generated so that most of them are dominated, which
+ * is the typical case in a multi-criteria Raptor search.
+ * <p>
+ * Each case is run with a plain {@link ParetoComparator} and with the same criteria as an
+ * {@link IntVectorParetoComparator}, to compare the two ways the set can check for dominance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final int N_VECTORS = 1000;
+
+  /** Compare arrival-time, c1 and number-of-transfers */
+  private static final ParetoComparator<int[]> COMPARATOR_3 = (l, r) ->
+    l[0] < r[0] || l[1] < r[1] || l[3] < r[3];
+
+  /** Compare arrival-time, c1, c2 and number-of-transfers */
+  private static final ParetoComparator<int[]> COMPARATOR_4 = (l, r) ->
+    l[0] < r[0] || l[1] < r[1] || l[2] < r[2] || l[3] < r[3];
+
+  private static final ParetoComparator<int[]> VECTOR_COMPARATOR_3 =
+    IntVectorParetoComparator.of(v -> v[0], v -> v[1], v -> v[3]);
+
+  private static final ParetoComparator<int[]> VECTOR_COMPARATOR_4 =
+    IntVectorParetoComparator.of(v -> v[0], v -> v[1], v -> v[2], v -> v[3]);
+
+  /**
+   * The max spread of each criteria value. A small spread result in a lot of dominated vectors,
+   * while a large spread result in large sets.
+   */
+  @Param({ "10", "100", "1000" })
+  public int spread;
+
+  private final int[][] vectors = new int[N_VECTORS][];
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var random = new Random(7);
+    for (int i = 0; i < N_VECTORS; ++i) {
+      vectors[i] =
+        new int[] {
+          random.nextInt(spread),
+          random.nextInt(spread),
+          random.nextInt(4),
+          random.nextInt(5),
+        };
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_VECTORS)
+  public int addWith3Criteria() {
+    return addAll(new ParetoSet<>(COMPARATOR_3));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_VECTORS)
+  public int addWith4Criteria() {
+    return addAll(new ParetoSet<>(COMPARATOR_4));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_VECTORS)
+  public int addWith3CriteriaIntVector() {
+    return addAll(new ParetoSet<>(VECTOR_COMPARATOR_3));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_VECTORS)
+  public int addWith4CriteriaIntVector() {
+    return addAll(new ParetoSet<>(VECTOR_COMPARATOR_4));
+  }
+
+  private int addAll(ParetoSet<int[]> set) {
+    for (int[] v : vectors) {
+      set.add(v);
+    }
+    return set.size();
+  }
+}
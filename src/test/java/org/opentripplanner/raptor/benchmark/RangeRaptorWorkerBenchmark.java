@@ -0,0 +1,83 @@
+package org.opentripplanner.raptor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+
+/**
+ * Benchmark one full Range Raptor search on a synthetic network. The search runs the
+ * {@code DefaultRangeRaptorWorker} with the {@code StdRangeRaptorWorkerState} (standard profile)
+ * and the {@code McRangeRaptorWorkerState} (multi-criteria profile). No heuristics are used, so
+ * the multi-criteria search is NOT pruned by the destination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx8G" })
+public class RangeRaptorWorkerBenchmark {
+
+  private static final int EDT = TimeUtils.hm2time(7, 0);
+  private static final int SEARCH_WINDOW = 3600;
+
+  @Param({ "1000", "10000", "100000" })
+  public int numberOfStops;
+
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private TestTransitData data;
+  private RaptorRequest<TestTripSchedule> stdRequest;
+  private RaptorRequest<TestTripSchedule> mcRequest;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var generator = SyntheticTransitDataGenerator.of(numberOfStops);
+    this.data = generator.generate();
+    this.stdRequest = createRequest(generator, RaptorProfile.STANDARD);
+    this.mcRequest = createRequest(generator, RaptorProfile.MULTI_CRITERIA);
+  }
+
+  @Benchmark
+  public RaptorWorkerResult<TestTripSchedule> standardRangeRaptor() {
+    return config.createStdWorker(data, stdRequest).route();
+  }
+
+  @Benchmark
+  public RaptorWorkerResult<TestTripSchedule> multiCriteriaRangeRaptor() {
+    return config.createMcWorker(data, mcRequest, null).route();
+  }
+
+  private static RaptorRequest<TestTripSchedule> createRequest(
+    SyntheticTransitDataGenerator generator,
+    RaptorProfile profile
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(profile)
+      .searchParams()
+      .earliestDepartureTime(EDT)
+      .searchWindowInSeconds(SEARCH_WINDOW)
+      .addAccessPaths(generator.accessPaths())
+      .addEgressPaths(generator.egressPaths())
+      .timetable(true);
+    return builder.build();
+  }
+}
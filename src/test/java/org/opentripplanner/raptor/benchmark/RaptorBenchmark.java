@@ -0,0 +1,26 @@
+package org.opentripplanner.raptor.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the Raptor micro-benchmarks. All JMH command line options are supported, run with
+ * {@code -h} to list them. If no benchmark is selected, all benchmarks in this package are run.
+ * The GC profiler is always enabled to report the allocation rate.
+ */
+public class RaptorBenchmark {
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    var cmdOptions = new CommandLineOptions(args);
+    var builder = new OptionsBuilder().parent(cmdOptions).addProfiler(GCProfiler.class);
+
+    if (cmdOptions.getIncludes().isEmpty()) {
+      builder.include(RaptorBenchmark.class.getPackageName() + ".*Benchmark");
+    }
+    new Runner(builder.build()).run();
+  }
+}
@@ -0,0 +1,221 @@
+package org.opentripplanner.raptor.benchmark;
+
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+
+/**
+ * Generate a deterministic synthetic transit network for benchmarking Raptor. The network is a
+ * square grid of stops. Each row and column of the grid is served by overlapping line segments in
+ * both directions, and each stop has walking transfers to its four neighbours. The same
+ * {@code numberOfStops} and {@code seed} always produce the same network, so results from
+ * different runs are comparable.
+ * <p>
+ * The network is sized by the number of stops, the number of patterns and trips grows linearly
+ * with the number of stops:
+ * <pre>
+ *   1 000 stops ~    400 patterns
+ *  10 000 stops ~  4 000 patterns
+ * 100 000 stops ~ 40 000 patterns
+ * </pre>
+ */
+public class SyntheticTransitDataGenerator {
+
+  /** Number of stops in each line segment (pattern) */
+  private static final int SEGMENT_LENGTH = 30;
+
+  /** Line segments start every {@code SEGMENT_STEP} stops, this makes the segments overlap. */
+  private static final int SEGMENT_STEP = 10;
+
+  private static final int[] HEADWAYS = { 300, 600, 900, 1200, 1800 };
+  private static final int MIN_HOP_TIME = 60;
+  private static final int MAX_HOP_TIME = 180;
+  private static final int MIN_WALK_TIME = 120;
+  private static final int MAX_WALK_TIME = 400;
+
+  /** The distance (number of rows and columns) between the origin and destination. */
+  private static final int ORIGIN_DESTINATION_DISTANCE = 25;
+
+  private final int numberOfStops;
+  private final int gridSize;
+  private final int serviceStart;
+  private final int serviceEnd;
+  private final Random random;
+
+  private int numberOfPatterns = 0;
+  private int numberOfTrips = 0;
+
+  private SyntheticTransitDataGenerator(
+    int numberOfStops,
+    int serviceStart,
+    int serviceEnd,
+    long seed
+  ) {
+    this.gridSize = (int) Math.ceil(Math.sqrt(numberOfStops));
+    this.numberOfStops = gridSize * gridSize;
+    this.serviceStart = serviceStart;
+    this.serviceEnd = serviceEnd;
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Create a network with (at least) the given number of stops and service between 06:00 and
+   * 10:00.
+   */
+  public static SyntheticTransitDataGenerator of(int numberOfStops) {
+    return new SyntheticTransitDataGenerator(
+      numberOfStops,
+      TimeUtils.hm2time(6, 0),
+      TimeUtils.hm2time(10, 0),
+      7L
+    );
+  }
+
+  public TestTransitData generate() {
+    var data = new TestTransitData();
+
+    for (int i = 0; i < gridSize; ++i) {
+      addLines(data, rowStops(i));
+      addLines(data, columnStops(i));
+    }
+    addTransfers(data);
+    return data;
+  }
+
+  /**
+   * The access is placed in the middle of the grid, walking to the nearest stops.
+   */
+  public List<RaptorAccessEgress> accessPaths() {
+    int center = gridSize / 2;
+    return accessEgressAround(center, center);
+  }
+
+  /**
+   * The egress is placed {@link #ORIGIN_DESTINATION_DISTANCE} rows and columns away from the
+   * origin (but inside the grid), this is far enough away to require a few transfers.
+   */
+  public List<RaptorAccessEgress> egressPaths() {
+    int center = gridSize / 2;
+    int dest = Math.min(gridSize - 2, center + ORIGIN_DESTINATION_DISTANCE);
+    return accessEgressAround(dest, dest);
+  }
+
+  public int numberOfStops() {
+    return numberOfStops;
+  }
+
+  public int serviceStart() {
+    return serviceStart;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(SyntheticTransitDataGenerator.class)
+      .addNum("numberOfStops", numberOfStops)
+      .addNum("numberOfPatterns", numberOfPatterns)
+      .addNum("numberOfTrips", numberOfTrips)
+      .addServiceTime("serviceStart", serviceStart)
+      .addServiceTime("serviceEnd", serviceEnd)
+      .toString();
+  }
+
+  /* private methods */
+
+  private void addLines(TestTransitData data, int[] stops) {
+    for (int start = 0; start < stops.length - 1; start += SEGMENT_STEP) {
+      int end = Math.min(stops.length, start + SEGMENT_LENGTH);
+      int[] segment = new int[end - start];
+      System.arraycopy(stops, start, segment, 0, segment.length);
+      addRoute(data, segment);
+      addRoute(data, reverse(segment));
+    }
+  }
+
+  private void addRoute(TestTransitData data, int[] stops) {
+    int headway = HEADWAYS[random.nextInt(HEADWAYS.length)];
+    int[] times = new int[stops.length];
+    times[0] = serviceStart + random.nextInt(headway);
+    for (int i = 1; i < stops.length; ++i) {
+      times[i] = times[i - 1] + MIN_HOP_TIME + random.nextInt(MAX_HOP_TIME - MIN_HOP_TIME);
+    }
+    int nTrips = Math.max(1, (serviceEnd - times[0]) / headway);
+    var name = "L" + numberOfPatterns;
+
+    data.withRoute(
+      route(pattern(name, stops)).withTimetable(schedule().times(times).repeat(nTrips, headway))
+    );
+    ++numberOfPatterns;
+    numberOfTrips += nTrips;
+  }
+
+  private void addTransfers(TestTransitData data) {
+    for (int row = 0; row < gridSize; ++row) {
+      for (int col = 0; col < gridSize; ++col) {
+        int stop = stopIndex(row, col);
+        if (col + 1 < gridSize) {
+          addTransferBothWays(data, stop, stopIndex(row, col + 1));
+        }
+        if (row + 1 < gridSize) {
+          addTransferBothWays(data, stop, stopIndex(row + 1, col));
+        }
+      }
+    }
+  }
+
+  private void addTransferBothWays(TestTransitData data, int a, int b) {
+    int walkTime = walkTime();
+    data.withTransfer(a, TestTransfer.transfer(b, walkTime));
+    data.withTransfer(b, TestTransfer.transfer(a, walkTime));
+  }
+
+  private List<RaptorAccessEgress> accessEgressAround(int row, int col) {
+    var list = new ArrayList<RaptorAccessEgress>();
+    list.add(TestAccessEgress.walk(stopIndex(row, col), walkTime()));
+    list.add(TestAccessEgress.walk(stopIndex(row, col + 1), walkTime()));
+    list.add(TestAccessEgress.walk(stopIndex(row + 1, col), walkTime()));
+    return list;
+  }
+
+  private int walkTime() {
+    return MIN_WALK_TIME + random.nextInt(MAX_WALK_TIME - MIN_WALK_TIME);
+  }
+
+  private int[] rowStops(int row) {
+    int[] stops = new int[gridSize];
+    for (int col = 0; col < gridSize; ++col) {
+      stops[col] = stopIndex(row, col);
+    }
+    return stops;
+  }
+
+  private int[] columnStops(int col) {
+    int[] stops = new int[gridSize];
+    for (int row = 0; row < gridSize; ++row) {
+      stops[row] = stopIndex(row, col);
+    }
+    return stops;
+  }
+
+  private int stopIndex(int row, int col) {
+    return row * gridSize + col;
+  }
+
+  private static int[] reverse(int[] a) {
+    int[] r = new int[a.length];
+    for (int i = 0; i < a.length; ++i) {
+      r[i] = a[a.length - 1 - i];
+    }
+    return r;
+  }
+}
@@ -0,0 +1,91 @@
+package org.opentripplanner.raptor.benchmark;
+
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Benchmark the {@code TripScheduleBoardSearch} - the search for the first trip departing after
+ * a given time at a given stop. Both the linear and the binary search is exercised, the binary
+ * search is used when the number of trips is above the threshold(50).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripScheduleBoardSearchBenchmark {
+
+  private static final int N_STOPS = 20;
+  private static final int N_SEARCHES = 1000;
+  private static final int HOP_TIME = 120;
+  private static final int FIRST_DEPARTURE = TimeUtils.hm2time(5, 0);
+
+  @Param({ "10", "50", "200", "1000" })
+  public int numberOfTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> search;
+  private final int[] earliestBoardTimes = new int[N_SEARCHES];
+  private final int[] stopPositions = new int[N_SEARCHES];
+
+  @Setup(Level.Trial)
+  public void setup() {
+    int[] stops = new int[N_STOPS];
+    int[] times = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i;
+      times[i] = FIRST_DEPARTURE + i * HOP_TIME;
+    }
+    // Spread the trips over 18 hours
+    int headway = Math.max(1, 18 * 3600 / numberOfTrips);
+    var route = route(pattern("R1", stops))
+      .withTimetable(schedule().times(times).repeat(numberOfTrips, headway));
+
+    this.search = route.tripSearch(SearchDirection.FORWARD);
+
+    var random = new Random(7);
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      stopPositions[i] = random.nextInt(N_STOPS);
+      earliestBoardTimes[i] =
+        FIRST_DEPARTURE + stopPositions[i] * HOP_TIME + random.nextInt(headway * numberOfTrips);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(N_SEARCHES)
+  public int boardSearch() {
+    int sum = 0;
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      sum +=
+        search
+          .search(
+            earliestBoardTimes[i],
+            stopPositions[i],
+            RaptorTripScheduleSearch.UNBOUNDED_TRIP_INDEX
+          )
+          .tripIndex();
+    }
+    return sum;
+  }
+}
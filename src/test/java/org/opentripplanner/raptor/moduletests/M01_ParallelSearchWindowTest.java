@@ -0,0 +1,156 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToString;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.flex;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.free;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.walk;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+import org.opentripplanner.raptor.spi.DefaultSlackProvider;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * The multi-criteria range-raptor search-window can be split into sub-search-windows, searched in
+ * parallel. Each part prunes less, since it does not see the arrivals of the iterations searched
+ * by the other parts, but the merged result should be the same as the result of a single search.
+ * <p>
+ * The network is the same as in {@link F11_AccessWithRidesMultipleOptimalPathsTest}, but with
+ * several trips on each route. This gives optimal paths starting in all parts of the
+ * search-window, where the walk access and the flex access compete at stop C.
+ */
+public class M01_ParallelSearchWindowTest implements RaptorTestConstants {
+
+  private static final int SEARCH_WINDOW = D20m;
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorConfig<TestTripSchedule> parallelConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+
+      @Override
+      public int searchWindowParallelism() {
+        return 3;
+      }
+    }
+  );
+  private final RaptorService<TestTripSchedule> sequentialService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+  private final RaptorService<TestTripSchedule> parallelService = new RaptorService<>(
+    parallelConfig
+  );
+
+  @BeforeEach
+  void setup() {
+    data.withRoutes(
+      route("L1", STOP_A, STOP_B)
+        .withTimetable(
+          schedule("0:02 0:10"),
+          schedule("0:07 0:15"),
+          schedule("0:12 0:20"),
+          schedule("0:17 0:25")
+        ),
+      route("L2", STOP_C, STOP_E)
+        .withTimetable(schedule("0:15 0:20"), schedule("0:25 0:30"), schedule("0:35 0:40")),
+      route("L3", STOP_D, STOP_F)
+        .withTimetable(schedule("0:16 0:22"), schedule("0:26 0:32"), schedule("0:36 0:42"))
+    );
+    data.withSlackProvider(new DefaultSlackProvider(D1m, D0s, D0s));
+    data.withTransfer(STOP_B, transfer(STOP_C, D2m)).withTransfer(STOP_C, transfer(STOP_D, D2m));
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARALLEL)
+      .searchParams()
+      .earliestDepartureTime(T00_00)
+      .searchWindowInSeconds(SEARCH_WINDOW)
+      .addAccessPaths(free(STOP_A), flex(STOP_C, D11m))
+      .addEgressPaths(free(STOP_F), walk(STOP_E, D3m));
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @AfterEach
+  void shutdown() {
+    parallelConfig.shutdown();
+  }
+
+  static List<Arguments> testCases() {
+    return List.of(
+      Arguments.of(false, false),
+      Arguments.of(true, false),
+      Arguments.of(false, true),
+      Arguments.of(true, true)
+    );
+  }
+
+  @ParameterizedTest(name = "timetable: {0}, destination pruning: {1}")
+  @MethodSource("testCases")
+  void parallelSearchReturnsTheSameResultAsSequentialSearch(
+    boolean timetable,
+    boolean destinationPruning
+  ) {
+    requestBuilder.searchParams().timetable(timetable);
+    if (destinationPruning) {
+      requestBuilder.enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
+    }
+    RaptorRequest<TestTripSchedule> request = requestBuilder.build();
+
+    var expected = sequentialService.route(request, data);
+    var result = parallelService.route(request, data);
+
+    assertFalse(expected.paths().isEmpty());
+    assertEquals(pathsToString(expected), pathsToString(result));
+    assertSameStopArrivals(expected, result);
+  }
+
+  private static void assertSameStopArrivals(
+    RaptorResponse<TestTripSchedule> expected,
+    RaptorResponse<TestTripSchedule> result
+  ) {
+    var e = expected.getArrivals();
+    var r = result.getArrivals();
+
+    for (int stop = STOP_A; stop <= STOP_F; ++stop) {
+      assertEquals(e.reached(stop), r.reached(stop), "Stop " + stop);
+      if (e.reached(stop)) {
+        assertEquals(e.bestArrivalTime(stop), r.bestArrivalTime(stop), "Stop " + stop);
+      }
+      assertEquals(e.reachedByTransit(stop), r.reachedByTransit(stop), "Stop " + stop);
+      if (e.reachedByTransit(stop)) {
+        assertEquals(
+          e.bestTransitArrivalTime(stop),
+          r.bestTransitArrivalTime(stop),
+          "Stop " + stop
+        );
+      }
+    }
+  }
+}
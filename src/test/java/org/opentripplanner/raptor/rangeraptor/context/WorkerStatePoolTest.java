@@ -0,0 +1,53 @@
+package org.opentripplanner.raptor.rangeraptor.context;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class WorkerStatePoolTest {
+
+  private static final int N_STOPS = 3;
+  private static final int UNREACHED = 999;
+
+  private final WorkerStatePool subject = new WorkerStatePool(2);
+
+  @Test
+  void arraysAreReusedAfterRelease() {
+    var lease = subject.lease();
+    var a = lease.intArray(N_STOPS, UNREACHED);
+    var b = lease.intArray(N_STOPS, UNREACHED);
+    assertNotSame(a, b);
+    assertArrayEquals(new int[] { UNREACHED, UNREACHED, UNREACHED }, a);
+    a[1] = 7;
+
+    lease.release();
+
+    var next = subject.lease();
+    var c = next.intArray(N_STOPS, -1);
+    assertSame(a, c);
+    assertArrayEquals(new int[] { -1, -1, -1 }, c);
+    assertSame(b, next.intArray(N_STOPS, -1));
+    assertNotSame(a, next.intArray(N_STOPS, -1));
+  }
+
+  @Test
+  void arraysWithAnotherSizeAreDropped() {
+    var lease = subject.lease();
+    var a = lease.intArray(N_STOPS, UNREACHED);
+    lease.release();
+
+    assertNotSame(a, subject.lease().intArray(N_STOPS + 1, UNREACHED));
+    assertNotSame(a, subject.lease().intArray(N_STOPS, UNREACHED));
+  }
+
+  @Test
+  void borrowAfterReleaseFails() {
+    var lease = subject.lease();
+    lease.release();
+
+    assertThrows(IllegalStateException.class, () -> lease.intArray(N_STOPS, UNREACHED));
+  }
+}
@@ -0,0 +1,56 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+
+class ParallelMcRangeRaptorWorkerTest {
+
+  private final ExecutorService threadPool = Executors.newFixedThreadPool(2);
+  private final CountDownLatch lastWorkerFailed = new CountDownLatch(1);
+  private final AtomicBoolean asyncWorkerCompleted = new AtomicBoolean(false);
+
+  @AfterEach
+  void shutdown() {
+    threadPool.shutdownNow();
+  }
+
+  /**
+   * The state used by the workers is released when the route method returns, so a worker run in
+   * the thread pool must be completed before the method returns - also if another worker fails.
+   */
+  @Test
+  void runningWorkerIsCompletedWhenAnotherWorkerFails() {
+    RaptorWorker<TestTripSchedule> asyncWorker = () -> {
+      try {
+        lastWorkerFailed.await(5, TimeUnit.SECONDS);
+        // Give the calling thread time to return, the worker is interrupted if it is cancelled
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        asyncWorkerCompleted.set(true);
+      }
+      return null;
+    };
+    RaptorWorker<TestTripSchedule> lastWorker = () -> {
+      lastWorkerFailed.countDown();
+      throw new IllegalStateException("Expected by the test");
+    };
+
+    var subject = new ParallelMcRangeRaptorWorker<>(List.of(asyncWorker, lastWorker), threadPool);
+
+    assertThrows(IllegalStateException.class, subject::route);
+    assertTrue(asyncWorkerCompleted.get());
+  }
+}
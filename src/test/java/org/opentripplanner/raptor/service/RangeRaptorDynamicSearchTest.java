@@ -0,0 +1,96 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class RangeRaptorDynamicSearchTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData()
+    .withRoute(route(pattern("R1", STOP_B, STOP_C)).withTimetable(schedule("00:01, 00:03")));
+
+  private final RaptorConfig<TestTripSchedule> config = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+    }
+  );
+
+  private final CountDownLatch reverseSearchFailed = new CountDownLatch(1);
+  private final AtomicBoolean forwardSearchCompleted = new AtomicBoolean(false);
+
+  @AfterEach
+  void shutdown() {
+    config.shutdown();
+  }
+
+  /**
+   * The forward heuristic search runs in the thread pool, and the reverse in the calling thread.
+   * If the reverse search fails, the forward search must be completed before the route method
+   * returns. If not, the worker state of the forward search is released while it is used.
+   */
+  @Test
+  void forwardSearchIsCompletedWhenTheReverseSearchFails() {
+    var fwd = new HeuristicSearchTask<>(SearchDirection.FORWARD, "Forward", config, data) {
+      @Override
+      void run() {
+        try {
+          reverseSearchFailed.await(5, TimeUnit.SECONDS);
+          // Give the calling thread time to return, the search is interrupted if it is cancelled
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          forwardSearchCompleted.set(true);
+        }
+      }
+    };
+    var rev = new HeuristicSearchTask<>(SearchDirection.REVERSE, "Reverse", config, data) {
+      @Override
+      void run() {
+        reverseSearchFailed.countDown();
+        throw new DestinationNotReachedException();
+      }
+    };
+    fwd.enable();
+    rev.enable();
+
+    var response = new RangeRaptorDynamicSearch<>(config, data, request(), fwd, rev).route();
+
+    assertTrue(response.noConnectionFound());
+    assertTrue(forwardSearchCompleted.get());
+  }
+
+  private RaptorRequest<TestTripSchedule> request() {
+    return new RaptorRequestBuilder<TestTripSchedule>()
+      .profile(RaptorProfile.STANDARD)
+      .enableOptimization(Optimization.PARALLEL)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_C, D30s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_10)
+      .searchWindowInSeconds(D5m)
+      .build();
+  }
+}
@@ -0,0 +1,116 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class RaptorBatchSearchTest implements RaptorTestConstants {
+
+  private static final int NOT_REACHED = -1;
+
+  /**
+   *   R1:  B 00:01 - C 00:03 - D 00:05
+   */
+  private final TestTransitData data = new TestTransitData()
+    .withRoute(
+      route(pattern("R1", STOP_B, STOP_C, STOP_D)).withTimetable(schedule("00:01, 00:03, 00:05"))
+    );
+
+  private RaptorConfig<TestTripSchedule> config;
+
+  @AfterEach
+  void shutdown() {
+    if (config != null) {
+      config.shutdown();
+    }
+  }
+
+  @Test
+  void routeSequentially() {
+    config = RaptorConfig.defaultConfigForTest();
+    assertBatchResult(1);
+  }
+
+  @Test
+  void routeInParallel() {
+    config =
+      new RaptorConfig<>(
+        new RaptorTuningParameters() {
+          @Override
+          public int searchThreadPoolSize() {
+            return 2;
+          }
+        }
+      );
+    assertBatchResult(3);
+  }
+
+  @Test
+  void multiCriteriaRequestsAreNotSupported() {
+    config = RaptorConfig.defaultConfigForTest();
+    var request = request(STOP_B, RaptorProfile.MULTI_CRITERIA);
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> new RaptorBatchSearch<>(config, data, List.of(request))
+    );
+  }
+
+  private void assertBatchResult(int expectedParallelism) {
+    var requests = List.of(
+      request(STOP_B, RaptorProfile.BEST_TIME),
+      request(STOP_C, RaptorProfile.BEST_TIME),
+      request(STOP_D, RaptorProfile.BEST_TIME)
+    );
+    var arrivalsAtD = new AtomicIntegerArray(requests.size());
+    var reachedByTransitB = new AtomicIntegerArray(requests.size());
+
+    var statistics = new RaptorBatchSearch<>(config, data, requests)
+      .route((arrivals, index) -> {
+        arrivalsAtD.set(
+          index,
+          arrivals.reachedByTransit(STOP_D) ? arrivals.bestTransitArrivalTime(STOP_D) : NOT_REACHED
+        );
+        reachedByTransitB.set(index, arrivals.reachedByTransit(STOP_B) ? 1 : 0);
+      });
+
+    assertEquals(3, statistics.numberOfSearches());
+    assertEquals(expectedParallelism, statistics.parallelism());
+    assertTrue(statistics.searchesPerSecond() > 0.0);
+
+    assertEquals(TimeUtils.time("00:05"), arrivalsAtD.get(0));
+    assertEquals(TimeUtils.time("00:05"), arrivalsAtD.get(1));
+    // The origin stop is not reached by transit
+    assertEquals(NOT_REACHED, arrivalsAtD.get(2));
+    assertEquals(0, reachedByTransitB.get(0));
+  }
+
+  private RaptorRequest<TestTripSchedule> request(int originStop, RaptorProfile profile) {
+    return new RaptorRequestBuilder<TestTripSchedule>()
+      .profile(profile)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(originStop, D30s))
+      .allowEmptyAccessEgressPaths(true)
+      .earliestDepartureTime(T00_00)
+      .searchOneIterationOnly()
+      .build();
+  }
+}
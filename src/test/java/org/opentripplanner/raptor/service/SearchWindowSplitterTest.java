@@ -0,0 +1,119 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.rangeraptor.transit.ForwardRaptorTransitCalculator;
+import org.opentripplanner.raptor.rangeraptor.transit.ReverseRaptorTransitCalculator;
+
+class SearchWindowSplitterTest {
+
+  private static final int STEP = 60;
+  private static final int T10_00 = TimeUtils.time("10:00");
+  private static final int T12_00 = TimeUtils.time("12:00");
+  private static final RaptorTuningParameters TUNING = new RaptorTuningParameters() {};
+
+  @Test
+  void splitForwardSearch() {
+    var request = request(SearchDirection.FORWARD, 10 * STEP);
+
+    var result = SearchWindowSplitter.split(request, 3, STEP);
+
+    assertEquals(3, result.size());
+    assertEquals("10:06 4m | 10:03 3m | 10:00 3m", toStr(result, true));
+    assertEquals(iterations(List.of(request)), iterations(result));
+  }
+
+  @Test
+  void splitReverseSearch() {
+    var request = request(SearchDirection.REVERSE, 10 * STEP);
+
+    var result = SearchWindowSplitter.split(request, 3, STEP);
+
+    assertEquals(3, result.size());
+    assertEquals("11:54 4m | 11:57 3m | 12:00 3m", toStr(result, false));
+    assertEquals(iterations(List.of(request)), iterations(result));
+  }
+
+  @Test
+  void numberOfPartsIsLimitedByNumberOfIterations() {
+    var request = request(SearchDirection.FORWARD, 2 * STEP);
+
+    var result = SearchWindowSplitter.split(request, 8, STEP);
+
+    assertEquals("10:01 1m | 10:00 1m", toStr(result, true));
+    assertEquals(iterations(List.of(request)), iterations(result));
+  }
+
+  @Test
+  void requestIsNotSplit() {
+    // One part only
+    var request = request(SearchDirection.FORWARD, 10 * STEP);
+    assertSame(request, SearchWindowSplitter.split(request, 1, STEP).get(0));
+
+    // One iteration only
+    request = request(SearchDirection.FORWARD, STEP);
+    assertSame(request, SearchWindowSplitter.split(request, 3, STEP).get(0));
+
+    // Search-window is not a multiple of the iteration step
+    request = request(SearchDirection.FORWARD, 10 * STEP + 1);
+    assertSame(request, SearchWindowSplitter.split(request, 3, STEP).get(0));
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(SearchDirection direction, int window) {
+    RaptorRequestBuilder<TestTripSchedule> b = new RaptorRequestBuilder<>();
+    b.profile(RaptorProfile.MULTI_CRITERIA).searchDirection(direction);
+    b.searchParams().accessPaths().add(TestAccessEgress.walk(1, 30));
+    b.searchParams().egressPaths().add(TestAccessEgress.walk(2, 30));
+    b
+      .searchParams()
+      .earliestDepartureTime(T10_00)
+      .latestArrivalTime(T12_00)
+      .searchWindowInSeconds(window);
+    return b.build();
+  }
+
+  private static String toStr(List<RaptorRequest<TestTripSchedule>> requests, boolean forward) {
+    return String.join(
+      " | ",
+      requests
+        .stream()
+        .map(RaptorRequest::searchParams)
+        .map(s ->
+          TimeUtils.timeToStrCompact(forward ? s.earliestDepartureTime() : s.latestArrivalTime()) +
+          " " +
+          (s.searchWindowInSeconds() / STEP) +
+          "m"
+        )
+        .toList()
+    );
+  }
+
+  /**
+   * List all range-raptor iterations(minutes) the given requests are performing, in order.
+   */
+  private static List<Integer> iterations(List<RaptorRequest<TestTripSchedule>> requests) {
+    var result = new ArrayList<Integer>();
+    for (var request : requests) {
+      var s = request.searchParams();
+      var it = request.searchDirection().isForward()
+        ? new ForwardRaptorTransitCalculator<TestTripSchedule>(s, TUNING).rangeRaptorMinutes()
+        : new ReverseRaptorTransitCalculator<TestTripSchedule>(s, TUNING).rangeRaptorMinutes();
+      while (it.hasNext()) {
+        result.add(it.next());
+      }
+    }
+    return result;
+  }
+}
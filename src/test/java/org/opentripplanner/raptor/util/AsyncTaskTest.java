@@ -0,0 +1,76 @@
+package org.opentripplanner.raptor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncTaskTest {
+
+  private final ExecutorService threadPool = Executors.newSingleThreadExecutor();
+
+  @AfterEach
+  void shutdown() {
+    threadPool.shutdownNow();
+  }
+
+  @Test
+  void get() throws Exception {
+    assertEquals(7, AsyncTask.submit(threadPool, () -> 7).get());
+  }
+
+  @Test
+  void cancelAndJoinWaitsForTheRunningTask() throws Exception {
+    var started = new CountDownLatch(1);
+    var stopped = new AtomicBoolean(false);
+    var subject = AsyncTask.submit(
+      threadPool,
+      () -> {
+        started.countDown();
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          // Keep running for a while after the interrupt, like a search only checking the
+          // interrupted flag between iterations
+          busyWait(100);
+        } finally {
+          stopped.set(true);
+        }
+        return null;
+      }
+    );
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    subject.cancelAndJoin();
+
+    assertTrue(stopped.get());
+  }
+
+  @Test
+  void cancelAndJoinDoesNotRunATaskNotStarted() throws Exception {
+    var release = new CountDownLatch(1);
+    var blocker = AsyncTask.submit(threadPool, () -> release.await(5, TimeUnit.SECONDS));
+    var run = new AtomicBoolean(false);
+    var subject = AsyncTask.submit(threadPool, () -> run.getAndSet(true));
+
+    subject.cancelAndJoin();
+    release.countDown();
+    blocker.get();
+
+    assertFalse(run.get());
+  }
+
+  private static void busyWait(long millis) {
+    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    while (System.nanoTime() < end) {
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntVectorParetoComparatorTest {
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.v1 < r.v1 || l.v2 < r.v2 || l.v3 < r.v3 || l.v4 < r.v4;
+
+  private static final IntVectorParetoComparator<Vector> VECTOR_COMPARATOR =
+    IntVectorParetoComparator.of(v -> v.v1, v -> v.v2, v -> v.v3, v -> v.v4);
+
+  @Test
+  void leftDominanceExist() {
+    var v = new Vector("V", 5, 5, 5, 5);
+
+    assertFalse(VECTOR_COMPARATOR.leftDominanceExist(v, v));
+    assertTrue(VECTOR_COMPARATOR.leftDominanceExist(new Vector("L", 4, 5, 5, 5), v));
+    assertTrue(VECTOR_COMPARATOR.leftDominanceExist(new Vector("L", 9, 9, 9, 4), v));
+    assertFalse(VECTOR_COMPARATOR.leftDominanceExist(new Vector("L", 6, 6, 6, 6), v));
+  }
+
+  @Test
+  void unusedCriteriaAreIgnored() {
+    IntVectorParetoComparator<Vector> subject = IntVectorParetoComparator.of(
+      v -> v.v1,
+      v -> v.v2
+    );
+    var set = new ParetoSet<>(subject);
+
+    assertTrue(set.add(new Vector("A", 5, 5, 5, 5)));
+    assertFalse(set.add(new Vector("B", 5, 5, 1, 1)));
+    assertTrue(set.add(new Vector("C", 4, 6, 9, 9)));
+    assertEquals("{A[5, 5, 5, 5], C[4, 6, 9, 9]}", set.toString());
+  }
+
+  /**
+   * The pareto set should produce the same result with the vector comparator as with the plain
+   * comparator, including the order of the elements and the elements after the marker.
+   */
+  @Test
+  void sameResultAsPlainComparator() {
+    var random = new Random(42);
+    var expected = new ParetoSetWithMarker<>(COMPARATOR);
+    var subject = new ParetoSetWithMarker<>(VECTOR_COMPARATOR);
+
+    for (int i = 0; i < 5000; ++i) {
+      var v = new Vector(
+        "V" + i,
+        random.nextInt(20),
+        random.nextInt(20),
+        random.nextInt(3),
+        random.nextInt(2)
+      );
+      assertEquals(expected.qualify(v), subject.qualify(v), v.toString());
+      assertEquals(expected.add(v), subject.add(v), v.toString());
+      assertEquals(expected.toString(), subject.toString());
+
+      if (i % 7 == 0) {
+        expected.markAtEndOfSet();
+        subject.markAtEndOfSet();
+      }
+      assertEquals(list(expected.elementsAfterMarker()), list(subject.elementsAfterMarker()));
+
+      if (i % 500 == 0) {
+        expected.clear();
+        subject.clear();
+      }
+    }
+  }
+
+  private static List<Vector> list(Iterable<Vector> elements) {
+    var list = new ArrayList<Vector>();
+    elements.forEach(list::add);
+    return list;
+  }
+}
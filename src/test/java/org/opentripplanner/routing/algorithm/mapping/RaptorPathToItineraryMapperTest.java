@@ -219,6 +219,7 @@ public class RaptorPathToItineraryMapperTest {
       TEST_MODEL.stopModelBuilder().withRegularStop(S1).withRegularStop(S2).build(),
       null,
       null,
+      0,
       null,
       null,
       null
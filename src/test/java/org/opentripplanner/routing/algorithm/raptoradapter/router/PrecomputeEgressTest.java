@@ -0,0 +1,77 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.TestServerContext;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+
+class PrecomputeEgressTest {
+
+  private static final GenericLocation ORIGIN = new GenericLocation(45.519320, -122.648567);
+  private static final GenericLocation ROSE_QUARTER = GenericLocation.fromStopId(
+    "Rose Quarter Transit Center",
+    "prt",
+    "79-tc"
+  );
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void routeToTheDestinationUsesThePrecomputedEgress() {
+    var model = ConstantsForTests.getInstance().getCachedPortlandGraph();
+    var cache = new AccessEgressCache(model.graph(), registry);
+    var serverContext = TestServerContext.createServerContext(
+      model.graph(),
+      model.transitModel(),
+      cache
+    );
+    var request = request(serverContext);
+
+    int nStops = TransitRouter.precomputeEgress(request, serverContext);
+    assertTrue(nStops > 0);
+    assertEquals(1, cache.size());
+    assertEquals(0.0, requests("hit"));
+
+    var response = serverContext.routingService().route(request);
+
+    assertFalse(response.getTripPlan().itineraries.isEmpty());
+    // The egress is taken from the cache, the access from the origin is searched
+    assertEquals(1.0, requests("hit"));
+    assertEquals(1.0, requests("miss"));
+  }
+
+  private static RouteRequest request(OtpServerRequestContext serverContext) {
+    RouteRequest request = serverContext.defaultRouteRequest();
+    request.setDateTime(
+      LocalDateTime
+        .of(2009, 11, 17, 10, 0, 0)
+        .atZone(ZoneId.of(serverContext.transitService().getTimeZone().getId()))
+        .toInstant()
+    );
+    request.setFrom(ORIGIN);
+    request.setTo(ROSE_QUARTER);
+    request.journey().direct().setMode(StreetMode.NOT_SET);
+    request.setSearchWindow(Duration.ofHours(1));
+    return request;
+  }
+
+  private double requests(String result) {
+    return registry
+      .get("routing.accessEgressCache.requests")
+      .tag("result", result)
+      .counter()
+      .count();
+  }
+}
@@ -0,0 +1,214 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.TestStateBuilder;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class AccessEgressCacheTest {
+
+  private static final Duration LIMIT = Duration.ofMinutes(45);
+  private static final NearbyStop STOP = new NearbyStop(
+    TransitModelForTest.of().stop("A").build(),
+    100.0,
+    List.of(),
+    TestStateBuilder.ofWalking().build()
+  );
+
+  private final Graph graph = new Graph();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final AccessEgressCache subject = new AccessEgressCache(graph, registry);
+  private final AtomicInteger searchCount = new AtomicInteger();
+  private final Supplier<Collection<NearbyStop>> search = () -> {
+    searchCount.incrementAndGet();
+    return List.of(STOP);
+  };
+
+  @Test
+  void cachedResultIsReused() {
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    assertEquals(List.of(STOP), subject.get(key, search));
+    assertEquals(List.of(STOP), subject.get(key, search));
+    assertEquals(1, searchCount.get());
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void realtimeStreetChangeInvalidatesResult() {
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    subject.get(key, search);
+    graph.realtimeStreetChanged();
+    subject.get(key, search);
+    subject.get(key, search);
+
+    assertEquals(2, searchCount.get());
+  }
+
+  @Test
+  void keyDependsOnModeAndLocation() {
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    assertEquals(key, key(StreetMode.WALK, 60.0, 10.0));
+    assertNotEquals(key, key(StreetMode.BIKE, 60.0, 10.0));
+    assertNotEquals(key, key(StreetMode.WALK, 60.0, 10.001));
+  }
+
+  @Test
+  void precomputedResultIsReused() {
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    subject.get(key, search);
+    subject.precompute(key, search);
+    subject.get(key, search);
+
+    assertEquals(2, searchCount.get());
+  }
+
+  @Test
+  void precomputedResultDoesNotExpire() {
+    var cache = new AccessEgressCache(
+      graph,
+      registry,
+      AccessEgressCache.DEFAULT_MAXIMUM_STATES,
+      Duration.ofNanos(1)
+    );
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    cache.precompute(key, search);
+    cache.get(key, search);
+
+    assertEquals(1, searchCount.get());
+  }
+
+  @Test
+  void precomputedResultIsOutOfDateAfterRealtimeStreetChange() {
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    subject.precompute(key, search);
+    assertFalse(subject.isPrecomputedOutOfDate());
+
+    graph.realtimeStreetChanged();
+    assertTrue(subject.isPrecomputedOutOfDate());
+
+    // A request searches again, and replaces the precomputed result
+    subject.get(key, search);
+    assertFalse(subject.isPrecomputedOutOfDate());
+    assertEquals(2, searchCount.get());
+  }
+
+  @Test
+  void cacheIsBoundedByTheNumberOfStates() {
+    var cache = new AccessEgressCache(graph, registry, 2, Duration.ofMinutes(15));
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+    var otherKey = key(StreetMode.WALK, 60.0, 10.001);
+
+    cache.get(key, search);
+    cache.get(otherKey, search);
+    assertEquals(2, cache.size());
+
+    // A result with more states than the limit is not kept
+    var largeKey = key(StreetMode.WALK, 60.0, 10.002);
+    Supplier<Collection<NearbyStop>> largeSearch = () -> {
+      searchCount.incrementAndGet();
+      return List.of(STOP, STOP, STOP);
+    };
+    cache.get(largeKey, largeSearch);
+    cache.get(largeKey, largeSearch);
+    assertEquals(4, searchCount.get());
+  }
+
+  @Test
+  void hitsAndMissesAreRecorded() {
+    var key = key(StreetMode.WALK, 60.0, 10.0);
+
+    subject.get(key, search);
+    subject.get(key, search);
+    subject.get(key, search);
+
+    assertEquals(2.0, requests("hit"));
+    assertEquals(1.0, requests("miss"));
+    assertEquals(1, registry.get("routing.accessEgressCache.search").timer().count());
+  }
+
+  @Test
+  void requestsToTheSameStopShareTheKey() {
+    Set<Vertex> stopVertices = Set.of(StreetModelForTest.intersectionVertex(60.0, 10.0));
+    var key = stopKey("Home", 60.0, 10.0, stopVertices);
+
+    assertEquals(key, stopKey("Work", 60.1, 10.1, stopVertices));
+    assertEquals(key, stopKey(null, null, null, stopVertices));
+  }
+
+  @Test
+  void stopNotLinkedToStopVerticesIsKeyedByLocation() {
+    var location = new TemporaryStreetLocation("T", new Coordinate(10.0, 60.0), null, true);
+    Set<Vertex> vertices = Set.of(location);
+    var key = stopKey("Home", 60.0, 10.0, vertices);
+
+    assertNotEquals(key, stopKey("Home", 60.1, 10.1, vertices));
+  }
+
+  @Test
+  void isCacheable() {
+    assertTrue(AccessEgressCache.isCacheable(StreetMode.WALK));
+    assertTrue(AccessEgressCache.isCacheable(StreetMode.BIKE));
+    assertFalse(AccessEgressCache.isCacheable(StreetMode.BIKE_RENTAL));
+    assertFalse(AccessEgressCache.isCacheable(StreetMode.CAR_TO_PARK));
+  }
+
+  private double requests(String result) {
+    return registry
+      .get("routing.accessEgressCache.requests")
+      .tag("result", result)
+      .counter()
+      .count();
+  }
+
+  private static AccessEgressCache.Key key(StreetMode mode, double lat, double lng) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(lat, lng));
+    return AccessEgressCache.Key.of(request, new StreetRequest(mode), false, LIMIT, 100);
+  }
+
+  private static AccessEgressCache.Key stopKey(
+    String label,
+    Double lat,
+    Double lng,
+    Set<Vertex> vertices
+  ) {
+    var request = new RouteRequest();
+    request.setTo(new GenericLocation(label, new FeedScopedId("F", "S"), lat, lng));
+    return AccessEgressCache.Key.of(
+      request,
+      new StreetRequest(StreetMode.WALK),
+      true,
+      LIMIT,
+      100,
+      vertices
+    );
+  }
+}
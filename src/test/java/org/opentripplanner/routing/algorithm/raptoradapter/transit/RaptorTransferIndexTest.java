@@ -0,0 +1,85 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+
+class RaptorTransferIndexTest {
+
+  private static final Transfer T_0_1 = new Transfer(1, 100);
+  private static final Transfer T_0_2 = new Transfer(2, 200);
+  private static final Transfer T_0_2_LONG = new Transfer(2, 400);
+  private static final Transfer T_2_1 = new Transfer(1, 50);
+
+  private final RaptorTransferIndex subject = RaptorTransferIndex.create(
+    List.of(List.of(T_0_1, T_0_2, T_0_2_LONG), List.of(), List.of(T_2_1)),
+    StreetSearchRequest.of().build()
+  );
+
+  @Test
+  void forwardTransfers() {
+    var transfers = list(subject.getForwardTransfers(0));
+    assertEquals(2, transfers.size());
+    // Only the cheapest transfer between two stops is kept
+    assertSame(T_0_1, findByStop(transfers, 1).transfer());
+    assertSame(T_0_2, findByStop(transfers, 2).transfer());
+
+    assertEquals(List.of(), list(subject.getForwardTransfers(1)));
+
+    transfers = list(subject.getForwardTransfers(2));
+    assertEquals(1, transfers.size());
+    assertEquals(1, transfers.get(0).stop());
+    assertSame(T_2_1, transfers.get(0).transfer());
+  }
+
+  @Test
+  void reversedTransfers() {
+    assertEquals(List.of(), list(subject.getReversedTransfers(0)));
+
+    var transfers = list(subject.getReversedTransfers(1));
+    assertEquals(2, transfers.size());
+    assertSame(T_0_1, findByStop(transfers, 0).transfer());
+    assertSame(T_2_1, findByStop(transfers, 2).transfer());
+
+    transfers = list(subject.getReversedTransfers(2));
+    assertEquals(1, transfers.size());
+    assertEquals(0, transfers.get(0).stop());
+  }
+
+  @Test
+  void sameValuesAsTransfer() {
+    var request = StreetSearchRequest.of().build();
+    var expected = T_0_1.asRaptorTransfer(request).orElseThrow();
+
+    var it = subject.getForwardTransfers(0);
+    var transfer = findByStop(list(it), 1);
+
+    assertEquals(expected.durationInSeconds(), transfer.durationInSeconds());
+    assertEquals(expected.c1(), transfer.c1());
+  }
+
+  @Test
+  void iteratingDoesNotCreateNewTransfers() {
+    var first = list(subject.getForwardTransfers(0));
+    var second = list(subject.getForwardTransfers(0));
+
+    assertSame(first.get(0), second.get(0));
+    assertSame(first.get(1), second.get(1));
+  }
+
+  private static List<DefaultRaptorTransfer> list(Iterator<RaptorTransfer> it) {
+    var list = new ArrayList<DefaultRaptorTransfer>();
+    it.forEachRemaining(t -> list.add((DefaultRaptorTransfer) t));
+    return list;
+  }
+
+  private static DefaultRaptorTransfer findByStop(List<DefaultRaptorTransfer> list, int stop) {
+    return list.stream().filter(t -> t.stop() == stop).findFirst().orElseThrow();
+  }
+}
@@ -0,0 +1,79 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+
+class StopPatternIndexTest {
+
+  private static final int N_STOPS = 6;
+
+  // Pattern 0: 1 -> 2 -> 3
+  // Pattern 1: 3 -> 4 -> 3 (visit stop 3 twice)
+  // Pattern 2: 2 -> 5
+  private final TestTransitData data = new TestTransitData()
+    .withRoutes(route("A", 1, 2, 3), route("B", 3, 4, 3), route("C", 2, 5));
+
+  private final StopPatternIndex subject = StopPatternIndex.create(N_STOPS, data.getPatterns());
+
+  @Test
+  void numberOfStops() {
+    assertEquals(N_STOPS, subject.numberOfStops());
+  }
+
+  @Test
+  void addActivePatternsForStop() {
+    var all = bitSet(0, 1, 2);
+
+    assertEquals(bitSet(), patternsForStops(all, 0));
+    assertEquals(bitSet(0), patternsForStops(all, 1));
+    assertEquals(bitSet(0, 2), patternsForStops(all, 2));
+    assertEquals(bitSet(0, 1), patternsForStops(all, 3));
+    assertEquals(bitSet(1), patternsForStops(all, 4));
+    assertEquals(bitSet(2), patternsForStops(all, 5));
+    assertEquals(bitSet(0, 1, 2), patternsForStops(all, 1, 4, 5));
+  }
+
+  @Test
+  void inactivePatternsAreSkipped() {
+    assertEquals(bitSet(2), patternsForStops(bitSet(2), 2));
+    assertEquals(bitSet(), patternsForStops(bitSet(2), 3));
+    assertEquals(bitSet(1), patternsForStops(bitSet(1, 2), 1, 3, 4));
+  }
+
+  @Test
+  void contains() {
+    for (var pattern : data.getPatterns()) {
+      assertTrue(subject.contains(pattern));
+    }
+    var other = new TestTransitData()
+      .withRoutes(route("A", 1), route("B", 1), route("C", 1), route("D", 1));
+    assertFalse(subject.contains(other.getPatterns().get(3)));
+  }
+
+  @Test
+  void testToString() {
+    assertEquals("StopPatternIndex{numberOfStops: 6, size: 8}", subject.toString());
+  }
+
+  private BitSet patternsForStops(BitSet active, int... stops) {
+    var result = new BitSet();
+    for (int stop : stops) {
+      subject.addActivePatternsForStop(stop, active, result);
+    }
+    return result;
+  }
+
+  private static BitSet bitSet(int... values) {
+    var set = new BitSet();
+    for (int v : values) {
+      set.set(v);
+    }
+    return set;
+  }
+}
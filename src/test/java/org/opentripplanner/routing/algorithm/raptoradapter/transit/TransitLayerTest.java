@@ -3,6 +3,8 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -64,6 +66,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      0,
       null,
       null,
       null
@@ -94,14 +97,15 @@ class TransitLayerTest {
       null,
       null,
       null,
+      0,
       null,
       null,
       null
     );
     var runningOnDate = transitLayer.getTripPatternsForRunningDate(date);
     assertEquals(1, runningOnDate.size());
-    assertEquals(tripPatterns, runningOnDate);
-    assertTrue(tripPatterns == runningOnDate);
+    assertEquals(tripPatterns, List.copyOf(runningOnDate));
+    assertTrue(transitLayer.getTripPatternsForRunningDate(date) == runningOnDate);
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.minusDays(1)).size());
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.plusDays(1)).size());
   }
@@ -123,6 +127,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      0,
       null,
       null,
       null
@@ -152,6 +157,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      0,
       null,
       null,
       null
@@ -186,6 +192,7 @@ class TransitLayerTest {
       null,
       null,
       null,
+      0,
       null,
       null,
       null
@@ -198,4 +205,65 @@ class TransitLayerTest {
     assertEquals(tripPatternForDate, startingOnDate.getFirst());
     assertEquals(0, transitLayer.getTripPatternsOnServiceDateCopy(secondRunningDate).size());
   }
+
+  @Test
+  void testGetTripPatternForServiceDate() {
+    var runningDate = LocalDate.of(2024, 1, 1);
+    var serviceDate = runningDate.minusDays(1);
+
+    var tripPatternForDate = new TripPatternForDate(
+      TRIP_PATTERN,
+      List.of(TRIP_TIMES),
+      List.of(),
+      serviceDate
+    );
+    var transitLayer = new TransitLayer(
+      Map.of(runningDate, List.of(tripPatternForDate)),
+      null,
+      null,
+      null,
+      null,
+      null,
+      0,
+      null,
+      null,
+      null
+    );
+    var pattern = TRIP_PATTERN.getPattern();
+    assertSame(tripPatternForDate, transitLayer.getTripPatternForServiceDate(pattern, serviceDate));
+    assertNull(transitLayer.getTripPatternForServiceDate(pattern, runningDate));
+  }
+
+  @Test
+  void testUpdateTripPatternsForDateDoesNotChangeTheOriginal() {
+    var date = LocalDate.of(2024, 1, 1);
+
+    var tripPatternForDate = new TripPatternForDate(
+      TRIP_PATTERN,
+      List.of(TRIP_TIMES),
+      List.of(),
+      date
+    );
+    var updated = new TripPatternForDate(TRIP_PATTERN, List.of(TRIP_TIMES), List.of(), date);
+    var transitLayer = new TransitLayer(
+      Map.of(date, List.of(tripPatternForDate)),
+      null,
+      null,
+      null,
+      null,
+      null,
+      0,
+      null,
+      null,
+      null
+    );
+    var copy = new TransitLayer(transitLayer);
+    copy.updateTripPatternsForDate(date, List.of(tripPatternForDate), List.of(updated));
+    // A date not in the transit layer is not added
+    copy.updateTripPatternsForDate(date.plusDays(1), List.of(), List.of(updated));
+
+    assertEquals(List.of(updated), copy.getTripPatternsRunningOnDateCopy(date));
+    assertEquals(0, copy.getTripPatternsForRunningDate(date.plusDays(1)).size());
+    assertEquals(List.of(tripPatternForDate), transitLayer.getTripPatternsRunningOnDateCopy(date));
+  }
 }
@@ -0,0 +1,124 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TripPatternsRunningOnDateTest {
+
+  private static final TransitModelForTest TEST_MODEL = TransitModelForTest.of();
+  private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+  private static final LocalDate DAY_BEFORE = DATE.minusDays(1);
+  private static final StopPattern STOP_PATTERN;
+  private static final TripTimes TRIP_TIMES = tripTimes("1");
+  private static final TripTimes OTHER_TRIP_TIMES = tripTimes("2");
+
+  static {
+    var stopTime = new StopTime();
+    stopTime.setStop(TEST_MODEL.stop("TEST:STOP", 0, 0).build());
+    STOP_PATTERN = new StopPattern(List.of(stopTime));
+  }
+
+  private final RoutingTripPattern patternA = pattern("A");
+  private final RoutingTripPattern patternB = pattern("B");
+
+  private final TripPatternForDate a = tripPatternForDate(patternA, DATE);
+  private final TripPatternForDate aDayBefore = tripPatternForDate(patternA, DAY_BEFORE);
+  private final TripPatternForDate b = tripPatternForDate(patternB, DATE);
+
+  @Test
+  void empty() {
+    var subject = TripPatternsRunningOnDate.empty();
+
+    assertTrue(subject.isEmpty());
+    assertFalse(subject.iterator().hasNext());
+    assertNull(subject.get(patternA.patternIndex(), DATE));
+    assertSame(subject, subject.update(List.of(), List.of()));
+  }
+
+  @Test
+  void getAndContains() {
+    var subject = TripPatternsRunningOnDate.of(List.of(a, aDayBefore, b));
+
+    assertEquals(3, subject.size());
+    assertEquals(Set.of(a, aDayBefore, b), new HashSet<>(subject));
+    assertSame(a, subject.get(patternA.patternIndex(), DATE));
+    assertSame(aDayBefore, subject.get(patternA.patternIndex(), DAY_BEFORE));
+    assertNull(subject.get(patternB.patternIndex(), DAY_BEFORE));
+    assertTrue(subject.contains(b));
+    assertFalse(subject.contains(tripPatternForDate(patternB, DAY_BEFORE)));
+  }
+
+  @Test
+  void addedTripPatternReplacesTheOneWithTheSameServiceDate() {
+    var updated = tripPatternForDate(patternA, DATE);
+    var subject = TripPatternsRunningOnDate.of(List.of(a, aDayBefore)).update(
+      List.of(),
+      List.of(updated)
+    );
+
+    assertEquals(2, subject.size());
+    assertSame(updated, subject.get(patternA.patternIndex(), DATE));
+    assertSame(aDayBefore, subject.get(patternA.patternIndex(), DAY_BEFORE));
+  }
+
+  @Test
+  void remove() {
+    var subject = TripPatternsRunningOnDate.of(List.of(a, aDayBefore, b));
+
+    assertEquals(Set.of(aDayBefore, b), new HashSet<>(subject.update(List.of(a), List.of())));
+    assertEquals(Set.of(a), new HashSet<>(subject.update(List.of(aDayBefore, b), List.of())));
+    // A trip pattern is only removed if it is the same as the one in the collection
+    var other = new TripPatternForDate(patternB, List.of(OTHER_TRIP_TIMES), List.of(), DATE);
+    assertEquals(3, subject.update(List.of(other), List.of()).size());
+  }
+
+  @Test
+  void oldVersionIsNotChanged() {
+    var old = TripPatternsRunningOnDate.of(List.of(a, b));
+    var updated = tripPatternForDate(patternB, DATE);
+
+    var changed = old.update(List.of(a), List.of(updated, aDayBefore));
+
+    assertEquals(Set.of(a, b), new HashSet<>(old));
+    assertSame(b, old.get(patternB.patternIndex(), DATE));
+    assertEquals(Set.of(aDayBefore, updated), new HashSet<>(changed));
+  }
+
+  private static RoutingTripPattern pattern(String id) {
+    return TripPattern
+      .of(TransitModelForTest.id(id))
+      .withRoute(TransitModelForTest.route(id).build())
+      .withStopPattern(STOP_PATTERN)
+      .build()
+      .getRoutingTripPattern();
+  }
+
+  private static TripTimes tripTimes(String id) {
+    return TripTimesFactory.tripTimes(
+      TransitModelForTest.trip(id).withRoute(TransitModelForTest.route(id).build()).build(),
+      List.of(new StopTime()),
+      new Deduplicator()
+    );
+  }
+
+  private static TripPatternForDate tripPatternForDate(RoutingTripPattern pattern, LocalDate date) {
+    return new TripPatternForDate(pattern, List.of(TRIP_TIMES), List.of(), date);
+  }
+}
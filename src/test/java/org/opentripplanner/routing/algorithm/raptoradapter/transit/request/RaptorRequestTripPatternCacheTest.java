@@ -0,0 +1,108 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTripPatternCache.RequestTripPatterns;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.request.filter.SelectRequest;
+import org.opentripplanner.routing.api.request.request.filter.TransitFilterRequest;
+import org.opentripplanner.transit.model.basic.MainAndSubMode;
+import org.opentripplanner.transit.model.basic.TransitMode;
+
+class RaptorRequestTripPatternCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.of(
+    2024,
+    1,
+    15,
+    0,
+    0,
+    0,
+    0,
+    ZoneId.of("Europe/Oslo")
+  );
+
+  private final RaptorRequestTripPatternCache subject = new RaptorRequestTripPatternCache(5);
+
+  private int loadCount = 0;
+
+  @Test
+  void sameDatesAndEqualFilterIsCached() {
+    var first = get(TIME_ZERO, 1, new RouteRequestTransitDataProviderFilter(new RouteRequest()));
+    var second = get(TIME_ZERO, 1, new RouteRequestTransitDataProviderFilter(new RouteRequest()));
+
+    assertSame(first, second);
+    assertEquals(1, loadCount);
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void otherDatesAreNotCached() {
+    var filter = new RouteRequestTransitDataProviderFilter(new RouteRequest());
+
+    var first = get(TIME_ZERO, 1, filter);
+
+    assertNotSame(first, get(TIME_ZERO.plusDays(1), 1, filter));
+    assertNotSame(first, get(TIME_ZERO, 2, filter));
+    assertEquals(3, loadCount);
+  }
+
+  @Test
+  void otherFilterIsNotCached() {
+    var request = new RouteRequest();
+    var first = get(TIME_ZERO, 1, new RouteRequestTransitDataProviderFilter(request));
+
+    request
+      .journey()
+      .transit()
+      .setFilters(
+        List.of(
+          TransitFilterRequest
+            .of()
+            .addSelect(
+              SelectRequest
+                .of()
+                .withTransportModes(List.of(new MainAndSubMode(TransitMode.BUS)))
+                .build()
+            )
+            .build()
+        )
+      );
+    var second = get(TIME_ZERO, 1, new RouteRequestTransitDataProviderFilter(request));
+
+    assertNotSame(first, second);
+    assertEquals(2, loadCount);
+  }
+
+  @Test
+  void cacheIsTurnedOffWithZeroSize() {
+    var cache = new RaptorRequestTripPatternCache(0);
+    var filter = new RouteRequestTransitDataProviderFilter(new RouteRequest());
+
+    cache.get(TIME_ZERO, 0, 1, filter, this::load);
+    cache.get(TIME_ZERO, 0, 1, filter, this::load);
+
+    assertEquals(2, loadCount);
+    assertEquals(0, cache.size());
+  }
+
+  private RequestTripPatterns get(
+    ZonedDateTime timeZero,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {
+    return subject.get(timeZero, 0, additionalFutureSearchDays, filter, this::load);
+  }
+
+  private RequestTripPatterns load() {
+    ++loadCount;
+    return new RequestTripPatterns(List.of(), new BitSet());
+  }
+}
@@ -0,0 +1,120 @@
+package org.opentripplanner.street.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+import static org.opentripplanner.street.model.StreetTraversalPermission.PEDESTRIAN;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.TraverseModeSet;
+
+class CarTurnGraphTest {
+
+  private final Graph graph = new Graph();
+
+  private final StreetVertex A = vertex("A", 0.0, 0.0);
+  private final StreetVertex B = vertex("B", 0.0, 0.01);
+  private final StreetVertex C = vertex("C", 0.0, 0.02);
+  private final StreetVertex D = vertex("D", 0.01, 0.01);
+  private final StreetVertex E = vertex("E", -0.01, 0.01);
+
+  private final StreetEdge AB = StreetModelForTest.streetEdge(A, B, 100.0, ALL);
+  private final StreetEdge BA = StreetModelForTest.streetEdge(B, A, 100.0, ALL);
+  private final StreetEdge BC = StreetModelForTest.streetEdge(B, C, 100.0, ALL);
+  private final StreetEdge BD = StreetModelForTest.streetEdge(B, D, 100.0, ALL);
+  private final StreetEdge BE = StreetModelForTest.streetEdge(B, E, 100.0, PEDESTRIAN);
+  private final StreetEdge DB = StreetModelForTest.streetEdge(D, B, 100.0, ALL);
+
+  @Test
+  void turnsWithoutRestrictions() {
+    var subject = turnGraph();
+
+    // No U-turn back to A and no turn onto the footway to E
+    assertEquals(List.of(BC, BD), turns(subject, AB));
+    assertEquals(List.of(BA, BC), turns(subject, DB));
+    // The footway is not part of the car network
+    assertEquals(List.of(), turns(subject, BE));
+  }
+
+  @Test
+  void turnRestrictions() {
+    AB.addTurnRestriction(restriction(AB, BC, TurnRestrictionType.NO_TURN, null));
+    DB.addTurnRestriction(restriction(DB, BA, TurnRestrictionType.ONLY_TURN, null));
+    var subject = turnGraph();
+
+    assertEquals(List.of(BD), turns(subject, AB));
+    assertEquals(List.of(BA), turns(subject, DB));
+  }
+
+  @Test
+  void restrictionsForOtherModesOrWithTimePeriodsAreNotEncoded() {
+    var bicycle = new TurnRestriction(
+      AB,
+      BC,
+      TurnRestrictionType.NO_TURN,
+      new TraverseModeSet(TraverseMode.BICYCLE),
+      null
+    );
+    AB.addTurnRestriction(bicycle);
+    var time = new RepeatingTimePeriod(ZoneIds.UTC);
+    DB.addTurnRestriction(restriction(DB, BA, TurnRestrictionType.NO_TURN, time));
+    var subject = turnGraph();
+
+    assertEquals(List.of(BC, BD), turns(subject, AB));
+    assertEquals(List.of(BA, BC), turns(subject, DB));
+  }
+
+  @Test
+  void reverseTurns() {
+    AB.addTurnRestriction(restriction(AB, BC, TurnRestrictionType.NO_TURN, null));
+    var subject = turnGraph();
+
+    assertEquals(List.of(DB), reverseTurns(subject, BC));
+    assertEquals(List.of(AB), reverseTurns(subject, BD));
+    assertEquals(List.of(DB), reverseTurns(subject, BA));
+  }
+
+  private CarTurnGraph turnGraph() {
+    return CarTurnGraph.of(StreetGraphSnapshot.of(graph.getVertices()));
+  }
+
+  private static TurnRestriction restriction(
+    StreetEdge from,
+    StreetEdge to,
+    TurnRestrictionType type,
+    RepeatingTimePeriod time
+  ) {
+    return new TurnRestriction(from, to, type, new TraverseModeSet(TraverseMode.CAR), time);
+  }
+
+  private static List<StreetEdge> turns(CarTurnGraph subject, StreetEdge edge) {
+    List<StreetEdge> result = new ArrayList<>();
+    int node = subject.node(edge);
+    for (int p = subject.turnsStart(node); p < subject.turnsEnd(node); ++p) {
+      result.add(subject.snapshot().edge(subject.turn(p)));
+    }
+    return result;
+  }
+
+  private static List<StreetEdge> reverseTurns(CarTurnGraph subject, StreetEdge edge) {
+    List<StreetEdge> result = new ArrayList<>();
+    int node = subject.node(edge);
+    for (int p = subject.reverseTurnsStart(node); p < subject.reverseTurnsEnd(node); ++p) {
+      result.add(subject.snapshot().edge(subject.reverseTurn(p)));
+    }
+    return result;
+  }
+
+  private StreetVertex vertex(String label, double lat, double lon) {
+    var v = StreetModelForTest.intersectionVertex(label, lat, lon);
+    graph.addVertex(v);
+    return v;
+  }
+}
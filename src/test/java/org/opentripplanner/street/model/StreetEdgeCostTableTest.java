@@ -0,0 +1,204 @@
+package org.opentripplanner.street.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+import static org.opentripplanner.street.model.StreetTraversalPermission.PEDESTRIAN;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+class StreetEdgeCostTableTest {
+
+  private static final RoutingPreferences PREFERENCES = new RoutingPreferences();
+
+  private final Graph graph = new Graph();
+
+  private final StreetVertex A = vertex("A", 0.0);
+  private final StreetVertex B = vertex("B", 0.01);
+  private final StreetVertex C = vertex("C", 0.02);
+
+  private final StreetEdge AB = StreetModelForTest.streetEdge(A, B, 100.0, ALL);
+  private final StreetEdge BC = StreetModelForTest
+    .streetEdgeBuilder(B, C, 250.5, PEDESTRIAN)
+    .withWalkSafetyFactor(1.5f)
+    .withStairs(true)
+    .buildAndConnect();
+
+  private final StreetGraphSnapshot snapshot = StreetGraphSnapshot.of(graph.getVertices());
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "WALK", "BIKE", "CAR" })
+  void cachedCostsAreEqualToCalculatedCosts(StreetMode mode) {
+    var table = StreetEdgeCostTable.dense(snapshot, StreetEdgeCostTable.Key.of(PREFERENCES, false));
+
+    var expected = traverse(AB, mode, null);
+    var first = traverse(AB, mode, table);
+    var second = traverse(AB, mode, table);
+
+    int variant = StreetEdgeCostTable.variant(first.getBackMode(), false);
+    assertTrue(table.contains(variant, table.edgeIndex(AB)));
+
+    for (var result : new State[] { first, second }) {
+      assertEquals(expected.getWeight(), result.getWeight());
+      assertEquals(expected.getElapsedTimeSeconds(), result.getElapsedTimeSeconds());
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = StreetMode.class, names = { "WALK", "BIKE", "CAR" })
+  void sparseTableCostsAreEqualToCalculatedCosts(StreetMode mode) {
+    var table = StreetEdgeCostTable.sparse(
+      snapshot,
+      StreetEdgeCostTable.Key.of(PREFERENCES, false)
+    );
+
+    var expected = traverse(AB, mode, null);
+    var first = traverse(AB, mode, table);
+    var second = traverse(AB, mode, table);
+
+    int variant = StreetEdgeCostTable.variant(first.getBackMode(), false);
+    assertTrue(table.contains(variant, table.edgeIndex(AB)));
+    assertFalse(table.contains(variant, table.edgeIndex(BC)));
+
+    for (var result : new State[] { first, second }) {
+      assertEquals(expected.getWeight(), result.getWeight());
+      assertEquals(expected.getElapsedTimeSeconds(), result.getElapsedTimeSeconds());
+    }
+  }
+
+  @Test
+  void stairs() {
+    var table = StreetEdgeCostTable.dense(snapshot, StreetEdgeCostTable.Key.of(PREFERENCES, false));
+    var request = request(StreetMode.WALK, table);
+
+    var expected = BC.traverse(new State(B, request(StreetMode.WALK, null)))[0];
+    BC.traverse(new State(B, request));
+    var result = BC.traverse(new State(B, request))[0];
+
+    assertEquals(expected.getWeight(), result.getWeight());
+    assertEquals(expected.getElapsedTimeSeconds(), result.getElapsedTimeSeconds());
+  }
+
+  @Test
+  void edgeIndex() {
+    var table = StreetEdgeCostTable.dense(snapshot, StreetEdgeCostTable.Key.of(PREFERENCES, false));
+
+    assertSame(AB, snapshot.edge(table.edgeIndex(AB)));
+    assertSame(BC, snapshot.edge(table.edgeIndex(BC)));
+
+    // An edge added after the snapshot is created
+    var CA = StreetModelForTest.streetEdge(C, A, 100.0, ALL);
+    assertEquals(-1, table.edgeIndex(CA));
+  }
+
+  @Test
+  void variant() {
+    assertEquals(
+      StreetEdgeCostTable.NOT_CACHED,
+      StreetEdgeCostTable.variant(TraverseMode.FLEX, false)
+    );
+    assertNotEquals(
+      StreetEdgeCostTable.variant(TraverseMode.WALK, false),
+      StreetEdgeCostTable.variant(TraverseMode.WALK, true)
+    );
+  }
+
+  @Test
+  void keyIgnoresPreferencesNotUsedForTheEdgeCost() {
+    var key = StreetEdgeCostTable.Key.of(PREFERENCES, false);
+    var rental = PREFERENCES
+      .copyOf()
+      .withBike(b -> b.withRental(r -> r.withAllowArrivingInRentedVehicleAtDestination(false)))
+      .build();
+    var reluctance = PREFERENCES.copyOf().withWalk(w -> w.withReluctance(3.0)).build();
+
+    assertEquals(key, StreetEdgeCostTable.Key.of(rental, false));
+    assertNotEquals(key, StreetEdgeCostTable.Key.of(reluctance, false));
+    assertNotEquals(key, StreetEdgeCostTable.Key.of(PREFERENCES, true));
+  }
+
+  @Test
+  void cacheReturnsTheSameTableForEqualPreferences() {
+    var subject = new StreetEdgeCostTableCache(snapshot, 1);
+    var reluctance = PREFERENCES.copyOf().withWalk(w -> w.withReluctance(3.0)).build();
+
+    var table = sharedTable(subject, PREFERENCES);
+    assertSame(table, subject.get(PREFERENCES, false));
+    assertNotSame(table, sharedTable(subject, reluctance));
+    // The first table is dropped when the cache is full
+    assertEquals(1, subject.size());
+    assertNotSame(table, subject.get(PREFERENCES, false));
+  }
+
+  @Test
+  void cacheReturnsSparseTablesForPreferencesNotUsedRepeatedly() {
+    var subject = new StreetEdgeCostTableCache(snapshot, 1);
+
+    StreetEdgeCostTable previous = null;
+    for (int i = 1; i < StreetEdgeCostTableCache.SHARED_TABLE_MIN_SEARCHES; ++i) {
+      var table = subject.get(PREFERENCES, false);
+      assertFalse(table.isDense());
+      assertNotSame(previous, table);
+      previous = table;
+    }
+    assertEquals(0, subject.size());
+
+    var table = subject.get(PREFERENCES, false);
+    assertTrue(table.isDense());
+    assertSame(table, subject.get(PREFERENCES, false));
+  }
+
+  @Test
+  void cacheWithoutSharedTables() {
+    var subject = new StreetEdgeCostTableCache(snapshot, 0);
+
+    for (int i = 0; i <= StreetEdgeCostTableCache.SHARED_TABLE_MIN_SEARCHES; ++i) {
+      assertFalse(subject.get(PREFERENCES, false).isDense());
+    }
+    assertEquals(0, subject.size());
+  }
+
+  /**
+   * Use the preferences until a shared table is created for them.
+   */
+  private static StreetEdgeCostTable sharedTable(
+    StreetEdgeCostTableCache cache,
+    RoutingPreferences preferences
+  ) {
+    for (int i = 1; i < StreetEdgeCostTableCache.SHARED_TABLE_MIN_SEARCHES; ++i) {
+      cache.get(preferences, false);
+    }
+    return cache.get(preferences, false);
+  }
+
+  private State traverse(StreetEdge edge, StreetMode mode, StreetEdgeCostTable table) {
+    return edge.traverse(new State(A, request(mode, table)))[0];
+  }
+
+  private static StreetSearchRequest request(StreetMode mode, StreetEdgeCostTable table) {
+    var request = StreetSearchRequest.of().withMode(mode).build();
+    request.setEdgeCostTable(table);
+    return request;
+  }
+
+  private StreetVertex vertex(String label, double lon) {
+    var v = StreetModelForTest.intersectionVertex(label, 0.0, lon);
+    graph.addVertex(v);
+    return v;
+  }
+}
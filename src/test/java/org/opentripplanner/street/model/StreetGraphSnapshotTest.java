@@ -0,0 +1,129 @@
+package org.opentripplanner.street.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+import static org.opentripplanner.street.model.StreetTraversalPermission.PEDESTRIAN;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.BarrierVertex;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class StreetGraphSnapshotTest {
+
+  private static final double DELTA = 0.0001;
+
+  private final Graph graph = new Graph();
+
+  private final StreetVertex A = vertex("A", 0.0);
+  private final StreetVertex B = vertex("B", 0.01);
+  private final StreetVertex C = vertex("C", 0.02);
+
+  private final StreetEdge AB = StreetModelForTest.streetEdge(A, B, 100.0, ALL);
+  private final StreetEdge BA = StreetModelForTest.streetEdge(B, A, 100.0, ALL);
+  private final StreetEdge BC = StreetModelForTest
+    .streetEdgeBuilder(B, C, 250.5, PEDESTRIAN)
+    .withWalkSafetyFactor(1.5f)
+    .withStairs(true)
+    .buildAndConnect();
+
+  @Test
+  void outgoingAndIncomingEdges() {
+    var subject = StreetGraphSnapshot.of(graph.getVertices());
+
+    assertEquals(3, subject.numberOfVertices());
+    assertEquals(3, subject.numberOfEdges());
+
+    assertEquals(List.of(AB), outgoing(subject, A));
+    assertEquals(List.of(BA, BC), outgoing(subject, B));
+    assertEquals(List.of(), outgoing(subject, C));
+
+    assertEquals(List.of(BA), incoming(subject, A));
+    assertEquals(List.of(AB), incoming(subject, B));
+    assertEquals(List.of(BC), incoming(subject, C));
+  }
+
+  @Test
+  void edgeAttributes() {
+    var subject = StreetGraphSnapshot.of(graph.getVertices());
+    int e = subject.outgoingEnd(B.getIndex()) - 1;
+
+    assertSame(BC, subject.edge(e));
+    assertEquals(B.getIndex(), subject.fromVertex(e));
+    assertEquals(C.getIndex(), subject.toVertex(e));
+    assertEquals(250_500, subject.lengthMm(e));
+    assertEquals(250.5, subject.distanceMeters(e), DELTA);
+    assertEquals(1.5f, subject.walkSafetyFactor(e), DELTA);
+    assertEquals(BC.getInAngle(), subject.inAngle(e));
+    assertTrue(subject.isStairs(e));
+    assertTrue(subject.canTraverse(e, TraverseMode.WALK));
+    assertFalse(subject.canTraverse(e, TraverseMode.CAR));
+    assertFalse(subject.isComplex(e));
+  }
+
+  @Test
+  void barrierPermissions() {
+    var barrier = new BarrierVertex(0.04, 0.0, 7);
+    barrier.setBarrierPermissions(PEDESTRIAN);
+    graph.addVertex(barrier);
+    StreetModelForTest.streetEdge(C, barrier, 50.0, ALL);
+
+    var subject = StreetGraphSnapshot.of(graph.getVertices());
+    int e = subject.outgoingStart(C.getIndex());
+
+    assertTrue(subject.canTraverse(e, TraverseMode.WALK));
+    assertFalse(subject.canTraverse(e, TraverseMode.CAR));
+  }
+
+  @Test
+  void fallBackToObjectGraphForEdgesNotInSnapshot() {
+    var subject = StreetGraphSnapshot.of(graph.getVertices());
+    assertTrue(subject.hasAllOutgoing(A));
+    assertTrue(subject.hasAllIncoming(C));
+
+    // An edge added after the snapshot is created
+    FreeEdge.createFreeEdge(A, C);
+    assertFalse(subject.hasAllOutgoing(A));
+    assertFalse(subject.hasAllIncoming(C));
+    assertTrue(subject.hasAllOutgoing(B));
+
+    // A vertex added after the snapshot is created
+    var D = vertex("D", 0.03);
+    assertFalse(subject.contains(D));
+    assertFalse(subject.hasAllOutgoing(D));
+  }
+
+  private StreetVertex vertex(String label, double lon) {
+    var v = StreetModelForTest.intersectionVertex(label, 0.0, lon);
+    graph.addVertex(v);
+    return v;
+  }
+
+  private static List<StreetEdge> outgoing(StreetGraphSnapshot subject, Vertex v) {
+    List<StreetEdge> result = new ArrayList<>();
+    int i = v.getIndex();
+    for (int e = subject.outgoingStart(i); e < subject.outgoingEnd(i); ++e) {
+      result.add(subject.edge(e));
+    }
+    return result;
+  }
+
+  private static List<StreetEdge> incoming(StreetGraphSnapshot subject, Vertex v) {
+    List<StreetEdge> result = new ArrayList<>();
+    int i = v.getIndex();
+    for (int p = subject.incomingStart(i); p < subject.incomingEnd(i); ++p) {
+      result.add(subject.edge(subject.incomingEdge(p)));
+    }
+    return result;
+  }
+}
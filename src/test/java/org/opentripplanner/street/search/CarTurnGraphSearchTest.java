@@ -0,0 +1,172 @@
+package org.opentripplanner.street.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.TurnRestriction;
+import org.opentripplanner.street.model.TurnRestrictionType;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+class CarTurnGraphSearchTest {
+
+  private static final int N = 8;
+
+  private final Graph graph = new Graph();
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void sameWeightAsStreetSearch(boolean arriveBy) {
+    var grid = new StreetVertex[N][N];
+    for (int i = 0; i < N; ++i) {
+      for (int j = 0; j < N; ++j) {
+        grid[i][j] = vertex("V" + i + j, i * 0.003, j * 0.004);
+      }
+    }
+    for (int i = 0; i < N; ++i) {
+      for (int j = 0; j < N; ++j) {
+        if (i + 1 < N) {
+          street(grid[i][j], grid[i + 1][j]);
+          street(grid[i + 1][j], grid[i][j]);
+        }
+        if (j + 1 < N) {
+          street(grid[i][j], grid[i][j + 1]);
+          street(grid[i][j + 1], grid[i][j]);
+        }
+      }
+    }
+    var from = grid[0][0];
+    var to = grid[N - 1][N - 2];
+
+    var expected = streetSearch(from, to, arriveBy);
+    var result = turnGraphSearch(from, to, arriveBy);
+
+    assertEquals(1, expected.size());
+    assertEquals(1, result.size());
+    // The turn graph search does not prune states with a better turn ahead, the path may be better
+    double weight = expected.get(0).getWeight();
+    assertTrue(result.get(0).getWeight() <= weight + 0.001);
+    assertEquals(weight, result.get(0).getWeight(), 0.01 * weight);
+    assertEquals(from, result.get(0).states.getFirst().getVertex());
+    assertEquals(to, result.get(0).states.getLast().getVertex());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void turnRestriction(boolean arriveBy) {
+    var a = vertex("A", 0.0, 0.0);
+    var b = vertex("B", 0.02, 0.0);
+    var c = vertex("C", 0.04, 0.0);
+    var d = vertex("D", 0.01, 0.002);
+
+    var ab = street(a, b);
+    var bc = street(b, c);
+    street(a, d);
+    street(d, b);
+    ab.addTurnRestriction(
+      new TurnRestriction(
+        ab,
+        bc,
+        TurnRestrictionType.NO_TURN,
+        new TraverseModeSet(TraverseMode.CAR),
+        null
+      )
+    );
+
+    if (!arriveBy) {
+      // The state at B coming from A dominates the state coming from D in the street graph
+      assertTrue(streetSearch(a, c, false).isEmpty());
+    }
+
+    var paths = turnGraphSearch(a, c, arriveBy);
+
+    assertEquals(1, paths.size());
+    assertEquals(
+      List.of("A", "D", "B", "C"),
+      paths.get(0).states.stream().map(s -> s.getVertex().getLabelString()).toList()
+    );
+  }
+
+  @Test
+  void isApplicable() {
+    graph.createStreetGraphSnapshot();
+    graph.createCarTurnGraph();
+    var turnGraph = graph.getCarTurnGraph();
+
+    assertTrue(CarTurnGraphSearch.isApplicable(turnGraph, StreetMode.CAR));
+    assertFalse(CarTurnGraphSearch.isApplicable(turnGraph, StreetMode.WALK));
+    assertFalse(CarTurnGraphSearch.isApplicable(null, StreetMode.CAR));
+  }
+
+  private List<GraphPath<State, Edge, Vertex>> streetSearch(
+    Vertex from,
+    Vertex to,
+    boolean arriveBy
+  ) {
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setRequest(request(arriveBy))
+      .setStreetRequest(new StreetRequest(StreetMode.CAR))
+      .setFrom(from)
+      .setTo(to)
+      .getPathsToTarget();
+  }
+
+  private List<GraphPath<State, Edge, Vertex>> turnGraphSearch(
+    Vertex from,
+    Vertex to,
+    boolean arriveBy
+  ) {
+    graph.createStreetGraphSnapshot();
+    graph.createCarTurnGraph();
+
+    return new CarTurnGraphSearch(
+      graph.getCarTurnGraph(),
+      request(arriveBy),
+      new EuclideanRemainingWeightHeuristic(),
+      null,
+      null,
+      null,
+      null
+    )
+      .getPathsToTarget(Set.of(from), Set.of(to));
+  }
+
+  private static RouteRequest request(boolean arriveBy) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+    return request;
+  }
+
+  private StreetVertex vertex(String label, double lat, double lon) {
+    var v = StreetModelForTest.intersectionVertex(label, lat, lon);
+    graph.addVertex(v);
+    return v;
+  }
+
+  private static StreetEdge street(StreetVertex from, StreetVertex to) {
+    double meters = SphericalDistanceLibrary.distance(from.getCoordinate(), to.getCoordinate());
+    return StreetModelForTest.streetEdge(from, to, 1.1 * meters, ALL);
+  }
+}
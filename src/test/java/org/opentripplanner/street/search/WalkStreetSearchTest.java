@@ -0,0 +1,151 @@
+package org.opentripplanner.street.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetTraversalPermission.ALL;
+import static org.opentripplanner.street.model.StreetTraversalPermission.CAR;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+class WalkStreetSearchTest {
+
+  private static final int N = 6;
+  private static final Duration LIMIT = Duration.ofMinutes(30);
+
+  private final Graph graph = new Graph();
+  private final StreetVertex[][] grid = new StreetVertex[N][N];
+  private final RouteRequest request = new RouteRequest();
+
+  @BeforeEach
+  void setup() {
+    for (int i = 0; i < N; ++i) {
+      for (int j = 0; j < N; ++j) {
+        grid[i][j] = StreetModelForTest.intersectionVertex("V" + i + j, i * 0.001, j * 0.002);
+        graph.addVertex(grid[i][j]);
+      }
+    }
+    for (int i = 0; i < N; ++i) {
+      for (int j = 0; j < N; ++j) {
+        if (i + 1 < N) {
+          street(grid[i][j], grid[i + 1][j], (i + j) % 4 == 0, false);
+        }
+        if (j + 1 < N) {
+          street(grid[i][j], grid[i][j + 1], false, i == N - 1);
+        }
+      }
+    }
+    // Edges outside the snapshot, or not traversable by walking
+    FreeEdge.createFreeEdge(grid[0][N - 1], grid[N - 1][0]);
+    StreetModelForTest.streetEdge(grid[0][0], grid[N - 1][N - 1], 1.0, CAR);
+
+    graph.createStreetGraphSnapshot();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void sameResultAsStreetSearch(boolean arriveBy) {
+    var origin = Set.<Vertex>of(grid[1][1]);
+
+    var expected = toMap(
+      StreetSearchBuilder
+        .of()
+        .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(LIMIT))
+        .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+        .setRequest(request)
+        .setArriveBy(arriveBy)
+        .setFrom(arriveBy ? null : origin)
+        .setTo(arriveBy ? origin : null)
+        .getShortestPathTree()
+        .getAllStates()
+    );
+
+    var subject = new WalkStreetSearch(
+      graph.getStreetGraphSnapshot(),
+      request,
+      arriveBy,
+      LIMIT,
+      0
+    );
+    var result = toMap(subject.findStates(origin, v -> true));
+
+    assertEquals(expected.keySet(), result.keySet());
+    for (var key : expected.keySet()) {
+      var e = expected.get(key);
+      var r = result.get(key);
+      assertEquals(e.getWeight(), r.getWeight(), key);
+      assertEquals(e.getTimeSeconds(), r.getTimeSeconds(), key);
+      assertEquals(e.getWalkDistance(), r.getWalkDistance(), 0.001, key);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void durationLimit(boolean arriveBy) {
+    var limit = Duration.ofSeconds(60);
+    var subject = new WalkStreetSearch(
+      graph.getStreetGraphSnapshot(),
+      request,
+      arriveBy,
+      limit,
+      0
+    );
+    var result = subject.findStates(Set.of(grid[0][0]), v -> true);
+
+    assertFalse(result.isEmpty());
+    for (State state : result) {
+      // The last edge may end after the limit, but it must start within it
+      var back = state.getBackState();
+      assertTrue(back == null || back.getElapsedTimeSeconds() <= limit.toSeconds());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void isApplicable(boolean wheelchair) {
+    var snapshot = graph.getStreetGraphSnapshot();
+    request.setWheelchair(wheelchair);
+
+    assertEquals(
+      !wheelchair,
+      WalkStreetSearch.isApplicable(snapshot, request, StreetMode.WALK, null)
+    );
+    assertFalse(WalkStreetSearch.isApplicable(snapshot, request, StreetMode.BIKE, null));
+    assertFalse(WalkStreetSearch.isApplicable(null, request, StreetMode.WALK, null));
+  }
+
+  private static void street(StreetVertex a, StreetVertex b, boolean stairs, boolean noThru) {
+    for (var it : new StreetVertex[][] { { a, b }, { b, a } }) {
+      StreetModelForTest
+        .streetEdgeBuilder(it[0], it[1], 100.0 + 10 * a.getIndex(), ALL)
+        .withWalkSafetyFactor(1.0f + (a.getIndex() % 3) * 0.2f)
+        .withStairs(stairs)
+        .withWalkNoThruTraffic(noThru)
+        .buildAndConnect();
+    }
+  }
+
+  private static Map<String, State> toMap(Iterable<State> states) {
+    Map<String, State> result = new HashMap<>();
+    for (State state : states) {
+      result.put(state.getVertex().getLabel() + "/" + state.hasEnteredNoThruTrafficArea(), state);
+    }
+    return result;
+  }
+}
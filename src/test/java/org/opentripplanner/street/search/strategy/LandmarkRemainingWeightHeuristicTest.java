@@ -0,0 +1,134 @@
+package org.opentripplanner.street.search.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.astar.model.ShortestPathTree;
+import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
+import org.opentripplanner.graph_builder.module.CarLandmarksModule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Compare the landmark heuristic with the euclidean heuristic in a car search on a grid. The
+ * street speed is much lower than the max car speed used by the euclidean heuristic, which is
+ * typical for a real street network.
+ */
+class LandmarkRemainingWeightHeuristicTest {
+
+  private static final int SIZE = 15;
+  private static final double SPACING_DEGREES = 0.005;
+  private static final float CAR_SPEED = 10f;
+  private static final double DELTA = 0.01;
+
+  private final Graph graph = new Graph();
+  private final StreetVertex[][] grid = new StreetVertex[SIZE][SIZE];
+
+  {
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        var v = StreetModelForTest.intersectionVertex(
+          "v_" + i + "_" + j,
+          i * SPACING_DEGREES,
+          j * SPACING_DEGREES
+        );
+        graph.addVertex(v);
+        grid[i][j] = v;
+      }
+    }
+    for (int i = 0; i < SIZE; ++i) {
+      for (int j = 0; j < SIZE; ++j) {
+        if (i + 1 < SIZE) {
+          edges(grid[i][j], grid[i + 1][j]);
+        }
+        if (j + 1 < SIZE) {
+          edges(grid[i][j], grid[i][j + 1]);
+        }
+      }
+    }
+    new CarLandmarksModule(graph, 4).buildGraph();
+  }
+
+  @Test
+  void carSearchExploresFewerStates() {
+    assertFewerStatesAndSameWeight(false);
+  }
+
+  @Test
+  void arriveByCarSearchExploresFewerStates() {
+    assertFewerStatesAndSameWeight(true);
+  }
+
+  @Test
+  void onlyPureCarSearchesAreSupported() {
+    assertTrue(LandmarkRemainingWeightHeuristic.isSupported(StreetMode.CAR));
+    assertFalse(LandmarkRemainingWeightHeuristic.isSupported(StreetMode.CAR_TO_PARK));
+    assertFalse(LandmarkRemainingWeightHeuristic.isSupported(StreetMode.BIKE));
+  }
+
+  private void assertFewerStatesAndSameWeight(boolean arriveBy) {
+    Vertex from = grid[0][0];
+    Vertex to = grid[SIZE - 1][SIZE / 2];
+
+    var euclidean = search(new EuclideanRemainingWeightHeuristic(), from, to, arriveBy);
+    var landmark = search(
+      new LandmarkRemainingWeightHeuristic(graph.getCarLandmarks(), null),
+      from,
+      to,
+      arriveBy
+    );
+
+    var expected = euclidean.getPath(arriveBy ? from : to);
+    var actual = landmark.getPath(arriveBy ? from : to);
+    assertNotNull(expected);
+    assertNotNull(actual);
+    assertEquals(expected.getWeight(), actual.getWeight(), DELTA);
+
+    int nEuclidean = euclidean.getAllStates().size();
+    int nLandmark = landmark.getAllStates().size();
+    assertTrue(
+      nLandmark < nEuclidean,
+      "Landmark states: " + nLandmark + ", euclidean states: " + nEuclidean
+    );
+  }
+
+  private ShortestPathTree<State, Edge, Vertex> search(
+    RemainingWeightHeuristic<State> heuristic,
+    Vertex from,
+    Vertex to,
+    boolean arriveBy
+  ) {
+    var request = new RouteRequest();
+    request.setArriveBy(arriveBy);
+
+    return StreetSearchBuilder
+      .of()
+      .setHeuristic(heuristic)
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(StreetMode.CAR))
+      .setFrom(from)
+      .setTo(to)
+      .getShortestPathTree();
+  }
+
+  private static void edges(StreetVertex a, StreetVertex b) {
+    for (var it : new StreetVertex[][] { { a, b }, { b, a } }) {
+      StreetModelForTest
+        .streetEdgeBuilder(it[0], it[1], 555.0, StreetTraversalPermission.CAR)
+        .withCarSpeed(CAR_SPEED)
+        .buildAndConnect();
+    }
+  }
+}
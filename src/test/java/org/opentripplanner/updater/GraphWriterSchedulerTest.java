@@ -0,0 +1,179 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.spi.GraphWriterPriority;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+
+class GraphWriterSchedulerTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final GraphWriterScheduler subject = new GraphWriterScheduler(null, null, registry, 2);
+  private final List<String> runTasks = new CopyOnWriteArrayList<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    release.countDown();
+    subject.stop(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void tasksWithHigherPriorityRunFirst() throws Exception {
+    var low = subject.createQueue("low", GraphWriterPriority.LOW);
+    var normal = subject.createQueue("normal", GraphWriterPriority.NORMAL);
+    var high = subject.createQueue("high", GraphWriterPriority.HIGH);
+    blockWriter(normal);
+
+    low.execute(task("low-1"));
+    low.execute(task("low-2"));
+    normal.execute(task("normal"));
+    var last = high.execute(task("high"));
+    release.countDown();
+    await(last);
+    await(low.execute(task("low-3")));
+
+    assertEquals(List.of("high", "normal", "low-1", "low-2", "low-3"), runTasks);
+    assertEquals(3, registry.timer("graph_writer.wait_time", tags("low", "LOW")).count());
+    assertEquals(1, registry.timer("graph_writer.wait_time", tags("high", "HIGH")).count());
+  }
+
+  @Test
+  void supersedingTaskReplacesTheQueuedTasks() throws Exception {
+    var queue = subject.createQueue("rental", GraphWriterPriority.LOW);
+    blockWriter(subject.createQueue("trip", GraphWriterPriority.HIGH));
+
+    var first = queue.execute(task("1"));
+    var second = queue.execute(task("2"));
+    assertEquals(2.0, depth("rental"));
+    var snapshot = queue.execute(supersedingTask("snapshot"));
+    assertEquals(1.0, depth("rental"));
+    release.countDown();
+
+    await(snapshot);
+    await(first);
+    await(second);
+    assertEquals(List.of("snapshot"), runTasks);
+    assertEquals(2.0, registry.counter("graph_writer.coalesced", tags("rental", "LOW")).count());
+  }
+
+  @Test
+  void taskIsRejectedWhenTheQueueIsFull() throws Exception {
+    var queue = subject.createQueue("mqtt", GraphWriterPriority.HIGH);
+    blockWriter(subject.createQueue("other", GraphWriterPriority.HIGH));
+
+    queue.execute(task("1"));
+    var last = queue.execute(task("2"));
+    var rejected = queue.execute(task("3"));
+    release.countDown();
+
+    var error = assertThrows(ExecutionException.class, () -> await(rejected));
+    assertTrue(error.getCause() instanceof RejectedExecutionException);
+    await(last);
+    assertEquals(List.of("1", "2"), runTasks);
+    assertEquals(1.0, registry.counter("graph_writer.rejected", tags("mqtt", "HIGH")).count());
+  }
+
+  @Test
+  void failingTaskDoesNotStopTheWriter() throws Exception {
+    var queue = subject.createQueue("failing", GraphWriterPriority.NORMAL);
+
+    await(
+      queue.execute((graph, transitModel) -> {
+        throw new IllegalStateException("Expected by the test");
+      })
+    );
+    await(queue.execute(task("next")));
+
+    assertEquals(List.of("next"), runTasks);
+  }
+
+  @Test
+  void taskThrowingAnErrorDoesNotStopTheWriter() throws Exception {
+    var queue = subject.createQueue("error", GraphWriterPriority.NORMAL);
+
+    await(
+      queue.execute((graph, transitModel) -> {
+        throw new AssertionError("Expected by the test");
+      })
+    );
+    await(queue.execute(task("next")));
+
+    assertEquals(List.of("next"), runTasks);
+  }
+
+  @Test
+  void metersAreRemovedWhenTheSchedulerIsStopped() throws Exception {
+    subject.createQueue("default", GraphWriterPriority.NORMAL);
+    assertEquals(0.0, depth("default"));
+
+    subject.stop(Duration.ofSeconds(5));
+
+    assertTrue(registry.find("graph_writer.queue_depth").meters().isEmpty());
+    assertTrue(registry.find("graph_writer.wait_time").meters().isEmpty());
+    assertTrue(registry.find("graph_writer.coalesced").meters().isEmpty());
+    assertTrue(registry.find("graph_writer.rejected").meters().isEmpty());
+  }
+
+  /**
+   * Keep the writer thread busy until the test releases it, so the tasks submitted meanwhile are
+   * queued.
+   */
+  private void blockWriter(WriteToGraphCallback queue) throws InterruptedException {
+    var started = new CountDownLatch(1);
+    queue.execute((graph, transitModel) -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+  }
+
+  private GraphWriterRunnable task(String name) {
+    return (graph, transitModel) -> runTasks.add(name);
+  }
+
+  private GraphWriterRunnable supersedingTask(String name) {
+    return new GraphWriterRunnable() {
+      @Override
+      public void run(Graph graph, TransitModel transitModel) {
+        runTasks.add(name);
+      }
+
+      @Override
+      public boolean supersedesQueuedTasks() {
+        return true;
+      }
+    };
+  }
+
+  private double depth(String updater) {
+    return registry.get("graph_writer.queue_depth").tag("updater", updater).gauge().value();
+  }
+
+  private static String[] tags(String updater, String priority) {
+    return new String[] { "updater", updater, "priority", priority };
+  }
+
+  private static void await(Future<?> future) throws Exception {
+    future.get(5, TimeUnit.SECONDS);
+  }
+}
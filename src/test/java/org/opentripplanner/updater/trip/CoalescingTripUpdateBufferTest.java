@@ -0,0 +1,129 @@
+package org.opentripplanner.updater.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.common.util.concurrent.Futures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.updater.GraphWriterRunnable;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
+
+class CoalescingTripUpdateBufferTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final FakeGraphWriter graphWriter = new FakeGraphWriter();
+  private final List<Batch> batches = new ArrayList<>();
+
+  /** The updates are "<trip>:<version>", the key is the trip. Updates without a trip are "-" */
+  private final CoalescingTripUpdateBuffer<String> subject = new CoalescingTripUpdateBuffer<>(
+    new Parameters(),
+    registry,
+    update -> update.startsWith("-") ? null : update.substring(0, update.indexOf(':')),
+    (fullDataset, updates) -> batches.add(new Batch(fullDataset, updates))
+  );
+
+  @Test
+  void latestUpdateOfEachTripIsApplied() {
+    var future = subject.add(graphWriter, false, List.of("A:1", "B:1", "-"));
+    assertSame(future, subject.add(graphWriter, false, List.of("A:2", "-", "C:1")));
+    assertEquals(1, graphWriter.tasks.size());
+
+    graphWriter.runAll();
+
+    // A:2 takes the place of the latest update, not the place of A:1
+    assertEquals(List.of(new Batch(false, List.of("B:1", "-", "A:2", "-", "C:1"))), batches);
+    assertEquals(6.0, registry.counter("streaming_trip_updates.received", tags()).count());
+    assertEquals(1.0, registry.counter("streaming_trip_updates.coalesced", tags()).count());
+    assertEquals(5.0, registry.counter("streaming_trip_updates.applied", tags()).count());
+  }
+
+  @Test
+  void updatesAfterTheBatchIsTakenAreAppliedInTheNextBatch() {
+    subject.add(graphWriter, false, List.of("A:1"));
+    graphWriter.runAll();
+    subject.add(graphWriter, false, List.of("A:2"));
+    graphWriter.runAll();
+
+    assertEquals(
+      List.of(new Batch(false, List.of("A:1")), new Batch(false, List.of("A:2"))),
+      batches
+    );
+  }
+
+  @Test
+  void fullDatasetRemovesEarlierUpdates() {
+    subject.add(graphWriter, false, List.of("A:1", "B:1"));
+    subject.add(graphWriter, true, List.of("B:2", "C:1"));
+    subject.add(graphWriter, false, List.of("C:2"));
+    graphWriter.runAll();
+
+    assertEquals(List.of(new Batch(true, List.of("B:2", "C:2"))), batches);
+    assertEquals(3.0, registry.counter("streaming_trip_updates.coalesced", tags()).count());
+  }
+
+  @Test
+  void emptyFullDatasetIsApplied() {
+    subject.add(graphWriter, false, List.of("A:1"));
+    subject.add(graphWriter, true, List.of());
+    graphWriter.runAll();
+
+    assertEquals(List.of(new Batch(true, List.of())), batches);
+    assertEquals(0.0, registry.counter("streaming_trip_updates.applied", tags()).count());
+  }
+
+  @Test
+  void missingUrlAndFeedIdAreTaggedWithAnEmptyValue() {
+    var buffer = new CoalescingTripUpdateBuffer<String>(
+      new Parameters(null, null),
+      registry,
+      update -> update,
+      (fullDataset, updates) -> batches.add(new Batch(fullDataset, updates))
+    );
+    buffer.add(graphWriter, false, List.of("A:1"));
+
+    assertEquals(
+      1.0,
+      registry
+        .counter("streaming_trip_updates.received", "configRef", "ref", "url", "", "feedId", "")
+        .count()
+    );
+  }
+
+  private static String[] tags() {
+    return new String[] { "configRef", "ref", "url", "url", "feedId", "F" };
+  }
+
+  private record Batch(boolean fullDataset, List<String> updates) {}
+
+  private record Parameters(String url, String feedId) implements UrlUpdaterParameters {
+    private Parameters() {
+      this("url", "F");
+    }
+
+    @Override
+    public String configRef() {
+      return "ref";
+    }
+  }
+
+  private static class FakeGraphWriter implements WriteToGraphCallback {
+
+    private final List<GraphWriterRunnable> tasks = new ArrayList<>();
+
+    @Override
+    public Future<?> execute(GraphWriterRunnable runnable) {
+      tasks.add(runnable);
+      return Futures.immediateVoidFuture();
+    }
+
+    void runAll() {
+      var toRun = new ArrayList<>(tasks);
+      tasks.clear();
+      toRun.forEach(it -> it.run(null, null));
+    }
+  }
+}
@@ -50,6 +50,7 @@ import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GtfsRealtimeFuzzyTripMatcher;
 import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
+import org.opentripplanner.updater.spi.UpdateResult;
 import org.opentripplanner.updater.spi.UpdateSuccess.WarningType;
 
 public class TimetableSnapshotSourceTest {
@@ -497,6 +498,58 @@ public class TimetableSnapshotSourceTest {
       assertEquals(RealTimeState.SCHEDULED, forToday.getTripTimes(tripIndex2).getRealTimeState());
     }
 
+    @Test
+    public void manyUpdatesAreAppliedInOrder() {
+      final FeedScopedId tripId = new FeedScopedId(feedId, "1.1");
+      final Trip trip = transitModel.getTransitModelIndex().getTripForId().get(tripId);
+      final TripPattern pattern = transitModel.getTransitModelIndex().getPatternForTrip().get(trip);
+      final int tripIndex = pattern.getScheduledTimetable().getTripIndex(tripId);
+
+      // Enough updates to prepare them in parallel, the last update of the trip should win
+      int nUpdates = 200;
+      var tripUpdates = Stream
+        .iterate(1, delay -> delay + 1)
+        .limit(nUpdates)
+        .map(delay ->
+          new TripUpdateBuilder(
+            tripId.getId(),
+            SERVICE_DATE,
+            ScheduleRelationship.SCHEDULED,
+            transitModel.getTimeZone()
+          )
+            .addDelayedStopTime(2, delay)
+            .build()
+        )
+        .toList();
+
+      var prepareExecutor = TimetableSnapshotSource.createPrepareExecutor();
+      var updater = new TimetableSnapshotSource(
+        TimetableSnapshotSourceParameters.DEFAULT,
+        transitModel,
+        () -> SERVICE_DATE,
+        prepareExecutor
+      );
+
+      UpdateResult result;
+      try {
+        result =
+          updater.applyTripUpdates(
+            TRIP_MATCHER_NOOP,
+            REQUIRED_NO_DATA,
+            fullDataset,
+            tripUpdates,
+            feedId
+          );
+      } finally {
+        prepareExecutor.shutdownNow();
+      }
+
+      assertEquals(nUpdates, result.successful());
+      final Timetable forToday = updater.getTimetableSnapshot().resolve(pattern, SERVICE_DATE);
+      assertEquals(nUpdates, forToday.getTripTimes(tripIndex).getArrivalDelay(1));
+      assertEquals(RealTimeState.UPDATED, forToday.getTripTimes(tripIndex).getRealTimeState());
+    }
+
     @Test
     public void scheduled() {
       // GIVEN
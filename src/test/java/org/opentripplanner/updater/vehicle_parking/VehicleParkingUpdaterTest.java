@@ -25,6 +25,7 @@ import org.opentripplanner.updater.GraphUpdaterManager;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.spi.DataSource;
 import org.opentripplanner.updater.spi.GraphUpdater;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
 
 class VehicleParkingUpdaterTest {
 
@@ -267,7 +268,7 @@ class VehicleParkingUpdaterTest {
       }
 
       @Override
-      public Future<?> execute(GraphWriterRunnable runnable) {
+      protected Future<?> execute(WriteToGraphCallback queue, GraphWriterRunnable runnable) {
         runnable.run(graph, transitModel);
         return Futures.immediateVoidFuture();
       }
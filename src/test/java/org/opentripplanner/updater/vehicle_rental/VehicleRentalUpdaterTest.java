@@ -19,6 +19,7 @@ import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphUpdaterManager;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.spi.HttpHeaders;
+import org.opentripplanner.updater.spi.WriteToGraphCallback;
 import org.opentripplanner.updater.vehicle_rental.datasources.VehicleRentalDatasource;
 import org.opentripplanner.updater.vehicle_rental.datasources.params.VehicleRentalDataSourceParameters;
 
@@ -49,7 +50,7 @@ class VehicleRentalUpdaterTest {
     }
 
     @Override
-    public Future<?> execute(GraphWriterRunnable runnable) {
+    protected Future<?> execute(WriteToGraphCallback queue, GraphWriterRunnable runnable) {
       return Futures.immediateVoidFuture();
     }
   }